@@ -0,0 +1,53 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReactRoutingResolverBenchmark {
+    private Path staticDirectory;
+    private ReactRoutingForwarding.ReactRoutingResourceResolver resolver;
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+    // A built frontend is not part of the backend tree, so a small stand-in is laid out on disk.
+    @Setup
+    public void setUp() throws IOException {
+        staticDirectory = Files.createTempDirectory("fiturae-static");
+        Files.createDirectories(staticDirectory.resolve("assets"));
+        Files.writeString(staticDirectory.resolve("index.html"), "<!doctype html><div id=\"root\"></div>");
+        Files.writeString(staticDirectory.resolve("assets/index-3f2a1b9c.js"), "console.log('fiturae');");
+        Files.writeString(staticDirectory.resolve("assets/index-3f2a1b9c.js.gz"), "gzip");
+        resolver = new ReactRoutingForwarding.ReactRoutingResourceResolver(
+                new StaticAssetIndex(staticDirectory.toUri().toString()));
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(staticDirectory);
+    }
+
+    @Benchmark
+    public Resource resolveAsset() {
+        return resolver.resolveResource(request, "assets/index-3f2a1b9c.js", List.of(), null);
+    }
+
+    @Benchmark
+    public Resource resolveClientRoute() {
+        return resolver.resolveResource(request, "workouts/657c2f0e8a4b5d1e2f3a4b5c", List.of(), null);
+    }
+}
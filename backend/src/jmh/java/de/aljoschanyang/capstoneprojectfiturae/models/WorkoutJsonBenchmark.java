@@ -0,0 +1,76 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkoutJsonBenchmark {
+    // Mirrors the Jackson setup Spring Boot applies to the controllers.
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Param({"1", "8", "30"})
+    private int exerciseCount;
+
+    private Workout workout;
+    private byte[] workoutJson;
+    private byte[] workoutDetailsJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        List<WorkoutExercise> plan = IntStream.range(0, exerciseCount)
+                .mapToObj(i -> WorkoutExercise.builder()
+                        .name("Exercise " + i)
+                        .setCount(4)
+                        .repsPerSet(10)
+                        .weightInKg(42.5)
+                        .breakInSec(90)
+                        .build())
+                .toList();
+        workout = Workout.builder()
+                .id("657c2f0e8a4b5d1e2f3a4b5c")
+                .userId("12345678")
+                .name("Upper body")
+                .day(LocalDate.of(2023, 12, 15))
+                .description("Push and pull supersets")
+                .plan(plan)
+                .version(3L)
+                .build();
+        workoutJson = objectMapper.writeValueAsBytes(workout);
+        workoutDetailsJson = objectMapper.writeValueAsBytes(WorkoutDetails.builder()
+                .userId(workout.userId())
+                .name(workout.name())
+                .day(workout.day())
+                .description(workout.description())
+                .plan(plan)
+                .build());
+    }
+
+    @Benchmark
+    public byte[] serializeWorkout() throws Exception {
+        return objectMapper.writeValueAsBytes(workout);
+    }
+
+    @Benchmark
+    public Workout deserializeWorkout() throws Exception {
+        return objectMapper.readValue(workoutJson, Workout.class);
+    }
+
+    @Benchmark
+    public WorkoutDetails deserializeWorkoutDetails() throws Exception {
+        return objectMapper.readValue(workoutDetailsJson, WorkoutDetails.class);
+    }
+}
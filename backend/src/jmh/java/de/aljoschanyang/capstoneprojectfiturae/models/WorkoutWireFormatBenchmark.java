@@ -0,0 +1,98 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// mvn -Pjmh test-compile exec:exec -Djmh.args="WorkoutWireFormat"; payload sizes are logged once per trial.
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkoutWireFormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"8", "30"})
+    private int exerciseCount;
+
+    @Param({"1", "50"})
+    private int workoutCount;
+
+    private ObjectMapper objectMapper;
+    private List<Workout> workouts;
+    private byte[] workoutsBytes;
+    private byte[] workoutEditBytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        JsonFactory factory = switch (format) {
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> new JsonFactory();
+        };
+        // Mirrors the Jackson setup Spring Boot applies to the message converters.
+        objectMapper = new ObjectMapper(factory)
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        List<WorkoutExercise> plan = IntStream.range(0, exerciseCount)
+                .mapToObj(i -> WorkoutExercise.builder()
+                        .name("Exercise " + i)
+                        .setCount(4)
+                        .repsPerSet(10)
+                        .weightInKg(42.5)
+                        .breakInSec(90)
+                        .build())
+                .toList();
+        workouts = IntStream.range(0, workoutCount)
+                .mapToObj(i -> Workout.builder()
+                        .id("657c2f0e8a4b5d1e2f3a4b" + Integer.toHexString(0x10 + i))
+                        .userId("12345678")
+                        .name("Upper body " + i)
+                        .day(LocalDate.of(2023, 12, 15).plusDays(i))
+                        .description("Push and pull supersets")
+                        .plan(plan)
+                        .version(3L)
+                        .build())
+                .toList();
+        workoutsBytes = objectMapper.writeValueAsBytes(workouts);
+        workoutEditBytes = objectMapper.writeValueAsBytes(WorkoutEdit.builder()
+                .name("Upper body")
+                .day(LocalDate.of(2023, 12, 15))
+                .description("Push and pull supersets")
+                .plan(plan)
+                .version(3L)
+                .build());
+        log.info("{} payload: {} workouts x {} exercises = {} bytes, edit = {} bytes",
+                format, workoutCount, exerciseCount, workoutsBytes.length, workoutEditBytes.length);
+    }
+
+    @Benchmark
+    public byte[] encodeWorkouts() throws Exception {
+        return objectMapper.writeValueAsBytes(workouts);
+    }
+
+    @Benchmark
+    public Workout[] decodeWorkouts() throws Exception {
+        return objectMapper.readValue(workoutsBytes, Workout[].class);
+    }
+
+    @Benchmark
+    public WorkoutEdit decodeWorkoutEdit() throws Exception {
+        return objectMapper.readValue(workoutEditBytes, WorkoutEdit.class);
+    }
+}
@@ -0,0 +1,53 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.ExerciseNameCount;
+import de.aljoschanyang.capstoneprojectfiturae.models.ExerciseSuggestion;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExercisePrefixIndexBenchmark {
+    private static final String[] STEMS = {"bench press", "squat", "deadlift", "row", "curl", "press", "lunge", "pull up"};
+
+    @Param({"500", "5000"})
+    private int names;
+
+    private ExercisePrefixIndex index;
+    private SortedMap<String, ExerciseNameCount> deltas;
+
+    @Setup
+    public void setUp() {
+        List<ExerciseNameCount> counts = IntStream.range(0, names)
+                .mapToObj(i -> new ExerciseNameCount(STEMS[i % STEMS.length] + " variation " + i, 1 + i % 97))
+                .toList();
+        index = ExercisePrefixIndex.of(counts, names);
+        deltas = new TreeMap<>();
+        deltas.put("squat variation 1", new ExerciseNameCount("Squat variation 1", 1));
+        deltas.put("squat variation 42", new ExerciseNameCount("Squat variation 42", 1));
+    }
+
+    @Benchmark
+    public List<ExerciseSuggestion> suggestShortPrefix() {
+        return index.suggest("s", 10, true);
+    }
+
+    @Benchmark
+    public List<ExerciseSuggestion> suggestLongPrefix() {
+        return index.suggest("bench press variation 1", 10, true);
+    }
+
+    @Benchmark
+    public ExercisePrefixIndex applyWriteDeltas() {
+        return index.withDeltas(deltas, names);
+    }
+}
@@ -0,0 +1,149 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.AppUser;
+import de.aljoschanyang.capstoneprojectfiturae.models.PersonalRecord;
+import de.aljoschanyang.capstoneprojectfiturae.models.TrainingVolume;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutListVersion;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.AppUserRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.ExerciseCatalogRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.PersonalRecordRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.TrainingVolumeRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutArchiveRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutListVersionRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutRepo;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Map-backed stand-ins so the benchmarks measure the service code rather than a database round trip.
+final class InMemoryRepositories {
+    private InMemoryRepositories() {
+    }
+
+    static AppUserRepo appUserRepo(Map<String, AppUser> users) {
+        return (AppUserRepo) Proxy.newProxyInstance(AppUserRepo.class.getClassLoader(), new Class<?>[]{AppUserRepo.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.ofNullable(users.get((String) args[0]));
+                    case "existsById" -> users.containsKey((String) args[0]);
+                    case "save" -> {
+                        AppUser user = (AppUser) args[0];
+                        users.put(user.id(), user);
+                        yield user;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    static WorkoutRepo workoutRepo(Map<String, Workout> workouts) {
+        AtomicLong ids = new AtomicLong();
+        return (WorkoutRepo) Proxy.newProxyInstance(WorkoutRepo.class.getClassLoader(), new Class<?>[]{WorkoutRepo.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.ofNullable(workouts.get((String) args[0]));
+                    case "findWorkoutsByUserId" -> {
+                        List<Workout> result = new ArrayList<>();
+                        for (Workout workout : workouts.values()) {
+                            if (Objects.equals(workout.userId(), args[0])) {
+                                result.add(workout);
+                            }
+                        }
+                        yield result;
+                    }
+                    case "save" -> {
+                        Workout workout = (Workout) args[0];
+                        Workout saved = Workout.builder()
+                                .id(workout.id() == null ? Long.toHexString(ids.incrementAndGet()) : workout.id())
+                                .userId(workout.userId())
+                                .name(workout.name())
+                                .day(workout.day())
+                                .description(workout.description())
+                                .plan(workout.plan())
+                                .version(workout.version() == null ? 0L : workout.version() + 1)
+                                .build();
+                        workouts.put(saved.id(), saved);
+                        yield saved;
+                    }
+                    case "findVersionById" -> workouts.get((String) args[0]);
+                    case "deleteWorkoutById" -> workouts.remove((String) args[0]);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    // An empty cold tier, so reads that miss the hot one cost what a miss costs in production minus the round trip.
+    static WorkoutArchiveRepo workoutArchiveRepo() {
+        return (WorkoutArchiveRepo) Proxy.newProxyInstance(WorkoutArchiveRepo.class.getClassLoader(), new Class<?>[]{WorkoutArchiveRepo.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByWorkoutId" -> null;
+                    case "findByUserIdOrderByIdAsc", "findByWorkoutIds", "findAllById", "findDistinctUserIds" -> List.of();
+                    case "removeWorkouts" -> 0L;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    static ExerciseCatalogRepo exerciseCatalogRepo() {
+        return (ExerciseCatalogRepo) Proxy.newProxyInstance(ExerciseCatalogRepo.class.getClassLoader(), new Class<?>[]{ExerciseCatalogRepo.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByIdGreaterThanOrderByIdAsc" -> List.of();
+                    case "insert" -> args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    static WorkoutListVersionRepo workoutListVersionRepo() {
+        Map<String, WorkoutListVersion> versions = new ConcurrentHashMap<>();
+        return (WorkoutListVersionRepo) Proxy.newProxyInstance(WorkoutListVersionRepo.class.getClassLoader(), new Class<?>[]{WorkoutListVersionRepo.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.ofNullable(versions.get((String) args[0]));
+                    case "increment" -> versions.compute((String) args[0], (userId, current) ->
+                            new WorkoutListVersion(userId, current == null ? 1L : current.version() + 1, Instant.now()));
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    static TrainingVolumeRepo trainingVolumeRepo() {
+        Map<String, TrainingVolume> volumes = new ConcurrentHashMap<>();
+        return (TrainingVolumeRepo) Proxy.newProxyInstance(TrainingVolumeRepo.class.getClassLoader(), new Class<?>[]{TrainingVolumeRepo.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "incrementVolumes" -> {
+                        for (Object delta : (Collection<?>) args[0]) {
+                            TrainingVolume volume = (TrainingVolume) delta;
+                            volumes.merge(volume.id(), volume, (current, added) ->
+                                    current.toBuilder().volume(current.volume() + added.volume()).build());
+                        }
+                        yield null;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    static PersonalRecordRepo personalRecordRepo() {
+        Map<String, PersonalRecord> records = new ConcurrentHashMap<>();
+        return (PersonalRecordRepo) Proxy.newProxyInstance(PersonalRecordRepo.class.getClassLoader(), new Class<?>[]{PersonalRecordRepo.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.ofNullable(records.get((String) args[0]));
+                    case "save" -> {
+                        PersonalRecord record = (PersonalRecord) args[0];
+                        PersonalRecord saved = record.toBuilder().version(record.version() == null ? 0L : record.version() + 1).build();
+                        records.put(saved.id(), saved);
+                        yield saved;
+                    }
+                    case "delete" -> {
+                        records.remove(((PersonalRecord) args[0]).id());
+                        yield null;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    static Map<String, Workout> newWorkoutStore() {
+        return new ConcurrentHashMap<>();
+    }
+}
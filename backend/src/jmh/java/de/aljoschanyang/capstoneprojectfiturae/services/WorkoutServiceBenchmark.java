@@ -0,0 +1,117 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.AppUser;
+import de.aljoschanyang.capstoneprojectfiturae.models.AppUserDetails;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutDetails;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutEdit;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutExercise;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutListVersionRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutRepo;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkoutServiceBenchmark {
+    private static final String USER_ID = "12345678";
+    private static final LocalDate DAY = LocalDate.of(2023, 12, 15);
+
+    @Param({"10", "200"})
+    private int workoutsPerUser;
+
+    @Param({"10", "1000"})
+    private int users;
+
+    private WorkoutService workoutService;
+    private AppUserService appUserService;
+    private WorkoutCache workoutCache;
+    private WorkoutDetails workoutDetails;
+    private WorkoutEdit workoutEdit;
+    private AppUserDetails principal;
+    private String workoutId;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        Map<String, AppUser> userStore = new HashMap<>();
+        Map<String, Workout> workoutStore = InMemoryRepositories.newWorkoutStore();
+        appUserService = new AppUserService(InMemoryRepositories.appUserRepo(userStore), new PrincipalCache(10_000, Duration.ofMinutes(5)),
+                new KnownUserCache(10_000, Duration.ofMinutes(5)));
+        workoutCache = new WorkoutCache(10_000, 1_000, Duration.ofMinutes(1));
+        WorkoutRepo workoutRepo = InMemoryRepositories.workoutRepo(workoutStore);
+        WorkoutListVersionRepo workoutListVersionRepo = InMemoryRepositories.workoutListVersionRepo();
+        ExerciseCatalog exerciseCatalog = new ExerciseCatalog(InMemoryRepositories.exerciseCatalogRepo());
+        WorkoutArchiveService workoutArchiveService = new WorkoutArchiveService(workoutRepo, InMemoryRepositories.workoutArchiveRepo(),
+                exerciseCatalog, workoutCache, workoutListVersionRepo);
+        workoutService = new WorkoutService(workoutRepo, appUserService, workoutCache, workoutListVersionRepo,
+                List.of(new TrainingVolumeService(InMemoryRepositories.trainingVolumeRepo(), InMemoryRepositories.workoutRepo(workoutStore), appUserService, workoutArchiveService),
+                        new PersonalRecordService(InMemoryRepositories.personalRecordRepo(), InMemoryRepositories.workoutRepo(workoutStore), appUserService, workoutArchiveService)),
+                new WorkoutInsertCoalescer(workoutRepo, appUserService, exerciseCatalog, false, Duration.ZERO, 1), workoutArchiveService, exerciseCatalog);
+
+        List<WorkoutExercise> plan = IntStream.range(0, 8)
+                .mapToObj(i -> WorkoutExercise.builder().name("Exercise " + i).setCount(4).repsPerSet(10).weightInKg(40).breakInSec(90).build())
+                .toList();
+        for (int user = 0; user < users; user++) {
+            String userId = user == 0 ? USER_ID : "user" + user;
+            userStore.put(userId, AppUser.builder().id(userId).name("User " + user).imageUrl("img").build());
+            for (int i = 0; i < workoutsPerUser; i++) {
+                workoutService.addWorkout(WorkoutDetails.builder().userId(userId).name("Workout " + i).day(DAY.plusDays(i)).plan(plan).build());
+            }
+        }
+
+        workoutDetails = WorkoutDetails.builder().userId(USER_ID).name("Benchmark").day(DAY).plan(plan).build();
+        Workout workout = workoutService.addWorkout(workoutDetails);
+        workoutId = workout.id();
+        workoutEdit = WorkoutEdit.builder().name("Edited").day(DAY).plan(plan).version(workout.version()).build();
+        principal = AppUserDetails.builder().id(USER_ID).name("User 0").imageUrl("img").build();
+    }
+
+    @Benchmark
+    public List<Workout> getAllWorkoutsByUserIdCached() {
+        return workoutService.getAllWorkoutsByUserId(USER_ID);
+    }
+
+    @Benchmark
+    public List<Workout> getAllWorkoutsByUserIdUncached() {
+        workoutCache.onUserWorkoutsChanged(USER_ID);
+        return workoutService.getAllWorkoutsByUserId(USER_ID);
+    }
+
+    @Benchmark
+    public Workout getWorkoutByIdCached() {
+        return workoutService.getWorkoutById(workoutId);
+    }
+
+    @Benchmark
+    public Workout addWorkout() {
+        return workoutService.addWorkout(workoutDetails);
+    }
+
+    @Benchmark
+    public Workout editWorkout() {
+        Workout workout = workoutService.editWorkout(workoutId, workoutEdit);
+        workoutEdit = new WorkoutEdit(workoutEdit.name(), workoutEdit.day(), workoutEdit.description(), workoutEdit.plan(), workout.version());
+        return workout;
+    }
+
+    @Benchmark
+    public AppUser getUserById() {
+        return appUserService.getUserById(USER_ID);
+    }
+
+    @Benchmark
+    public AppUser resolveOAuthUser() {
+        return appUserService.resolveOAuthUser(principal);
+    }
+}
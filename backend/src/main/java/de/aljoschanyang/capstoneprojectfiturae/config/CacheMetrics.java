@@ -0,0 +1,49 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.CacheStats;
+import de.aljoschanyang.capstoneprojectfiturae.services.ExerciseNameService;
+import de.aljoschanyang.capstoneprojectfiturae.services.KnownUserCache;
+import de.aljoschanyang.capstoneprojectfiturae.services.PrincipalCache;
+import de.aljoschanyang.capstoneprojectfiturae.services.WorkoutCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+@Component
+@RequiredArgsConstructor
+public class CacheMetrics implements MeterBinder {
+    private final PrincipalCache principalCache;
+    private final KnownUserCache knownUserCache;
+    private final WorkoutCache workoutCache;
+    private final ExerciseNameService exerciseNameService;
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        bind(registry, "principals", principalCache::stats);
+        bind(registry, "knownUsers", knownUserCache::stats);
+        bind(registry, "workouts", workoutCache::workoutStats);
+        bind(registry, "workoutLists", workoutCache::workoutListStats);
+        bind(registry, "exerciseNames", exerciseNameService::userIndexStats);
+    }
+
+    private static void bind(MeterRegistry registry, String cache, Supplier<CacheStats> stats) {
+        FunctionCounter.builder("fiturae.cache.hits", stats, s -> s.get().hits())
+                .tag("cache", cache)
+                .register(registry);
+        FunctionCounter.builder("fiturae.cache.misses", stats, s -> s.get().misses())
+                .tag("cache", cache)
+                .register(registry);
+        FunctionCounter.builder("fiturae.cache.evictions", stats, s -> s.get().evictions())
+                .tag("cache", cache)
+                .register(registry);
+        Gauge.builder("fiturae.cache.size", stats, s -> s.get().size())
+                .tag("cache", cache)
+                .register(registry);
+    }
+}
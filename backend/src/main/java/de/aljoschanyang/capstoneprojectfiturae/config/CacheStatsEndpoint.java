@@ -0,0 +1,34 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.CacheStats;
+import de.aljoschanyang.capstoneprojectfiturae.services.ExerciseNameService;
+import de.aljoschanyang.capstoneprojectfiturae.services.KnownUserCache;
+import de.aljoschanyang.capstoneprojectfiturae.services.PrincipalCache;
+import de.aljoschanyang.capstoneprojectfiturae.services.WorkoutCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Served on the management port next to the metrics, not on the public API.
+@Component
+@Endpoint(id = "cachestats")
+@RequiredArgsConstructor
+public class CacheStatsEndpoint {
+    private final PrincipalCache principalCache;
+    private final WorkoutCache workoutCache;
+    private final ExerciseNameService exerciseNameService;
+    private final KnownUserCache knownUserCache;
+
+    @ReadOperation
+    public Map<String, CacheStats> cacheStats() {
+        return Map.of(
+                "principals", principalCache.stats(),
+                "knownUsers", knownUserCache.stats(),
+                "workouts", workoutCache.workoutStats(),
+                "workoutLists", workoutCache.workoutListStats(),
+                "exerciseNames", exerciseNameService.userIndexStats());
+    }
+}
@@ -0,0 +1,87 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.oauth2.client.web.AuthorizationRequestRepository;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+// The OAuth state has to survive the round trip to the provider, which may come back to a different node.
+public class CookieOAuth2AuthorizationRequestRepository implements AuthorizationRequestRepository<OAuth2AuthorizationRequest> {
+    static final String COOKIE_NAME = "fiturae_oauth2_request";
+    private static final Duration MAX_AGE = Duration.ofMinutes(5);
+
+    private final SignedCookies signedCookies;
+
+    record StoredAuthorizationRequest(
+            String authorizationUri,
+            String clientId,
+            String redirectUri,
+            Set<String> scopes,
+            String state,
+            Map<String, Object> additionalParameters,
+            Map<String, Object> attributes,
+            String authorizationRequestUri
+    ) {
+    }
+
+    CookieOAuth2AuthorizationRequestRepository(SignedCookies signedCookies) {
+        this.signedCookies = signedCookies;
+    }
+
+    @Override
+    public OAuth2AuthorizationRequest loadAuthorizationRequest(HttpServletRequest request) {
+        String state = request.getParameter(OAuth2ParameterNames.STATE);
+        if (state == null) {
+            return null;
+        }
+        return signedCookies.read(request, COOKIE_NAME, StoredAuthorizationRequest.class)
+                .filter(stored -> state.equals(stored.state()))
+                .map(CookieOAuth2AuthorizationRequestRepository::toAuthorizationRequest)
+                .orElse(null);
+    }
+
+    @Override
+    public void saveAuthorizationRequest(OAuth2AuthorizationRequest authorizationRequest, HttpServletRequest request,
+                                         HttpServletResponse response) {
+        if (authorizationRequest == null) {
+            signedCookies.delete(request, response, COOKIE_NAME);
+            return;
+        }
+        signedCookies.write(request, response, COOKIE_NAME, new StoredAuthorizationRequest(
+                authorizationRequest.getAuthorizationUri(),
+                authorizationRequest.getClientId(),
+                authorizationRequest.getRedirectUri(),
+                authorizationRequest.getScopes(),
+                authorizationRequest.getState(),
+                authorizationRequest.getAdditionalParameters(),
+                authorizationRequest.getAttributes(),
+                authorizationRequest.getAuthorizationRequestUri()), MAX_AGE);
+    }
+
+    @Override
+    public OAuth2AuthorizationRequest removeAuthorizationRequest(HttpServletRequest request, HttpServletResponse response) {
+        OAuth2AuthorizationRequest authorizationRequest = loadAuthorizationRequest(request);
+        if (authorizationRequest != null) {
+            signedCookies.delete(request, response, COOKIE_NAME);
+        }
+        return authorizationRequest;
+    }
+
+    private static OAuth2AuthorizationRequest toAuthorizationRequest(StoredAuthorizationRequest stored) {
+        return OAuth2AuthorizationRequest.authorizationCode()
+                .authorizationUri(stored.authorizationUri())
+                .clientId(stored.clientId())
+                .redirectUri(stored.redirectUri())
+                .scopes(stored.scopes())
+                .state(stored.state())
+                .additionalParameters(stored.additionalParameters())
+                .attributes(stored.attributes())
+                .authorizationRequestUri(stored.authorizationRequestUri())
+                .build();
+    }
+}
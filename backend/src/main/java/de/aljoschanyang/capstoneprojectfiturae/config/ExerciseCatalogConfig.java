@@ -0,0 +1,58 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.DailyExerciseVolume;
+import de.aljoschanyang.capstoneprojectfiturae.models.ExerciseNameCount;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutExercise;
+import de.aljoschanyang.capstoneprojectfiturae.services.ExerciseCatalog;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveBeforeConvertCallback;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+@Configuration
+public class ExerciseCatalogConfig {
+
+    // The catalog reads through a template that needs these conversions, hence the lazy reference.
+    @Bean
+    public MongoCustomConversions mongoCustomConversions(@Lazy ExerciseCatalog exerciseCatalog) {
+        return conversions(new ExerciseNameConverter(exerciseCatalog));
+    }
+
+    // Aggregations that group by the stored name read ids as well, so their result types convert them back.
+    // Dates keep the Spring Data codecs that the default conversions used.
+    public static MongoCustomConversions conversions(ExerciseNameConverter exerciseNameConverter) {
+        return MongoCustomConversions.create(config -> config
+                .useSpringDataJavaTimeCodecs()
+                .configurePropertyConversions(registrar -> registrar
+                        .registerConverter(WorkoutExercise.class, "name", exerciseNameConverter)
+                        .registerConverter(ExerciseNameCount.class, "name", exerciseNameConverter)
+                        .registerConverter(DailyExerciseVolume.class, "exercise", exerciseNameConverter)));
+    }
+
+    // Saves register new names before conversion; patches and unordered inserts register them in their services.
+    @Bean
+    public BeforeConvertCallback<Workout> exerciseCatalogCallback(@Lazy ExerciseCatalog exerciseCatalog) {
+        return (workout, collection) -> {
+            exerciseCatalog.registerExercisesOf(List.of(workout));
+            return workout;
+        };
+    }
+
+    // A new name costs a catalog insert, which should not run on the event loop.
+    @Bean
+    public ReactiveBeforeConvertCallback<Workout> reactiveExerciseCatalogCallback(@Lazy ExerciseCatalog exerciseCatalog) {
+        return (workout, collection) -> workout.plan() == null || workout.plan().isEmpty()
+                ? Mono.just(workout)
+                : Mono.fromCallable(() -> {
+                    exerciseCatalog.registerExercisesOf(List.of(workout));
+                    return workout;
+                }).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,142 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import com.mongodb.bulk.BulkWriteResult;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.services.ExerciseCatalog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.BasicUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
+
+// Rewrites plan entries that still store the exercise name. Reads accept both forms, so this may run at any time.
+// The queries use stored field names on raw documents, which keeps the name conversion out of the way.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExerciseCatalogMigration {
+    static final int BATCH_SIZE = 500;
+    static final String MIGRATIONS_COLLECTION = "migrations";
+    static final String MIGRATION_ID = "exercise_catalog";
+    private static final String PLAN_NAME = "workout_plan.name";
+
+    private final MongoTemplate mongoTemplate;
+    private final ExerciseCatalog exerciseCatalog;
+
+    @Value("${myapp.exercise-catalog.migrate-on-startup:true}")
+    private boolean migrateOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!migrateOnStartup) {
+            return;
+        }
+        try {
+            long migrated = migrate();
+            if (migrated > 0) {
+                log.info("Moved the exercise names of {} workouts to the catalog", migrated);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not migrate exercise names to the catalog", e);
+        }
+    }
+
+    // Pages by _id, so a workout that keeps failing its guard cannot stall the migration.
+    // New writes store ids, so after a pass in which every guard matched the unindexed scan is not run again.
+    public long migrate() {
+        if (mongoTemplate.exists(toMarkerQuery(), MIGRATIONS_COLLECTION)) {
+            return 0;
+        }
+        String collection = mongoTemplate.getCollectionName(Workout.class);
+        long migrated = 0;
+        boolean complete = true;
+        Object lastId = null;
+        List<Document> batch;
+        do {
+            batch = mongoTemplate.find(toLegacyQuery(lastId), Document.class, collection);
+            if (batch.isEmpty()) {
+                break;
+            }
+            lastId = batch.get(batch.size() - 1).get("_id");
+            exerciseCatalog.registerAll(legacyNames(batch));
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+            for (Document workout : batch) {
+                bulkOps.updateOne(toGuardQuery(workout), toUpdate(workout, exerciseCatalog::idOf));
+            }
+            BulkWriteResult result = bulkOps.execute();
+            migrated += result.getModifiedCount();
+            complete &= result.getMatchedCount() == batch.size();
+        } while (batch.size() == BATCH_SIZE);
+        if (complete) {
+            mongoTemplate.upsert(toMarkerQuery(), new BasicUpdate(new Document("$set", new Document("completed_at", new Date()))),
+                    MIGRATIONS_COLLECTION);
+        }
+        return migrated;
+    }
+
+    static Query toMarkerQuery() {
+        return new BasicQuery(new Document("_id", MIGRATION_ID));
+    }
+
+    static Query toLegacyQuery(Object afterId) {
+        Document filter = new Document(PLAN_NAME, new Document("$type", "string"));
+        if (afterId != null) {
+            filter.append("_id", new Document("$gt", afterId));
+        }
+        return new BasicQuery(filter, new Document(PLAN_NAME, 1))
+                .with(Sort.by("_id"))
+                .limit(BATCH_SIZE);
+    }
+
+    // Matches only while every rewritten entry still holds the name that was read.
+    static Query toGuardQuery(Document workout) {
+        Document filter = new Document("_id", workout.get("_id"));
+        forEachLegacyName(workout, (name, index) -> filter.append(positionalName(index), name));
+        return new BasicQuery(filter);
+    }
+
+    static Update toUpdate(Document workout, ToIntFunction<String> exerciseIds) {
+        Document set = new Document();
+        forEachLegacyName(workout, (name, index) -> set.append(positionalName(index), exerciseIds.applyAsInt(name)));
+        return new BasicUpdate(new Document("$set", set));
+    }
+
+    static Set<String> legacyNames(List<Document> workouts) {
+        Set<String> names = new LinkedHashSet<>();
+        workouts.forEach(workout -> forEachLegacyName(workout, (name, index) -> names.add(name)));
+        return names;
+    }
+
+    private static void forEachLegacyName(Document workout, ObjIntConsumer<String> consumer) {
+        List<?> plan = workout.get("workout_plan", List.class);
+        if (plan == null) {
+            return;
+        }
+        for (int index = 0; index < plan.size(); index++) {
+            if (plan.get(index) instanceof Document exercise && exercise.get("name") instanceof String name) {
+                consumer.accept(name, index);
+            }
+        }
+    }
+
+    private static String positionalName(int index) {
+        return "workout_plan." + index + ".name";
+    }
+}
@@ -0,0 +1,25 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import de.aljoschanyang.capstoneprojectfiturae.services.ExerciseCatalog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.convert.MongoConversionContext;
+import org.springframework.data.mongodb.core.convert.MongoValueConverter;
+
+// Names are stored as catalog ids. Strings are names written before the catalog existed and are read as they are.
+@RequiredArgsConstructor
+public class ExerciseNameConverter implements MongoValueConverter<String, Object> {
+    private final ExerciseCatalog exerciseCatalog;
+
+    @Override
+    public String read(Object value, MongoConversionContext context) {
+        if (value instanceof Number id) {
+            return exerciseCatalog.nameOf(id.intValue());
+        }
+        return exerciseCatalog.canonicalName(value.toString());
+    }
+
+    @Override
+    public Object write(String value, MongoConversionContext context) {
+        return exerciseCatalog.registeredIdOf(value);
+    }
+}
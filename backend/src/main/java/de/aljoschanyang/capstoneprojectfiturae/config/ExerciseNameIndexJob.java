@@ -0,0 +1,38 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import de.aljoschanyang.capstoneprojectfiturae.services.ExerciseNameService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExerciseNameIndexJob {
+    private final ExerciseNameService exerciseNameService;
+    private final TaskScheduler taskScheduler;
+
+    // Readiness is only reported once the ready listeners return, so the first scan is handed to the scheduler.
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleInitialRebuild() {
+        taskScheduler.schedule(this::rebuildGlobalIndex, Instant.now());
+    }
+
+    @Scheduled(cron = "${myapp.exercise-names.global-rebuild-cron:0 */30 * * * *}")
+    public void rebuildGlobalIndex() {
+        long start = System.nanoTime();
+        try {
+            int names = exerciseNameService.rebuildGlobalIndex();
+            log.info("Rebuilt the global exercise name index with {} names in {} ms", names, (System.nanoTime() - start) / 1_000_000);
+        } catch (DataAccessException e) {
+            log.warn("Could not rebuild the global exercise name index, keeping the previous one", e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public record IndexDriftReport(
+        String collection,
+        List<IndexDefinition> missing,
+        List<String> mismatched,
+        List<String> unexpected
+) {
+    private static final String ID_INDEX_NAME = "_id_";
+
+    public boolean hasDrift() {
+        return !missing.isEmpty() || !mismatched.isEmpty() || !unexpected.isEmpty();
+    }
+
+    public static IndexDriftReport compare(String collection, List<IndexDefinition> declared, List<IndexInfo> existing) {
+        List<IndexDefinition> missing = new ArrayList<>();
+        List<String> mismatched = new ArrayList<>();
+        List<String> unexpected = new ArrayList<>();
+
+        for (IndexDefinition definition : declared) {
+            String name = definition.getIndexOptions().getString("name");
+            IndexInfo sameName = existing.stream()
+                    .filter(info -> info.getName().equals(name))
+                    .findFirst()
+                    .orElse(null);
+            if (sameName == null) {
+                missing.add(definition);
+            } else if (!matches(definition, sameName)) {
+                mismatched.add(name);
+            }
+        }
+
+        for (IndexInfo info : existing) {
+            boolean isDeclared = declared.stream()
+                    .anyMatch(definition -> info.getName().equals(definition.getIndexOptions().getString("name")));
+            if (!isDeclared && !ID_INDEX_NAME.equals(info.getName())) {
+                unexpected.add(info.getName());
+            }
+        }
+
+        return new IndexDriftReport(collection, missing, mismatched, unexpected);
+    }
+
+    private static boolean matches(IndexDefinition definition, IndexInfo info) {
+        Document options = definition.getIndexOptions();
+        return keysOf(definition).equals(keysOf(info))
+                && options.getBoolean("unique", false) == info.isUnique()
+                && options.getBoolean("sparse", false) == info.isSparse();
+    }
+
+    private static Map<String, Integer> keysOf(IndexDefinition definition) {
+        Map<String, Integer> keys = new LinkedHashMap<>();
+        definition.getIndexKeys().forEach((key, direction) -> keys.put(key, ((Number) direction).intValue()));
+        return keys;
+    }
+
+    private static Map<String, Integer> keysOf(IndexInfo info) {
+        Map<String, Integer> keys = new LinkedHashMap<>();
+        for (IndexField field : info.getIndexFields()) {
+            keys.put(field.getKey(), Objects.equals(field.getDirection(), Sort.Direction.DESC) ? -1 : 1);
+        }
+        return keys;
+    }
+}
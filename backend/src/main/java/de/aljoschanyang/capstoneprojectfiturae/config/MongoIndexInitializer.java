@@ -0,0 +1,77 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.AppUser;
+import de.aljoschanyang.capstoneprojectfiturae.models.ExerciseCatalogEntry;
+import de.aljoschanyang.capstoneprojectfiturae.models.PersonalRecord;
+import de.aljoschanyang.capstoneprojectfiturae.models.TrainingVolume;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutArchive;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutSchedule;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MongoIndexInitializer {
+    static final List<Class<?>> INDEXED_ENTITIES = List.of(Workout.class, AppUser.class, TrainingVolume.class, PersonalRecord.class, ExerciseCatalogEntry.class, WorkoutArchive.class,
+            WorkoutSchedule.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${myapp.mongo.indexes.create-missing:true}")
+    private boolean createMissing;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureIndexes();
+    }
+
+    public List<IndexDriftReport> ensureIndexes() {
+        IndexResolver indexResolver = new MongoPersistentEntityIndexResolver(
+                (MongoMappingContext) mongoTemplate.getConverter().getMappingContext());
+
+        List<IndexDriftReport> reports = new ArrayList<>();
+        for (Class<?> entity : INDEXED_ENTITIES) {
+            IndexOperations indexOps = mongoTemplate.indexOps(entity);
+            List<IndexDefinition> declared = new ArrayList<>();
+            indexResolver.resolveIndexFor(entity).forEach(declared::add);
+
+            IndexDriftReport report = IndexDriftReport.compare(
+                    mongoTemplate.getCollectionName(entity), declared, indexOps.getIndexInfo());
+            logDrift(report);
+            if (createMissing) {
+                report.missing().forEach(indexOps::ensureIndex);
+            }
+            reports.add(report);
+        }
+        return reports;
+    }
+
+    private void logDrift(IndexDriftReport report) {
+        for (IndexDefinition missing : report.missing()) {
+            log.warn("Index {} on collection {} is missing{}", missing.getIndexOptions().getString("name"),
+                    report.collection(), createMissing ? ", creating it" : "");
+        }
+        for (String mismatched : report.mismatched()) {
+            log.warn("Index {} on collection {} differs from its declaration, drop it to let it be recreated",
+                    mismatched, report.collection());
+        }
+        for (String unexpected : report.unexpected()) {
+            log.warn("Index {} on collection {} is not declared on the entity", unexpected, report.collection());
+        }
+    }
+}
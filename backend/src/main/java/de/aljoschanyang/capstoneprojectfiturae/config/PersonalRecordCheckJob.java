@@ -0,0 +1,24 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.RecordCheckResult;
+import de.aljoschanyang.capstoneprojectfiturae.services.PersonalRecordService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PersonalRecordCheckJob {
+    private final PersonalRecordService personalRecordService;
+
+    // Disabled unless a cron expression is configured; mismatches are repaired and logged per user.
+    @Scheduled(cron = "${myapp.records.check-cron:-}")
+    public void checkRecords() {
+        int mismatched = personalRecordService.checkAll(true).stream()
+                .mapToInt(RecordCheckResult::mismatched)
+                .sum();
+        log.info("Checked personal records, repaired {} records", mismatched);
+    }
+}
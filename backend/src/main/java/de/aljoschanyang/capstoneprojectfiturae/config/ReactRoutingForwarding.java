@@ -1,32 +1,44 @@
 package de.aljoschanyang.capstoneprojectfiturae.config;
 
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
-import org.springframework.web.servlet.resource.PathResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
 
-import java.io.IOException;
+import java.util.List;
 
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@AllArgsConstructor
 public class ReactRoutingForwarding implements WebMvcConfigurer {
 
-    public static final String DEFAULT_STARTING_PAGE = "static/index.html";
+    private StaticAssetIndex staticAssetIndex;
 
-    static class ReactRoutingPathResourceResolver extends PathResourceResolver {
-        @Override
-        protected Resource getResource(@NonNull String resourcePath, Resource location) throws IOException {
-            var requestedResource = location.createRelative(resourcePath);
+    @AllArgsConstructor
+    static class ReactRoutingResourceResolver implements ResourceResolver {
+        private final StaticAssetIndex index;
 
-            // Is this a request to a real file?
-            if (requestedResource.exists() && requestedResource.isReadable()) {
-                return requestedResource;
-            }
+        // Real files come from the index; any other path is a frontend route (Single-Page-Application).
+        @Override
+        public Resource resolveResource(HttpServletRequest request, @NonNull String requestPath,
+                                        @NonNull List<? extends Resource> locations, @NonNull ResourceResolverChain chain) {
+            String acceptEncoding = request == null ? null : request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+            return index.resolve(requestPath)
+                    .map(asset -> asset.select(acceptEncoding))
+                    .orElse(null);
+        }
 
-            // It seems to be only a frontend-routing request (Single-Page-Application).
-            return new ClassPathResource(DEFAULT_STARTING_PAGE);
+        @Override
+        public String resolveUrlPath(@NonNull String resourcePath, @NonNull List<? extends Resource> locations,
+                                     @NonNull ResourceResolverChain chain) {
+            return index.find(resourcePath).isPresent() ? resourcePath : null;
         }
     }
 
@@ -34,7 +46,7 @@ public class ReactRoutingForwarding implements WebMvcConfigurer {
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         registry.addResourceHandler("/**")
                 .addResourceLocations("classpath:/static/")
-                .resourceChain(true)
-                .addResolver(new ReactRoutingPathResourceResolver());
+                .resourceChain(false)
+                .addResolver(new ReactRoutingResourceResolver(staticAssetIndex));
     }
-}
\ No newline at end of file
+}
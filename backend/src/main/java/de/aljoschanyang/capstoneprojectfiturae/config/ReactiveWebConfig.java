@@ -0,0 +1,61 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.web.reactive.config.ResourceHandlerRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.resource.ResourceResolver;
+import org.springframework.web.reactive.resource.ResourceResolverChain;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@AllArgsConstructor
+public class ReactiveWebConfig implements WebFluxConfigurer {
+
+    private StaticAssetIndex staticAssetIndex;
+
+    // Tomcat is on the classpath for the servlet mode and would otherwise be picked; Netty keeps slow clients off threads.
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @AllArgsConstructor
+    static class ReactRoutingResourceResolver implements ResourceResolver {
+        private final StaticAssetIndex index;
+
+        @Override
+        @NonNull
+        public Mono<Resource> resolveResource(ServerWebExchange exchange, @NonNull String requestPath,
+                                              @NonNull List<? extends Resource> locations, @NonNull ResourceResolverChain chain) {
+            String acceptEncoding = exchange == null ? null : exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING);
+            return Mono.justOrEmpty(index.resolve(requestPath))
+                    .map(asset -> asset.select(acceptEncoding));
+        }
+
+        @Override
+        @NonNull
+        public Mono<String> resolveUrlPath(@NonNull String resourcePath, @NonNull List<? extends Resource> locations,
+                                           @NonNull ResourceResolverChain chain) {
+            return index.find(resourcePath).isPresent() ? Mono.just(resourcePath) : Mono.empty();
+        }
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler("/**")
+                .addResourceLocations("classpath:/static/")
+                .resourceChain(false)
+                .addResolver(new ReactRoutingResourceResolver(staticAssetIndex));
+    }
+}
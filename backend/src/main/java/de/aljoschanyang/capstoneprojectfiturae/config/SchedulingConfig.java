@@ -0,0 +1,10 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// The maintenance jobs only run when their cron property is set.
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
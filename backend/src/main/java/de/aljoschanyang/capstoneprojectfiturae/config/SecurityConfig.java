@@ -1,6 +1,10 @@
 package de.aljoschanyang.capstoneprojectfiturae.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
@@ -8,29 +12,83 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.web.OAuth2AuthorizedClientRepository;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 
+import java.time.Clock;
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class SecurityConfig {
 
     @Value("${myapp.frontend.url}")
     private String frontendUrl;
 
+    @Value("${myapp.session.mode:servlet}")
+    private String sessionMode;
+
+    @Value("${myapp.session.secret:}")
+    private String sessionSecret;
+
+    @Value("${myapp.session.ttl:12h}")
+    private Duration sessionTtl;
+
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, ObjectMapper objectMapper) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(a -> a
                         .requestMatchers("/api/**").authenticated()
                         .anyRequest().permitAll()
                 )
-                .sessionManagement(s -> s.sessionCreationPolicy(SessionCreationPolicy.ALWAYS))
                 .exceptionHandling(exceptionHandlingConfigurer ->
                         exceptionHandlingConfigurer.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
                 .logout(l -> l.logoutSuccessUrl(frontendUrl).permitAll())
                 .oauth2Login(o -> o.defaultSuccessUrl(frontendUrl + "home", true));
+
+        if ("stateless".equals(sessionMode)) {
+            configureStatelessSessions(http, new SignedCookies(new SessionTokenCodec(sessionSecret), objectMapper));
+        } else {
+            // Anonymous requests, static assets included, no longer get a session of their own.
+            http.sessionManagement(s -> s.sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED));
+        }
         return http.build();
     }
+
+    // Nothing about a login is kept on the node, so requests can be balanced round-robin without sticky sessions.
+    private void configureStatelessSessions(HttpSecurity http, SignedCookies signedCookies) throws Exception {
+        http
+                .sessionManagement(s -> s.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .securityContext(c -> c.securityContextRepository(
+                        new SignedCookieSecurityContextRepository(signedCookies, sessionTtl, Clock.systemUTC())))
+                .logout(l -> l.deleteCookies(SignedCookieSecurityContextRepository.COOKIE_NAME))
+                .oauth2Login(o -> o
+                        .authorizationEndpoint(a -> a.authorizationRequestRepository(new CookieOAuth2AuthorizationRequestRepository(signedCookies)))
+                        .authorizedClientRepository(new DiscardingAuthorizedClientRepository()));
+    }
+
+    // The GitHub token is only needed to read the profile during login, so it is not kept in node memory.
+    static class DiscardingAuthorizedClientRepository implements OAuth2AuthorizedClientRepository {
+        @Override
+        public <T extends OAuth2AuthorizedClient> T loadAuthorizedClient(String clientRegistrationId, Authentication principal,
+                                                                         HttpServletRequest request) {
+            return null;
+        }
+
+        @Override
+        public void saveAuthorizedClient(OAuth2AuthorizedClient authorizedClient, Authentication principal,
+                                         HttpServletRequest request, HttpServletResponse response) {
+            // Intentionally not stored.
+        }
+
+        @Override
+        public void removeAuthorizedClient(String clientRegistrationId, Authentication principal,
+                                           HttpServletRequest request, HttpServletResponse response) {
+        }
+    }
 }
@@ -0,0 +1,102 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.DeferredSecurityContext;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.web.context.HttpRequestResponseHolder;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Only the profile attributes the app reads are kept, so the cookie stays well below the browser's size limit.
+public class SignedCookieSecurityContextRepository implements SecurityContextRepository {
+    static final String COOKIE_NAME = "fiturae_session";
+    static final List<String> STORED_ATTRIBUTES = List.of("id", "login", "avatar_url");
+    private static final String NAME_ATTRIBUTE = "id";
+
+    private final SignedCookies signedCookies;
+    private final Duration ttl;
+    private final Clock clock;
+
+    record SessionToken(String registrationId, Map<String, Object> attributes, long expiresAt) {
+    }
+
+    SignedCookieSecurityContextRepository(SignedCookies signedCookies, Duration ttl, Clock clock) {
+        this.signedCookies = signedCookies;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    @Override
+    public DeferredSecurityContext loadDeferredContext(HttpServletRequest request) {
+        Supplier<SecurityContext> storedContext = SingletonSupplier.ofNullable(() -> readContext(request));
+        return new DeferredSecurityContext() {
+            @Override
+            public SecurityContext get() {
+                SecurityContext context = storedContext.get();
+                return context != null ? context : SecurityContextHolder.createEmptyContext();
+            }
+
+            @Override
+            public boolean isGenerated() {
+                return storedContext.get() == null;
+            }
+        };
+    }
+
+    @Override
+    @Deprecated
+    public SecurityContext loadContext(HttpRequestResponseHolder requestResponseHolder) {
+        return loadDeferredContext(requestResponseHolder.getRequest()).get();
+    }
+
+    @Override
+    public void saveContext(SecurityContext context, HttpServletRequest request, HttpServletResponse response) {
+        if (!(context.getAuthentication() instanceof OAuth2AuthenticationToken token)) {
+            return;
+        }
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        for (String attribute : STORED_ATTRIBUTES) {
+            Object value = token.getPrincipal().getAttribute(attribute);
+            if (value != null) {
+                attributes.put(attribute, value);
+            }
+        }
+        long expiresAt = clock.instant().plus(ttl).getEpochSecond();
+        signedCookies.write(request, response, COOKIE_NAME,
+                new SessionToken(token.getAuthorizedClientRegistrationId(), attributes, expiresAt), ttl);
+    }
+
+    @Override
+    public boolean containsContext(HttpServletRequest request) {
+        return readContext(request) != null;
+    }
+
+    private SecurityContext readContext(HttpServletRequest request) {
+        return signedCookies.read(request, COOKIE_NAME, SessionToken.class)
+                .filter(sessionToken -> sessionToken.expiresAt() > clock.instant().getEpochSecond())
+                .filter(sessionToken -> sessionToken.attributes() != null && sessionToken.attributes().containsKey(NAME_ATTRIBUTE))
+                .map(SignedCookieSecurityContextRepository::toContext)
+                .orElse(null);
+    }
+
+    private static SecurityContext toContext(SessionToken sessionToken) {
+        var authorities = AuthorityUtils.createAuthorityList("OAUTH2_USER");
+        DefaultOAuth2User user = new DefaultOAuth2User(authorities, sessionToken.attributes(), NAME_ATTRIBUTE);
+        Authentication authentication = new OAuth2AuthenticationToken(user, authorities, sessionToken.registrationId());
+        return new SecurityContextImpl(authentication);
+    }
+}
@@ -0,0 +1,66 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+class SignedCookies {
+    private final SessionTokenCodec codec;
+    private final ObjectMapper objectMapper;
+
+    SignedCookies(SessionTokenCodec codec, ObjectMapper objectMapper) {
+        this.codec = codec;
+        this.objectMapper = objectMapper;
+    }
+
+    <T> Optional<T> read(HttpServletRequest request, String name, Class<T> type) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return Optional.empty();
+        }
+        return Arrays.stream(cookies)
+                .filter(cookie -> name.equals(cookie.getName()))
+                .findFirst()
+                .flatMap(cookie -> codec.decode(cookie.getValue()))
+                .flatMap(payload -> {
+                    try {
+                        return Optional.of(objectMapper.readValue(payload, type));
+                    } catch (IOException e) {
+                        return Optional.empty();
+                    }
+                });
+    }
+
+    void write(HttpServletRequest request, HttpServletResponse response, String name, Object value, Duration maxAge) {
+        try {
+            addCookie(request, response, name, codec.encode(objectMapper.writeValueAsBytes(value)), maxAge);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void delete(HttpServletRequest request, HttpServletResponse response, String name) {
+        addCookie(request, response, name, "", Duration.ZERO);
+    }
+
+    // Lax still sends the cookie on the top-level redirect back from the OAuth provider.
+    private static void addCookie(HttpServletRequest request, HttpServletResponse response, String name, String value, Duration maxAge) {
+        response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(name, value)
+                .path("/")
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite("Lax")
+                .maxAge(maxAge)
+                .build()
+                .toString());
+    }
+}
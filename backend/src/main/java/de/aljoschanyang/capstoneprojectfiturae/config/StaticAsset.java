@@ -0,0 +1,52 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import java.util.Map;
+
+record StaticAsset(
+        String path,
+        String filename,
+        byte[] content,
+        Map<String, byte[]> encodedContent,
+        String cacheControl,
+        long lastModified
+) {
+    // Preference order when the client accepts several encodings.
+    static final String[] ENCODINGS = {"br", "gzip"};
+
+    StaticAssetResource select(String acceptEncoding) {
+        if (acceptEncoding != null && !encodedContent.isEmpty()) {
+            for (String encoding : ENCODINGS) {
+                byte[] encoded = encodedContent.get(encoding);
+                if (encoded != null && accepts(acceptEncoding, encoding)) {
+                    return new StaticAssetResource(this, encoded, encoding);
+                }
+            }
+        }
+        return new StaticAssetResource(this, content, null);
+    }
+
+    static boolean accepts(String acceptEncoding, String encoding) {
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            if (tokens[0].trim().equalsIgnoreCase(encoding)) {
+                for (int i = 1; i < tokens.length; i++) {
+                    String parameter = tokens[i].trim();
+                    if (parameter.startsWith("q=") && !(quality(parameter.substring(2)) > 0)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // A malformed weight comes from the client, so that encoding is skipped instead of failing the request.
+    private static double quality(String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+// The bundled frontend is read once at startup, so serving a file or an SPA route never touches the classpath.
+@Slf4j
+@Component
+public class StaticAssetIndex {
+    static final String STARTING_PAGE = "index.html";
+
+    // Vite writes content-hashed bundles as assets/<name>-<hash>.<ext>.
+    private static final Pattern FINGERPRINTED = Pattern.compile("assets/.+-[A-Za-z0-9_-]{8,}\\.[a-z0-9]+");
+    private static final Map<String, String> ENCODING_SUFFIXES = Map.of(".br", "br", ".gz", "gzip");
+    private static final String IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable().getHeaderValue();
+    private static final String REVALIDATE = CacheControl.noCache().getHeaderValue();
+
+    private final Map<String, StaticAsset> assets;
+
+    @Autowired
+    public StaticAssetIndex(@Value("${myapp.static.location:classpath:/static/}") String location) {
+        this(new PathMatchingResourcePatternResolver(), location);
+    }
+
+    StaticAssetIndex(ResourcePatternResolver resourceResolver, String location) {
+        try {
+            this.assets = load(resourceResolver, location.endsWith("/") ? location : location + "/");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("Indexed {} static assets from {}", assets.size(), location);
+    }
+
+    Optional<StaticAsset> find(String path) {
+        return Optional.ofNullable(assets.get(path));
+    }
+
+    // Missing files under assets/ stay 404 so a stale bundle URL is never answered with a cacheable index.html.
+    Optional<StaticAsset> resolve(String path) {
+        StaticAsset asset = assets.get(path);
+        if (asset != null || path.startsWith("assets/")) {
+            return Optional.ofNullable(asset);
+        }
+        return Optional.ofNullable(assets.get(STARTING_PAGE));
+    }
+
+    public int size() {
+        return assets.size();
+    }
+
+    static boolean isFingerprinted(String path) {
+        return FINGERPRINTED.matcher(path).matches();
+    }
+
+    private static Map<String, StaticAsset> load(ResourcePatternResolver resourceResolver, String location) throws IOException {
+        Resource root = resourceResolver.getResource(location);
+        if (!root.exists()) {
+            return Map.of();
+        }
+        String rootUrl = root.getURL().toString();
+        Map<String, byte[]> files = new HashMap<>();
+        Map<String, Long> lastModified = new HashMap<>();
+        for (Resource resource : resourceResolver.getResources(location + "**")) {
+            String url = resource.getURL().toString();
+            if (url.endsWith("/") || !url.startsWith(rootUrl) || !resource.isReadable()) {
+                continue;
+            }
+            String path = url.substring(rootUrl.length());
+            try (var inputStream = resource.getInputStream()) {
+                files.put(path, inputStream.readAllBytes());
+            }
+            lastModified.put(path, lastModified(resource));
+        }
+
+        Map<String, StaticAsset> index = new HashMap<>();
+        files.forEach((path, content) -> {
+            if (isEncodedVariant(path, files)) {
+                return;
+            }
+            Map<String, byte[]> encodedContent = new HashMap<>();
+            ENCODING_SUFFIXES.forEach((suffix, encoding) -> {
+                byte[] encoded = files.get(path + suffix);
+                if (encoded != null) {
+                    encodedContent.put(encoding, encoded);
+                }
+            });
+            index.put(path, new StaticAsset(
+                    path,
+                    path.substring(path.lastIndexOf('/') + 1),
+                    content,
+                    Map.copyOf(encodedContent),
+                    isFingerprinted(path) ? IMMUTABLE : REVALIDATE,
+                    lastModified.get(path)));
+        });
+        return Map.copyOf(index);
+    }
+
+    private static boolean isEncodedVariant(String path, Map<String, byte[]> files) {
+        return ENCODING_SUFFIXES.keySet().stream()
+                .anyMatch(suffix -> path.endsWith(suffix) && files.containsKey(path.substring(0, path.length() - suffix.length())));
+    }
+
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.resource.HttpResource;
+
+import java.util.List;
+
+// Implements the servlet and the reactive HttpResource so both resource handlers copy the headers.
+class StaticAssetResource extends ByteArrayResource
+        implements HttpResource, org.springframework.web.reactive.resource.HttpResource {
+    private final StaticAsset asset;
+    private final String encoding;
+
+    StaticAssetResource(StaticAsset asset, byte[] content, String encoding) {
+        super(content, asset.path());
+        this.asset = asset;
+        this.encoding = encoding;
+    }
+
+    String getEncoding() {
+        return encoding;
+    }
+
+    @Override
+    public String getFilename() {
+        return asset.filename();
+    }
+
+    @Override
+    public long lastModified() {
+        return asset.lastModified();
+    }
+
+    @Override
+    @NonNull
+    public HttpHeaders getResponseHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(asset.cacheControl());
+        if (!asset.encodedContent().isEmpty()) {
+            headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+        }
+        if (encoding != null) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, encoding);
+        }
+        return headers;
+    }
+}
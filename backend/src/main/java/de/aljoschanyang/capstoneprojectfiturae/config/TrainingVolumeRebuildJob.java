@@ -0,0 +1,22 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import de.aljoschanyang.capstoneprojectfiturae.services.TrainingVolumeService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TrainingVolumeRebuildJob {
+    private final TrainingVolumeService trainingVolumeService;
+
+    // Disabled unless a cron expression is configured; it repairs rollups that missed a delta.
+    @Scheduled(cron = "${myapp.rollups.rebuild-cron:-}")
+    public void rebuildRollups() {
+        long start = System.nanoTime();
+        int rows = trainingVolumeService.rebuildAll();
+        log.info("Rebuilt {} training volume rollups in {} ms", rows, (System.nanoTime() - start) / 1_000_000);
+    }
+}
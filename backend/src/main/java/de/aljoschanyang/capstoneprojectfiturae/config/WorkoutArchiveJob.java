@@ -0,0 +1,33 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import de.aljoschanyang.capstoneprojectfiturae.services.WorkoutArchiveService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WorkoutArchiveJob {
+    private final WorkoutArchiveService workoutArchiveService;
+    private final Period minAge;
+
+    public WorkoutArchiveJob(WorkoutArchiveService workoutArchiveService,
+                             @Value("${myapp.archive.min-age:1y}") Period minAge) {
+        this.workoutArchiveService = workoutArchiveService;
+        this.minAge = minAge;
+    }
+
+    // Disabled unless a cron expression is configured; it moves workouts older than the minimum age into the cold tier.
+    @Scheduled(cron = "${myapp.archive.cron:-}")
+    public void archiveWorkouts() {
+        long start = System.nanoTime();
+        int archived = workoutArchiveService.archiveOlderThan(LocalDate.now().minus(minAge));
+        log.info("Archived {} workouts in {} ms", archived, (System.nanoTime() - start) / 1_000_000);
+    }
+}
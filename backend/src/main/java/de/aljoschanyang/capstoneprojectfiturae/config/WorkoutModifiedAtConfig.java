@@ -0,0 +1,33 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveBeforeConvertCallback;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+// Stamps every saved or inserted workout; patches set the field with $currentDate instead.
+@Configuration
+public class WorkoutModifiedAtConfig {
+
+    @Bean
+    public BeforeConvertCallback<Workout> workoutModifiedAtCallback() {
+        return (workout, collection) -> stamp(workout);
+    }
+
+    @Bean
+    public ReactiveBeforeConvertCallback<Workout> reactiveWorkoutModifiedAtCallback() {
+        return (workout, collection) -> Mono.just(stamp(workout));
+    }
+
+    // MongoDB stores milliseconds, so the returned entity matches what a later read yields.
+    static Workout stamp(Workout workout) {
+        return workout.toBuilder()
+                .modifiedAt(Instant.now().truncatedTo(ChronoUnit.MILLIS))
+                .build();
+    }
+}
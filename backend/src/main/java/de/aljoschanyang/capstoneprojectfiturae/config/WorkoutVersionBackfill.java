@@ -0,0 +1,34 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkoutVersionBackfill implements SmartInitializingSingleton {
+    private final MongoTemplate mongoTemplate;
+
+    // Workouts stored before versioning would otherwise be treated as new and re-inserted on their next save,
+    // so this runs while the context starts, before the web server takes requests.
+    @Override
+    public void afterSingletonsInstantiated() {
+        backfillVersions();
+    }
+
+    public void backfillVersions() {
+        long updated = mongoTemplate.updateMulti(query(where("version").exists(false)),
+                new Update().set("version", 0L), Workout.class).getModifiedCount();
+        if (updated > 0) {
+            log.info("Initialized the version of {} workouts", updated);
+        }
+    }
+}
@@ -4,11 +4,13 @@ import de.aljoschanyang.capstoneprojectfiturae.models.AppUser;
 import de.aljoschanyang.capstoneprojectfiturae.models.AppUserDetails;
 import de.aljoschanyang.capstoneprojectfiturae.services.AppUserService;
 import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
 @RequestMapping("/api/users")
 @AllArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class AppUserController {
     private AppUserService appUserService;
 
@@ -4,6 +4,7 @@ import de.aljoschanyang.capstoneprojectfiturae.models.AppUser;
 import de.aljoschanyang.capstoneprojectfiturae.models.AppUserDetails;
 import de.aljoschanyang.capstoneprojectfiturae.services.AppUserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,6 +14,7 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class AuthController {
 
     private final AppUserService appUserService;
@@ -28,7 +30,7 @@ public class AuthController {
                     .imageUrl(defaultOAuth2User.getAttributes().get("avatar_url").toString())
                     .build();
 
-            return appUserService.addUser(appUserDetails);
+            return appUserService.resolveOAuthUser(appUserDetails);
         }
 
         throw new IllegalArgumentException("No user logged in");
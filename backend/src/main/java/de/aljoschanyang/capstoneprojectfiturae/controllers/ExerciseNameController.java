@@ -0,0 +1,24 @@
+package de.aljoschanyang.capstoneprojectfiturae.controllers;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.ExerciseSuggestion;
+import de.aljoschanyang.capstoneprojectfiturae.services.ExerciseNameService;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/exercises")
+@AllArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ExerciseNameController {
+    private ExerciseNameService exerciseNameService;
+
+    @GetMapping("/{userId}/suggestions")
+    public List<ExerciseSuggestion> suggestExerciseNames(@PathVariable String userId,
+                                                         @RequestParam(defaultValue = "") String prefix,
+                                                         @RequestParam(defaultValue = "10") int limit) {
+        return exerciseNameService.suggest(userId, prefix, limit);
+    }
+}
@@ -0,0 +1,34 @@
+package de.aljoschanyang.capstoneprojectfiturae.controllers;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.PersonalRecordSummary;
+import de.aljoschanyang.capstoneprojectfiturae.models.RecordCheckResult;
+import de.aljoschanyang.capstoneprojectfiturae.services.PersonalRecordService;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/records")
+@AllArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class PersonalRecordController {
+    private PersonalRecordService personalRecordService;
+
+    @GetMapping("/{userId}")
+    public List<PersonalRecordSummary> getRecords(@PathVariable String userId) {
+        return personalRecordService.getRecords(userId);
+    }
+
+    @GetMapping("/{userId}/exercise")
+    public PersonalRecordSummary getRecord(@PathVariable String userId, @RequestParam String name) {
+        return personalRecordService.getRecord(userId, name);
+    }
+
+    @PostMapping("/{userId}/check")
+    public RecordCheckResult checkRecords(@PathVariable String userId,
+                                          @RequestParam(defaultValue = "false") boolean repair) {
+        return personalRecordService.check(userId, repair);
+    }
+}
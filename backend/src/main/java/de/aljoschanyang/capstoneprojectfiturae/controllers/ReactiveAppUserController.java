@@ -0,0 +1,27 @@
+package de.aljoschanyang.capstoneprojectfiturae.controllers;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.AppUser;
+import de.aljoschanyang.capstoneprojectfiturae.models.AppUserDetails;
+import de.aljoschanyang.capstoneprojectfiturae.services.ReactiveAppUserService;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/users")
+@AllArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAppUserController {
+    private ReactiveAppUserService appUserService;
+
+    @PostMapping
+    public Mono<AppUser> addUser(@RequestBody AppUserDetails appUserDetails) {
+        return appUserService.addUser(appUserDetails);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<AppUser> getUserById(@PathVariable String id) {
+        return appUserService.getUserById(id);
+    }
+}
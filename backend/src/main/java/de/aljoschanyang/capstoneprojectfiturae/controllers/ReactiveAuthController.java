@@ -0,0 +1,37 @@
+package de.aljoschanyang.capstoneprojectfiturae.controllers;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.AppUser;
+import de.aljoschanyang.capstoneprojectfiturae.models.AppUserDetails;
+import de.aljoschanyang.capstoneprojectfiturae.services.ReactiveAppUserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthController {
+
+    private final ReactiveAppUserService appUserService;
+
+    @GetMapping("/me")
+    public Mono<AppUser> getMe(@AuthenticationPrincipal OAuth2User principal) {
+        if (principal == null) {
+            return Mono.error(new IllegalArgumentException("No user logged in"));
+        }
+
+        AppUserDetails appUserDetails = AppUserDetails.builder()
+                .id("github" + principal.getAttributes().get("id").toString())
+                .name(principal.getAttributes().get("login").toString())
+                .imageUrl(principal.getAttributes().get("avatar_url").toString())
+                .build();
+
+        return appUserService.resolveOAuthUser(appUserDetails);
+    }
+}
@@ -0,0 +1,153 @@
+package de.aljoschanyang.capstoneprojectfiturae.controllers;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.ImportResult;
+import de.aljoschanyang.capstoneprojectfiturae.models.ResourceVersion;
+import de.aljoschanyang.capstoneprojectfiturae.models.TransferFormat;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutBatchItem;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutDetails;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutEdit;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutIds;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutPage;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutPatch;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutSummary;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutView;
+import de.aljoschanyang.capstoneprojectfiturae.services.ReactiveWorkoutService;
+import de.aljoschanyang.capstoneprojectfiturae.services.WorkoutListMetrics;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RestController
+@RequestMapping("/api/workouts")
+@AllArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWorkoutController {
+    private ReactiveWorkoutService workoutService;
+    private WorkoutListMetrics workoutListMetrics;
+
+    @PostMapping
+    public Mono<Workout> addWorkout(@RequestBody WorkoutDetails workoutDetails) {
+        return workoutService.addWorkout(workoutDetails);
+    }
+
+    @GetMapping("/{userId}")
+    public Flux<?> getAllWorkoutsByUserId(@PathVariable String userId,
+                                          @RequestParam(defaultValue = "full") String view,
+                                          ServerWebExchange exchange) {
+        WorkoutView workoutView = WorkoutView.fromName(view);
+        AtomicInteger size = new AtomicInteger();
+        return workoutService.getWorkoutListVersion(userId)
+                .flatMapMany(listVersion -> {
+                    if (isNotModified(exchange, ResourceVersion.of(listVersion, workoutView))) {
+                        return Flux.empty();
+                    }
+                    if (workoutView == WorkoutView.SUMMARY) {
+                        return workoutService.getWorkoutOverviewsByUserId(userId)
+                                .doOnNext(overview -> size.incrementAndGet())
+                                .doOnComplete(() -> workoutListMetrics.recordSummaryList(size.get()));
+                    }
+                    return workoutService.getAllWorkoutsByUserId(userId, listVersion.version())
+                            .doOnNext(workout -> size.incrementAndGet())
+                            .doOnComplete(() -> workoutListMetrics.recordFullList(size.get()));
+                });
+    }
+
+    @GetMapping("/{userId}/page")
+    public Mono<WorkoutPage> getWorkoutPageByUserId(@PathVariable String userId,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "20") int limit) {
+        return workoutService.getWorkoutPageByUserId(userId, cursor, limit)
+                .doOnNext(page -> workoutListMetrics.recordPage(page.workouts().size()));
+    }
+
+    @GetMapping("/{userId}/calendar")
+    public Flux<WorkoutSummary> getWorkoutSummariesByUserId(@PathVariable String userId,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return workoutService.getWorkoutSummariesByUserId(userId, from, to);
+    }
+
+    @GetMapping(value = "/{userId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Workout> streamWorkoutsByUserId(@PathVariable String userId) {
+        return workoutService.streamWorkoutsByUserId(userId);
+    }
+
+    @PostMapping(value = "/{userId}/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public Mono<ImportResult> importWorkouts(@PathVariable String userId,
+                                             @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                             @RequestBody Flux<DataBuffer> body) {
+        return workoutService.importWorkouts(userId, body, TransferFormat.fromContentType(contentType));
+    }
+
+    @GetMapping("/{userId}/export")
+    public ResponseEntity<Flux<?>> exportWorkouts(@PathVariable String userId,
+                                                  @RequestParam(defaultValue = "ndjson") String format) {
+        TransferFormat transferFormat = TransferFormat.fromName(format);
+        Flux<?> body = transferFormat == TransferFormat.CSV
+                ? workoutService.exportWorkoutsAsCsv(userId)
+                : workoutService.streamWorkoutsByUserId(userId);
+        return ResponseEntity.ok()
+                .contentType(transferFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("workouts." + transferFormat.fileExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @GetMapping("/details/{id}")
+    public Mono<Workout> getWorkoutById(@PathVariable String id, ServerWebExchange exchange) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        if (headers.getIfNoneMatch().isEmpty() && headers.getIfModifiedSince() < 0) {
+            return workoutService.getWorkoutById(id)
+                    .doOnNext(workout -> isNotModified(exchange, ResourceVersion.of(workout)));
+        }
+        return workoutService.getWorkoutVersion(id)
+                .flatMap(version -> isNotModified(exchange, version) ? Mono.empty() : workoutService.getWorkoutById(id));
+    }
+
+    // Also writes the ETag and Last-Modified headers of a full response.
+    private static boolean isNotModified(ServerWebExchange exchange, ResourceVersion version) {
+        return exchange.checkNotModified(version.etag(), version.lastModified() == null ? Instant.MIN : version.lastModified());
+    }
+
+    @PostMapping("/batch/details")
+    public Mono<List<WorkoutBatchItem>> getWorkoutsById(@RequestBody WorkoutIds workoutIds) {
+        return workoutService.getWorkoutsById(workoutIds.ids());
+    }
+
+    @PostMapping("/batch/delete")
+    public Mono<List<WorkoutBatchItem>> deleteWorkoutsById(@RequestBody WorkoutIds workoutIds) {
+        return workoutService.deleteWorkoutsById(workoutIds.ids());
+    }
+
+    @PutMapping("/{id}")
+    public Mono<Workout> editWorkout(@PathVariable String id, @RequestBody WorkoutEdit workoutEdit) {
+        return workoutService.editWorkout(id, workoutEdit);
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<Workout> patchWorkout(@PathVariable String id, @RequestBody WorkoutPatch workoutPatch) {
+        return workoutService.patchWorkout(id, workoutPatch);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<Void> deleteWorkout(@PathVariable String id) {
+        return workoutService.deleteWorkout(id);
+    }
+}
@@ -0,0 +1,41 @@
+package de.aljoschanyang.capstoneprojectfiturae.controllers;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.ExerciseVolume;
+import de.aljoschanyang.capstoneprojectfiturae.models.VolumePoint;
+import de.aljoschanyang.capstoneprojectfiturae.services.TrainingVolumeService;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stats")
+@AllArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class TrainingVolumeController {
+    private TrainingVolumeService trainingVolumeService;
+
+    @GetMapping("/{userId}/volume")
+    public List<VolumePoint> getVolume(@PathVariable String userId,
+                                       @RequestParam(defaultValue = "week") String period,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                       @RequestParam(required = false) String exercise) {
+        return trainingVolumeService.getVolume(userId, period, from, to, exercise);
+    }
+
+    @GetMapping("/{userId}/volume/exercises")
+    public List<ExerciseVolume> getExerciseVolumes(@PathVariable String userId,
+                                                   @RequestParam(defaultValue = "week") String period,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day) {
+        return trainingVolumeService.getExerciseVolumes(userId, period, day);
+    }
+
+    @PostMapping("/{userId}/volume/rebuild")
+    public int rebuildVolume(@PathVariable String userId) {
+        return trainingVolumeService.rebuild(userId);
+    }
+}
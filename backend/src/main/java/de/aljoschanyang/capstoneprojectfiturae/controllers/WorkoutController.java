@@ -1,19 +1,46 @@
 package de.aljoschanyang.capstoneprojectfiturae.controllers;
 
+import de.aljoschanyang.capstoneprojectfiturae.models.ImportResult;
+import de.aljoschanyang.capstoneprojectfiturae.models.ResourceVersion;
+import de.aljoschanyang.capstoneprojectfiturae.models.TransferFormat;
 import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutBatchItem;
 import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutDetails;
 import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutEdit;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutIds;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutListVersion;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutOverview;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutPage;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutPatch;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutSummary;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutView;
+import de.aljoschanyang.capstoneprojectfiturae.services.WorkoutListMetrics;
 import de.aljoschanyang.capstoneprojectfiturae.services.WorkoutService;
+import de.aljoschanyang.capstoneprojectfiturae.services.WorkoutTransferService;
 import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/workouts")
 @AllArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class WorkoutController {
     private WorkoutService workoutService;
+    private WorkoutTransferService workoutTransferService;
+    private WorkoutListMetrics workoutListMetrics;
 
     @PostMapping
     public Workout addWorkout(@RequestBody WorkoutDetails workoutDetails) {
@@ -21,13 +48,91 @@ public class WorkoutController {
     }
 
     @GetMapping("/{userId}")
-    public List<Workout> getAllWorkoutsByUserId(@PathVariable String userId) {
-        return workoutService.getAllWorkoutsByUserId(userId);
+    public List<?> getAllWorkoutsByUserId(@PathVariable String userId,
+                                          @RequestParam(defaultValue = "full") String view,
+                                          WebRequest request) {
+        WorkoutView workoutView = WorkoutView.fromName(view);
+        WorkoutListVersion listVersion = workoutService.getWorkoutListVersion(userId);
+        ResourceVersion version = ResourceVersion.of(listVersion, workoutView);
+        if (request.checkNotModified(version.etag(), version.lastModifiedMillis())) {
+            return null;
+        }
+        if (workoutView == WorkoutView.SUMMARY) {
+            List<WorkoutOverview> overviews = workoutService.getWorkoutOverviewsByUserId(userId);
+            workoutListMetrics.recordSummaryList(overviews.size());
+            return overviews;
+        }
+        List<Workout> workouts = workoutService.getAllWorkoutsByUserId(userId, listVersion.version());
+        workoutListMetrics.recordFullList(workouts.size());
+        return workouts;
     }
 
+    @GetMapping("/{userId}/page")
+    public WorkoutPage getWorkoutPageByUserId(@PathVariable String userId,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "20") int limit) {
+        WorkoutPage page = workoutService.getWorkoutPageByUserId(userId, cursor, limit);
+        workoutListMetrics.recordPage(page.workouts().size());
+        return page;
+    }
+
+    @GetMapping("/{userId}/calendar")
+    public List<WorkoutSummary> getWorkoutSummariesByUserId(@PathVariable String userId,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return workoutService.getWorkoutSummariesByUserId(userId, from, to);
+    }
+
+    @GetMapping(value = "/{userId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamWorkoutsByUserId(@PathVariable String userId) {
+        Stream<Workout> workouts = workoutService.streamWorkoutsByUserId(userId);
+        return outputStream -> workoutTransferService.writeWorkouts(workouts, outputStream, TransferFormat.NDJSON);
+    }
+
+    @PostMapping(value = "/{userId}/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ImportResult importWorkouts(@PathVariable String userId,
+                                       @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                       InputStream body) {
+        return workoutTransferService.importWorkouts(userId, body, TransferFormat.fromContentType(contentType));
+    }
+
+    @GetMapping("/{userId}/export")
+    public ResponseEntity<StreamingResponseBody> exportWorkouts(@PathVariable String userId,
+                                                                @RequestParam(defaultValue = "ndjson") String format) {
+        TransferFormat transferFormat = TransferFormat.fromName(format);
+        Stream<Workout> workouts = workoutService.streamWorkoutsByUserId(userId);
+        return ResponseEntity.ok()
+                .contentType(transferFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("workouts." + transferFormat.fileExtension())
+                        .build()
+                        .toString())
+                .body(outputStream -> workoutTransferService.writeWorkouts(workouts, outputStream, transferFormat));
+    }
+
+    // A revalidation reads only the version fields, so a 304 never loads or serializes the workout.
     @GetMapping("/details/{id}")
-    public Workout getWorkoutById(@PathVariable String id) {
-        return workoutService.getWorkoutById(id);
+    public Workout getWorkoutById(@PathVariable String id, WebRequest request) {
+        Workout workout = isConditional(request) ? null : workoutService.getWorkoutById(id);
+        ResourceVersion version = workout != null ? ResourceVersion.of(workout) : workoutService.getWorkoutVersion(id);
+        if (request.checkNotModified(version.etag(), version.lastModifiedMillis())) {
+            return null;
+        }
+        return workout != null ? workout : workoutService.getWorkoutById(id);
+    }
+
+    private static boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    @PostMapping("/batch/details")
+    public List<WorkoutBatchItem> getWorkoutsById(@RequestBody WorkoutIds workoutIds) {
+        return workoutService.getWorkoutsById(workoutIds.ids());
+    }
+
+    @PostMapping("/batch/delete")
+    public List<WorkoutBatchItem> deleteWorkoutsById(@RequestBody WorkoutIds workoutIds) {
+        return workoutService.deleteWorkoutsById(workoutIds.ids());
     }
 
     @PutMapping("/{id}")
@@ -35,6 +140,11 @@ public class WorkoutController {
         return workoutService.editWorkout(id,workoutEdit);
     }
 
+    @PatchMapping("/{id}")
+    public Workout patchWorkout(@PathVariable String id, @RequestBody WorkoutPatch workoutPatch) {
+        return workoutService.patchWorkout(id, workoutPatch);
+    }
+
     @DeleteMapping("/{id}")
     public void deleteWorkout(@PathVariable String id) {
         workoutService.deleteWorkout(id);
@@ -0,0 +1,59 @@
+package de.aljoschanyang.capstoneprojectfiturae.controllers;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutEdit;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutOccurrence;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutSchedule;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutScheduleDetails;
+import de.aljoschanyang.capstoneprojectfiturae.services.WorkoutScheduleService;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/schedules")
+@AllArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WorkoutScheduleController {
+    private WorkoutScheduleService workoutScheduleService;
+
+    @PostMapping
+    public WorkoutSchedule addSchedule(@RequestBody WorkoutScheduleDetails scheduleDetails) {
+        return workoutScheduleService.addSchedule(scheduleDetails);
+    }
+
+    @GetMapping("/{userId}")
+    public List<WorkoutSchedule> getSchedulesByUserId(@PathVariable String userId) {
+        return workoutScheduleService.getSchedulesByUserId(userId);
+    }
+
+    @GetMapping("/{userId}/occurrences")
+    public List<WorkoutOccurrence> getOccurrencesByUserId(@PathVariable String userId,
+                                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return workoutScheduleService.getOccurrencesByUserId(userId, from, to);
+    }
+
+    // Without a body the occurrence is logged as planned.
+    @PostMapping("/{id}/occurrences/{day}")
+    public Workout logOccurrence(@PathVariable String id,
+                                 @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day,
+                                 @RequestBody(required = false) WorkoutEdit workoutEdit) {
+        return workoutScheduleService.logOccurrence(id, day, workoutEdit);
+    }
+
+    @DeleteMapping("/{id}/occurrences/{day}")
+    public void skipOccurrence(@PathVariable String id,
+                               @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day) {
+        workoutScheduleService.skipOccurrence(id, day);
+    }
+
+    @DeleteMapping("/{id}")
+    public void deleteSchedule(@PathVariable String id) {
+        workoutScheduleService.deleteSchedule(id);
+    }
+}
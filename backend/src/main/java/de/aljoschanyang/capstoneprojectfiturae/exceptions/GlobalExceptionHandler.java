@@ -1,19 +1,72 @@
 package de.aljoschanyang.capstoneprojectfiturae.exceptions;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 @ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class GlobalExceptionHandler {
+    static final List<MediaType> BINARY_TYPES = List.of(MediaType.valueOf("application/x-jackson-smile"), MediaType.APPLICATION_CBOR);
+
     @ExceptionHandler(NoSuchUserException.class)
-    public ResponseEntity<String> handleNoSuchUserException(NoSuchUserException e) {
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+    public ResponseEntity<Object> handleNoSuchUserException(NoSuchUserException e, WebRequest request) {
+        return errorResponse(HttpStatus.NOT_FOUND, e, request.getHeader(HttpHeaders.ACCEPT));
     }
 
     @ExceptionHandler(NoSuchWorkoutException.class)
-    public ResponseEntity<String> handleNoSuchWorkoutException(NoSuchWorkoutException e) {
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+    public ResponseEntity<Object> handleNoSuchWorkoutException(NoSuchWorkoutException e, WebRequest request) {
+        return errorResponse(HttpStatus.NOT_FOUND, e, request.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    @ExceptionHandler(NoSuchWorkoutScheduleException.class)
+    public ResponseEntity<Object> handleNoSuchWorkoutScheduleException(NoSuchWorkoutScheduleException e, WebRequest request) {
+        return errorResponse(HttpStatus.NOT_FOUND, e, request.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    @ExceptionHandler(NoSuchPersonalRecordException.class)
+    public ResponseEntity<Object> handleNoSuchPersonalRecordException(NoSuchPersonalRecordException e, WebRequest request) {
+        return errorResponse(HttpStatus.NOT_FOUND, e, request.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<Object> handleInvalidRequestException(InvalidRequestException e, WebRequest request) {
+        return errorResponse(HttpStatus.BAD_REQUEST, e, request.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    @ExceptionHandler(WorkoutVersionConflictException.class)
+    public ResponseEntity<Object> handleWorkoutVersionConflictException(WorkoutVersionConflictException e, WebRequest request) {
+        return errorResponse(HttpStatus.CONFLICT, e, request.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    // A plain String cannot be encoded as Smile or CBOR, so only clients that asked for a binary format get problem+json.
+    static ResponseEntity<Object> errorResponse(HttpStatus status, RuntimeException e, String accept) {
+        if (!acceptsBinaryFormat(accept)) {
+            return ResponseEntity.status(status).body(e.getMessage());
+        }
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .body(ProblemDetail.forStatusAndDetail(status, e.getMessage()));
+    }
+
+    static boolean acceptsBinaryFormat(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .anyMatch(type -> BINARY_TYPES.stream().anyMatch(type::equalsTypeAndSubtype));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
     }
 }
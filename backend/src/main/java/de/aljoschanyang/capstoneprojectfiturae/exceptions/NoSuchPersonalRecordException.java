@@ -0,0 +1,7 @@
+package de.aljoschanyang.capstoneprojectfiturae.exceptions;
+
+public class NoSuchPersonalRecordException extends RuntimeException{
+    public NoSuchPersonalRecordException() {
+        super("There is no record for this exercise");
+    }
+}
@@ -0,0 +1,7 @@
+package de.aljoschanyang.capstoneprojectfiturae.exceptions;
+
+public class NoSuchWorkoutScheduleException extends RuntimeException{
+    public NoSuchWorkoutScheduleException() {
+        super("The workout schedule is unknown");
+    }
+}
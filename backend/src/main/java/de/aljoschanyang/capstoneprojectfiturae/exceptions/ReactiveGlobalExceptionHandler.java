@@ -0,0 +1,24 @@
+package de.aljoschanyang.capstoneprojectfiturae.exceptions;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.server.ServerWebExchange;
+
+@ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGlobalExceptionHandler {
+    @ExceptionHandler({NoSuchUserException.class, NoSuchWorkoutException.class, NoSuchWorkoutScheduleException.class,
+            NoSuchPersonalRecordException.class, InvalidRequestException.class, WorkoutVersionConflictException.class})
+    public ResponseEntity<Object> handleException(RuntimeException e, ServerWebExchange exchange) {
+        HttpStatus status = switch (e) {
+            case InvalidRequestException invalid -> HttpStatus.BAD_REQUEST;
+            case WorkoutVersionConflictException conflict -> HttpStatus.CONFLICT;
+            default -> HttpStatus.NOT_FOUND;
+        };
+        return GlobalExceptionHandler.errorResponse(status, e, exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT));
+    }
+}
@@ -0,0 +1,11 @@
+package de.aljoschanyang.capstoneprojectfiturae.exceptions;
+
+public class WorkoutVersionConflictException extends RuntimeException{
+    public WorkoutVersionConflictException() {
+        super("The workout was changed in the meantime");
+    }
+
+    public WorkoutVersionConflictException(String message) {
+        super(message);
+    }
+}
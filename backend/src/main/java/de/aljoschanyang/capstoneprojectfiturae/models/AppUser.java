@@ -2,6 +2,7 @@ package de.aljoschanyang.capstoneprojectfiturae.models;
 
 import lombok.Builder;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -12,6 +13,7 @@ public record AppUser(
         String id,
         @Field("user_name")
         String name,
+        @Indexed(name = "user_email_idx", sparse = true)
         @Field("user_email")
         String email,
         @Field("user_img_url")
@@ -0,0 +1,37 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import lombok.Builder;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+// A workout inside a cold bucket. Short keys and one array per plan column keep old months small; exercises are catalog ids.
+@Builder
+public record ArchivedWorkout(
+        @Field(value = "i", targetType = FieldType.OBJECT_ID)
+        String workoutId,
+        @Field("n")
+        String name,
+        @Field("d")
+        LocalDate day,
+        @Field("t")
+        String description,
+        @Field("e")
+        List<Integer> exerciseIds,
+        @Field("s")
+        List<Integer> setCounts,
+        @Field("r")
+        List<Integer> repsPerSet,
+        @Field("w")
+        List<Double> weightsInKg,
+        @Field("b")
+        List<Integer> breaksInSec,
+        @Field("v")
+        Long version,
+        @Field("m")
+        Instant modifiedAt
+) {
+}
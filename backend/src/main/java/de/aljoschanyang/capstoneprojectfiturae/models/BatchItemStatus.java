@@ -0,0 +1,8 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+public enum BatchItemStatus {
+    FOUND,
+    DELETED,
+    NOT_FOUND,
+    CONFLICT
+}
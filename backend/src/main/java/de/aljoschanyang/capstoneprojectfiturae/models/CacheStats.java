@@ -0,0 +1,9 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+public record CacheStats(
+        long hits,
+        long misses,
+        long evictions,
+        int size
+) {
+}
@@ -0,0 +1,10 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import java.time.LocalDate;
+
+public record DailyExerciseVolume(
+        LocalDate day,
+        String exercise,
+        double volume
+) {
+}
@@ -0,0 +1,17 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+// Ids are small ascending integers, so every plan entry stores a few bytes instead of the exercise name.
+@Document(collection = "exercise_catalog")
+public record ExerciseCatalogEntry(
+        @Id
+        int id,
+        @Indexed(name = "exercise_name_idx", unique = true)
+        @Field("exercise_name")
+        String name
+) {
+}
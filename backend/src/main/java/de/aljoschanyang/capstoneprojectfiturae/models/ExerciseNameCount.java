@@ -0,0 +1,7 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+public record ExerciseNameCount(
+        String name,
+        long count
+) {
+}
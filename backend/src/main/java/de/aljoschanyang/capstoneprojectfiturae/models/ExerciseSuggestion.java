@@ -0,0 +1,8 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+public record ExerciseSuggestion(
+        String name,
+        long count,
+        boolean usedByUser
+) {
+}
@@ -0,0 +1,7 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+public record ImportError(
+        long record,
+        String message
+) {
+}
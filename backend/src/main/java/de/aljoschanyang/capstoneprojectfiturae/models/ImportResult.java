@@ -0,0 +1,10 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import java.util.List;
+
+public record ImportResult(
+        long imported,
+        long failed,
+        List<ImportError> errors
+) {
+}
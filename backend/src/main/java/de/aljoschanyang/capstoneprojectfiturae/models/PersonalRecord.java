@@ -0,0 +1,38 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import lombok.Builder;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.util.List;
+
+// Keeps the best few results per metric, so a deleted record can fall back to the next best without a rescan.
+@Builder(toBuilder = true)
+@Document(collection = "personal_records")
+@CompoundIndex(name = "user_exercise_idx", def = "{'user_id': 1, 'record_exercise': 1}")
+public record PersonalRecord(
+        @Id
+        String id,
+        @Field("user_id")
+        String userId,
+        @Field("record_exercise")
+        String exercise,
+        @Field("record_name")
+        String name,
+        @Field("top_weights")
+        List<RecordEntry> topWeights,
+        @Field("top_set_volumes")
+        List<RecordEntry> topSetVolumes,
+        @Field("record_truncated")
+        boolean truncated,
+        @Version
+        @Field("record_version")
+        Long version
+) {
+    public static String idOf(String userId, String exercise) {
+        return userId + "|" + exercise;
+    }
+}
@@ -0,0 +1,14 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+public record PersonalRecordSummary(
+        String exercise,
+        String name,
+        RecordEntry bestWeight,
+        RecordEntry bestSetVolume
+) {
+    public static PersonalRecordSummary of(PersonalRecord record) {
+        return new PersonalRecordSummary(record.exercise(), record.name(),
+                record.topWeights().isEmpty() ? null : record.topWeights().get(0),
+                record.topSetVolumes().isEmpty() ? null : record.topSetVolumes().get(0));
+    }
+}
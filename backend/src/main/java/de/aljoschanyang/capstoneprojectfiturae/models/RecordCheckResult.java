@@ -0,0 +1,9 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+public record RecordCheckResult(
+        String userId,
+        int checked,
+        int mismatched,
+        boolean repaired
+) {
+}
@@ -0,0 +1,10 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import java.time.LocalDate;
+
+public record RecordEntry(
+        String workoutId,
+        LocalDate day,
+        double value
+) {
+}
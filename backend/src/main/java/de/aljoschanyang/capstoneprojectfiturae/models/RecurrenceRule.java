@@ -0,0 +1,16 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import lombok.Builder;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Set;
+
+// Weekly recurrence: the given weekdays of every intervalWeeks-th week, counted from the week of the first day.
+@Builder(toBuilder = true)
+public record RecurrenceRule(
+        Set<DayOfWeek> daysOfWeek,
+        int intervalWeeks,
+        LocalDate until
+) {
+}
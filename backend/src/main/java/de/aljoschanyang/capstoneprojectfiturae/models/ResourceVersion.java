@@ -0,0 +1,28 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import java.time.Instant;
+
+public record ResourceVersion(
+        String etag,
+        Instant lastModified
+) {
+    public static ResourceVersion of(Workout workout) {
+        return new ResourceVersion(workout.version() == null ? null : quote(workout.version().toString()), workout.modifiedAt());
+    }
+
+    // Both views of a list change together, but each needs its own tag because the bodies differ.
+    public static ResourceVersion of(WorkoutListVersion listVersion, WorkoutView view) {
+        String suffix = view == WorkoutView.FULL ? "" : "-" + view.parameterName();
+        return new ResourceVersion(quote("list-" + listVersion.version() + suffix), listVersion.modifiedAt());
+    }
+
+    // Negative timestamps are ignored by the conditional request checks.
+    public long lastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.toEpochMilli();
+    }
+
+    // Weak, because JSON, Smile and CBOR bodies of one version are equivalent but not byte-identical.
+    private static String quote(String value) {
+        return "W/\"" + value + "\"";
+    }
+}
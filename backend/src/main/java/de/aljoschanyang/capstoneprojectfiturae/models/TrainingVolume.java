@@ -0,0 +1,36 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import lombok.Builder;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDate;
+
+// One rollup row per user, period and normalized exercise name; the row without an exercise holds the period total.
+// The display name is the first spelling that reached the row.
+@Builder(toBuilder = true)
+@Document(collection = "training_volumes")
+@CompoundIndex(name = "volume_series_idx", def = "{'user_id': 1, 'volume_period': 1, 'volume_exercise': 1, 'period_start': 1}")
+public record TrainingVolume(
+        @Id
+        String id,
+        @Field("user_id")
+        String userId,
+        @Field("volume_period")
+        VolumePeriod period,
+        @Field("period_start")
+        LocalDate periodStart,
+        @Field("volume_exercise")
+        String exercise,
+        @Field("volume_exercise_name")
+        String exerciseName,
+        @Field("volume_kg")
+        double volume
+) {
+    // A deterministic id lets concurrent deltas upsert the same row without a unique index.
+    public static String idOf(String userId, VolumePeriod period, LocalDate periodStart, String exercise) {
+        return userId + "|" + period + "|" + periodStart + "|" + (exercise == null ? "" : exercise);
+    }
+}
@@ -0,0 +1,42 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.InvalidRequestException;
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+
+public enum TransferFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+    CSV(new MediaType("text", "csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String fileExtension;
+
+    TransferFormat(MediaType mediaType, String fileExtension) {
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String fileExtension() {
+        return fileExtension;
+    }
+
+    public static TransferFormat fromContentType(String contentType) {
+        MediaType requested = contentType == null ? null : MediaType.parseMediaType(contentType);
+        return Arrays.stream(values())
+                .filter(format -> format.mediaType.isCompatibleWith(requested))
+                .findFirst()
+                .orElseThrow(() -> new InvalidRequestException("The format is not supported"));
+    }
+
+    public static TransferFormat fromName(String name) {
+        return Arrays.stream(values())
+                .filter(format -> format.fileExtension.equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new InvalidRequestException("The format is not supported"));
+    }
+}
@@ -0,0 +1,41 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.InvalidRequestException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+
+public enum VolumePeriod {
+    WEEK("week"),
+    MONTH("month");
+
+    private final String parameterName;
+
+    VolumePeriod(String parameterName) {
+        this.parameterName = parameterName;
+    }
+
+    // Weeks start on Monday (ISO-8601), months on their first day.
+    public LocalDate start(LocalDate day) {
+        return this == WEEK
+                ? day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                : day.withDayOfMonth(1);
+    }
+
+    public LocalDate next(LocalDate periodStart) {
+        return this == WEEK ? periodStart.plusWeeks(1) : periodStart.plusMonths(1);
+    }
+
+    public LocalDate minus(LocalDate periodStart, long periods) {
+        return this == WEEK ? periodStart.minusWeeks(periods) : periodStart.minusMonths(periods);
+    }
+
+    public static VolumePeriod fromName(String name) {
+        return Arrays.stream(values())
+                .filter(period -> period.parameterName.equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new InvalidRequestException("The period is not supported"));
+    }
+}
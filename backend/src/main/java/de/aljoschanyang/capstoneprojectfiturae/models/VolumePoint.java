@@ -0,0 +1,9 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import java.time.LocalDate;
+
+public record VolumePoint(
+        LocalDate periodStart,
+        double volume
+) {
+}
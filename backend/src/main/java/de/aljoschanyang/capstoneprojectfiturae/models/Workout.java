@@ -1,15 +1,20 @@
 package de.aljoschanyang.capstoneprojectfiturae.models;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 
-@Builder
+@Builder(toBuilder = true)
 @Document(collection = "workouts")
+@CompoundIndex(name = "user_day_idx", def = "{'user_id': 1, 'workout_day': 1, '_id': 1}")
 public record Workout(
         @Id
         String id,
@@ -22,6 +27,13 @@ public record Workout(
         @Field("workout_description")
         String description,
         @Field("workout_plan")
-        List<WorkoutExercise> plan
+        List<WorkoutExercise> plan,
+        @Version
+        @Field("workout_version")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Long version,
+        @Field("workout_modified_at")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Instant modifiedAt
 ) {
 }
@@ -0,0 +1,29 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import lombok.Builder;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.YearMonth;
+import java.util.List;
+
+// The cold tier holds one document per user and month, so a month range is read by _id without a secondary index.
+@Builder
+@Document(collection = "workout_archive")
+@CompoundIndex(name = "archive_workout_id_idx", def = "{'archive_workouts.i': 1}")
+public record WorkoutArchive(
+        @Id
+        String id,
+        @Indexed(name = "archive_user_idx")
+        @Field("user_id")
+        String userId,
+        @Field("archive_workouts")
+        List<ArchivedWorkout> workouts
+) {
+    public static String idOf(String userId, YearMonth month) {
+        return userId + ":" + month;
+    }
+}
@@ -0,0 +1,19 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// One entry per requested id, in request order, so the client can match results without a lookup.
+public record WorkoutBatchItem(
+        String id,
+        BatchItemStatus status,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Workout workout
+) {
+    public static WorkoutBatchItem found(Workout workout) {
+        return new WorkoutBatchItem(workout.id(), BatchItemStatus.FOUND, workout);
+    }
+
+    public static WorkoutBatchItem of(String id, BatchItemStatus status) {
+        return new WorkoutBatchItem(id, status, null);
+    }
+}
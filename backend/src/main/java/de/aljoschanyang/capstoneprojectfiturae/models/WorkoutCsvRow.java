@@ -0,0 +1,21 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.Builder;
+
+import java.time.LocalDate;
+
+@Builder
+@JsonPropertyOrder({"workout", "name", "day", "description", "exercise", "setCount", "repsPerSet", "weightInKg", "breakInSec"})
+public record WorkoutCsvRow(
+        String workout,
+        String name,
+        LocalDate day,
+        String description,
+        String exercise,
+        Integer setCount,
+        Integer repsPerSet,
+        Double weightInKg,
+        Integer breakInSec
+) {
+}
@@ -0,0 +1,39 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+public record WorkoutCursor(
+        LocalDate day,
+        String id
+) {
+    private static final String SEPARATOR = "|";
+
+    public static WorkoutCursor of(Workout workout) {
+        return new WorkoutCursor(workout.day(), workout.id());
+    }
+
+    public String encode() {
+        String raw = (day == null ? "" : day.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static WorkoutCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            if (separatorIndex < 0 || separatorIndex == raw.length() - 1) {
+                throw new InvalidRequestException("The cursor is invalid");
+            }
+            String dayPart = raw.substring(0, separatorIndex);
+            LocalDate day = dayPart.isEmpty() ? null : LocalDate.parse(dayPart);
+            return new WorkoutCursor(day, raw.substring(separatorIndex + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidRequestException("The cursor is invalid");
+        }
+    }
+}
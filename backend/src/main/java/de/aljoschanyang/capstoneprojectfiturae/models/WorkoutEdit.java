@@ -10,6 +10,7 @@ public record WorkoutEdit(
         String name,
         LocalDate day,
         String description,
-        List<WorkoutExercise> plan
+        List<WorkoutExercise> plan,
+        Long version
 ) {
 }
@@ -0,0 +1,14 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import lombok.Builder;
+
+@Builder
+public record WorkoutExercisePatch(
+        int index,
+        String name,
+        Integer setCount,
+        Integer repsPerSet,
+        Double weightInKg,
+        Integer breakInSec
+) {
+}
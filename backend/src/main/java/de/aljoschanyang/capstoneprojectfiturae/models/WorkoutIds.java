@@ -0,0 +1,8 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import java.util.List;
+
+public record WorkoutIds(
+        List<String> ids
+) {
+}
@@ -0,0 +1,22 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+// Bumped on every change to a user's workouts, so a list can be revalidated without reading it.
+@Document(collection = "workout_list_versions")
+public record WorkoutListVersion(
+        @Id
+        String userId,
+        @Field("list_version")
+        long version,
+        @Field("list_modified_at")
+        Instant modifiedAt
+) {
+    public static WorkoutListVersion initial(String userId) {
+        return new WorkoutListVersion(userId, 0L, null);
+    }
+}
@@ -0,0 +1,17 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import lombok.Builder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// A planned workout expanded from a schedule; it has no document until it is logged.
+@Builder
+public record WorkoutOccurrence(
+        String scheduleId,
+        LocalDate day,
+        String name,
+        String description,
+        List<WorkoutExercise> plan
+) {
+}
@@ -0,0 +1,18 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import org.springframework.data.annotation.Id;
+
+import java.time.LocalDate;
+
+// Header of a workout for list screens; the plan is reduced to its size and volume inside the aggregation.
+public record WorkoutOverview(
+        @Id
+        String id,
+        String userId,
+        String name,
+        LocalDate day,
+        String description,
+        int exerciseCount,
+        double totalVolumeInKg
+) {
+}
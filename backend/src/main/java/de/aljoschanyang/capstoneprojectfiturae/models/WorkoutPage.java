@@ -0,0 +1,9 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import java.util.List;
+
+public record WorkoutPage(
+        List<Workout> workouts,
+        String nextCursor
+) {
+}
@@ -0,0 +1,17 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import lombok.Builder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Builder
+public record WorkoutPatch(
+        Long version,
+        String name,
+        LocalDate day,
+        String description,
+        List<WorkoutExercise> plan,
+        List<WorkoutExercisePatch> exercises
+) {
+}
@@ -0,0 +1,35 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import lombok.Builder;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// A recurring workout is stored once; its occurrences are computed per request. Days that were logged or skipped
+// are listed in handledDays and are no longer expanded.
+@Builder(toBuilder = true)
+@Document(collection = "workout_schedules")
+public record WorkoutSchedule(
+        @Id
+        String id,
+        @Indexed(name = "schedule_user_idx")
+        @Field("user_id")
+        String userId,
+        @Field("schedule_name")
+        String name,
+        @Field("schedule_description")
+        String description,
+        @Field("schedule_plan")
+        List<WorkoutExercise> plan,
+        @Field("schedule_start_day")
+        LocalDate startDay,
+        @Field("schedule_rule")
+        RecurrenceRule rule,
+        @Field("schedule_handled_days")
+        List<LocalDate> handledDays
+) {
+}
@@ -0,0 +1,11 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import lombok.Builder;
+
+// The workout's day is the first day of the schedule.
+@Builder
+public record WorkoutScheduleDetails(
+        WorkoutDetails workout,
+        RecurrenceRule rule
+) {
+}
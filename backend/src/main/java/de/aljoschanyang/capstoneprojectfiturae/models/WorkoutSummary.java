@@ -0,0 +1,17 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDate;
+
+// Read-only projection of a workout for calendar views; it never carries the plan or description.
+public record WorkoutSummary(
+        @Id
+        String id,
+        @Field("workout_name")
+        String name,
+        @Field("workout_day")
+        LocalDate day
+) {
+}
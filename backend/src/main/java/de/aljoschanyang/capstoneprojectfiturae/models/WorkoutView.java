@@ -0,0 +1,27 @@
+package de.aljoschanyang.capstoneprojectfiturae.models;
+
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.InvalidRequestException;
+
+import java.util.Arrays;
+
+public enum WorkoutView {
+    SUMMARY("summary"),
+    FULL("full");
+
+    private final String parameterName;
+
+    WorkoutView(String parameterName) {
+        this.parameterName = parameterName;
+    }
+
+    public String parameterName() {
+        return parameterName;
+    }
+
+    public static WorkoutView fromName(String name) {
+        return Arrays.stream(values())
+                .filter(view -> view.parameterName.equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new InvalidRequestException("The view is not supported"));
+    }
+}
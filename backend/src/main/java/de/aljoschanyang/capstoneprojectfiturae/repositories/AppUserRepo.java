@@ -2,11 +2,18 @@ package de.aljoschanyang.capstoneprojectfiturae.repositories;
 
 import de.aljoschanyang.capstoneprojectfiturae.models.AppUser;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AppUserRepo extends MongoRepository<AppUser, String> {
     Optional<AppUser> findByEmail(String email);
+
+    // Only _id is read, so the other fields of the returned users stay null.
+    @Query(value = "{ '_id': { '$in': ?0 } }", fields = "{ '_id': 1 }")
+    List<AppUser> findIdsByIdIn(Collection<String> ids);
 }
@@ -0,0 +1,12 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.ExerciseCatalogEntry;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ExerciseCatalogRepo extends MongoRepository<ExerciseCatalogEntry, Integer> {
+    List<ExerciseCatalogEntry> findByIdGreaterThanOrderByIdAsc(int id);
+}
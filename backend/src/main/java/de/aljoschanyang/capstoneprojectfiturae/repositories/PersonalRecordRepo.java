@@ -0,0 +1,14 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.PersonalRecord;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PersonalRecordRepo extends MongoRepository<PersonalRecord, String> {
+    List<PersonalRecord> findByUserIdOrderByExerciseAsc(String userId);
+
+    void deleteByUserId(String userId);
+}
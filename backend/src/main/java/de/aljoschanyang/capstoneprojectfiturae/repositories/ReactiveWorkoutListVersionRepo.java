@@ -0,0 +1,9 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutListVersion;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReactiveWorkoutListVersionRepo extends ReactiveMongoRepository<WorkoutListVersion, String>, ReactiveWorkoutListVersionRepoCustom {
+}
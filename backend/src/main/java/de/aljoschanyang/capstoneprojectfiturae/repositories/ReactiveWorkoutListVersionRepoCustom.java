@@ -0,0 +1,8 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutListVersion;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveWorkoutListVersionRepoCustom {
+    Mono<WorkoutListVersion> increment(String userId);
+}
@@ -0,0 +1,17 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutListVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class ReactiveWorkoutListVersionRepoCustomImpl implements ReactiveWorkoutListVersionRepoCustom {
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Mono<WorkoutListVersion> increment(String userId) {
+        return reactiveMongoTemplate.findAndModify(WorkoutListVersionRepoCustomImpl.toQuery(userId),
+                WorkoutListVersionRepoCustomImpl.toIncrement(), WorkoutListVersionRepoCustomImpl.UPSERT, WorkoutListVersion.class);
+    }
+}
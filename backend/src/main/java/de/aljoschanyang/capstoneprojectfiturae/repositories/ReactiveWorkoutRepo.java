@@ -0,0 +1,18 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import org.springframework.data.mongodb.repository.Meta;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveWorkoutRepo extends ReactiveMongoRepository<Workout, String>, ReactiveWorkoutRepoCustom {
+    Flux<Workout> findWorkoutsByUserId(String userId);
+
+    Mono<Workout> deleteWorkoutById(String id);
+
+    @Meta(cursorBatchSize = 100)
+    Flux<Workout> findWorkoutsByUserIdOrderByDayAscIdAsc(String userId);
+}
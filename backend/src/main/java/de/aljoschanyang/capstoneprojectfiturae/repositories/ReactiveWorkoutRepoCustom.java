@@ -0,0 +1,29 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutCursor;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutOverview;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutPatch;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutSummary;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface ReactiveWorkoutRepoCustom {
+    Flux<Workout> findPageByUserId(String userId, WorkoutCursor after, int limit);
+
+    Mono<Workout> patchWorkout(String id, WorkoutPatch patch);
+
+    Mono<Workout> findVersionById(String id);
+
+    Flux<Workout> findVersionsById(Collection<String> ids);
+
+    Mono<Long> deleteVersions(List<Workout> workouts);
+
+    Flux<WorkoutSummary> findSummariesByUserIdAndDayBetween(String userId, LocalDate from, LocalDate to);
+
+    Flux<WorkoutOverview> findOverviewsByUserId(String userId);
+}
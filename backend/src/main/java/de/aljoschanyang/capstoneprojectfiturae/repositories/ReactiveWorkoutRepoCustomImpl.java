@@ -0,0 +1,63 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import com.mongodb.client.result.DeleteResult;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutCursor;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutOverview;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutPatch;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+// Shares its queries with the blocking fragment so both APIs page and patch identically.
+@RequiredArgsConstructor
+public class ReactiveWorkoutRepoCustomImpl implements ReactiveWorkoutRepoCustom {
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Flux<Workout> findPageByUserId(String userId, WorkoutCursor after, int limit) {
+        return reactiveMongoTemplate.find(WorkoutRepoCustomImpl.toPageQuery(userId, after, limit), Workout.class);
+    }
+
+    @Override
+    public Mono<Workout> patchWorkout(String id, WorkoutPatch patch) {
+        return reactiveMongoTemplate.findAndModify(WorkoutRepoCustomImpl.toQuery(id, patch), WorkoutRepoCustomImpl.toUpdate(patch),
+                FindAndModifyOptions.options().returnNew(true), Workout.class);
+    }
+
+    @Override
+    public Mono<Workout> findVersionById(String id) {
+        return reactiveMongoTemplate.findOne(WorkoutRepoCustomImpl.toVersionQuery(id), Workout.class);
+    }
+
+    @Override
+    public Flux<Workout> findVersionsById(Collection<String> ids) {
+        return reactiveMongoTemplate.find(WorkoutRepoCustomImpl.toVersionQuery(ids), Workout.class);
+    }
+
+    @Override
+    public Mono<Long> deleteVersions(List<Workout> workouts) {
+        return reactiveMongoTemplate.remove(WorkoutRepoCustomImpl.toVersionsQuery(workouts), Workout.class)
+                .map(DeleteResult::getDeletedCount);
+    }
+
+    @Override
+    public Flux<WorkoutSummary> findSummariesByUserIdAndDayBetween(String userId, LocalDate from, LocalDate to) {
+        return reactiveMongoTemplate.query(Workout.class)
+                .as(WorkoutSummary.class)
+                .matching(WorkoutRepoCustomImpl.toCalendarQuery(userId, from, to))
+                .all();
+    }
+
+    @Override
+    public Flux<WorkoutOverview> findOverviewsByUserId(String userId) {
+        return reactiveMongoTemplate.aggregate(WorkoutRepoCustomImpl.toOverviewAggregation(userId), WorkoutOverview.class);
+    }
+}
@@ -0,0 +1,14 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.TrainingVolume;
+import de.aljoschanyang.capstoneprojectfiturae.models.VolumePeriod;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface TrainingVolumeRepo extends MongoRepository<TrainingVolume, String>, TrainingVolumeRepoCustom {
+    List<TrainingVolume> findByUserIdAndPeriodAndPeriodStartAndExerciseIsNotNull(String userId, VolumePeriod period, LocalDate periodStart);
+}
@@ -0,0 +1,19 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.DailyExerciseVolume;
+import de.aljoschanyang.capstoneprojectfiturae.models.TrainingVolume;
+import de.aljoschanyang.capstoneprojectfiturae.models.VolumePeriod;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface TrainingVolumeRepoCustom {
+    List<TrainingVolume> findSeries(String userId, VolumePeriod period, String exercise, LocalDate from, LocalDate to);
+
+    void incrementVolumes(Collection<TrainingVolume> deltas);
+
+    void replaceUserVolumes(String userId, Collection<TrainingVolume> volumes);
+
+    List<DailyExerciseVolume> aggregateDailyVolumes(String userId);
+}
@@ -0,0 +1,109 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.DailyExerciseVolume;
+import de.aljoschanyang.capstoneprojectfiturae.models.TrainingVolume;
+import de.aljoschanyang.capstoneprojectfiturae.models.VolumePeriod;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@RequiredArgsConstructor
+public class TrainingVolumeRepoCustomImpl implements TrainingVolumeRepoCustom {
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<TrainingVolume> findSeries(String userId, VolumePeriod period, String exercise, LocalDate from, LocalDate to) {
+        return mongoTemplate.find(toSeriesQuery(userId, period, exercise, from, to), TrainingVolume.class);
+    }
+
+    static Query toSeriesQuery(String userId, VolumePeriod period, String exercise, LocalDate from, LocalDate to) {
+        return Query.query(where("userId").is(userId)
+                        .and("period").is(period)
+                        .and("exercise").is(exercise)
+                        .and("periodStart").gte(from).lte(to))
+                .with(Sort.by("periodStart"));
+    }
+
+    // All deltas of one workout change go out in a single unordered bulk write.
+    @Override
+    public void incrementVolumes(Collection<TrainingVolume> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TrainingVolume.class);
+        for (TrainingVolume delta : deltas) {
+            bulkOps.upsert(Query.query(where("id").is(delta.id())), toIncrement(delta));
+        }
+        bulkOps.execute();
+    }
+
+    static Update toIncrement(TrainingVolume delta) {
+        return new Update()
+                .inc("volume", delta.volume())
+                .setOnInsert("userId", delta.userId())
+                .setOnInsert("period", delta.period())
+                .setOnInsert("periodStart", delta.periodStart())
+                .setOnInsert("exercise", delta.exercise())
+                .setOnInsert("exerciseName", delta.exerciseName());
+    }
+
+    // Rows are overwritten in place before the stale ones go, so readers never see an empty history and two nodes
+    // rebuilding the same user at once write the same rows instead of colliding on their ids.
+    @Override
+    public void replaceUserVolumes(String userId, Collection<TrainingVolume> volumes) {
+        if (!volumes.isEmpty()) {
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TrainingVolume.class);
+            for (TrainingVolume volume : volumes) {
+                bulkOps.upsert(Query.query(where("id").is(volume.id())), toReplacement(volume));
+            }
+            bulkOps.execute();
+        }
+        mongoTemplate.remove(toStaleQuery(userId, volumes), TrainingVolume.class);
+    }
+
+    static Update toReplacement(TrainingVolume volume) {
+        return new Update()
+                .set("volume", volume.volume())
+                .set("userId", volume.userId())
+                .set("period", volume.period())
+                .set("periodStart", volume.periodStart())
+                .set("exercise", volume.exercise())
+                .set("exerciseName", volume.exerciseName());
+    }
+
+    static Query toStaleQuery(String userId, Collection<TrainingVolume> kept) {
+        return Query.query(where("userId").is(userId).and("id").nin(kept.stream().map(TrainingVolume::id).toList()));
+    }
+
+    @Override
+    public List<DailyExerciseVolume> aggregateDailyVolumes(String userId) {
+        return mongoTemplate.aggregate(toDailyVolumeAggregation(userId), DailyExerciseVolume.class).getMappedResults();
+    }
+
+    // Days are folded into weeks and months by the caller, which keeps time zone handling out of the pipeline.
+    static TypedAggregation<Workout> toDailyVolumeAggregation(String userId) {
+        return Aggregation.newAggregation(Workout.class,
+                Aggregation.match(where("userId").is(userId).and("day").ne(null)),
+                Aggregation.unwind("plan"),
+                Aggregation.project("day")
+                        .and("plan.name").as("exercise")
+                        .and(ArithmeticOperators.Multiply.valueOf("plan.setCount")
+                                .multiplyBy("plan.repsPerSet")
+                                .multiplyBy("plan.weightInKg")).as("volume"),
+                Aggregation.group("day", "exercise").sum("volume").as("volume"),
+                Aggregation.project("day", "exercise", "volume").andExclude("_id"));
+    }
+}
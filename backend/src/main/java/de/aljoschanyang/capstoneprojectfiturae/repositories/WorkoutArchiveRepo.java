@@ -0,0 +1,16 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutArchive;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface WorkoutArchiveRepo extends MongoRepository<WorkoutArchive, String>, WorkoutArchiveRepoCustom {
+    // A user's ids share their prefix, so _id order is month order.
+    List<WorkoutArchive> findByUserIdOrderByIdAsc(String userId);
+
+    Stream<WorkoutArchive> streamByUserIdAndIdGreaterThanEqualOrderByIdAsc(String userId, String id);
+}
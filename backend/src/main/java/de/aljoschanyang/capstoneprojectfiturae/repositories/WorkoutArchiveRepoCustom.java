@@ -0,0 +1,20 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.ArchivedWorkout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutArchive;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+
+public interface WorkoutArchiveRepoCustom {
+    void storeMonth(String userId, YearMonth month, List<ArchivedWorkout> workouts);
+
+    WorkoutArchive findByWorkoutId(String workoutId);
+
+    List<WorkoutArchive> findByWorkoutIds(Collection<String> workoutIds);
+
+    long removeWorkouts(Collection<String> workoutIds);
+
+    List<String> findDistinctUserIds();
+}
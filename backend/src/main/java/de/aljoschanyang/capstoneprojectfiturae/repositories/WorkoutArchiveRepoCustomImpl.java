@@ -0,0 +1,81 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.ArchivedWorkout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutArchive;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@RequiredArgsConstructor
+public class WorkoutArchiveRepoCustomImpl implements WorkoutArchiveRepoCustom {
+    private final MongoTemplate mongoTemplate;
+
+    // Pulling the ids first makes a rerun after a crash replace its earlier copies instead of adding duplicates.
+    @Override
+    public void storeMonth(String userId, YearMonth month, List<ArchivedWorkout> workouts) {
+        Query bucket = toBucketQuery(userId, month);
+        mongoTemplate.updateFirst(bucket, toPullUpdate(workouts.stream().map(ArchivedWorkout::workoutId).toList()), WorkoutArchive.class);
+        mongoTemplate.upsert(bucket, toPushUpdate(userId, workouts), WorkoutArchive.class);
+    }
+
+    static Query toBucketQuery(String userId, YearMonth month) {
+        return Query.query(where("id").is(WorkoutArchive.idOf(userId, month)));
+    }
+
+    // Criteria nested in $pull keep their values as given, so the ids are passed as ObjectIds.
+    static Update toPullUpdate(Collection<String> workoutIds) {
+        return new Update().pull("workouts", Query.query(where("workoutId").in(workoutIds.stream().map(ObjectId::new).toList())));
+    }
+
+    static Update toPushUpdate(String userId, List<ArchivedWorkout> workouts) {
+        return new Update()
+                .setOnInsert("userId", userId)
+                .push("workouts").each(workouts.toArray());
+    }
+
+    // Only the matching workout is projected, not the whole month. The projection's $elemMatch is passed through
+    // unmapped, so it names the stored key.
+    @Override
+    public WorkoutArchive findByWorkoutId(String workoutId) {
+        return mongoTemplate.findOne(toWorkoutQuery(workoutId), WorkoutArchive.class);
+    }
+
+    static Query toWorkoutQuery(String workoutId) {
+        Query query = Query.query(where("workouts.workoutId").is(workoutId));
+        query.fields().include("userId").elemMatch("workouts", where("i").is(new ObjectId(workoutId)));
+        return query;
+    }
+
+    @Override
+    public List<WorkoutArchive> findByWorkoutIds(Collection<String> workoutIds) {
+        return mongoTemplate.find(Query.query(where("workouts.workoutId").in(workoutIds)), WorkoutArchive.class);
+    }
+
+    // Emptied buckets are removed by their ids, because a query on the array size alone could not use an index.
+    @Override
+    public long removeWorkouts(Collection<String> workoutIds) {
+        Query containing = Query.query(where("workouts.workoutId").in(workoutIds));
+        containing.fields().include("id");
+        List<String> bucketIds = mongoTemplate.find(containing, WorkoutArchive.class).stream().map(WorkoutArchive::id).toList();
+        if (bucketIds.isEmpty()) {
+            return 0;
+        }
+        long removed = mongoTemplate.updateMulti(Query.query(where("id").in(bucketIds)), toPullUpdate(workoutIds), WorkoutArchive.class)
+                .getModifiedCount();
+        mongoTemplate.remove(Query.query(where("id").in(bucketIds).and("workouts").size(0)), WorkoutArchive.class);
+        return removed;
+    }
+
+    @Override
+    public List<String> findDistinctUserIds() {
+        return mongoTemplate.findDistinct(new Query(), "userId", WorkoutArchive.class, String.class);
+    }
+}
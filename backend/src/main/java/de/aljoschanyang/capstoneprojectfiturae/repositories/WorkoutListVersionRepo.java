@@ -0,0 +1,9 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutListVersion;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface WorkoutListVersionRepo extends MongoRepository<WorkoutListVersion, String>, WorkoutListVersionRepoCustom {
+}
@@ -0,0 +1,7 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutListVersion;
+
+public interface WorkoutListVersionRepoCustom {
+    WorkoutListVersion increment(String userId);
+}
@@ -0,0 +1,31 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutListVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@RequiredArgsConstructor
+public class WorkoutListVersionRepoCustomImpl implements WorkoutListVersionRepoCustom {
+    static final FindAndModifyOptions UPSERT = FindAndModifyOptions.options().upsert(true).returnNew(true);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public WorkoutListVersion increment(String userId) {
+        return mongoTemplate.findAndModify(toQuery(userId), toIncrement(), UPSERT, WorkoutListVersion.class);
+    }
+
+    static Query toQuery(String userId) {
+        return Query.query(where("userId").is(userId));
+    }
+
+    // Both fields are computed by the server, so concurrent writers on different nodes cannot lose an increment.
+    static Update toIncrement() {
+        return new Update().inc("version", 1).currentDate("modifiedAt");
+    }
+}
@@ -1,12 +1,23 @@
 package de.aljoschanyang.capstoneprojectfiturae.repositories;
 
 import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface WorkoutRepo extends MongoRepository<Workout, String> {
+public interface WorkoutRepo extends MongoRepository<Workout, String>, WorkoutRepoCustom {
     List<Workout> findWorkoutsByUserId(String userId);
+
+    List<Workout> findWorkoutsByUserIdAndDayBefore(String userId, LocalDate day);
+
+    // Runs as findAndRemove, so the caller learns the owner of the deleted workout.
+    Workout deleteWorkoutById(String id);
+
+    @Meta(cursorBatchSize = 100)
+    Stream<Workout> streamWorkoutsByUserIdOrderByDayAscIdAsc(String userId);
 }
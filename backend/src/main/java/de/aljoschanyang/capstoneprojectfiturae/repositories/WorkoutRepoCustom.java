@@ -0,0 +1,41 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.ExerciseNameCount;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutCursor;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutOverview;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutPatch;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutSummary;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface WorkoutRepoCustom {
+    List<Workout> findPageByUserId(String userId, WorkoutCursor after, int limit);
+
+    Workout patchWorkout(String id, WorkoutPatch patch);
+
+    Workout findVersionById(String id);
+
+    List<Workout> findVersionsById(Collection<String> ids);
+
+    long deleteVersions(List<Workout> workouts);
+
+    InsertResult insertUnordered(List<Workout> workouts);
+
+    void insertRestored(Workout workout);
+
+    List<WorkoutSummary> findSummariesByUserIdAndDayBetween(String userId, LocalDate from, LocalDate to);
+
+    List<WorkoutOverview> findOverviewsByUserId(String userId);
+
+    List<String> findDistinctUserIds();
+
+    List<ExerciseNameCount> aggregateExerciseNameCounts(String userId, int limit);
+
+    // Errors are keyed by the index of the workout in the inserted list; every other workout was stored.
+    record InsertResult(List<Workout> workouts, Map<Integer, RuntimeException> errors) {
+    }
+}
@@ -0,0 +1,279 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.InsertOneModel;
+import de.aljoschanyang.capstoneprojectfiturae.models.ExerciseNameCount;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutCursor;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutOverview;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutExercisePatch;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutPatch;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutSummary;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AccumulatorOperators;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.VariableOperators;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@RequiredArgsConstructor
+public class WorkoutRepoCustomImpl implements WorkoutRepoCustom {
+    static final Sort KEYSET_SORT = Sort.by(Sort.Order.asc("day"), Sort.Order.asc("id"));
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Workout> findPageByUserId(String userId, WorkoutCursor after, int limit) {
+        return mongoTemplate.find(toPageQuery(userId, after, limit), Workout.class);
+    }
+
+    // The version increment is added by MongoTemplate because Workout declares a @Version property.
+    @Override
+    public Workout patchWorkout(String id, WorkoutPatch patch) {
+        return mongoTemplate.findAndModify(toQuery(id, patch), toUpdate(patch),
+                FindAndModifyOptions.options().returnNew(true), Workout.class);
+    }
+
+    @Override
+    public Workout findVersionById(String id) {
+        return mongoTemplate.findOne(toVersionQuery(id), Workout.class);
+    }
+
+    @Override
+    public List<Workout> findVersionsById(Collection<String> ids) {
+        return mongoTemplate.find(toVersionQuery(ids), Workout.class);
+    }
+
+    @Override
+    public List<WorkoutSummary> findSummariesByUserIdAndDayBetween(String userId, LocalDate from, LocalDate to) {
+        return mongoTemplate.query(Workout.class)
+                .as(WorkoutSummary.class)
+                .matching(toCalendarQuery(userId, from, to))
+                .all();
+    }
+
+    // Both bounds are inclusive; equality on user_id plus the day range and sort is served by user_day_idx.
+    static Query toCalendarQuery(String userId, LocalDate from, LocalDate to) {
+        Query query = Query.query(where("userId").is(userId).and("day").gte(from).lte(to))
+                .with(KEYSET_SORT);
+        query.fields().include("name", "day");
+        return query;
+    }
+
+    @Override
+    public List<WorkoutOverview> findOverviewsByUserId(String userId) {
+        return mongoTemplate.aggregate(toOverviewAggregation(userId), WorkoutOverview.class).getMappedResults();
+    }
+
+    // The plan is folded into its size and volume on the server, so list responses never decode the exercises.
+    static TypedAggregation<Workout> toOverviewAggregation(String userId) {
+        return Aggregation.newAggregation(Workout.class,
+                Aggregation.match(where("userId").is(userId)),
+                Aggregation.sort(KEYSET_SORT),
+                Aggregation.project("userId", "name", "day", "description")
+                        .and(ArrayOperators.Size.lengthOfArray(ConditionalOperators.ifNull("plan").then(List.of())))
+                        .as("exerciseCount")
+                        .and(AccumulatorOperators.Sum.sumOf(VariableOperators.mapItemsOf("plan").as("exercise")
+                                .andApply(ArithmeticOperators.Multiply.valueOf("$$exercise.setCount")
+                                        .multiplyBy("$$exercise.repsPerSet")
+                                        .multiplyBy("$$exercise.weightInKg"))))
+                        .as("totalVolumeInKg"));
+    }
+
+    @Override
+    public List<String> findDistinctUserIds() {
+        return mongoTemplate.findDistinct(new Query(), "userId", Workout.class, String.class);
+    }
+
+    @Override
+    public List<ExerciseNameCount> aggregateExerciseNameCounts(String userId, int limit) {
+        return mongoTemplate.aggregate(toExerciseNameAggregation(userId, limit), ExerciseNameCount.class).getMappedResults();
+    }
+
+    // Spellings are merged by the caller; the pipeline only counts the plan entries per raw name.
+    static TypedAggregation<Workout> toExerciseNameAggregation(String userId, int limit) {
+        List<AggregationOperation> operations = new ArrayList<>();
+        if (userId != null) {
+            operations.add(Aggregation.match(where("userId").is(userId)));
+        }
+        operations.add(Aggregation.project().and("plan.name").as("names"));
+        operations.add(Aggregation.unwind("names"));
+        operations.add(Aggregation.group("names").count().as("count"));
+        operations.add(Aggregation.sort(Sort.Direction.DESC, "count"));
+        operations.add(Aggregation.limit(limit));
+        operations.add(Aggregation.project("count").and("name").previousOperation());
+        return Aggregation.newAggregation(Workout.class, operations);
+    }
+
+    @Override
+    public long deleteVersions(List<Workout> workouts) {
+        return mongoTemplate.remove(toVersionsQuery(workouts), Workout.class).getDeletedCount();
+    }
+
+    // Entity callbacks do not run for driver-level writes, so the id, version and time are set as MongoTemplate.insert would.
+    @Override
+    public InsertResult insertUnordered(List<Workout> workouts) {
+        Instant modifiedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        List<Workout> prepared = workouts.stream()
+                .map(workout -> workout.toBuilder()
+                        .id(new ObjectId().toHexString())
+                        .version(0L)
+                        .modifiedAt(modifiedAt)
+                        .build())
+                .toList();
+        List<InsertOneModel<Document>> models = prepared.stream()
+                .map(workout -> {
+                    Document document = new Document();
+                    mongoTemplate.getConverter().write(workout, document);
+                    return new InsertOneModel<>(document);
+                })
+                .toList();
+        Map<Integer, RuntimeException> errors = mongoTemplate.execute(Workout.class, collection -> {
+            try {
+                collection.bulkWrite(models, new BulkWriteOptions().ordered(false));
+                return Map.of();
+            } catch (MongoBulkWriteException e) {
+                // Without the write concern no insert is known to be durable, so the whole batch fails.
+                if (e.getWriteConcernError() != null) {
+                    throw e;
+                }
+                return toInsertErrors(e.getWriteErrors());
+            }
+        });
+        return new InsertResult(prepared, errors);
+    }
+
+    // MongoTemplate.insert would reset the version to 0 and stamp a new time, so the stored document is written as is.
+    // Archived names were registered when the workout was packed, so the converter finds their ids without the save callback.
+    @Override
+    public void insertRestored(Workout workout) {
+        Document document = new Document();
+        mongoTemplate.getConverter().write(workout, document);
+        mongoTemplate.execute(Workout.class, collection -> collection.insertOne(document));
+    }
+
+    static Map<Integer, RuntimeException> toInsertErrors(List<BulkWriteError> writeErrors) {
+        Map<Integer, RuntimeException> errors = new HashMap<>();
+        for (BulkWriteError error : writeErrors) {
+            errors.put(error.getIndex(), ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY
+                    ? new DuplicateKeyException(error.getMessage())
+                    : new DataIntegrityViolationException(error.getMessage()));
+        }
+        return errors;
+    }
+
+    // One deleteMany that only removes workouts still at the version the caller has read.
+    static Query toVersionsQuery(List<Workout> workouts) {
+        return Query.query(new Criteria().orOperator(workouts.stream()
+                .map(workout -> where("id").is(workout.id()).and("version").is(workout.version()))
+                .toList()));
+    }
+
+    // Revalidating a cached copy only needs the version fields, not the plan.
+    static Query toVersionQuery(String id) {
+        return withVersionFields(Query.query(where("id").is(id)));
+    }
+
+    static Query toVersionQuery(Collection<String> ids) {
+        return withVersionFields(Query.query(where("id").in(ids)));
+    }
+
+    private static Query withVersionFields(Query query) {
+        query.fields().include("userId", "version", "modifiedAt");
+        return query;
+    }
+
+    static Query toQuery(String id, WorkoutPatch patch) {
+        Criteria criteria = where("id").is(id).and("version").is(patch.version());
+        if (patch.exercises() != null) {
+            // Setting a position past the end would pad the plan with nulls, so the highest index has to exist.
+            // The query mapper does not translate positional paths, hence the stored field name.
+            patch.exercises().stream()
+                    .mapToInt(WorkoutExercisePatch::index)
+                    .max()
+                    .ifPresent(maxIndex -> criteria.and("workout_plan." + maxIndex).exists(true));
+        }
+        return Query.query(criteria);
+    }
+
+    static Update toUpdate(WorkoutPatch patch) {
+        Update update = new Update().currentDate("modifiedAt");
+        setIfPresent(update, "name", patch.name());
+        setIfPresent(update, "day", patch.day());
+        setIfPresent(update, "description", patch.description());
+        setIfPresent(update, "plan", patch.plan());
+        if (patch.exercises() != null) {
+            for (WorkoutExercisePatch exercise : patch.exercises()) {
+                String path = "plan." + exercise.index() + ".";
+                // Mapped through ExerciseNameConverter like a save, so the name is stored as its catalog id.
+                setIfPresent(update, path + "name", exercise.name());
+                setIfPresent(update, path + "setCount", exercise.setCount());
+                setIfPresent(update, path + "repsPerSet", exercise.repsPerSet());
+                setIfPresent(update, path + "weightInKg", exercise.weightInKg());
+                setIfPresent(update, path + "breakInSec", exercise.breakInSec());
+            }
+        }
+        return update;
+    }
+
+    private static void setIfPresent(Update update, String key, Object value) {
+        if (value != null) {
+            update.set(key, value);
+        }
+    }
+
+    static Query toPageQuery(String userId, WorkoutCursor after, int limit) {
+        Criteria criteria = where("userId").is(userId);
+        if (after != null) {
+            criteria = criteria.andOperator(afterCursor(after));
+        }
+        return Query.query(criteria)
+                .with(KEYSET_SORT)
+                .limit(limit);
+    }
+
+    // Workouts without a day sort first, so a cursor on a null day still has to include every dated workout.
+    private static Criteria afterCursor(WorkoutCursor after) {
+        Object afterId = toStoredId(after.id());
+        if (after.day() == null) {
+            return new Criteria().orOperator(
+                    where("day").is(null).and("id").gt(afterId),
+                    where("day").ne(null));
+        }
+        return new Criteria().orOperator(
+                where("day").gt(after.day()),
+                where("day").is(after.day()).and("id").gt(afterId));
+    }
+
+    // Generated ids are stored as ObjectIds, and range operators are not converted by the query mapper.
+    private static Object toStoredId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+}
@@ -0,0 +1,12 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutSchedule;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface WorkoutScheduleRepo extends MongoRepository<WorkoutSchedule, String>, WorkoutScheduleRepoCustom {
+    List<WorkoutSchedule> findByUserIdOrderByStartDayAsc(String userId);
+}
@@ -0,0 +1,9 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import java.time.LocalDate;
+
+public interface WorkoutScheduleRepoCustom {
+    boolean claimDay(String id, LocalDate day);
+
+    void releaseDay(String id, LocalDate day);
+}
@@ -0,0 +1,32 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutSchedule;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@RequiredArgsConstructor
+public class WorkoutScheduleRepoCustomImpl implements WorkoutScheduleRepoCustom {
+    private final MongoTemplate mongoTemplate;
+
+    // Only one request can add the day, so an occurrence is logged at most once.
+    @Override
+    public boolean claimDay(String id, LocalDate day) {
+        return mongoTemplate.updateFirst(toClaimQuery(id, day), new Update().addToSet("handledDays", day), WorkoutSchedule.class)
+                .getModifiedCount() > 0;
+    }
+
+    static Query toClaimQuery(String id, LocalDate day) {
+        return Query.query(where("id").is(id).and("handledDays").ne(day));
+    }
+
+    @Override
+    public void releaseDay(String id, LocalDate day) {
+        mongoTemplate.updateFirst(Query.query(where("id").is(id)), new Update().pull("handledDays", day), WorkoutSchedule.class);
+    }
+}
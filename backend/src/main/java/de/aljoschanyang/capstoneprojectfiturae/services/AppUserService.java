@@ -7,12 +7,20 @@ import de.aljoschanyang.capstoneprojectfiturae.repositories.AppUserRepo;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @AllArgsConstructor
 public class AppUserService {
     private AppUserRepo appUserRepo;
+    private PrincipalCache principalCache;
+    private KnownUserCache knownUserCache;
 
     private AppUser convertToEntity(AppUserDetails appUserDetails) {
         return AppUser.builder()
@@ -25,15 +33,82 @@ public class AppUserService {
 
     public AppUser addUser(AppUserDetails appUserDetails) {
         AppUser appUser = convertToEntity(appUserDetails);
+        AppUser addedUser;
         if(appUserDetails.id() != null) {
             Optional<AppUser> existingUser = appUserRepo.findById(appUser.id());
-            return existingUser.orElse(appUserRepo.save(appUser));
+            addedUser = existingUser.orElseGet(() -> appUserRepo.save(appUser));
         } else {
-            return appUserRepo.save(appUser);
+            addedUser = appUserRepo.save(appUser);
         }
+        knownUserCache.remember(addedUser.id());
+        return addedUser;
+    }
+
+    public AppUser resolveOAuthUser(AppUserDetails appUserDetails) {
+        AppUser cachedUser = principalCache.get(appUserDetails.id());
+        if (cachedUser != null && hasSameOAuthAttributes(cachedUser, appUserDetails)) {
+            return cachedUser;
+        }
+
+        AppUser resolvedUser = upsertOAuthUser(appUserDetails);
+        principalCache.put(resolvedUser.id(), resolvedUser);
+        knownUserCache.remember(resolvedUser.id());
+        return resolvedUser;
+    }
+
+    private AppUser upsertOAuthUser(AppUserDetails appUserDetails) {
+        Optional<AppUser> existingUser = appUserRepo.findById(appUserDetails.id());
+        if (existingUser.isPresent() && hasSameOAuthAttributes(existingUser.get(), appUserDetails)) {
+            return existingUser.get();
+        }
+
+        return appUserRepo.save(AppUser.builder()
+                .id(appUserDetails.id())
+                .name(appUserDetails.name())
+                .email(existingUser.map(AppUser::email).orElse(appUserDetails.email()))
+                .imageUrl(appUserDetails.imageUrl())
+                .build());
+    }
+
+    private static boolean hasSameOAuthAttributes(AppUser appUser, AppUserDetails appUserDetails) {
+        return Objects.equals(appUser.name(), appUserDetails.name())
+                && Objects.equals(appUser.imageUrl(), appUserDetails.imageUrl());
     }
 
     public AppUser getUserById (String id) {
-        return appUserRepo.findById(id).orElseThrow(NoSuchUserException::new);
+        AppUser appUser = appUserRepo.findById(id).orElseThrow(NoSuchUserException::new);
+        knownUserCache.remember(appUser.id());
+        return appUser;
+    }
+
+    // Callers that only need to know the user exists skip decoding the document; known ids cost no round trip.
+    public void requireUser(String id) {
+        if (knownUserCache.isKnown(id)) {
+            return;
+        }
+        if (!appUserRepo.existsById(id)) {
+            throw new NoSuchUserException();
+        }
+        knownUserCache.remember(id);
+    }
+
+    // One $in query on _id answers the unknown ids of a whole batch of callers.
+    public Set<String> getExistingUserIds(Collection<String> ids) {
+        Set<String> existingIds = new HashSet<>();
+        List<String> unknownIds = new ArrayList<>();
+        for (String id : ids) {
+            if (knownUserCache.isKnown(id)) {
+                existingIds.add(id);
+            } else {
+                unknownIds.add(id);
+            }
+        }
+        if (!unknownIds.isEmpty()) {
+            for (AppUser appUser : appUserRepo.findIdsByIdIn(unknownIds)) {
+                knownUserCache.remember(appUser.id());
+                existingIds.add(appUser.id());
+            }
+        }
+        return existingIds;
     }
 }
@@ -0,0 +1,127 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.ExerciseCatalogEntry;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutExercise;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.ExerciseCatalogRepo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Entries are never changed or removed, so the dictionary only has to catch up with ids added by other nodes.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExerciseCatalog {
+    static final int MAX_ATTEMPTS = 3;
+
+    private final ExerciseCatalogRepo exerciseCatalogRepo;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile ExerciseDictionary dictionary = ExerciseDictionary.EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            refresh();
+            log.info("Loaded {} catalog exercises", dictionary.size());
+        } catch (DataAccessException e) {
+            log.warn("Could not load the exercise catalog; names are loaded on first use", e);
+        }
+    }
+
+    // An id written by another node is newer than every known one, so a miss reads just the entries after it.
+    public String nameOf(int id) {
+        String name = dictionary.nameOf(id);
+        if (name == null && id > dictionary.maxId()) {
+            refresh();
+            name = dictionary.nameOf(id);
+        }
+        if (name == null) {
+            throw new IllegalStateException("The exercise " + id + " is not in the catalog");
+        }
+        return name;
+    }
+
+    // Returns the dictionary's instance for a known name, so legacy documents share it as well.
+    public String canonicalName(String name) {
+        Integer id = dictionary.idOf(name);
+        return id == null ? name : dictionary.nameOf(id);
+    }
+
+    public int idOf(String name) {
+        Integer id = dictionary.idOf(name);
+        return id != null ? id : register(name);
+    }
+
+    // Used during conversion, which must not write; every save registers its names before the workout is converted.
+    public int registeredIdOf(String name) {
+        Integer id = dictionary.idOf(name);
+        if (id == null) {
+            throw new IllegalStateException("The exercise " + name + " is not in the catalog");
+        }
+        return id;
+    }
+
+    public void registerAll(Collection<String> names) {
+        names.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .filter(name -> dictionary.idOf(name) == null)
+                .forEach(this::register);
+    }
+
+    public void registerExercisesOf(Collection<Workout> workouts) {
+        registerAll(workouts.stream()
+                .filter(workout -> workout.plan() != null)
+                .flatMap(workout -> workout.plan().stream())
+                .map(WorkoutExercise::name)
+                .toList());
+    }
+
+    public int size() {
+        return dictionary.size();
+    }
+
+    // The unique name index and the _id decide concurrent registrations; the loser picks up the winner's entry.
+    private int register(String name) {
+        writeLock.lock();
+        try {
+            for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                refresh();
+                Integer known = dictionary.idOf(name);
+                if (known != null) {
+                    return known;
+                }
+                ExerciseCatalogEntry entry = new ExerciseCatalogEntry(dictionary.maxId() + 1, name);
+                try {
+                    exerciseCatalogRepo.insert(entry);
+                    dictionary = dictionary.with(List.of(entry));
+                    return entry.id();
+                } catch (DuplicateKeyException e) {
+                    log.debug("Exercise {} or id {} was registered concurrently", name, entry.id());
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        throw new IllegalStateException("The exercise could not be added to the catalog");
+    }
+
+    private void refresh() {
+        writeLock.lock();
+        try {
+            dictionary = dictionary.with(exerciseCatalogRepo.findByIdGreaterThanOrderByIdAsc(dictionary.maxId()));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
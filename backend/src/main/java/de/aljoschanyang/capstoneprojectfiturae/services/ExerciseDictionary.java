@@ -0,0 +1,55 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.ExerciseCatalogEntry;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Immutable snapshot of the catalog. Every decoded plan entry shares the one name instance held here.
+final class ExerciseDictionary {
+    static final ExerciseDictionary EMPTY = new ExerciseDictionary(new String[1], Map.of());
+
+    private final String[] namesById;
+    private final Map<String, Integer> idsByName;
+
+    private ExerciseDictionary(String[] namesById, Map<String, Integer> idsByName) {
+        this.namesById = namesById;
+        this.idsByName = idsByName;
+    }
+
+    String nameOf(int id) {
+        return id > 0 && id < namesById.length ? namesById[id] : null;
+    }
+
+    Integer idOf(String name) {
+        return idsByName.get(name);
+    }
+
+    // Ids are assigned in ascending order, so the highest known id marks where a refresh has to continue.
+    int maxId() {
+        return namesById.length - 1;
+    }
+
+    int size() {
+        return idsByName.size();
+    }
+
+    ExerciseDictionary with(List<ExerciseCatalogEntry> entries) {
+        if (entries.isEmpty()) {
+            return this;
+        }
+        int maxId = maxId();
+        for (ExerciseCatalogEntry entry : entries) {
+            maxId = Math.max(maxId, entry.id());
+        }
+        String[] names = Arrays.copyOf(namesById, maxId + 1);
+        Map<String, Integer> ids = new HashMap<>(idsByName);
+        for (ExerciseCatalogEntry entry : entries) {
+            names[entry.id()] = entry.name();
+            ids.put(entry.name(), entry.id());
+        }
+        return new ExerciseDictionary(names, ids);
+    }
+}
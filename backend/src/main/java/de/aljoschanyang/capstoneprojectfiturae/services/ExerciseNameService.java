@@ -0,0 +1,135 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.CacheStats;
+import de.aljoschanyang.capstoneprojectfiturae.models.ExerciseNameCount;
+import de.aljoschanyang.capstoneprojectfiturae.models.ExerciseSuggestion;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutExercise;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+// A user's index is loaded on their first lookup and the global one by ExerciseNameIndexJob. Both follow this node's
+// writes; writes on other nodes show up once the user index expires or the global one is rebuilt.
+@Service
+public class ExerciseNameService implements WorkoutChangeListener {
+    static final int MAX_SUGGESTIONS = 20;
+
+    private final WorkoutRepo workoutRepo;
+    private final AppUserService appUserService;
+    private final TtlCache<String, ExercisePrefixIndex> userIndexes;
+    private final int maxNamesPerUser;
+    private final int maxGlobalNames;
+    private final Object writeLock = new Object();
+    private volatile ExercisePrefixIndex globalIndex = ExercisePrefixIndex.EMPTY;
+
+    public ExerciseNameService(WorkoutRepo workoutRepo,
+                               AppUserService appUserService,
+                               @Value("${myapp.exercise-names.max-users:1000}") int maxUsers,
+                               @Value("${myapp.exercise-names.max-names-per-user:500}") int maxNamesPerUser,
+                               @Value("${myapp.exercise-names.max-global-names:5000}") int maxGlobalNames,
+                               @Value("${myapp.exercise-names.ttl:30m}") Duration ttl) {
+        this.workoutRepo = workoutRepo;
+        this.appUserService = appUserService;
+        this.userIndexes = new TtlCache<>(maxUsers, ttl);
+        this.maxNamesPerUser = maxNamesPerUser;
+        this.maxGlobalNames = maxGlobalNames;
+    }
+
+    // The user's own names come first; names used by others fill the remaining slots.
+    public List<ExerciseSuggestion> suggest(String userId, String prefix, int limit) {
+        appUserService.requireUser(userId);
+        String key = ExerciseNames.normalize(prefix);
+        String normalizedPrefix = key == null ? "" : key;
+        int size = Math.clamp(limit, 1, MAX_SUGGESTIONS);
+
+        List<ExerciseSuggestion> suggestions = new ArrayList<>(userIndex(userId).suggest(normalizedPrefix, size, true));
+        if (suggestions.size() < size) {
+            Set<String> known = new HashSet<>();
+            suggestions.forEach(suggestion -> known.add(ExerciseNames.normalize(suggestion.name())));
+            for (ExerciseSuggestion suggestion : globalIndex.suggest(normalizedPrefix, size, false)) {
+                if (suggestions.size() < size && known.add(ExerciseNames.normalize(suggestion.name()))) {
+                    suggestions.add(suggestion);
+                }
+            }
+        }
+        return suggestions;
+    }
+
+    // The user's aggregation runs on user_day_idx, so it is cheap enough to load on the request thread.
+    private ExercisePrefixIndex userIndex(String userId) {
+        return userIndexes.computeIfAbsent(userId,
+                key -> ExercisePrefixIndex.of(workoutRepo.aggregateExerciseNameCounts(key, maxNamesPerUser * 2), maxNamesPerUser));
+    }
+
+    // Counting across all users scans the whole collection, so it only runs in the background. Deltas applied while
+    // it runs are lost until the next rebuild, like writes on other nodes.
+    public int rebuildGlobalIndex() {
+        ExercisePrefixIndex index = ExercisePrefixIndex.of(workoutRepo.aggregateExerciseNameCounts(null, maxGlobalNames * 2), maxGlobalNames);
+        synchronized (writeLock) {
+            globalIndex = index;
+        }
+        return index.size();
+    }
+
+    @Override
+    public void onWorkoutChanged(Workout before, Workout after) {
+        Map<String, SortedMap<String, ExerciseNameCount>> deltas = new HashMap<>();
+        addDeltas(deltas, before, -1);
+        addDeltas(deltas, after, 1);
+        applyDeltas(deltas);
+    }
+
+    @Override
+    public void onWorkoutsAdded(List<Workout> workouts) {
+        Map<String, SortedMap<String, ExerciseNameCount>> deltas = new HashMap<>();
+        workouts.forEach(workout -> addDeltas(deltas, workout, 1));
+        applyDeltas(deltas);
+    }
+
+    static void addDeltas(Map<String, SortedMap<String, ExerciseNameCount>> deltas, Workout workout, int sign) {
+        if (workout == null || workout.userId() == null || workout.plan() == null) {
+            return;
+        }
+        for (WorkoutExercise exercise : workout.plan()) {
+            String key = ExerciseNames.normalize(exercise.name());
+            if (key != null) {
+                deltas.computeIfAbsent(workout.userId(), userId -> new TreeMap<>())
+                        .merge(key, new ExerciseNameCount(exercise.name(), sign),
+                                (current, delta) -> new ExerciseNameCount(current.name(), current.count() + delta.count()));
+            }
+        }
+    }
+
+    // User indexes that are not loaded yet are skipped, they read the current state once they are needed.
+    private void applyDeltas(Map<String, SortedMap<String, ExerciseNameCount>> deltas) {
+        deltas.values().forEach(userDeltas -> userDeltas.values().removeIf(delta -> delta.count() == 0));
+        deltas.values().removeIf(Map::isEmpty);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        synchronized (writeLock) {
+            SortedMap<String, ExerciseNameCount> globalDeltas = new TreeMap<>();
+            deltas.forEach((userId, userDeltas) -> {
+                userIndexes.computeIfPresent(userId, index -> index.withDeltas(userDeltas, maxNamesPerUser));
+                userDeltas.forEach((key, delta) -> globalDeltas.merge(key, delta,
+                        (current, added) -> new ExerciseNameCount(current.name(), current.count() + added.count())));
+            });
+            globalIndex = globalIndex.withDeltas(globalDeltas, maxGlobalNames);
+        }
+    }
+
+    public CacheStats userIndexStats() {
+        return userIndexes.stats();
+    }
+}
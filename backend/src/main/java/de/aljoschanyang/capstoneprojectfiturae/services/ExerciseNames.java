@@ -0,0 +1,19 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public final class ExerciseNames {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private ExerciseNames() {
+    }
+
+    // "Bench  Press " and "bench press" are the same exercise; a blank name belongs to none.
+    public static String normalize(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        return WHITESPACE.matcher(name.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,174 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.ExerciseNameCount;
+import de.aljoschanyang.capstoneprojectfiturae.models.ExerciseSuggestion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+
+// Immutable sorted parallel arrays: a prefix is one contiguous range found by binary search,
+// at a fraction of the memory a trie of short names would need.
+final class ExercisePrefixIndex {
+    static final ExercisePrefixIndex EMPTY = new ExercisePrefixIndex(List.of());
+
+    private static final Comparator<Entry> MOST_USED_FIRST =
+            Comparator.comparingLong(Entry::count).reversed().thenComparing(Entry::key);
+
+    private final String[] keys;
+    private final String[] names;
+    private final long[] counts;
+
+    private ExercisePrefixIndex(String[] keys, String[] names, long[] counts, int size) {
+        this.keys = size == keys.length ? keys : Arrays.copyOf(keys, size);
+        this.names = size == names.length ? names : Arrays.copyOf(names, size);
+        this.counts = size == counts.length ? counts : Arrays.copyOf(counts, size);
+    }
+
+    private ExercisePrefixIndex(List<Entry> sortedEntries) {
+        keys = new String[sortedEntries.size()];
+        names = new String[sortedEntries.size()];
+        counts = new long[sortedEntries.size()];
+        for (int i = 0; i < sortedEntries.size(); i++) {
+            Entry entry = sortedEntries.get(i);
+            keys[i] = entry.key();
+            names[i] = entry.name();
+            counts[i] = entry.count();
+        }
+    }
+
+    // Spellings of the same exercise are merged and shown as their most used variant.
+    static ExercisePrefixIndex of(Collection<ExerciseNameCount> nameCounts, int maxNames) {
+        Map<String, Entry> merged = new HashMap<>();
+        for (ExerciseNameCount nameCount : nameCounts) {
+            String key = ExerciseNames.normalize(nameCount.name());
+            if (key != null && nameCount.count() > 0) {
+                merged.merge(key, new Entry(key, nameCount.name().strip(), nameCount.count()), Entry::plus);
+            }
+        }
+        return fromEntries(new ArrayList<>(merged.values()), maxNames);
+    }
+
+    // Only the most used names survive the cap, so one user's typos cannot grow the index without bound.
+    private static ExercisePrefixIndex fromEntries(List<Entry> entries, int maxNames) {
+        if (entries.size() > maxNames) {
+            entries.sort(MOST_USED_FIRST);
+            entries = new ArrayList<>(entries.subList(0, maxNames));
+        }
+        entries.sort(Comparator.comparing(Entry::key));
+        return new ExercisePrefixIndex(entries);
+    }
+
+    // Merges signed count deltas keyed by normalized name in one pass; untouched runs are copied as array slices.
+    ExercisePrefixIndex withDeltas(SortedMap<String, ExerciseNameCount> deltas, int maxNames) {
+        int capacity = keys.length + deltas.size();
+        String[] mergedKeys = new String[capacity];
+        String[] mergedNames = new String[capacity];
+        long[] mergedCounts = new long[capacity];
+        int size = 0;
+        int i = 0;
+        for (Map.Entry<String, ExerciseNameCount> delta : deltas.entrySet()) {
+            int run = lowerBound(delta.getKey(), i) - i;
+            System.arraycopy(keys, i, mergedKeys, size, run);
+            System.arraycopy(names, i, mergedNames, size, run);
+            System.arraycopy(counts, i, mergedCounts, size, run);
+            size += run;
+            i += run;
+
+            boolean known = i < keys.length && keys[i].equals(delta.getKey());
+            long count = (known ? counts[i] : 0) + delta.getValue().count();
+            if (count > 0) {
+                mergedKeys[size] = delta.getKey();
+                mergedNames[size] = known ? names[i] : delta.getValue().name().strip();
+                mergedCounts[size] = count;
+                size++;
+            }
+            if (known) {
+                i++;
+            }
+        }
+        int rest = keys.length - i;
+        System.arraycopy(keys, i, mergedKeys, size, rest);
+        System.arraycopy(names, i, mergedNames, size, rest);
+        System.arraycopy(counts, i, mergedCounts, size, rest);
+        size += rest;
+
+        ExercisePrefixIndex merged = new ExercisePrefixIndex(mergedKeys, mergedNames, mergedCounts, size);
+        return size > maxNames ? merged.dropLeastUsed(size - maxNames) : merged;
+    }
+
+    // A write adds at most a few names, so the excess is dropped by selection rather than by sorting everything.
+    private ExercisePrefixIndex dropLeastUsed(int excess) {
+        if (excess > 8) {
+            List<Entry> entries = new ArrayList<>(keys.length);
+            for (int i = 0; i < keys.length; i++) {
+                entries.add(new Entry(keys[i], names[i], counts[i]));
+            }
+            return fromEntries(entries, keys.length - excess);
+        }
+        boolean[] dropped = new boolean[keys.length];
+        for (int round = 0; round < excess; round++) {
+            int least = -1;
+            for (int i = 0; i < keys.length; i++) {
+                if (!dropped[i] && (least < 0 || counts[i] < counts[least])) {
+                    least = i;
+                }
+            }
+            dropped[least] = true;
+        }
+        int size = keys.length - excess;
+        String[] keptKeys = new String[size];
+        String[] keptNames = new String[size];
+        long[] keptCounts = new long[size];
+        int kept = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (!dropped[i]) {
+                keptKeys[kept] = keys[i];
+                keptNames[kept] = names[i];
+                keptCounts[kept] = counts[i];
+                kept++;
+            }
+        }
+        return new ExercisePrefixIndex(keptKeys, keptNames, keptCounts, size);
+    }
+
+    private int lowerBound(String key, int from) {
+        int index = Arrays.binarySearch(keys, from, keys.length, key);
+        return index < 0 ? -index - 1 : index;
+    }
+
+    List<ExerciseSuggestion> suggest(String prefix, int limit, boolean usedByUser) {
+        int from = lowerBound(prefix, 0);
+        // A min-heap of the best positions so far keeps the scan allocation-free beyond the limit.
+        PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1,
+                Comparator.<Integer>comparingLong(index -> counts[index]).thenComparing(index -> keys[index], Comparator.reverseOrder()));
+        for (int index = from; index < keys.length && keys[index].startsWith(prefix); index++) {
+            best.add(index);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<ExerciseSuggestion> suggestions = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            int index = best.poll();
+            suggestions.add(new ExerciseSuggestion(names[index], counts[index], usedByUser));
+        }
+        return suggestions.reversed();
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    private record Entry(String key, String name, long count) {
+        Entry plus(Entry other) {
+            return new Entry(key, count >= other.count ? name : other.name, count + other.count);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Users are never deleted, so an id seen once stays valid; the bound and TTL only cap the memory.
+@Component
+public class KnownUserCache extends TtlCache<String, Boolean> {
+    public KnownUserCache(@Value("${myapp.cache.known-users.max-size:100000}") int maxSize,
+                          @Value("${myapp.cache.known-users.ttl:1h}") Duration ttl) {
+        super(maxSize, ttl);
+    }
+
+    public boolean isKnown(String userId) {
+        return get(userId) != null;
+    }
+
+    public void remember(String userId) {
+        put(userId, Boolean.TRUE);
+    }
+}
@@ -0,0 +1,279 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.NoSuchPersonalRecordException;
+import de.aljoschanyang.capstoneprojectfiturae.models.PersonalRecord;
+import de.aljoschanyang.capstoneprojectfiturae.models.PersonalRecordSummary;
+import de.aljoschanyang.capstoneprojectfiturae.models.RecordCheckResult;
+import de.aljoschanyang.capstoneprojectfiturae.models.RecordEntry;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutExercise;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.PersonalRecordRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutRepo;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@AllArgsConstructor
+public class PersonalRecordService implements WorkoutChangeListener {
+    static final int TOP_K = 5;
+    static final int MAX_ATTEMPTS = 3;
+
+    static final Comparator<RecordEntry> BEST_FIRST = Comparator.comparingDouble(RecordEntry::value).reversed()
+            .thenComparing(RecordEntry::day, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(RecordEntry::workoutId);
+
+    private PersonalRecordRepo personalRecordRepo;
+    private WorkoutRepo workoutRepo;
+    private AppUserService appUserService;
+    private WorkoutArchiveService workoutArchiveService;
+
+    public List<PersonalRecordSummary> getRecords(String userId) {
+        appUserService.requireUser(userId);
+        return personalRecordRepo.findByUserIdOrderByExerciseAsc(userId).stream()
+                .map(PersonalRecordSummary::of)
+                .toList();
+    }
+
+    public PersonalRecordSummary getRecord(String userId, String exercise) {
+        appUserService.requireUser(userId);
+        String key = ExerciseNames.normalize(exercise);
+        if (key == null) {
+            throw new NoSuchPersonalRecordException();
+        }
+        return personalRecordRepo.findById(PersonalRecord.idOf(userId, key))
+                .map(PersonalRecordSummary::of)
+                .orElseThrow(NoSuchPersonalRecordException::new);
+    }
+
+    // Only exercises whose best results changed are written; the consistency check repairs failed writes.
+    @Override
+    public void onWorkoutChanged(Workout before, Workout after) {
+        Workout workout = after != null ? after : before;
+        if (workout == null || workout.id() == null) {
+            return;
+        }
+        Map<String, Contribution> removed = contributionsOf(before);
+        Map<String, Contribution> added = contributionsOf(after);
+        Set<String> keys = new LinkedHashSet<>(removed.keySet());
+        keys.addAll(added.keySet());
+        for (String key : keys) {
+            Contribution contribution = added.get(key);
+            if (!Objects.equals(removed.get(key), contribution)) {
+                updateRecord(workout.userId(), key, Set.of(workout.id()), contribution == null ? List.of() : List.of(contribution));
+            }
+        }
+    }
+
+    // An import batch touches each exercise once, however many of its workouts contain it.
+    @Override
+    public void onWorkoutsAdded(List<Workout> workouts) {
+        Map<String, Map<String, List<Contribution>>> byUser = new HashMap<>();
+        for (Workout workout : workouts) {
+            contributionsOf(workout).forEach((key, contribution) -> byUser
+                    .computeIfAbsent(workout.userId(), userId -> new LinkedHashMap<>())
+                    .computeIfAbsent(key, k -> new ArrayList<>())
+                    .add(contribution));
+        }
+        byUser.forEach((userId, contributions) -> contributions.forEach((key, added) -> updateRecord(userId, key, Set.of(), added)));
+    }
+
+    private void updateRecord(String userId, String key, Set<String> retracted, List<Contribution> added) {
+        try {
+            for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                PersonalRecord current = personalRecordRepo.findById(PersonalRecord.idOf(userId, key)).orElse(null);
+                PersonalRecord updated = apply(current, userId, key, retracted, added);
+                if (updated != null && needsRefill(current, updated)) {
+                    updated = refill(current, userId, key);
+                }
+                try {
+                    write(current, updated);
+                    return;
+                } catch (OptimisticLockingFailureException | DuplicateKeyException e) {
+                    // Another write changed the record in between, so the delta is applied to the new state.
+                }
+            }
+            log.warn("Personal record {} of user {} stayed contended, it is corrected by the next check", key, userId);
+        } catch (DataAccessException e) {
+            log.warn("Personal record {} of user {} could not be updated, it is corrected by the next check", key, userId, e);
+        }
+    }
+
+    private void write(PersonalRecord current, PersonalRecord updated) {
+        if (updated != null) {
+            personalRecordRepo.save(updated);
+        } else if (current != null) {
+            personalRecordRepo.delete(current);
+        }
+    }
+
+    // Results beyond the top entries were dropped, so after a retraction the list is refilled from the workouts.
+    private PersonalRecord refill(PersonalRecord current, String userId, String key) {
+        List<Contribution> contributions = new ArrayList<>();
+        for (Workout workout : WorkoutTiers.withArchived(workoutRepo.findWorkoutsByUserId(userId), workoutArchiveService.findWorkoutsByUserId(userId))) {
+            Contribution contribution = contributionsOf(workout).get(key);
+            if (contribution != null) {
+                contributions.add(contribution);
+            }
+        }
+        PersonalRecord rebuilt = apply(null, userId, key, Set.of(), contributions);
+        if (rebuilt == null) {
+            return null;
+        }
+        return rebuilt.toBuilder()
+                .name(current == null ? rebuilt.name() : current.name())
+                .version(current == null ? null : current.version())
+                .build();
+    }
+
+    // Every dropped result ranks behind the old last entry. If the new last entry ranks behind it too, because an entry
+    // was retracted or lowered, a dropped result may belong in the list.
+    static boolean needsRefill(PersonalRecord current, PersonalRecord updated) {
+        return current != null && current.truncated()
+                && (lostRank(current.topWeights(), updated.topWeights()) || lostRank(current.topSetVolumes(), updated.topSetVolumes()));
+    }
+
+    private static boolean lostRank(List<RecordEntry> before, List<RecordEntry> after) {
+        return after.size() < TOP_K || before.isEmpty()
+                || BEST_FIRST.compare(after.get(after.size() - 1), before.get(before.size() - 1)) > 0;
+    }
+
+    static PersonalRecord apply(PersonalRecord current, String userId, String key, Set<String> retracted, List<Contribution> added) {
+        List<RecordEntry> weights = new ArrayList<>(current == null ? List.of() : current.topWeights());
+        List<RecordEntry> setVolumes = new ArrayList<>(current == null ? List.of() : current.topSetVolumes());
+        weights.removeIf(entry -> retracted.contains(entry.workoutId()));
+        setVolumes.removeIf(entry -> retracted.contains(entry.workoutId()));
+        for (Contribution contribution : added) {
+            weights.add(contribution.weight());
+            setVolumes.add(contribution.setVolume());
+        }
+        boolean truncated = (current != null && current.truncated()) || weights.size() > TOP_K || setVolumes.size() > TOP_K;
+        if (weights.isEmpty() && setVolumes.isEmpty() && !truncated) {
+            return null;
+        }
+        weights.sort(BEST_FIRST);
+        setVolumes.sort(BEST_FIRST);
+
+        String name = current != null ? current.name() : added.isEmpty() ? key : added.get(0).name();
+        return PersonalRecord.builder()
+                .id(PersonalRecord.idOf(userId, key))
+                .userId(userId)
+                .exercise(key)
+                .name(name)
+                .topWeights(List.copyOf(weights.subList(0, Math.min(TOP_K, weights.size()))))
+                .topSetVolumes(List.copyOf(setVolumes.subList(0, Math.min(TOP_K, setVolumes.size()))))
+                .truncated(truncated)
+                .version(current == null ? null : current.version())
+                .build();
+    }
+
+    // A workout counts once per exercise, with its heaviest weight and its biggest single set.
+    static Map<String, Contribution> contributionsOf(Workout workout) {
+        if (workout == null || workout.id() == null || workout.userId() == null || workout.plan() == null) {
+            return Map.of();
+        }
+        Map<String, Contribution> contributions = new LinkedHashMap<>();
+        for (WorkoutExercise exercise : workout.plan()) {
+            String key = ExerciseNames.normalize(exercise.name());
+            if (key == null || exercise.setCount() <= 0 || exercise.repsPerSet() <= 0) {
+                continue;
+            }
+            Contribution contribution = new Contribution(exercise.name().strip(),
+                    new RecordEntry(workout.id(), workout.day(), exercise.weightInKg()),
+                    new RecordEntry(workout.id(), workout.day(), exercise.repsPerSet() * exercise.weightInKg()));
+            contributions.merge(key, contribution, Contribution::max);
+        }
+        return contributions;
+    }
+
+    public RecordCheckResult check(String userId, boolean repair) {
+        appUserService.requireUser(userId);
+        return checkRecords(userId, repair);
+    }
+
+    public List<RecordCheckResult> checkAll(boolean repair) {
+        return workoutArchiveService.withArchivedUserIds(workoutRepo.findDistinctUserIds()).stream()
+                .map(userId -> checkRecords(userId, repair))
+                .toList();
+    }
+
+    // Rebuilds the records from both tiers of workouts and compares them with the maintained ones.
+    private RecordCheckResult checkRecords(String userId, boolean repair) {
+        Map<String, PersonalRecord> expected;
+        try (Stream<Workout> workouts = WorkoutTiers.mergeByDay(workoutArchiveService.streamWorkoutsByUserId(userId),
+                workoutRepo.streamWorkoutsByUserIdOrderByDayAscIdAsc(userId))) {
+            expected = rebuildRecords(userId, workouts);
+        }
+        Map<String, PersonalRecord> stored = new HashMap<>();
+        personalRecordRepo.findByUserIdOrderByExerciseAsc(userId).forEach(record -> stored.put(record.id(), record));
+
+        Set<String> ids = new LinkedHashSet<>(expected.keySet());
+        ids.addAll(stored.keySet());
+        int mismatched = 0;
+        for (String id : ids) {
+            PersonalRecord expectedRecord = expected.get(id);
+            PersonalRecord storedRecord = stored.get(id);
+            if (sameEntries(expectedRecord, storedRecord)) {
+                continue;
+            }
+            mismatched++;
+            if (repair) {
+                repair(storedRecord, expectedRecord);
+            }
+        }
+        if (mismatched > 0) {
+            log.warn("{} personal records of user {} did not match their workouts", mismatched, userId);
+        }
+        return new RecordCheckResult(userId, ids.size(), mismatched, repair && mismatched > 0);
+    }
+
+    private void repair(PersonalRecord stored, PersonalRecord expected) {
+        try {
+            write(stored, expected == null ? null : expected.toBuilder()
+                    .name(stored == null ? expected.name() : stored.name())
+                    .version(stored == null ? null : stored.version())
+                    .build());
+        } catch (OptimisticLockingFailureException | DuplicateKeyException e) {
+            // A concurrent write has just maintained the record itself.
+        }
+    }
+
+    static Map<String, PersonalRecord> rebuildRecords(String userId, Stream<Workout> workouts) {
+        Map<String, List<Contribution>> contributions = new LinkedHashMap<>();
+        workouts.forEach(workout -> contributionsOf(workout)
+                .forEach((key, contribution) -> contributions.computeIfAbsent(key, k -> new ArrayList<>()).add(contribution)));
+        Map<String, PersonalRecord> records = new LinkedHashMap<>();
+        contributions.forEach((key, added) -> records.put(PersonalRecord.idOf(userId, key), apply(null, userId, key, Set.of(), added)));
+        return records;
+    }
+
+    private static boolean sameEntries(PersonalRecord expected, PersonalRecord stored) {
+        if (expected == null || stored == null) {
+            return expected == stored;
+        }
+        return expected.topWeights().equals(stored.topWeights()) && expected.topSetVolumes().equals(stored.topSetVolumes());
+    }
+
+    record Contribution(String name, RecordEntry weight, RecordEntry setVolume) {
+        Contribution max(Contribution other) {
+            return new Contribution(name,
+                    weight.value() >= other.weight.value() ? weight : other.weight,
+                    setVolume.value() >= other.setVolume.value() ? setVolume : other.setVolume);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.AppUser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class PrincipalCache extends TtlCache<String, AppUser> {
+    public PrincipalCache(@Value("${myapp.cache.principal.max-size:10000}") int maxSize,
+                          @Value("${myapp.cache.principal.ttl:5m}") Duration ttl) {
+        super(maxSize, ttl);
+    }
+}
@@ -0,0 +1,88 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.NoSuchUserException;
+import de.aljoschanyang.capstoneprojectfiturae.models.AppUser;
+import de.aljoschanyang.capstoneprojectfiturae.models.AppUserDetails;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.ReactiveAppUserRepo;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+
+@Service
+@AllArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAppUserService {
+    private ReactiveAppUserRepo appUserRepo;
+    private PrincipalCache principalCache;
+    private KnownUserCache knownUserCache;
+
+    public Mono<AppUser> addUser(AppUserDetails appUserDetails) {
+        AppUser appUser = AppUser.builder()
+                .id(appUserDetails.id())
+                .name(appUserDetails.name())
+                .email(appUserDetails.email())
+                .imageUrl(appUserDetails.imageUrl())
+                .build();
+        Mono<AppUser> addedUser = appUserDetails.id() == null
+                ? appUserRepo.save(appUser)
+                : appUserRepo.findById(appUser.id()).switchIfEmpty(Mono.defer(() -> appUserRepo.save(appUser)));
+        return addedUser.doOnNext(user -> knownUserCache.remember(user.id()));
+    }
+
+    public Mono<AppUser> resolveOAuthUser(AppUserDetails appUserDetails) {
+        AppUser cachedUser = principalCache.get(appUserDetails.id());
+        if (cachedUser != null && hasSameOAuthAttributes(cachedUser, appUserDetails)) {
+            return Mono.just(cachedUser);
+        }
+
+        return upsertOAuthUser(appUserDetails)
+                .doOnNext(resolvedUser -> {
+                    principalCache.put(resolvedUser.id(), resolvedUser);
+                    knownUserCache.remember(resolvedUser.id());
+                });
+    }
+
+    private Mono<AppUser> upsertOAuthUser(AppUserDetails appUserDetails) {
+        return appUserRepo.findById(appUserDetails.id())
+                .flatMap(existingUser -> hasSameOAuthAttributes(existingUser, appUserDetails)
+                        ? Mono.just(existingUser)
+                        : appUserRepo.save(toOAuthUser(appUserDetails, existingUser.email())))
+                .switchIfEmpty(Mono.defer(() -> appUserRepo.save(toOAuthUser(appUserDetails, appUserDetails.email()))));
+    }
+
+    private static AppUser toOAuthUser(AppUserDetails appUserDetails, String email) {
+        return AppUser.builder()
+                .id(appUserDetails.id())
+                .name(appUserDetails.name())
+                .email(email)
+                .imageUrl(appUserDetails.imageUrl())
+                .build();
+    }
+
+    private static boolean hasSameOAuthAttributes(AppUser appUser, AppUserDetails appUserDetails) {
+        return Objects.equals(appUser.name(), appUserDetails.name())
+                && Objects.equals(appUser.imageUrl(), appUserDetails.imageUrl());
+    }
+
+    public Mono<AppUser> getUserById(String id) {
+        return appUserRepo.findById(id)
+                .switchIfEmpty(Mono.error(NoSuchUserException::new))
+                .doOnNext(appUser -> knownUserCache.remember(appUser.id()));
+    }
+
+    // Callers that only need to know the user exists skip decoding the document; known ids cost no round trip.
+    public Mono<Void> requireUser(String id) {
+        return Mono.defer(() -> knownUserCache.isKnown(id)
+                ? Mono.empty()
+                : appUserRepo.existsById(id).flatMap(exists -> {
+                    if (!exists) {
+                        return Mono.error(new NoSuchUserException());
+                    }
+                    knownUserCache.remember(id);
+                    return Mono.empty();
+                }));
+    }
+}
@@ -0,0 +1,374 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.InvalidRequestException;
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.NoSuchWorkoutException;
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.WorkoutVersionConflictException;
+import de.aljoschanyang.capstoneprojectfiturae.models.ImportResult;
+import de.aljoschanyang.capstoneprojectfiturae.models.ResourceVersion;
+import de.aljoschanyang.capstoneprojectfiturae.models.TransferFormat;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutBatchItem;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutCursor;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutDetails;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutEdit;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutListVersion;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutOverview;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutPage;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutPatch;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutSummary;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.ReactiveWorkoutListVersionRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.ReactiveWorkoutRepo;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@AllArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWorkoutService {
+    private static final int IMPORT_PIPE_SIZE = 64 * 1024;
+
+    private ReactiveWorkoutRepo workoutRepo;
+    private ReactiveAppUserService appUserService;
+    private WorkoutCache workoutCache;
+    private WorkoutTransferService workoutTransferService;
+    private ReactiveWorkoutListVersionRepo workoutListVersionRepo;
+    private List<WorkoutChangeListener> workoutChangeListeners;
+    private ExerciseCatalog exerciseCatalog;
+    private WorkoutArchiveService workoutArchiveService;
+
+    public Mono<Workout> addWorkout(WorkoutDetails workoutDetails) {
+        return appUserService.requireUser(workoutDetails.userId())
+                .then(Mono.defer(() -> workoutRepo.save(Workout.builder()
+                        .userId(workoutDetails.userId())
+                        .name(workoutDetails.name())
+                        .day(workoutDetails.day())
+                        .description(workoutDetails.description())
+                        .plan(workoutDetails.plan())
+                        .build())))
+                .flatMap(this::onWorkoutSaved)
+                .flatMap(workout -> updateRollups(null, workout));
+    }
+
+    public Flux<Workout> getAllWorkoutsByUserId(String userId) {
+        return getWorkoutListVersion(userId)
+                .flatMapMany(listVersion -> getAllWorkoutsByUserId(userId, listVersion.version()));
+    }
+
+    // Rows are pulled from the cursor as the client consumes them; only a user with archived workouts has the hot ones
+    // collected, because the hot copy of a workout that is being moved replaces its cold one. The emitted rows are cached
+    // once the list is complete, so a client that cancels early leaves no partial list behind.
+    public Flux<Workout> getAllWorkoutsByUserId(String userId, long listVersion) {
+        return appUserService.requireUser(userId)
+                .thenMany(Flux.defer(() -> {
+                    List<Workout> cachedWorkouts = workoutCache.getUserWorkouts(userId, listVersion);
+                    if (cachedWorkouts != null) {
+                        return Flux.fromIterable(cachedWorkouts);
+                    }
+                    List<Workout> loaded = new ArrayList<>();
+                    return readArchived(() -> workoutArchiveService.findWorkoutsByUserId(userId))
+                            .flatMapMany(archived -> archived.isEmpty()
+                                    ? workoutRepo.findWorkoutsByUserId(userId)
+                                    : workoutRepo.findWorkoutsByUserId(userId).collectList()
+                                            .flatMapIterable(hot -> WorkoutTiers.withArchived(hot, archived)))
+                            .doOnNext(loaded::add)
+                            .doOnComplete(() -> workoutCache.putUserWorkouts(userId, listVersion, List.copyOf(loaded)));
+                }));
+    }
+
+    public Flux<WorkoutOverview> getWorkoutOverviewsByUserId(String userId) {
+        return appUserService.requireUser(userId)
+                .then(readArchived(() -> workoutArchiveService.findWorkoutsByUserId(userId)))
+                .flatMapMany(archived -> archived.isEmpty()
+                        ? workoutRepo.findOverviewsByUserId(userId)
+                        : workoutRepo.findOverviewsByUserId(userId).collectList()
+                                .flatMapIterable(overviews -> WorkoutTiers.withArchivedOverviews(overviews, archived)));
+    }
+
+    public Mono<WorkoutListVersion> getWorkoutListVersion(String userId) {
+        return workoutListVersionRepo.findById(userId)
+                .defaultIfEmpty(WorkoutListVersion.initial(userId));
+    }
+
+    public Mono<WorkoutPage> getWorkoutPageByUserId(String userId, String cursor, int limit) {
+        int pageSize = Math.clamp(limit, 1, WorkoutService.MAX_PAGE_SIZE);
+        return appUserService.requireUser(userId)
+                .then(Mono.defer(() -> {
+                    WorkoutCursor after = cursor == null || cursor.isBlank() ? null : WorkoutCursor.decode(cursor);
+                    return Mono.zip(workoutRepo.findPageByUserId(userId, after, pageSize + 1).collectList(),
+                            readArchived(() -> workoutArchiveService.findPageByUserId(userId, after, pageSize + 1)));
+                }))
+                .map(pages -> WorkoutService.toPage(WorkoutTiers.withArchivedPage(pages.getT1(), pages.getT2()), pageSize));
+    }
+
+    public Flux<WorkoutSummary> getWorkoutSummariesByUserId(String userId, LocalDate from, LocalDate to) {
+        return Mono.fromRunnable(() -> WorkoutService.validateCalendarRange(from, to))
+                .then(appUserService.requireUser(userId))
+                .then(readArchived(() -> workoutArchiveService.findWorkoutsByUserIdAndDayBetween(userId, from, to)))
+                .flatMapMany(archived -> archived.isEmpty()
+                        ? workoutRepo.findSummariesByUserIdAndDayBetween(userId, from, to)
+                        : workoutRepo.findSummariesByUserIdAndDayBetween(userId, from, to).collectList()
+                                .flatMapIterable(summaries -> WorkoutTiers.withArchivedSummaries(summaries, archived)));
+    }
+
+    // Both tiers are read through cursors in day order. On equal elements mergeComparing emits from the first source,
+    // so the hot copy of a workout that is being moved comes first and its cold copy is dropped.
+    public Flux<Workout> streamWorkoutsByUserId(String userId) {
+        return appUserService.requireUser(userId)
+                .thenMany(Flux.defer(() -> Flux.mergeComparing(WorkoutArchiveService.DAY_ORDER,
+                                workoutRepo.findWorkoutsByUserIdOrderByDayAscIdAsc(userId),
+                                Flux.fromStream(() -> workoutArchiveService.streamWorkoutsByUserId(userId))
+                                        .subscribeOn(Schedulers.boundedElastic()))
+                        .distinctUntilChanged(Workout::id)));
+    }
+
+    // The header travels with the first row so that an unknown user still fails before anything is written.
+    public Flux<String> exportWorkoutsAsCsv(String userId) {
+        String header = workoutTransferService.csvHeader();
+        return streamWorkoutsByUserId(userId)
+                .map(workoutTransferService::toCsv)
+                .index((index, rows) -> index == 0 ? header + rows : rows)
+                .switchIfEmpty(Mono.fromSupplier(() -> header));
+    }
+
+    // The import parser is blocking, so the request body is piped into it on the bounded elastic scheduler.
+    public Mono<ImportResult> importWorkouts(String userId, Flux<DataBuffer> body, TransferFormat format) {
+        return Mono.fromCallable(() -> {
+            try (PipedInputStream input = new PipedInputStream(IMPORT_PIPE_SIZE)) {
+                PipedOutputStream output = new PipedOutputStream(input);
+                DataBufferUtils.write(body, output)
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .doFinally(signal -> closeQuietly(output))
+                        .subscribe(DataBufferUtils.releaseConsumer(), error -> closeQuietly(output));
+                return workoutTransferService.importWorkouts(userId, input, format);
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static void closeQuietly(PipedOutputStream output) {
+        try {
+            output.close();
+        } catch (IOException e) {
+            // The reading side is gone already.
+        }
+    }
+
+    // Archived workouts are rarely read, so they are not cached.
+    public Mono<Workout> getWorkoutById(String id) {
+        return workoutRepo.findVersionById(id)
+                .flatMap(stored -> {
+                    Workout cachedWorkout = workoutCache.getWorkout(id, stored.version());
+                    if (cachedWorkout != null) {
+                        return Mono.just(cachedWorkout);
+                    }
+                    return workoutRepo.findById(id)
+                            .doOnNext(workoutCache::putWorkout);
+                })
+                .switchIfEmpty(readArchived(() -> workoutArchiveService.findWorkout(id)))
+                .switchIfEmpty(Mono.error(NoSuchWorkoutException::new));
+    }
+
+    public Mono<List<WorkoutBatchItem>> getWorkoutsById(List<String> ids) {
+        return Mono.fromCallable(() -> WorkoutService.validateBatch(ids))
+                .flatMap(uniqueIds -> {
+                    Map<String, Workout> found = new ConcurrentHashMap<>();
+                    return workoutRepo.findVersionsById(uniqueIds)
+                            .collectList()
+                            .flatMapMany(versions -> {
+                                List<String> missing = new ArrayList<>();
+                                for (Workout stored : versions) {
+                                    Workout cachedWorkout = workoutCache.getWorkout(stored.id(), stored.version());
+                                    if (cachedWorkout != null) {
+                                        found.put(stored.id(), cachedWorkout);
+                                    } else {
+                                        missing.add(stored.id());
+                                    }
+                                }
+                                return missing.isEmpty() ? Flux.<Workout>empty() : workoutRepo.findAllById(missing);
+                            })
+                            .doOnNext(workout -> {
+                                workoutCache.putWorkout(workout);
+                                found.put(workout.id(), workout);
+                            })
+                            .then(Mono.defer(() -> {
+                                List<String> notHot = uniqueIds.stream().filter(id -> !found.containsKey(id)).toList();
+                                return notHot.isEmpty()
+                                        ? Mono.<Map<String, Workout>>empty()
+                                        : readArchived(() -> workoutArchiveService.findWorkoutsById(notHot)).doOnNext(found::putAll);
+                            }))
+                            .then(Mono.fromSupplier(() -> WorkoutService.toReadResults(uniqueIds, found)));
+                });
+    }
+
+    public Mono<ResourceVersion> getWorkoutVersion(String id) {
+        return workoutRepo.findVersionById(id)
+                .switchIfEmpty(readArchived(() -> workoutArchiveService.findWorkout(id)))
+                .switchIfEmpty(Mono.error(NoSuchWorkoutException::new))
+                .map(ResourceVersion::of);
+    }
+
+    public Mono<Workout> editWorkout(String id, WorkoutEdit workoutEdit) {
+        return Mono.fromRunnable(() -> WorkoutService.validateEdit(workoutEdit))
+                .then(getEditedVersion(id, workoutEdit.version()))
+                .switchIfEmpty(Mono.error(NoSuchWorkoutException::new))
+                .flatMap(legacy -> Objects.equals(legacy.version(), workoutEdit.version())
+                        ? Mono.just(legacy)
+                        : Mono.error(new WorkoutVersionConflictException()))
+                .flatMap(legacy -> workoutRepo.save(Workout.builder()
+                                .id(legacy.id())
+                                .userId(legacy.userId())
+                                .name(workoutEdit.name())
+                                .day(workoutEdit.day())
+                                .description(workoutEdit.description())
+                                .plan(workoutEdit.plan())
+                                .version(workoutEdit.version())
+                                .build())
+                        .onErrorMap(OptimisticLockingFailureException.class, e -> {
+                            workoutCache.evictWorkout(id);
+                            return new WorkoutVersionConflictException();
+                        })
+                        .flatMap(this::onWorkoutSaved)
+                        .flatMap(workout -> updateRollups(legacy, workout)));
+    }
+
+    public Mono<Workout> patchWorkout(String id, WorkoutPatch workoutPatch) {
+        return Mono.fromRunnable(() -> WorkoutService.validatePatch(workoutPatch))
+                .then(registerExerciseNames(workoutPatch))
+                .then(Mono.defer(() -> WorkoutService.affectsRollups(workoutPatch)
+                        ? getPatchedVersion(id, workoutPatch.version()).map(Optional::of).defaultIfEmpty(Optional.empty())
+                        : Mono.just(Optional.<Workout>empty())))
+                .flatMap(before -> workoutRepo.patchWorkout(id, workoutPatch)
+                        .switchIfEmpty(readArchived(() -> workoutArchiveService.restore(id))
+                                .flatMap(restored -> workoutRepo.patchWorkout(id, workoutPatch)))
+                        .switchIfEmpty(Mono.defer(() -> explainFailedPatch(id, workoutPatch)))
+                        .flatMap(this::onWorkoutSaved)
+                        .flatMap(workout -> before.filter(legacy -> Objects.equals(legacy.version(), workoutPatch.version()))
+                                .map(legacy -> updateRollups(legacy, workout))
+                                .orElseGet(() -> Mono.just(workout))));
+    }
+
+    private Mono<Void> registerExerciseNames(WorkoutPatch workoutPatch) {
+        List<String> names = WorkoutService.exerciseNamesOf(workoutPatch);
+        return names.isEmpty()
+                ? Mono.empty()
+                : Mono.<Void>fromRunnable(() -> exerciseCatalog.registerAll(names)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<Workout> getPatchedVersion(String id, Long version) {
+        return getStoredVersion(id, version)
+                .switchIfEmpty(readArchived(() -> workoutArchiveService.findWorkout(id)));
+    }
+
+    // Changes only go to the hot tier, so an archived workout is moved back first.
+    private Mono<Workout> getEditedVersion(String id, Long version) {
+        return getStoredVersion(id, version)
+                .switchIfEmpty(readArchived(() -> workoutArchiveService.restore(id)));
+    }
+
+    private Mono<Workout> getStoredVersion(String id, Long version) {
+        return Mono.defer(() -> {
+            Workout cachedWorkout = workoutCache.getWorkout(id);
+            if (cachedWorkout != null && Objects.equals(cachedWorkout.version(), version)) {
+                return Mono.just(cachedWorkout);
+            }
+            return workoutRepo.findById(id);
+        });
+    }
+
+    private Mono<Workout> explainFailedPatch(String id, WorkoutPatch workoutPatch) {
+        workoutCache.evictWorkout(id);
+        return workoutRepo.findById(id)
+                .switchIfEmpty(Mono.error(NoSuchWorkoutException::new))
+                .flatMap(current -> Mono.error(Objects.equals(current.version(), workoutPatch.version())
+                        ? new InvalidRequestException("The exercise index is out of range")
+                        : new WorkoutVersionConflictException()));
+    }
+
+    public Mono<Void> deleteWorkout(String id) {
+        return workoutRepo.deleteWorkoutById(id)
+                .switchIfEmpty(readArchived(() -> workoutArchiveService.delete(id)))
+                .doOnNext(workoutCache::onWorkoutDeleted)
+                .flatMap(deleted -> workoutListVersionRepo.increment(deleted.userId())
+                        .then(updateRollups(deleted, null)))
+                .then();
+    }
+
+    // Ids that are not hot are deleted from the cold tier, as in the blocking service.
+    public Mono<List<WorkoutBatchItem>> deleteWorkoutsById(List<String> ids) {
+        return Mono.fromCallable(() -> WorkoutService.validateBatch(ids))
+                .flatMap(uniqueIds -> workoutRepo.findAllById(uniqueIds).collectList()
+                        .flatMap(hot -> Mono.zip(deleteHot(hot), deleteArchived(uniqueIds, hot))
+                                .flatMap(deleted -> {
+                                    List<Workout> archived = deleted.getT2();
+                                    List<Workout> existing = Stream.concat(hot.stream(), archived.stream()).toList();
+                                    List<Workout> removed = Stream.concat(deleted.getT1().stream(), archived.stream()).toList();
+                                    return onWorkoutsDeleted(removed)
+                                            .thenReturn(WorkoutService.toDeleteResults(uniqueIds, existing, removed));
+                                })));
+    }
+
+    private Mono<List<Workout>> deleteHot(List<Workout> existing) {
+        if (existing.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        return workoutRepo.deleteVersions(existing)
+                .flatMap(deleted -> deleted < existing.size()
+                        ? workoutRepo.findAllById(existing.stream().map(Workout::id).toList()).collectList()
+                                .map(remaining -> WorkoutService.withoutRemaining(existing, remaining))
+                        : Mono.just(existing));
+    }
+
+    private Mono<List<Workout>> deleteArchived(List<String> ids, List<Workout> hot) {
+        Set<String> hotIds = hot.stream().map(Workout::id).collect(Collectors.toSet());
+        List<String> notHot = ids.stream().filter(id -> !hotIds.contains(id)).toList();
+        return notHot.isEmpty() ? Mono.just(List.of()) : readArchived(() -> workoutArchiveService.deleteWorkouts(notHot));
+    }
+
+    private Mono<Void> onWorkoutsDeleted(List<Workout> removed) {
+        return Flux.fromIterable(removed)
+                .doOnNext(workoutCache::onWorkoutDeleted)
+                .concatMap(deleted -> updateRollups(deleted, null))
+                .thenMany(Flux.fromIterable(removed).map(Workout::userId).distinct())
+                .concatMap(workoutListVersionRepo::increment)
+                .then();
+    }
+
+    private Mono<Workout> onWorkoutSaved(Workout workout) {
+        workoutCache.onWorkoutSaved(workout);
+        return workoutListVersionRepo.increment(workout.userId())
+                .thenReturn(workout);
+    }
+
+    // The cold tier is read and written through the blocking template, so its calls leave the event loop as well.
+    private <T> Mono<T> readArchived(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // The listeners write through the blocking template, so the update leaves the event loop.
+    private Mono<Workout> updateRollups(Workout before, Workout after) {
+        return Mono.fromRunnable(() -> workoutChangeListeners.forEach(listener -> listener.onWorkoutChanged(before, after)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(Mono.justOrEmpty(after));
+    }
+}
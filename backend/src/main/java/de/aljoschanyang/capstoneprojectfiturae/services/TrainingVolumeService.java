@@ -0,0 +1,186 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.InvalidRequestException;
+import de.aljoschanyang.capstoneprojectfiturae.models.DailyExerciseVolume;
+import de.aljoschanyang.capstoneprojectfiturae.models.ExerciseVolume;
+import de.aljoschanyang.capstoneprojectfiturae.models.TrainingVolume;
+import de.aljoschanyang.capstoneprojectfiturae.models.VolumePeriod;
+import de.aljoschanyang.capstoneprojectfiturae.models.VolumePoint;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutExercise;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.TrainingVolumeRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutRepo;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@AllArgsConstructor
+public class TrainingVolumeService implements WorkoutChangeListener {
+    static final int DEFAULT_PERIODS = 12;
+    static final int MAX_PERIODS = 260;
+
+    private TrainingVolumeRepo trainingVolumeRepo;
+    private WorkoutRepo workoutRepo;
+    private AppUserService appUserService;
+    private WorkoutArchiveService workoutArchiveService;
+
+    // The workout itself is already stored, so a failed rollup write only leaves drift for the next rebuild.
+    @Override
+    public void onWorkoutChanged(Workout before, Workout after) {
+        applyDeltas(toDeltas(before == null ? List.of() : List.of(before), after == null ? List.of() : List.of(after)));
+    }
+
+    @Override
+    public void onWorkoutsAdded(List<Workout> workouts) {
+        applyDeltas(toDeltas(List.of(), workouts));
+    }
+
+    private void applyDeltas(Collection<TrainingVolume> deltas) {
+        try {
+            trainingVolumeRepo.incrementVolumes(deltas);
+        } catch (DataAccessException e) {
+            log.warn("Training volume rollups could not be updated, they are corrected by the next rebuild", e);
+        }
+    }
+
+    // Rows of both sides are netted first, so an edit that only renames a workout writes nothing.
+    static Collection<TrainingVolume> toDeltas(Collection<Workout> removed, Collection<Workout> added) {
+        Map<String, TrainingVolume> deltas = new LinkedHashMap<>();
+        removed.forEach(workout -> accumulate(deltas, workout, -1));
+        added.forEach(workout -> accumulate(deltas, workout, 1));
+        return deltas.values().stream()
+                .map(delta -> delta.toBuilder().volume(roundToGrams(delta.volume())).build())
+                .filter(delta -> delta.volume() != 0)
+                .toList();
+    }
+
+    // Fractional weights leave residue such as 1e-13 when doubles are netted or incremented, so volumes are
+    // written and read in whole grams.
+    static double roundToGrams(double volumeInKg) {
+        return Math.round(volumeInKg * 1000) / 1000.0;
+    }
+
+    private static void accumulate(Map<String, TrainingVolume> rows, Workout workout, int sign) {
+        if (workout.userId() == null || workout.day() == null || workout.plan() == null) {
+            return;
+        }
+        for (WorkoutExercise exercise : workout.plan()) {
+            accumulate(rows, workout.userId(), workout.day(), exercise.name(), sign * volumeOf(exercise));
+        }
+    }
+
+    static double volumeOf(WorkoutExercise exercise) {
+        return (double) exercise.setCount() * exercise.repsPerSet() * exercise.weightInKg();
+    }
+
+    // Every contribution lands in the period total and, if the exercise is named, in the row of its normalized name.
+    private static void accumulate(Map<String, TrainingVolume> rows, String userId, LocalDate day, String exercise, double volume) {
+        String key = ExerciseNames.normalize(exercise);
+        for (VolumePeriod period : VolumePeriod.values()) {
+            LocalDate periodStart = period.start(day);
+            add(rows, userId, period, periodStart, null, null, volume);
+            if (key != null) {
+                add(rows, userId, period, periodStart, key, exercise.strip(), volume);
+            }
+        }
+    }
+
+    private static void add(Map<String, TrainingVolume> rows, String userId, VolumePeriod period, LocalDate periodStart,
+                            String exercise, String exerciseName, double volume) {
+        String id = TrainingVolume.idOf(userId, period, periodStart, exercise);
+        rows.merge(id, new TrainingVolume(id, userId, period, periodStart, exercise, exerciseName, volume),
+                (current, delta) -> current.toBuilder().volume(current.volume() + delta.volume()).build());
+    }
+
+    // Reads one stored row per period, so the cost does not grow with the number of workouts.
+    public List<VolumePoint> getVolume(String userId, String period, LocalDate from, LocalDate to, String exercise) {
+        appUserService.requireUser(userId);
+        VolumePeriod volumePeriod = VolumePeriod.fromName(period);
+        LocalDate last = volumePeriod.start(to == null ? LocalDate.now() : to);
+        LocalDate first = from == null ? volumePeriod.minus(last, DEFAULT_PERIODS - 1L) : volumePeriod.start(from);
+        if (first.isAfter(last)) {
+            throw new InvalidRequestException("The start of the range must not be after its end");
+        }
+        long periods = (volumePeriod == VolumePeriod.WEEK ? ChronoUnit.WEEKS : ChronoUnit.MONTHS).between(first, last) + 1;
+        if (periods > MAX_PERIODS) {
+            throw new InvalidRequestException("The range must not cover more than " + MAX_PERIODS + " periods");
+        }
+
+        Map<LocalDate, Double> stored = new HashMap<>();
+        trainingVolumeRepo.findSeries(userId, volumePeriod, ExerciseNames.normalize(exercise), first, last)
+                .forEach(volume -> stored.put(volume.periodStart(), roundToGrams(volume.volume())));
+
+        // Periods without workouts have no row and are reported as zero.
+        List<VolumePoint> series = new ArrayList<>((int) periods);
+        for (LocalDate periodStart = first; !periodStart.isAfter(last); periodStart = volumePeriod.next(periodStart)) {
+            series.add(new VolumePoint(periodStart, stored.getOrDefault(periodStart, 0.0)));
+        }
+        return series;
+    }
+
+    public List<ExerciseVolume> getExerciseVolumes(String userId, String period, LocalDate day) {
+        appUserService.requireUser(userId);
+        VolumePeriod volumePeriod = VolumePeriod.fromName(period);
+        LocalDate periodStart = volumePeriod.start(day == null ? LocalDate.now() : day);
+        return trainingVolumeRepo.findByUserIdAndPeriodAndPeriodStartAndExerciseIsNotNull(userId, volumePeriod, periodStart).stream()
+                .map(volume -> new ExerciseVolume(volume.exerciseName() == null ? volume.exercise() : volume.exerciseName(), roundToGrams(volume.volume())))
+                .filter(volume -> volume.volume() != 0)
+                .sorted(Comparator.comparingDouble(ExerciseVolume::volume).reversed())
+                .toList();
+    }
+
+    // Deltas applied while a rebuild runs may be lost, which is why it is meant for quiet hours.
+    public int rebuild(String userId) {
+        appUserService.requireUser(userId);
+        return rebuildRollups(userId);
+    }
+
+    public int rebuildAll() {
+        int rows = 0;
+        for (String userId : workoutArchiveService.withArchivedUserIds(workoutRepo.findDistinctUserIds())) {
+            rows += rebuildRollups(userId);
+        }
+        return rows;
+    }
+
+    private int rebuildRollups(String userId) {
+        List<DailyExerciseVolume> dailyVolumes = new ArrayList<>(trainingVolumeRepo.aggregateDailyVolumes(userId));
+        workoutArchiveService.findWorkoutsByUserId(userId).forEach(workout -> dailyVolumes.addAll(toDailyVolumes(workout)));
+        Collection<TrainingVolume> volumes = toRollups(userId, dailyVolumes);
+        trainingVolumeRepo.replaceUserVolumes(userId, volumes);
+        return volumes.size();
+    }
+
+    // The cold tier is packed, so its volumes are computed here instead of in the aggregation.
+    static List<DailyExerciseVolume> toDailyVolumes(Workout workout) {
+        if (workout.plan() == null) {
+            return List.of();
+        }
+        return workout.plan().stream()
+                .map(exercise -> new DailyExerciseVolume(workout.day(), exercise.name(), volumeOf(exercise)))
+                .toList();
+    }
+
+    static Collection<TrainingVolume> toRollups(String userId, List<DailyExerciseVolume> dailyVolumes) {
+        Map<String, TrainingVolume> rows = new LinkedHashMap<>();
+        for (DailyExerciseVolume dailyVolume : dailyVolumes) {
+            accumulate(rows, userId, dailyVolume.day(), dailyVolume.exercise(), dailyVolume.volume());
+        }
+        return rows.values().stream()
+                .map(row -> row.toBuilder().volume(roundToGrams(row.volume())).build())
+                .toList();
+    }
+}
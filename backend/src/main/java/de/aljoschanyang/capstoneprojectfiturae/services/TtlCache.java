@@ -0,0 +1,193 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.CacheStats;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+public class TtlCache<K, V> {
+    private final int maxSize;
+    private final Duration ttl;
+    private final Clock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, CacheEntry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<K, Load<V>> loads = new HashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private record CacheEntry<V>(V value, Instant expiresAt) {
+    }
+
+    private static final class Load<V> {
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private boolean stale;
+    }
+
+    public TtlCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, Clock.systemUTC());
+    }
+
+    public TtlCache(int maxSize, Duration ttl, Clock clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    public V get(K key) {
+        lock.lock();
+        try {
+            CacheEntry<V> entry = entries.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (!entry.expiresAt().isAfter(clock.instant())) {
+                entries.remove(key);
+                evictions.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(K key, V value) {
+        lock.lock();
+        try {
+            entries.put(key, new CacheEntry<>(value, clock.instant().plus(ttl)));
+            if (entries.size() > maxSize) {
+                Map.Entry<K, CacheEntry<V>> eldest = entries.entrySet().iterator().next();
+                entries.remove(eldest.getKey());
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // A value loaded while the key was updated or invalidated may miss that change, so it is returned but not cached.
+    public V computeIfAbsent(K key, Function<K, V> loader) {
+        Load<V> load;
+        boolean loading;
+        lock.lock();
+        try {
+            V value = get(key);
+            if (value != null) {
+                return value;
+            }
+            load = loads.get(key);
+            loading = load == null;
+            if (loading) {
+                load = new Load<>();
+                loads.put(key, load);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (!loading) {
+            return await(load);
+        }
+        try {
+            V value = loader.apply(key);
+            finishLoad(key, load, value);
+            load.result.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            finishLoad(key, load, null);
+            load.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void finishLoad(K key, Load<V> load, V value) {
+        lock.lock();
+        try {
+            loads.remove(key);
+            if (value != null && !load.stale) {
+                put(key, value);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static <V> V await(Load<V> load) {
+        try {
+            return load.result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    public void computeIfPresent(K key, UnaryOperator<V> update) {
+        lock.lock();
+        try {
+            CacheEntry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt().isAfter(clock.instant())) {
+                // The entry keeps its expiry, so an index that follows deltas is still reloaded after the TTL.
+                entries.put(key, new CacheEntry<>(update.apply(entry.value()), entry.expiresAt()));
+            } else {
+                markLoadStale(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            entries.remove(key);
+            markLoadStale(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void markLoadStale(K key) {
+        Load<V> load = loads.get(key);
+        if (load != null) {
+            load.stale = true;
+        }
+    }
+
+    public void invalidateIf(BiPredicate<K, V> predicate) {
+        lock.lock();
+        try {
+            entries.entrySet().removeIf(entry -> predicate.test(entry.getKey(), entry.getValue().value()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size());
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.ArchivedWorkout;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutArchive;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutCursor;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutExercise;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutArchiveRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutListVersionRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutRepo;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Old workouts live in monthly buckets of the cold tier, which keeps the hot collection and its indexes small enough for RAM.
+@Slf4j
+@Service
+@AllArgsConstructor
+public class WorkoutArchiveService {
+    static final Comparator<Workout> DAY_ORDER = Comparator.comparing(Workout::day, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Workout::id);
+
+    private WorkoutRepo workoutRepo;
+    private WorkoutArchiveRepo workoutArchiveRepo;
+    private ExerciseCatalog exerciseCatalog;
+    private WorkoutCache workoutCache;
+    private WorkoutListVersionRepo workoutListVersionRepo;
+
+    public int archiveOlderThan(LocalDate cutoff) {
+        int archived = 0;
+        for (String userId : workoutRepo.findDistinctUserIds()) {
+            archived += archiveUser(userId, cutoff);
+        }
+        return archived;
+    }
+
+    // The cold copy is written before the hot delete, so a crash in between leaves both copies and the next run finishes the move.
+    int archiveUser(String userId, LocalDate cutoff) {
+        List<Workout> workouts = workoutRepo.findWorkoutsByUserIdAndDayBefore(userId, cutoff);
+        if (workouts.isEmpty()) {
+            return 0;
+        }
+        toBuckets(workouts, exerciseCatalog::idOf).forEach((month, packed) -> workoutArchiveRepo.storeMonth(userId, month, packed));
+
+        List<Workout> moved = workouts;
+        if (workoutRepo.deleteVersions(workouts) < workouts.size()) {
+            // A workout saved in between stays hot with its newer version, so its cold copy is dropped again.
+            List<Workout> remaining = workoutRepo.findAllById(workouts.stream().map(Workout::id).toList());
+            workoutArchiveRepo.removeWorkouts(remaining.stream().map(Workout::id).toList());
+            moved = WorkoutService.withoutRemaining(workouts, remaining);
+        }
+        moved.forEach(workout -> workoutCache.evictWorkout(workout.id()));
+        workoutCache.onUserWorkoutsChanged(userId);
+        workoutListVersionRepo.increment(userId);
+        return moved.size();
+    }
+
+    static Map<YearMonth, List<ArchivedWorkout>> toBuckets(List<Workout> workouts, ToIntFunction<String> exerciseIds) {
+        return workouts.stream().collect(Collectors.groupingBy(workout -> YearMonth.from(workout.day()), TreeMap::new,
+                Collectors.mapping(workout -> pack(workout, exerciseIds), Collectors.toList())));
+    }
+
+    static ArchivedWorkout pack(Workout workout, ToIntFunction<String> exerciseIds) {
+        List<WorkoutExercise> plan = workout.plan() == null ? List.of() : workout.plan();
+        List<Integer> ids = new ArrayList<>(plan.size());
+        plan.forEach(exercise -> ids.add(exercise.name() == null ? null : exerciseIds.applyAsInt(exercise.name())));
+        return ArchivedWorkout.builder()
+                .workoutId(workout.id())
+                .name(workout.name())
+                .day(workout.day())
+                .description(workout.description())
+                .exerciseIds(ids)
+                .setCounts(plan.stream().map(WorkoutExercise::setCount).toList())
+                .repsPerSet(plan.stream().map(WorkoutExercise::repsPerSet).toList())
+                .weightsInKg(plan.stream().map(WorkoutExercise::weightInKg).toList())
+                .breaksInSec(plan.stream().map(WorkoutExercise::breakInSec).toList())
+                .version(workout.version())
+                .modifiedAt(workout.modifiedAt())
+                .build();
+    }
+
+    static Workout unpack(String userId, ArchivedWorkout archived, IntFunction<String> exerciseNames) {
+        List<Integer> ids = archived.exerciseIds() == null ? List.of() : archived.exerciseIds();
+        List<WorkoutExercise> plan = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            plan.add(WorkoutExercise.builder()
+                    .name(ids.get(i) == null ? null : exerciseNames.apply(ids.get(i)))
+                    .setCount(archived.setCounts().get(i))
+                    .repsPerSet(archived.repsPerSet().get(i))
+                    .weightInKg(archived.weightsInKg().get(i))
+                    .breakInSec(archived.breaksInSec().get(i))
+                    .build());
+        }
+        return Workout.builder()
+                .id(archived.workoutId())
+                .userId(userId)
+                .name(archived.name())
+                .day(archived.day())
+                .description(archived.description())
+                .plan(List.copyOf(plan))
+                .version(archived.version())
+                .modifiedAt(archived.modifiedAt())
+                .build();
+    }
+
+    // A user whose workouts are all archived has no hot workouts left, but still has rollups and records.
+    public Set<String> withArchivedUserIds(Collection<String> hotUserIds) {
+        Set<String> userIds = new LinkedHashSet<>(hotUserIds);
+        userIds.addAll(workoutArchiveRepo.findDistinctUserIds());
+        return userIds;
+    }
+
+    // Hot ids are ObjectIds, so anything else cannot be in the cold tier either.
+    public Workout findWorkout(String id) {
+        if (!ObjectId.isValid(id)) {
+            return null;
+        }
+        WorkoutArchive bucket = workoutArchiveRepo.findByWorkoutId(id);
+        if (bucket == null || bucket.workouts() == null || bucket.workouts().isEmpty()) {
+            return null;
+        }
+        return unpack(bucket.userId(), bucket.workouts().get(0), exerciseCatalog::nameOf);
+    }
+
+    public Map<String, Workout> findWorkoutsById(Collection<String> ids) {
+        Set<String> validIds = ids.stream().filter(ObjectId::isValid).collect(Collectors.toSet());
+        if (validIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Workout> found = new HashMap<>();
+        unpackAll(workoutArchiveRepo.findByWorkoutIds(validIds))
+                .filter(workout -> validIds.contains(workout.id()))
+                .forEach(workout -> found.put(workout.id(), workout));
+        return found;
+    }
+
+    public List<Workout> findWorkoutsByUserId(String userId) {
+        return unpackAll(workoutArchiveRepo.findByUserIdOrderByIdAsc(userId)).sorted(DAY_ORDER).toList();
+    }
+
+    // Buckets are read through a cursor in month order, so only one month is unpacked at a time.
+    public Stream<Workout> streamWorkoutsByUserId(String userId) {
+        return workoutArchiveRepo.streamByUserIdAndIdGreaterThanEqualOrderByIdAsc(userId, userId + ":")
+                .flatMap(bucket -> unpackAll(List.of(bucket)).sorted(DAY_ORDER));
+    }
+
+    // The range is at most a year, so its buckets are read by their ids.
+    public List<Workout> findWorkoutsByUserIdAndDayBetween(String userId, LocalDate from, LocalDate to) {
+        List<String> bucketIds = new ArrayList<>();
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+            bucketIds.add(WorkoutArchive.idOf(userId, month));
+        }
+        return unpackAll(workoutArchiveRepo.findAllById(bucketIds))
+                .filter(workout -> !workout.day().isBefore(from) && !workout.day().isAfter(to))
+                .sorted(DAY_ORDER)
+                .toList();
+    }
+
+    // Buckets come in month order, so reading stops once a bucket has filled the page.
+    public List<Workout> findPageByUserId(String userId, WorkoutCursor after, int limit) {
+        String firstBucket = after == null || after.day() == null ? userId + ":" : WorkoutArchive.idOf(userId, YearMonth.from(after.day()));
+        List<Workout> page = new ArrayList<>();
+        try (Stream<WorkoutArchive> buckets = workoutArchiveRepo.streamByUserIdAndIdGreaterThanEqualOrderByIdAsc(userId, firstBucket)) {
+            Iterator<WorkoutArchive> iterator = buckets.iterator();
+            while (page.size() < limit && iterator.hasNext()) {
+                unpackAll(List.of(iterator.next()))
+                        .filter(workout -> isAfter(workout, after))
+                        .sorted(DAY_ORDER)
+                        .forEach(page::add);
+            }
+        }
+        return page.size() > limit ? List.copyOf(page.subList(0, limit)) : page;
+    }
+
+    static boolean isAfter(Workout workout, WorkoutCursor cursor) {
+        return cursor == null || DAY_ORDER.compare(workout, Workout.builder().day(cursor.day()).id(cursor.id()).build()) > 0;
+    }
+
+    // Brings a cold workout back so it can be changed like any other. It keeps its version and modification time,
+    // so the client's ETag still matches and the edit is checked against the version the client has read.
+    public Workout restore(String id) {
+        Workout workout = findWorkout(id);
+        if (workout == null) {
+            return null;
+        }
+        try {
+            workoutRepo.insertRestored(workout);
+        } catch (DuplicateKeyException e) {
+            log.debug("Workout {} was restored concurrently", id);
+        }
+        workoutArchiveRepo.removeWorkouts(List.of(id));
+        return workout;
+    }
+
+    public Workout delete(String id) {
+        Workout workout = findWorkout(id);
+        if (workout == null || workoutArchiveRepo.removeWorkouts(List.of(id)) == 0) {
+            return null;
+        }
+        return workout;
+    }
+
+    public List<Workout> deleteWorkouts(Collection<String> ids) {
+        List<Workout> workouts = List.copyOf(findWorkoutsById(ids).values());
+        if (!workouts.isEmpty()) {
+            workoutArchiveRepo.removeWorkouts(workouts.stream().map(Workout::id).toList());
+        }
+        return workouts;
+    }
+
+    private Stream<Workout> unpackAll(Iterable<WorkoutArchive> buckets) {
+        List<Workout> workouts = new ArrayList<>();
+        for (WorkoutArchive bucket : buckets) {
+            if (bucket.workouts() != null) {
+                bucket.workouts().forEach(archived -> workouts.add(unpack(bucket.userId(), archived, exerciseCatalog::nameOf)));
+            }
+        }
+        return workouts.stream();
+    }
+}
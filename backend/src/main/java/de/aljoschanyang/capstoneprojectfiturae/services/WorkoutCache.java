@@ -0,0 +1,89 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.CacheStats;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+// Another node may have changed a workout or list since it was cached, so an entry only counts for the version it was read at.
+@Component
+public class WorkoutCache {
+    private final TtlCache<String, Workout> workoutsById;
+    private final TtlCache<String, VersionedWorkouts> workoutsByUserId;
+
+    public WorkoutCache(@Value("${myapp.cache.workouts.max-size:10000}") int maxWorkouts,
+                        @Value("${myapp.cache.workout-lists.max-size:1000}") int maxWorkoutLists,
+                        @Value("${myapp.cache.workouts.ttl:1m}") Duration ttl) {
+        this.workoutsById = new TtlCache<>(maxWorkouts, ttl);
+        this.workoutsByUserId = new TtlCache<>(maxWorkoutLists, ttl);
+    }
+
+    public Workout getWorkout(String id) {
+        return workoutsById.get(id);
+    }
+
+    public Workout getWorkout(String id, Long version) {
+        Workout cached = workoutsById.get(id);
+        if (cached == null) {
+            return null;
+        }
+        if (!Objects.equals(cached.version(), version)) {
+            workoutsById.invalidate(id);
+            return null;
+        }
+        return cached;
+    }
+
+    public void putWorkout(Workout workout) {
+        workoutsById.put(workout.id(), workout);
+    }
+
+    public List<Workout> getUserWorkouts(String userId, long listVersion) {
+        VersionedWorkouts cached = workoutsByUserId.get(userId);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.listVersion() != listVersion) {
+            workoutsByUserId.invalidate(userId);
+            return null;
+        }
+        return cached.workouts();
+    }
+
+    public void putUserWorkouts(String userId, long listVersion, List<Workout> workouts) {
+        workoutsByUserId.put(userId, new VersionedWorkouts(listVersion, workouts));
+    }
+
+    public void onWorkoutSaved(Workout workout) {
+        workoutsById.put(workout.id(), workout);
+        workoutsByUserId.invalidate(workout.userId());
+    }
+
+    public void evictWorkout(String id) {
+        workoutsById.invalidate(id);
+    }
+
+    public void onWorkoutDeleted(Workout workout) {
+        workoutsById.invalidate(workout.id());
+        workoutsByUserId.invalidate(workout.userId());
+    }
+
+    public void onUserWorkoutsChanged(String userId) {
+        workoutsByUserId.invalidate(userId);
+    }
+
+    public CacheStats workoutStats() {
+        return workoutsById.stats();
+    }
+
+    public CacheStats workoutListStats() {
+        return workoutsByUserId.stats();
+    }
+
+    private record VersionedWorkouts(long listVersion, List<Workout> workouts) {
+    }
+}
@@ -0,0 +1,13 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+
+import java.util.List;
+
+// Derived data that follows workout writes; implementations must not throw, since the workout is already stored.
+public interface WorkoutChangeListener {
+    // A null before is an added workout, a null after a deleted one.
+    void onWorkoutChanged(Workout before, Workout after);
+
+    void onWorkoutsAdded(List<Workout> workouts);
+}
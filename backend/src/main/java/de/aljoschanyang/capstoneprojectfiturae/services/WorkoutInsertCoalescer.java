@@ -0,0 +1,176 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.NoSuchUserException;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutRepoCustom;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Inserts that arrive together share one user lookup and one unordered bulk write; each caller still gets its own
+// workout or error. A single flusher keeps one batch in flight, so a burst queues up while the previous batch writes.
+// Off by default, because every insert then waits up to the window; it pays off only under sustained bursts.
+@Component
+public class WorkoutInsertCoalescer {
+    private static final long ENQUEUE_RECHECK_MILLIS = 100;
+
+    private final WorkoutRepo workoutRepo;
+    private final AppUserService appUserService;
+    private final ExerciseCatalog exerciseCatalog;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final BlockingQueue<PendingInsert> queue;
+    private Thread flusher;
+    private volatile boolean running;
+
+    public WorkoutInsertCoalescer(WorkoutRepo workoutRepo,
+                                  AppUserService appUserService,
+                                  ExerciseCatalog exerciseCatalog,
+                                  @Value("${myapp.workouts.insert-coalescing.enabled:false}") boolean enabled,
+                                  @Value("${myapp.workouts.insert-coalescing.window:2ms}") Duration window,
+                                  @Value("${myapp.workouts.insert-coalescing.max-batch-size:100}") int maxBatchSize) {
+        this.workoutRepo = workoutRepo;
+        this.appUserService = appUserService;
+        this.exerciseCatalog = exerciseCatalog;
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.queue = new LinkedBlockingQueue<>(maxBatchSize * 10);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled && flusher == null) {
+            running = true;
+            flusher = Thread.ofPlatform().name("workout-insert-coalescer").daemon().start(this::run);
+        }
+    }
+
+    public Workout insert(Workout workout) {
+        if (!enabled) {
+            appUserService.requireUser(workout.userId());
+            return workoutRepo.save(workout);
+        }
+        PendingInsert pending = new PendingInsert(workout, new CompletableFuture<>());
+        enqueue(pending);
+        try {
+            return pending.result().join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    // A full queue pushes back on the callers instead of growing without bound. The state is checked again after
+    // queueing: an insert that lands after stop() has drained the queue is taken back and fails instead of waiting forever.
+    private void enqueue(PendingInsert pending) {
+        try {
+            while (!queue.offer(pending, ENQUEUE_RECHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (!running) {
+                    throw stopped();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing the workout", e);
+        }
+        if (!running && queue.remove(pending)) {
+            throw stopped();
+        }
+    }
+
+    private static IllegalStateException stopped() {
+        return new IllegalStateException("The workout insert coalescer is stopped");
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (flusher != null) {
+            running = false;
+            flusher.interrupt();
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+            // Callers that slipped in after the last batch must not wait forever.
+            List<PendingInsert> abandoned = new ArrayList<>();
+            queue.drainTo(abandoned);
+            abandoned.forEach(pending -> pending.result().completeExceptionally(stopped()));
+        }
+    }
+
+    private void run() {
+        List<PendingInsert> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                // Shutting down: whatever is already queued is still written below.
+                queue.drainTo(batch, maxBatchSize - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void collect(List<PendingInsert> batch) throws InterruptedException {
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + windowNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                return;
+            }
+            PendingInsert next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    void flush(List<PendingInsert> batch) {
+        try {
+            Set<String> existingUserIds = appUserService.getExistingUserIds(batch.stream().map(pending -> pending.workout().userId()).toList());
+            List<PendingInsert> accepted = new ArrayList<>(batch.size());
+            for (PendingInsert pending : batch) {
+                if (existingUserIds.contains(pending.workout().userId())) {
+                    accepted.add(pending);
+                } else {
+                    pending.result().completeExceptionally(new NoSuchUserException());
+                }
+            }
+            if (accepted.isEmpty()) {
+                return;
+            }
+            List<Workout> workouts = accepted.stream().map(PendingInsert::workout).toList();
+            exerciseCatalog.registerExercisesOf(workouts);
+            WorkoutRepoCustom.InsertResult result = workoutRepo.insertUnordered(workouts);
+            for (int i = 0; i < accepted.size(); i++) {
+                RuntimeException error = result.errors().get(i);
+                if (error != null) {
+                    accepted.get(i).result().completeExceptionally(error);
+                } else {
+                    accepted.get(i).result().complete(result.workouts().get(i));
+                }
+            }
+        } catch (RuntimeException e) {
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+        }
+    }
+
+    record PendingInsert(Workout workout, CompletableFuture<Workout> result) {
+    }
+}
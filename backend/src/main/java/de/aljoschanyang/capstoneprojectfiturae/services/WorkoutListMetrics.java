@@ -0,0 +1,40 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+@Component
+public class WorkoutListMetrics {
+    static final String METRIC_NAME = "fiturae.workouts.list.size";
+
+    private final DistributionSummary fullLists;
+    private final DistributionSummary pages;
+    private final DistributionSummary summaries;
+
+    public WorkoutListMetrics(MeterRegistry meterRegistry) {
+        this.fullLists = listSize(meterRegistry, "all");
+        this.pages = listSize(meterRegistry, "page");
+        this.summaries = listSize(meterRegistry, "summary");
+    }
+
+    private static DistributionSummary listSize(MeterRegistry meterRegistry, String view) {
+        return DistributionSummary.builder(METRIC_NAME)
+                .description("Number of workouts returned per list response")
+                .baseUnit("workouts")
+                .tag("view", view)
+                .register(meterRegistry);
+    }
+
+    public void recordFullList(int size) {
+        fullLists.record(size);
+    }
+
+    public void recordPage(int size) {
+        pages.record(size);
+    }
+
+    public void recordSummaryList(int size) {
+        summaries.record(size);
+    }
+}
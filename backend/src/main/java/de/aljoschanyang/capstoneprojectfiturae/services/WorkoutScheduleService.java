@@ -0,0 +1,155 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.InvalidRequestException;
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.NoSuchWorkoutScheduleException;
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.WorkoutVersionConflictException;
+import de.aljoschanyang.capstoneprojectfiturae.models.RecurrenceRule;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutDetails;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutEdit;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutOccurrence;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutSchedule;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutScheduleDetails;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutScheduleRepo;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@AllArgsConstructor
+public class WorkoutScheduleService {
+    private WorkoutScheduleRepo workoutScheduleRepo;
+    private WorkoutService workoutService;
+    private AppUserService appUserService;
+
+    public WorkoutSchedule addSchedule(WorkoutScheduleDetails scheduleDetails) {
+        validateSchedule(scheduleDetails);
+        WorkoutDetails workout = scheduleDetails.workout();
+        appUserService.requireUser(workout.userId());
+        return workoutScheduleRepo.save(WorkoutSchedule.builder()
+                .userId(workout.userId())
+                .name(workout.name())
+                .description(workout.description())
+                .plan(workout.plan() == null ? List.of() : workout.plan())
+                .startDay(workout.day())
+                .rule(scheduleDetails.rule().toBuilder().intervalWeeks(Math.max(1, scheduleDetails.rule().intervalWeeks())).build())
+                .handledDays(List.of())
+                .build());
+    }
+
+    static void validateSchedule(WorkoutScheduleDetails scheduleDetails) {
+        WorkoutDetails workout = scheduleDetails.workout();
+        RecurrenceRule rule = scheduleDetails.rule();
+        if (workout == null || rule == null) {
+            throw new InvalidRequestException("The workout and the rule are required");
+        }
+        if (workout.name() == null || workout.name().isBlank()) {
+            throw new InvalidRequestException("The name is required");
+        }
+        if (workout.day() == null) {
+            throw new InvalidRequestException("The first day is required");
+        }
+        if (rule.daysOfWeek() == null || rule.daysOfWeek().isEmpty()) {
+            throw new InvalidRequestException("At least one day of the week is required");
+        }
+        if (rule.until() != null && rule.until().isBefore(workout.day())) {
+            throw new InvalidRequestException("The last day must not be before the first day");
+        }
+    }
+
+    public List<WorkoutSchedule> getSchedulesByUserId(String userId) {
+        appUserService.requireUser(userId);
+        return workoutScheduleRepo.findByUserIdOrderByStartDayAsc(userId);
+    }
+
+    public void deleteSchedule(String id) {
+        workoutScheduleRepo.deleteById(id);
+    }
+
+    // A user has a handful of schedules, so they are all read and expanded for the window in memory.
+    public List<WorkoutOccurrence> getOccurrencesByUserId(String userId, LocalDate from, LocalDate to) {
+        WorkoutService.validateCalendarRange(from, to);
+        appUserService.requireUser(userId);
+        List<WorkoutOccurrence> occurrences = new ArrayList<>();
+        for (WorkoutSchedule schedule : workoutScheduleRepo.findByUserIdOrderByStartDayAsc(userId)) {
+            occurrences.addAll(expand(schedule, from, to));
+        }
+        occurrences.sort(Comparator.comparing(WorkoutOccurrence::day).thenComparing(WorkoutOccurrence::scheduleId));
+        return occurrences;
+    }
+
+    static List<WorkoutOccurrence> expand(WorkoutSchedule schedule, LocalDate from, LocalDate to) {
+        LocalDate first = from.isBefore(schedule.startDay()) ? schedule.startDay() : from;
+        LocalDate last = schedule.rule().until() != null && schedule.rule().until().isBefore(to) ? schedule.rule().until() : to;
+        Set<LocalDate> handled = schedule.handledDays() == null ? Set.of() : new HashSet<>(schedule.handledDays());
+        List<WorkoutOccurrence> occurrences = new ArrayList<>();
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+            if (occursOn(schedule, day) && !handled.contains(day)) {
+                occurrences.add(WorkoutOccurrence.builder()
+                        .scheduleId(schedule.id())
+                        .day(day)
+                        .name(schedule.name())
+                        .description(schedule.description())
+                        .plan(schedule.plan())
+                        .build());
+            }
+        }
+        return occurrences;
+    }
+
+    // Weeks are counted from the Monday of the first day, so every second week keeps its rhythm across month ends.
+    static boolean occursOn(WorkoutSchedule schedule, LocalDate day) {
+        RecurrenceRule rule = schedule.rule();
+        if (day.isBefore(schedule.startDay()) || (rule.until() != null && day.isAfter(rule.until()))
+                || !rule.daysOfWeek().contains(day.getDayOfWeek())) {
+            return false;
+        }
+        long weeks = ChronoUnit.WEEKS.between(mondayOf(schedule.startDay()), mondayOf(day));
+        return weeks % Math.max(1, rule.intervalWeeks()) == 0;
+    }
+
+    private static LocalDate mondayOf(LocalDate day) {
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    // Logging an occurrence turns it into a regular workout, optionally with the values actually done.
+    public Workout logOccurrence(String scheduleId, LocalDate day, WorkoutEdit workoutEdit) {
+        WorkoutSchedule schedule = claimOccurrence(scheduleId, day);
+        try {
+            return workoutService.addWorkout(WorkoutDetails.builder()
+                    .userId(schedule.userId())
+                    .name(workoutEdit == null ? schedule.name() : workoutEdit.name())
+                    .day(day)
+                    .description(workoutEdit == null ? schedule.description() : workoutEdit.description())
+                    .plan(workoutEdit == null ? schedule.plan() : workoutEdit.plan())
+                    .build());
+        } catch (RuntimeException e) {
+            workoutScheduleRepo.releaseDay(scheduleId, day);
+            throw e;
+        }
+    }
+
+    public void skipOccurrence(String scheduleId, LocalDate day) {
+        claimOccurrence(scheduleId, day);
+    }
+
+    private WorkoutSchedule claimOccurrence(String scheduleId, LocalDate day) {
+        WorkoutSchedule schedule = workoutScheduleRepo.findById(scheduleId).orElseThrow(NoSuchWorkoutScheduleException::new);
+        if (!occursOn(schedule, day)) {
+            throw new InvalidRequestException("The schedule has no workout on this day");
+        }
+        if (!workoutScheduleRepo.claimDay(scheduleId, day)) {
+            throw new WorkoutVersionConflictException("The workout of this day was already logged or skipped");
+        }
+        return schedule;
+    }
+}
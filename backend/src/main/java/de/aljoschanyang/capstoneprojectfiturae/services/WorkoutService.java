@@ -1,56 +1,378 @@
 package de.aljoschanyang.capstoneprojectfiturae.services;
 
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.InvalidRequestException;
 import de.aljoschanyang.capstoneprojectfiturae.exceptions.NoSuchWorkoutException;
-import de.aljoschanyang.capstoneprojectfiturae.models.AppUser;
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.WorkoutVersionConflictException;
+import de.aljoschanyang.capstoneprojectfiturae.models.BatchItemStatus;
+import de.aljoschanyang.capstoneprojectfiturae.models.ResourceVersion;
 import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutBatchItem;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutCursor;
 import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutDetails;
 import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutEdit;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutExercise;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutExercisePatch;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutListVersion;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutOverview;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutPage;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutPatch;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutSummary;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutListVersionRepo;
 import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutRepo;
 import lombok.AllArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
 public class WorkoutService {
+    static final int MAX_PAGE_SIZE = 100;
+    static final int MAX_CALENDAR_DAYS = 366;
+    static final int MAX_BATCH_SIZE = 100;
+
     private WorkoutRepo workoutRepo;
-    private de.aljoschanyang.capstoneprojectfiturae.services.AppUserService appUserService;
+    private AppUserService appUserService;
+    private WorkoutCache workoutCache;
+    private WorkoutListVersionRepo workoutListVersionRepo;
+    private List<WorkoutChangeListener> workoutChangeListeners;
+    private WorkoutInsertCoalescer workoutInsertCoalescer;
+    private WorkoutArchiveService workoutArchiveService;
+    private ExerciseCatalog exerciseCatalog;
 
     public Workout addWorkout(WorkoutDetails workoutDetails) {
-        AppUser appUser = appUserService.getUserById(workoutDetails.userId());
-
-        return workoutRepo.save(Workout.builder()
-                .userId(appUser.id())
+        Workout workout = workoutInsertCoalescer.insert(Workout.builder()
+                .userId(workoutDetails.userId())
                 .name(workoutDetails.name())
                 .day(workoutDetails.day())
                 .description(workoutDetails.description())
                 .plan(workoutDetails.plan())
                 .build());
+        onWorkoutSaved(null, workout);
+        return workout;
     }
 
     public List<Workout> getAllWorkoutsByUserId(String userId) {
-        appUserService.getUserById(userId);
-        return workoutRepo.findWorkoutsByUserId(userId);
+        return getAllWorkoutsByUserId(userId, getWorkoutListVersion(userId).version());
+    }
+
+    // The list version is read before the list, so a concurrent change can only make the returned ETag too old.
+    public List<Workout> getAllWorkoutsByUserId(String userId, long listVersion) {
+        appUserService.requireUser(userId);
+        List<Workout> cachedWorkouts = workoutCache.getUserWorkouts(userId, listVersion);
+        if (cachedWorkouts != null) {
+            return cachedWorkouts;
+        }
+
+        List<Workout> workouts = WorkoutTiers.withArchived(workoutRepo.findWorkoutsByUserId(userId), workoutArchiveService.findWorkoutsByUserId(userId));
+        workoutCache.putUserWorkouts(userId, listVersion, workouts);
+        return workouts;
+    }
+
+    public List<WorkoutOverview> getWorkoutOverviewsByUserId(String userId) {
+        appUserService.requireUser(userId);
+        return WorkoutTiers.withArchivedOverviews(workoutRepo.findOverviewsByUserId(userId), workoutArchiveService.findWorkoutsByUserId(userId));
     }
 
+    // An unknown user simply has the initial version; the list request itself still answers 404.
+    public WorkoutListVersion getWorkoutListVersion(String userId) {
+        return workoutListVersionRepo.findById(userId).orElseGet(() -> WorkoutListVersion.initial(userId));
+    }
+
+    public WorkoutPage getWorkoutPageByUserId(String userId, String cursor, int limit) {
+        appUserService.requireUser(userId);
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        WorkoutCursor after = cursor == null || cursor.isBlank() ? null : WorkoutCursor.decode(cursor);
+
+        // One extra workout tells us whether another page follows without a count query.
+        List<Workout> hot = workoutRepo.findPageByUserId(userId, after, pageSize + 1);
+        List<Workout> archived = workoutArchiveService.findPageByUserId(userId, after, pageSize + 1);
+        return toPage(WorkoutTiers.withArchivedPage(hot, archived), pageSize);
+    }
+
+    static WorkoutPage toPage(List<Workout> workouts, int pageSize) {
+        if (workouts.size() <= pageSize) {
+            return new WorkoutPage(workouts, null);
+        }
+        List<Workout> page = List.copyOf(workouts.subList(0, pageSize));
+        return new WorkoutPage(page, WorkoutCursor.of(page.get(pageSize - 1)).encode());
+    }
+
+    public List<WorkoutSummary> getWorkoutSummariesByUserId(String userId, LocalDate from, LocalDate to) {
+        validateCalendarRange(from, to);
+        appUserService.requireUser(userId);
+        return WorkoutTiers.withArchivedSummaries(workoutRepo.findSummariesByUserIdAndDayBetween(userId, from, to),
+                workoutArchiveService.findWorkoutsByUserIdAndDayBetween(userId, from, to));
+    }
+
+    // A calendar shows at most a year, which keeps one response small no matter how active the user is.
+    static void validateCalendarRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException("The start of the range must not be after its end");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_CALENDAR_DAYS) {
+            throw new InvalidRequestException("The range must not cover more than " + MAX_CALENDAR_DAYS + " days");
+        }
+    }
+
+    // Both tiers are read through cursors, so the response never holds more than one archived month in memory.
+    public Stream<Workout> streamWorkoutsByUserId(String userId) {
+        appUserService.requireUser(userId);
+        return WorkoutTiers.mergeByDay(workoutArchiveService.streamWorkoutsByUserId(userId), workoutRepo.streamWorkoutsByUserIdOrderByDayAscIdAsc(userId));
+    }
+
+    // Archived workouts are rarely read, so they are not cached.
     public Workout getWorkoutById(String id) {
-        return workoutRepo.findById(id).orElseThrow(NoSuchWorkoutException::new);
+        Workout stored = workoutRepo.findVersionById(id);
+        Workout cachedWorkout = stored == null ? null : workoutCache.getWorkout(id, stored.version());
+        if (cachedWorkout != null) {
+            return cachedWorkout;
+        }
+
+        Workout workout = stored == null ? null : workoutRepo.findById(id).orElse(null);
+        if (workout == null) {
+            return requireWorkout(workoutArchiveService.findWorkout(id));
+        }
+        workoutCache.putWorkout(workout);
+        return workout;
+    }
+
+    private static Workout requireWorkout(Workout workout) {
+        if (workout == null) {
+            throw new NoSuchWorkoutException();
+        }
+        return workout;
+    }
+
+    // Changes only go to the hot tier, so an archived workout is moved back first.
+    private Workout getEditedVersion(String id, Long version) {
+        Workout cachedWorkout = workoutCache.getWorkout(id);
+        if (cachedWorkout != null && Objects.equals(cachedWorkout.version(), version)) {
+            return cachedWorkout;
+        }
+        Workout workout = requireWorkout(workoutRepo.findById(id).orElseGet(() -> workoutArchiveService.restore(id)));
+        if (!Objects.equals(workout.version(), version)) {
+            throw new WorkoutVersionConflictException();
+        }
+        return workout;
+    }
+
+    // The versions come from one $in query, so cached workouts still at that version are answered directly and the rest is read with another.
+    public List<WorkoutBatchItem> getWorkoutsById(List<String> ids) {
+        List<String> uniqueIds = validateBatch(ids);
+        Map<String, Workout> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (Workout stored : workoutRepo.findVersionsById(uniqueIds)) {
+            Workout cachedWorkout = workoutCache.getWorkout(stored.id(), stored.version());
+            if (cachedWorkout != null) {
+                found.put(stored.id(), cachedWorkout);
+            } else {
+                missing.add(stored.id());
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Workout workout : workoutRepo.findAllById(missing)) {
+                workoutCache.putWorkout(workout);
+                found.put(workout.id(), workout);
+            }
+        }
+        if (found.size() < uniqueIds.size()) {
+            found.putAll(workoutArchiveService.findWorkoutsById(uniqueIds.stream().filter(id -> !found.containsKey(id)).toList()));
+        }
+        return toReadResults(uniqueIds, found);
+    }
+
+    static List<WorkoutBatchItem> toReadResults(List<String> ids, Map<String, Workout> found) {
+        return ids.stream()
+                .map(id -> found.containsKey(id) ? WorkoutBatchItem.found(found.get(id)) : WorkoutBatchItem.of(id, BatchItemStatus.NOT_FOUND))
+                .toList();
+    }
+
+    static List<String> validateBatch(List<String> ids) {
+        if (ids == null || ids.isEmpty() || ids.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidRequestException("The ids are required");
+        }
+        List<String> uniqueIds = List.copyOf(new LinkedHashSet<>(ids));
+        if (uniqueIds.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequestException("At most " + MAX_BATCH_SIZE + " workouts can be processed at once");
+        }
+        return uniqueIds;
+    }
+
+    // The cache is per node, so the version is always read from the repo.
+    public ResourceVersion getWorkoutVersion(String id) {
+        Workout version = workoutRepo.findVersionById(id);
+        if (version == null) {
+            version = requireWorkout(workoutArchiveService.findWorkout(id));
+        }
+        return ResourceVersion.of(version);
     }
 
     public Workout editWorkout(String id, WorkoutEdit workoutEdit) {
-        Workout legacy = getWorkoutById(id);
-        return workoutRepo.save(Workout.builder()
-                .id(legacy.id())
-                .userId(legacy.userId())
-                .name(workoutEdit.name())
-                .day(workoutEdit.day())
-                .description(workoutEdit.description())
-                .plan(workoutEdit.plan())
-                .build());
+        validateEdit(workoutEdit);
+        Workout legacy = getEditedVersion(id, workoutEdit.version());
+        Workout workout;
+        try {
+            workout = workoutRepo.save(Workout.builder()
+                    .id(legacy.id())
+                    .userId(legacy.userId())
+                    .name(workoutEdit.name())
+                    .day(workoutEdit.day())
+                    .description(workoutEdit.description())
+                    .plan(workoutEdit.plan())
+                    .version(workoutEdit.version())
+                    .build());
+        } catch (OptimisticLockingFailureException e) {
+            workoutCache.evictWorkout(id);
+            throw new WorkoutVersionConflictException();
+        }
+        // The version check guarantees that the cached copy was exactly what this save replaced.
+        onWorkoutSaved(legacy, workout);
+        return workout;
+    }
+
+    static void validateEdit(WorkoutEdit workoutEdit) {
+        if (workoutEdit.version() == null) {
+            throw new InvalidRequestException("The version is required");
+        }
+    }
+
+    public Workout patchWorkout(String id, WorkoutPatch workoutPatch) {
+        validatePatch(workoutPatch);
+        exerciseCatalog.registerAll(exerciseNamesOf(workoutPatch));
+        Workout before = affectsRollups(workoutPatch) ? getPatchedVersion(id, workoutPatch.version()) : null;
+        Workout workout = workoutRepo.patchWorkout(id, workoutPatch);
+        if (workout == null && workoutArchiveService.restore(id) != null) {
+            workout = workoutRepo.patchWorkout(id, workoutPatch);
+        }
+        if (workout == null) {
+            throw explainFailedPatch(id, workoutPatch);
+        }
+        workoutCache.onWorkoutSaved(workout);
+        workoutListVersionRepo.increment(workout.userId());
+        // A pre-image read while another save was in flight is skipped; the next rebuild and check cover that change.
+        if (before != null && Objects.equals(before.version(), workoutPatch.version())) {
+            onRollupsChanged(before, workout);
+        }
+        return workout;
+    }
+
+    static List<String> exerciseNamesOf(WorkoutPatch workoutPatch) {
+        Stream<String> planNames = workoutPatch.plan() == null ? Stream.empty() : workoutPatch.plan().stream().map(WorkoutExercise::name);
+        Stream<String> patchedNames = workoutPatch.exercises() == null ? Stream.empty() : workoutPatch.exercises().stream().map(WorkoutExercisePatch::name);
+        return Stream.concat(planNames, patchedNames).filter(Objects::nonNull).toList();
+    }
+
+    static boolean affectsRollups(WorkoutPatch workoutPatch) {
+        return workoutPatch.day() != null || workoutPatch.plan() != null
+                || (workoutPatch.exercises() != null && !workoutPatch.exercises().isEmpty());
+    }
+
+    // The patch can only succeed on this version, so a cached copy of it spares the extra read.
+    private Workout getPatchedVersion(String id, Long version) {
+        Workout cachedWorkout = workoutCache.getWorkout(id);
+        if (cachedWorkout != null && Objects.equals(cachedWorkout.version(), version)) {
+            return cachedWorkout;
+        }
+        return workoutRepo.findById(id).orElseGet(() -> workoutArchiveService.findWorkout(id));
+    }
+
+    static void validatePatch(WorkoutPatch workoutPatch) {
+        if (workoutPatch.version() == null) {
+            throw new InvalidRequestException("The version is required");
+        }
+        boolean hasExercisePatches = workoutPatch.exercises() != null && !workoutPatch.exercises().isEmpty();
+        if (workoutPatch.plan() != null && hasExercisePatches) {
+            throw new InvalidRequestException("The plan and single exercises cannot be changed together");
+        }
+        if (hasExercisePatches && workoutPatch.exercises().stream().mapToInt(WorkoutExercisePatch::index).anyMatch(index -> index < 0)) {
+            throw new InvalidRequestException("The exercise index is out of range");
+        }
+    }
+
+    // findAndModify only says that nothing matched, so the reason is looked up on this rare path.
+    private RuntimeException explainFailedPatch(String id, WorkoutPatch workoutPatch) {
+        workoutCache.evictWorkout(id);
+        Workout current = workoutRepo.findById(id).orElse(null);
+        if (current == null) {
+            return new NoSuchWorkoutException();
+        }
+        if (!Objects.equals(current.version(), workoutPatch.version())) {
+            return new WorkoutVersionConflictException();
+        }
+        return new InvalidRequestException("The exercise index is out of range");
     }
 
     public void deleteWorkout(String id) {
-        workoutRepo.deleteById(id);
+        Workout deleted = workoutRepo.deleteWorkoutById(id);
+        if (deleted == null) {
+            deleted = workoutArchiveService.delete(id);
+        }
+        if (deleted != null) {
+            workoutCache.onWorkoutDeleted(deleted);
+            workoutListVersionRepo.increment(deleted.userId());
+            onRollupsChanged(deleted, null);
+        }
+    }
+
+    public List<WorkoutBatchItem> deleteWorkoutsById(List<String> ids) {
+        List<String> uniqueIds = validateBatch(ids);
+        List<Workout> existing = workoutRepo.findAllById(uniqueIds);
+        List<Workout> removed = existing;
+        if (!existing.isEmpty() && workoutRepo.deleteVersions(existing) < existing.size()) {
+            removed = withoutRemaining(existing, workoutRepo.findAllById(existing.stream().map(Workout::id).toList()));
+        }
+        if (existing.size() < uniqueIds.size()) {
+            Set<String> hotIds = existing.stream().map(Workout::id).collect(Collectors.toSet());
+            List<Workout> archived = workoutArchiveService.deleteWorkouts(uniqueIds.stream().filter(id -> !hotIds.contains(id)).toList());
+            existing = Stream.concat(existing.stream(), archived.stream()).toList();
+            removed = Stream.concat(removed.stream(), archived.stream()).toList();
+        }
+        for (Workout deleted : removed) {
+            workoutCache.onWorkoutDeleted(deleted);
+            onRollupsChanged(deleted, null);
+        }
+        removed.stream().map(Workout::userId).distinct().forEach(workoutListVersionRepo::increment);
+        return toDeleteResults(uniqueIds, existing, removed);
+    }
+
+    // Only reached when another request changed or deleted some of the workouts in between. Those still present
+    // kept their newer version; one deleted concurrently is counted here as well, which the rebuild and check jobs correct.
+    static List<Workout> withoutRemaining(List<Workout> existing, Iterable<Workout> remaining) {
+        Set<String> remainingIds = new HashSet<>();
+        remaining.forEach(workout -> remainingIds.add(workout.id()));
+        return existing.stream().filter(workout -> !remainingIds.contains(workout.id())).toList();
+    }
+
+    static List<WorkoutBatchItem> toDeleteResults(List<String> ids, List<Workout> existing, List<Workout> removed) {
+        Set<String> existingIds = existing.stream().map(Workout::id).collect(Collectors.toSet());
+        Set<String> removedIds = removed.stream().map(Workout::id).collect(Collectors.toSet());
+        return ids.stream()
+                .map(id -> WorkoutBatchItem.of(id, removedIds.contains(id) ? BatchItemStatus.DELETED
+                        : existingIds.contains(id) ? BatchItemStatus.CONFLICT
+                        : BatchItemStatus.NOT_FOUND))
+                .toList();
+    }
+
+    private void onWorkoutSaved(Workout before, Workout workout) {
+        workoutCache.onWorkoutSaved(workout);
+        workoutListVersionRepo.increment(workout.userId());
+        onRollupsChanged(before, workout);
+    }
+
+    private void onRollupsChanged(Workout before, Workout after) {
+        workoutChangeListeners.forEach(listener -> listener.onWorkoutChanged(before, after));
     }
 }
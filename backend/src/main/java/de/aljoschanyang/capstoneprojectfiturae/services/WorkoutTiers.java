@@ -0,0 +1,120 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutExercise;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutOverview;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutSummary;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Merges reads of the hot collection with those of the archive. A workout that is being moved can briefly be in both
+// tiers; the hot copy wins.
+final class WorkoutTiers {
+    private WorkoutTiers() {
+    }
+
+    static List<Workout> withArchived(List<Workout> hot, List<Workout> archived) {
+        if (archived.isEmpty()) {
+            return List.copyOf(hot);
+        }
+        Set<String> hotIds = hot.stream().map(Workout::id).collect(Collectors.toSet());
+        List<Workout> workouts = new ArrayList<>(archived.stream().filter(workout -> !hotIds.contains(workout.id())).toList());
+        workouts.addAll(hot);
+        return List.copyOf(workouts);
+    }
+
+    static List<WorkoutOverview> withArchivedOverviews(List<WorkoutOverview> overviews, List<Workout> archived) {
+        if (archived.isEmpty()) {
+            return overviews;
+        }
+        Set<String> hotIds = overviews.stream().map(WorkoutOverview::id).collect(Collectors.toSet());
+        return Stream.concat(overviews.stream(), archived.stream().filter(workout -> !hotIds.contains(workout.id())).map(WorkoutTiers::toOverview))
+                .sorted(Comparator.comparing(WorkoutOverview::day, Comparator.nullsFirst(Comparator.naturalOrder())).thenComparing(WorkoutOverview::id))
+                .toList();
+    }
+
+    // Matches the projection of the overview aggregation.
+    static WorkoutOverview toOverview(Workout workout) {
+        List<WorkoutExercise> plan = workout.plan() == null ? List.of() : workout.plan();
+        return new WorkoutOverview(workout.id(), workout.userId(), workout.name(), workout.day(), workout.description(),
+                plan.size(), plan.stream().mapToDouble(TrainingVolumeService::volumeOf).sum());
+    }
+
+    // Both tiers are in day order, so merging their next pages gives the next page of all workouts.
+    static List<Workout> withArchivedPage(List<Workout> hot, List<Workout> archived) {
+        return archived.isEmpty() ? hot : withArchived(hot, archived).stream().sorted(WorkoutArchiveService.DAY_ORDER).toList();
+    }
+
+    static List<WorkoutSummary> withArchivedSummaries(List<WorkoutSummary> summaries, List<Workout> archived) {
+        if (archived.isEmpty()) {
+            return summaries;
+        }
+        Set<String> hotIds = summaries.stream().map(WorkoutSummary::id).collect(Collectors.toSet());
+        return Stream.concat(summaries.stream(), archived.stream()
+                        .filter(workout -> !hotIds.contains(workout.id()))
+                        .map(workout -> new WorkoutSummary(workout.id(), workout.name(), workout.day())))
+                .sorted(Comparator.comparing(WorkoutSummary::day).thenComparing(WorkoutSummary::id))
+                .toList();
+    }
+
+    // Both streams are in day order, so merging them keeps a backdated hot workout in its place.
+    static Stream<Workout> mergeByDay(Stream<Workout> archived, Stream<Workout> hot) {
+        Iterator<Workout> merged = new DayOrderMerge(archived.iterator(), hot.iterator());
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(archived::close)
+                .onClose(hot::close);
+    }
+
+    private static final class DayOrderMerge implements Iterator<Workout> {
+        private final Iterator<Workout> archived;
+        private final Iterator<Workout> hot;
+        private Workout nextArchived;
+        private Workout nextHot;
+
+        DayOrderMerge(Iterator<Workout> archived, Iterator<Workout> hot) {
+            this.archived = archived;
+            this.hot = hot;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextArchived == null && archived.hasNext()) {
+                nextArchived = archived.next();
+            }
+            if (nextHot == null && hot.hasNext()) {
+                nextHot = hot.next();
+            }
+            return nextArchived != null || nextHot != null;
+        }
+
+        @Override
+        public Workout next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int order = nextArchived == null ? 1 : nextHot == null ? -1 : WorkoutArchiveService.DAY_ORDER.compare(nextArchived, nextHot);
+            Workout next;
+            if (order < 0) {
+                next = nextArchived;
+                nextArchived = null;
+            } else {
+                if (order == 0) {
+                    nextArchived = null;
+                }
+                next = nextHot;
+                nextHot = null;
+            }
+            return next;
+        }
+    }
+}
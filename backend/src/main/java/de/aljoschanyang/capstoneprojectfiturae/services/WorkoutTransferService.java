@@ -0,0 +1,330 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import de.aljoschanyang.capstoneprojectfiturae.models.ImportError;
+import de.aljoschanyang.capstoneprojectfiturae.models.ImportResult;
+import de.aljoschanyang.capstoneprojectfiturae.models.TransferFormat;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutCsvRow;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutDetails;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutExercise;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutListVersionRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutRepoCustom;
+import lombok.AllArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+@Service
+@AllArgsConstructor
+public class WorkoutTransferService {
+    static final int IMPORT_BATCH_SIZE = 500;
+    static final int MAX_REPORTED_ERRORS = 100;
+    static final int MAX_LINE_LENGTH = 1 << 20;
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .build();
+    private static final CsvSchema CSV_SCHEMA = CSV_MAPPER.schemaFor(WorkoutCsvRow.class).withHeader();
+
+    private WorkoutRepo workoutRepo;
+    private AppUserService appUserService;
+    private WorkoutCache workoutCache;
+    private WorkoutListVersionRepo workoutListVersionRepo;
+    private List<WorkoutChangeListener> workoutChangeListeners;
+    private ObjectMapper objectMapper;
+    private ExerciseCatalog exerciseCatalog;
+
+    public ImportResult importWorkouts(String userId, InputStream inputStream, TransferFormat format) {
+        appUserService.requireUser(userId);
+        ImportSession session = new ImportSession(userId);
+        try {
+            if (format == TransferFormat.CSV) {
+                importCsv(inputStream, session);
+            } else {
+                importNdjson(inputStream, session);
+            }
+            session.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            workoutCache.onUserWorkoutsChanged(userId);
+            workoutListVersionRepo.increment(userId);
+        }
+        return session.result();
+    }
+
+    // Each line is parsed on its own, so a malformed record cannot derail the records after it.
+    private void importNdjson(InputStream inputStream, ImportSession session) throws IOException {
+        BoundedLineReader reader = new BoundedLineReader(new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)), MAX_LINE_LENGTH);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (reader.truncated()) {
+                session.fail(lineNumber, "The line is longer than " + MAX_LINE_LENGTH + " characters");
+                continue;
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                WorkoutDetails details = objectMapper.readValue(line, WorkoutDetails.class);
+                session.add(lineNumber, details.name(), details.day(), details.description(), details.plan());
+            } catch (JsonProcessingException e) {
+                session.fail(lineNumber, e.getOriginalMessage());
+            }
+        }
+    }
+
+    // Consecutive rows with the same workout key are the exercises of one workout.
+    private void importCsv(InputStream inputStream, ImportSession session) throws IOException {
+        try (MappingIterator<WorkoutCsvRow> rows = CSV_MAPPER.readerFor(WorkoutCsvRow.class).with(CSV_SCHEMA).readValues(inputStream)) {
+            CsvWorkout current = null;
+            while (rows.hasNextValue()) {
+                long lineNumber = rows.getCurrentLocation().getLineNr();
+                WorkoutCsvRow row;
+                try {
+                    row = rows.nextValue();
+                } catch (JsonProcessingException e) {
+                    session.fail(lineNumber, e.getOriginalMessage());
+                    continue;
+                }
+                String key = csvWorkoutKey(row);
+                if (current == null || !current.key().equals(key)) {
+                    if (current != null) {
+                        session.add(current.lineNumber(), current.name(), current.day(), current.description(), current.plan());
+                    }
+                    current = new CsvWorkout(key, lineNumber, row.name(), row.day(), row.description(), new ArrayList<>());
+                }
+                if (row.exercise() != null) {
+                    current.plan().add(WorkoutExercise.builder()
+                            .name(row.exercise())
+                            .setCount(Objects.requireNonNullElse(row.setCount(), 0))
+                            .repsPerSet(Objects.requireNonNullElse(row.repsPerSet(), 0))
+                            .weightInKg(Objects.requireNonNullElse(row.weightInKg(), 0.0))
+                            .breakInSec(Objects.requireNonNullElse(row.breakInSec(), 0))
+                            .build());
+                }
+            }
+            if (current != null) {
+                session.add(current.lineNumber(), current.name(), current.day(), current.description(), current.plan());
+            }
+        }
+    }
+
+    private static String csvWorkoutKey(WorkoutCsvRow row) {
+        if (row.workout() != null && !row.workout().isBlank()) {
+            return row.workout();
+        }
+        return row.name() + "|" + row.day() + "|" + row.description();
+    }
+
+    public void writeWorkouts(Stream<Workout> workouts, OutputStream outputStream, TransferFormat format) throws IOException {
+        if (format == TransferFormat.CSV) {
+            writeCsv(workouts, outputStream);
+        } else {
+            writeNdjson(workouts, outputStream);
+        }
+    }
+
+    private void writeNdjson(Stream<Workout> workouts, OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(Workout.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (workouts; JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+            generator.setRootValueSeparator(null);
+            Iterator<Workout> iterator = workouts.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private static void writeCsv(Stream<Workout> workouts, OutputStream outputStream) throws IOException {
+        try (workouts; SequenceWriter writer = CSV_MAPPER.writer(CSV_SCHEMA).writeValues(outputStream)) {
+            Iterator<Workout> iterator = workouts.iterator();
+            while (iterator.hasNext()) {
+                for (WorkoutCsvRow row : toCsvRows(iterator.next())) {
+                    writer.write(row);
+                }
+            }
+        }
+    }
+
+    public String csvHeader() {
+        StringBuilder header = new StringBuilder();
+        CSV_SCHEMA.forEach(column -> header.append(header.isEmpty() ? "" : ",").append(column.getName()));
+        return header.append('\n').toString();
+    }
+
+    public String toCsv(Workout workout) {
+        try {
+            return CSV_MAPPER.writer(CSV_SCHEMA.withoutHeader()).writeValueAsString(toCsvRows(workout));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static List<WorkoutCsvRow> toCsvRows(Workout workout) {
+        WorkoutCsvRow.WorkoutCsvRowBuilder header = WorkoutCsvRow.builder()
+                .workout(workout.id())
+                .name(workout.name())
+                .day(workout.day())
+                .description(workout.description());
+        if (workout.plan() == null || workout.plan().isEmpty()) {
+            return List.of(header.build());
+        }
+        return workout.plan().stream()
+                .map(exercise -> header
+                        .exercise(exercise.name())
+                        .setCount(exercise.setCount())
+                        .repsPerSet(exercise.repsPerSet())
+                        .weightInKg(exercise.weightInKg())
+                        .breakInSec(exercise.breakInSec())
+                        .build())
+                .toList();
+    }
+
+    private record CsvWorkout(
+            String key,
+            long lineNumber,
+            String name,
+            LocalDate day,
+            String description,
+            List<WorkoutExercise> plan
+    ) {
+    }
+
+    // Keeps at most the given number of characters of a line and skips the rest, so one huge record cannot exhaust the heap.
+    static class BoundedLineReader {
+        private final Reader reader;
+        private final int maxLength;
+        private final StringBuilder line = new StringBuilder();
+        private boolean truncated;
+
+        BoundedLineReader(Reader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        String readLine() throws IOException {
+            line.setLength(0);
+            truncated = false;
+            int next;
+            while ((next = reader.read()) != -1 && next != '\n') {
+                if (line.length() < maxLength) {
+                    line.append((char) next);
+                } else {
+                    truncated = true;
+                }
+            }
+            return next == -1 && line.isEmpty() && !truncated ? null : line.toString();
+        }
+
+        boolean truncated() {
+            return truncated;
+        }
+    }
+
+    // Collects valid workouts into batches so one unordered bulk write covers many records.
+    private class ImportSession {
+        private final String userId;
+        private final List<Workout> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        private final List<Long> batchLineNumbers = new ArrayList<>(IMPORT_BATCH_SIZE);
+        private final List<ImportError> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        ImportSession(String userId) {
+            this.userId = userId;
+        }
+
+        void add(long lineNumber, String name, LocalDate day, String description, List<WorkoutExercise> plan) {
+            if (name == null || name.isBlank()) {
+                fail(lineNumber, "The name is required");
+                return;
+            }
+            if (day == null) {
+                fail(lineNumber, "The day is required");
+                return;
+            }
+            batch.add(Workout.builder()
+                    .userId(userId)
+                    .name(name)
+                    .day(day)
+                    .description(description)
+                    .plan(plan == null ? List.of() : plan)
+                    .build());
+            batchLineNumbers.add(lineNumber);
+            if (batch.size() >= IMPORT_BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void fail(long lineNumber, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportError(lineNumber, message));
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                exerciseCatalog.registerExercisesOf(batch);
+                WorkoutRepoCustom.InsertResult result = workoutRepo.insertUnordered(batch);
+                List<Workout> inserted = new ArrayList<>(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    if (result.errors().containsKey(i)) {
+                        fail(batchLineNumbers.get(i), "The workout could not be saved");
+                    } else {
+                        inserted.add(result.workouts().get(i));
+                    }
+                }
+                imported += inserted.size();
+                if (!inserted.isEmpty()) {
+                    workoutChangeListeners.forEach(listener -> listener.onWorkoutsAdded(inserted));
+                }
+            } catch (DataAccessException e) {
+                batchLineNumbers.forEach(lineNumber -> fail(lineNumber, "The workout could not be saved"));
+            }
+            batch.clear();
+            batchLineNumbers.clear();
+        }
+
+        ImportResult result() {
+            return new ImportResult(imported, failed, List.copyOf(errors));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class CacheStatsEndpointTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DirtiesContext
+    void cacheStats_whenWorkoutWasRequested_thenCountMiss() throws Exception {
+        mockMvc.perform(get("/api/workouts/details/657c4a3e2f8fb814b56fa181"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/actuator/cachestats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.workouts.hits").value(0))
+                .andExpect(jsonPath("$.principals").exists())
+                .andExpect(jsonPath("$.workoutLists.size").value(0));
+    }
+
+    @Test
+    @DirtiesContext
+    void cacheStats_whenRequestedOnTheApi_thenNotFound() throws Exception {
+        mockMvc.perform(get("/api/cache/stats"))
+                .andExpect(status().isNotFound());
+    }
+}
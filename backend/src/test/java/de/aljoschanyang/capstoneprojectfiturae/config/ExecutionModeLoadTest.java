@@ -0,0 +1,125 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import de.aljoschanyang.capstoneprojectfiturae.BackendApplication;
+import de.aljoschanyang.capstoneprojectfiturae.models.AppUser;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.AppUserRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutRepo;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.web.SecurityFilterChain;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs only with -Pload-test: starts the app once per execution mode and drives it over real HTTP.
+@Tag("load")
+class ExecutionModeLoadTest {
+    private static final int CONCURRENT_CLIENTS = 1000;
+    private static final int REQUESTS_PER_CLIENT = 10;
+    private static final String USER_ID = "loadTestUser";
+    private static final double MIN_THROUGHPUT_RATIO = 0.9;
+
+    private record LoadResult(String mode, double requestsPerSecond, int peakPlatformThreads, int failures) {
+    }
+
+    @TestConfiguration
+    static class OpenWorkoutApi {
+        @Bean
+        @Order(Ordered.HIGHEST_PRECEDENCE)
+        SecurityFilterChain loadTestFilterChain(HttpSecurity http) throws Exception {
+            return http.securityMatcher("/api/workouts/**")
+                    .csrf(AbstractHttpConfigurer::disable)
+                    .authorizeHttpRequests(a -> a.anyRequest().permitAll())
+                    .build();
+        }
+    }
+
+    @Test
+    void virtualMode_whenUnderHighConcurrency_thenKeepThroughputWithFewerPlatformThreads() throws Exception {
+        LoadResult platform = runLoad("platform");
+        LoadResult virtual = runLoad("virtual");
+
+        assertEquals(0, platform.failures(), platform::toString);
+        assertEquals(0, virtual.failures(), virtual::toString);
+        assertTrue(virtual.requestsPerSecond() >= platform.requestsPerSecond() * MIN_THROUGHPUT_RATIO, () -> virtual + " vs " + platform);
+        assertTrue(virtual.peakPlatformThreads() < platform.peakPlatformThreads(), () -> virtual + " vs " + platform);
+    }
+
+    private LoadResult runLoad(String mode) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class, OpenWorkoutApi.class)
+                .profiles("test")
+                .properties("server.port=0", "myapp.execution.mode=" + mode, "server.tomcat.accept-count=" + CONCURRENT_CLIENTS)
+                .run()) {
+            seed(context);
+            URI uri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + "/api/workouts/" + USER_ID + "/page?limit=20");
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            try (HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+                 ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                send(client, uri, 1, new AtomicInteger());
+                threads.resetPeakThreadCount();
+
+                AtomicInteger failures = new AtomicInteger();
+                long start = System.nanoTime();
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < CONCURRENT_CLIENTS; i++) {
+                    futures.add(clients.submit(() -> send(client, uri, REQUESTS_PER_CLIENT, failures)));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                return new LoadResult(mode, CONCURRENT_CLIENTS * REQUESTS_PER_CLIENT / seconds, threads.getPeakThreadCount(), failures.get());
+            }
+        }
+    }
+
+    private static void seed(ConfigurableApplicationContext context) {
+        context.getBean(AppUserRepo.class).save(AppUser.builder().id(USER_ID).name("Load test").build());
+        WorkoutRepo workoutRepo = context.getBean(WorkoutRepo.class);
+        for (int i = 0; i < 50; i++) {
+            workoutRepo.save(Workout.builder().userId(USER_ID).name("Workout " + i).day(LocalDate.of(2023, 12, 1).plusDays(i)).plan(List.of()).build());
+        }
+    }
+
+    private static Void send(HttpClient client, URI uri, int requests, AtomicInteger failures) {
+        for (int i = 0; i < requests; i++) {
+            try {
+                HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 200) {
+                    failures.incrementAndGet();
+                }
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                failures.incrementAndGet();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,84 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.DailyExerciseVolume;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutExercise;
+import de.aljoschanyang.capstoneprojectfiturae.services.ExerciseCatalog;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExerciseCatalogConfigTest {
+    private final ExerciseCatalog mockExerciseCatalog = mock(ExerciseCatalog.class);
+    private final MongoMappingContext mappingContext = new MongoMappingContext();
+    private final MappingMongoConverter converter;
+
+    ExerciseCatalogConfigTest() {
+        MongoCustomConversions conversions = ExerciseCatalogConfig.conversions(new ExerciseNameConverter(mockExerciseCatalog));
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+    }
+
+    @Test
+    void write_whenWorkoutHasPlan_thenStoreCatalogIdsInsteadOfNames() {
+        when(mockExerciseCatalog.registeredIdOf("Squat")).thenReturn(3);
+        Document actual = new Document();
+
+        converter.write(Workout.builder().plan(List.of(new WorkoutExercise("Squat", 3, 10, 80, 90))).build(), actual);
+
+        assertEquals(3, ((Document) actual.get("workout_plan", List.class).get(0)).get("name"));
+    }
+
+    @Test
+    void read_whenPlanHoldsIdsAndLegacyNames_thenResolveBoth() {
+        when(mockExerciseCatalog.nameOf(3)).thenReturn("Squat");
+        when(mockExerciseCatalog.canonicalName("Row")).thenReturn("Row");
+        Document stored = new Document("workout_plan", List.of(storedExercise(3), storedExercise("Row")));
+
+        Workout actual = converter.read(Workout.class, stored);
+
+        assertEquals(List.of("Squat", "Row"), actual.plan().stream().map(WorkoutExercise::name).toList());
+    }
+
+    @Test
+    void mapUpdate_whenSingleExerciseRenamed_thenSetItsCatalogId() {
+        when(mockExerciseCatalog.registeredIdOf("Front Squat")).thenReturn(5);
+
+        Document actual = new UpdateMapper(converter).getMappedObject(new Update().set("plan.2.name", "Front Squat").getUpdateObject(),
+                mappingContext.getRequiredPersistentEntity(Workout.class));
+
+        assertEquals(new Document("$set", new Document("workout_plan.2.name", 5)), actual);
+    }
+
+    @Test
+    void read_whenAggregationGroupedById_thenResolveTheExerciseName() {
+        when(mockExerciseCatalog.nameOf(3)).thenReturn("Squat");
+
+        DailyExerciseVolume actual = converter.read(DailyExerciseVolume.class,
+                new Document("day", LocalDate.of(2023, 12, 15)).append("exercise", 3).append("volume", 2400.0));
+
+        assertEquals(new DailyExerciseVolume(LocalDate.of(2023, 12, 15), "Squat", 2400.0), actual);
+    }
+
+    private static Document storedExercise(Object name) {
+        return new Document("name", name)
+                .append("setCount", 3)
+                .append("repsPerSet", 10)
+                .append("weightInKg", 80.0)
+                .append("breakInSec", 90);
+    }
+}
@@ -0,0 +1,55 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import de.aljoschanyang.capstoneprojectfiturae.services.ExerciseCatalog;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ExerciseCatalogMigrationTest {
+    private final Document workout = new Document("_id", "workoutId")
+            .append("workout_plan", List.of(
+                    new Document("name", "Squat"),
+                    new Document("name", 4),
+                    new Document("name", "Row")));
+
+    @Test
+    void migrate_whenAPassHasCompleted_thenSkipTheScan() {
+        MongoTemplate mockMongoTemplate = mock(MongoTemplate.class);
+        when(mockMongoTemplate.exists(any(Query.class), eq(ExerciseCatalogMigration.MIGRATIONS_COLLECTION))).thenReturn(true);
+
+        long actual = new ExerciseCatalogMigration(mockMongoTemplate, mock(ExerciseCatalog.class)).migrate();
+
+        assertEquals(0, actual);
+        verify(mockMongoTemplate, never()).find(any(Query.class), eq(Document.class), anyString());
+    }
+
+    @Test
+    void toUpdate_whenPlanMixesNamesAndIds_thenRewriteOnlyTheNames() {
+        Map<String, Integer> ids = Map.of("Squat", 1, "Row", 2);
+
+        Document actual = ExerciseCatalogMigration.toUpdate(workout, ids::get).getUpdateObject();
+
+        assertEquals(new Document("$set", new Document("workout_plan.0.name", 1).append("workout_plan.2.name", 2)), actual);
+    }
+
+    @Test
+    void toGuardQuery_whenPlanMixesNamesAndIds_thenRequireTheNamesThatWereRead() {
+        Document actual = ExerciseCatalogMigration.toGuardQuery(workout).getQueryObject();
+
+        assertEquals(new Document("_id", "workoutId")
+                .append("workout_plan.0.name", "Squat")
+                .append("workout_plan.2.name", "Row"), actual);
+        assertEquals(Set.of("Squat", "Row"), ExerciseCatalogMigration.legacyNames(List.of(workout)));
+    }
+}
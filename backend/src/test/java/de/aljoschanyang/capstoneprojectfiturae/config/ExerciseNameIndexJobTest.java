@@ -0,0 +1,37 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import de.aljoschanyang.capstoneprojectfiturae.services.ExerciseNameService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ExerciseNameIndexJobTest {
+    private final ExerciseNameService mockExerciseNameService = mock(ExerciseNameService.class);
+    private final TaskScheduler mockTaskScheduler = mock(TaskScheduler.class);
+    private final ExerciseNameIndexJob job = new ExerciseNameIndexJob(mockExerciseNameService, mockTaskScheduler);
+
+    @Test
+    void scheduleInitialRebuild_whenApplicationIsReady_thenRebuildOnSchedulerThread() {
+        job.scheduleInitialRebuild();
+
+        verifyNoInteractions(mockExerciseNameService);
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(mockTaskScheduler).schedule(task.capture(), any(Instant.class));
+        task.getValue().run();
+        verify(mockExerciseNameService).rebuildGlobalIndex();
+    }
+
+    @Test
+    void rebuildGlobalIndex_whenRepoFails_thenKeepRunning() {
+        when(mockExerciseNameService.rebuildGlobalIndex()).thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertDoesNotThrow(job::rebuildGlobalIndex);
+    }
+}
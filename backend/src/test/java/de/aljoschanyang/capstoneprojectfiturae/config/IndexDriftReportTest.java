@@ -0,0 +1,60 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.CompoundIndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.bson.Document;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexDriftReportTest {
+    private final IndexDefinition userDayIndex = new CompoundIndexDefinition(new Document("user_id", 1).append("workout_day", 1))
+            .named("user_day_idx");
+    private final IndexInfo idIndex = new IndexInfo(List.of(IndexField.create("_id", Sort.Direction.ASC)), "_id_", false, false, null);
+
+    @Test
+    void compare_whenIndexExistsAsDeclared_thenReportNoDrift() {
+        IndexInfo existing = new IndexInfo(List.of(
+                IndexField.create("user_id", Sort.Direction.ASC),
+                IndexField.create("workout_day", Sort.Direction.ASC)), "user_day_idx", false, false, null);
+
+        IndexDriftReport actual = IndexDriftReport.compare("workouts", List.of(userDayIndex), List.of(idIndex, existing));
+
+        assertFalse(actual.hasDrift());
+    }
+
+    @Test
+    void compare_whenIndexDoesNotExist_thenReportMissing() {
+        IndexDriftReport actual = IndexDriftReport.compare("workouts", List.of(userDayIndex), List.of(idIndex));
+
+        assertEquals(List.of(userDayIndex), actual.missing());
+        assertTrue(actual.mismatched().isEmpty());
+        assertTrue(actual.unexpected().isEmpty());
+    }
+
+    @Test
+    void compare_whenIndexKeysDiffer_thenReportMismatched() {
+        IndexInfo existing = new IndexInfo(List.of(
+                IndexField.create("user_id", Sort.Direction.ASC),
+                IndexField.create("workout_day", Sort.Direction.DESC)), "user_day_idx", false, false, null);
+
+        IndexDriftReport actual = IndexDriftReport.compare("workouts", List.of(userDayIndex), List.of(idIndex, existing));
+
+        assertEquals(List.of("user_day_idx"), actual.mismatched());
+        assertTrue(actual.missing().isEmpty());
+    }
+
+    @Test
+    void compare_whenIndexIsNotDeclared_thenReportUnexpected() {
+        IndexInfo existing = new IndexInfo(List.of(IndexField.create("workout_name", Sort.Direction.ASC)), "workout_name_1", false, false, null);
+
+        IndexDriftReport actual = IndexDriftReport.compare("workouts", List.of(), List.of(idIndex, existing));
+
+        assertEquals(List.of("workout_name_1"), actual.unexpected());
+    }
+}
@@ -0,0 +1,43 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@WithMockUser
+class MetricsEndpointTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DirtiesContext
+    void prometheus_whenApiWasCalled_thenExposeLatencyRepositoryPayloadCacheAndJvmMetrics() throws Exception {
+        mockMvc.perform(get("/api/workouts/details/invalidId"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds")))
+                .andExpect(content().string(containsString("http_server_response_size_bytes")))
+                .andExpect(content().string(containsString("fiturae_workouts_list_size_workouts")))
+                .andExpect(content().string(containsString("fiturae_cache_misses_total{application=\"fiturae\",cache=\"workouts\",}")))
+                .andExpect(content().string(containsString("fiturae_cache_misses_total{application=\"fiturae\",cache=\"knownUsers\",}")))
+                .andExpect(content().string(containsString("jvm_gc_memory_allocated_bytes_total")));
+    }
+}
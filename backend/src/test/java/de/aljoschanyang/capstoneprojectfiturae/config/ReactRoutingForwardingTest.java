@@ -2,52 +2,103 @@ package de.aljoschanyang.capstoneprojectfiturae.config;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
 
-import java.io.IOException;
-
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import java.util.List;
 
 class ReactRoutingPathResourceResolverTest {
+    private final StaticAssetIndex index = new StaticAssetIndex("classpath:/static-fixture/");
+    private final ReactRoutingForwarding.ReactRoutingResourceResolver resolver = new ReactRoutingForwarding.ReactRoutingResourceResolver(index);
 
     @Test
-    void expectRelativeResource_ifItExists() throws IOException {
+    void expectIndexedResource_ifItExists() {
 
         // GIVEN
-        var resolver = new ReactRoutingForwarding.ReactRoutingPathResourceResolver();
-        var location = mock(Resource.class);
-        var relativeLocation = mock(Resource.class);
-        var resourcePath = "index.html";
-        when(location.createRelative(resourcePath)).thenReturn(relativeLocation);
-        when(relativeLocation.exists()).thenReturn(true);
-        when(relativeLocation.isReadable()).thenReturn(true);
+        var request = new MockHttpServletRequest();
 
         // WHEN
-        var actual = resolver.getResource(resourcePath, location);
+        var actual = resolver.resolveResource(request, "robots.txt", List.of(), null);
 
         // THEN
-        Assertions.assertEquals(relativeLocation, actual);
+        Assertions.assertNotNull(actual);
+        Assertions.assertEquals("robots.txt", actual.getFilename());
     }
 
     @Test
-    void expectIndexHtml_ifRequestedResourceDoesNotExist() throws IOException {
+    void expectIndexHtml_ifRequestedResourceDoesNotExist() {
 
         // GIVEN
-        var resolver = new ReactRoutingForwarding.ReactRoutingPathResourceResolver();
-        var location = mock(Resource.class);
-        var relativeLocation = mock(Resource.class);
-        var resourcePath = "index.html";
-        when(location.createRelative(resourcePath)).thenReturn(relativeLocation);
-        when(relativeLocation.exists()).thenReturn(false);
+        var request = new MockHttpServletRequest();
 
         // WHEN
-        var actual = resolver.getResource(resourcePath, location);
+        var actual = resolver.resolveResource(request, "workouts/123", List.of(), null);
 
         // THEN
-        ClassPathResource expected = new ClassPathResource("static/index.html");
-        Assertions.assertEquals(expected, actual);
+        Assertions.assertNotNull(actual);
+        Assertions.assertEquals("index.html", actual.getFilename());
     }
 
-}
\ No newline at end of file
+    @Test
+    void expectNotFound_ifMissingResourceIsABundledAsset() {
+
+        // WHEN
+        Resource actual = resolver.resolveResource(new MockHttpServletRequest(), "assets/index-0ld4ss3t.js", List.of(), null);
+
+        // THEN
+        Assertions.assertNull(actual);
+    }
+
+    @Test
+    void expectPrecompressedImmutableAsset_ifClientAcceptsBrotli() throws Exception {
+
+        // GIVEN
+        var handler = new ResourceHttpRequestHandler();
+        handler.setServletContext(new MockServletContext());
+        handler.setResourceResolvers(List.of(resolver));
+        handler.afterPropertiesSet();
+        var request = new MockHttpServletRequest("GET", "/assets/index-Bx3kQ9aZ.js");
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "assets/index-Bx3kQ9aZ.js");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br");
+        var response = new MockHttpServletResponse();
+
+        // WHEN
+        handler.handleRequest(request, response);
+
+        // THEN
+        Assertions.assertEquals(200, response.getStatus());
+        Assertions.assertEquals("br", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        Assertions.assertEquals("application/javascript", response.getContentType());
+        Assertions.assertEquals("max-age=31536000, public, immutable", response.getHeader(HttpHeaders.CACHE_CONTROL));
+        Assertions.assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        Assertions.assertEquals(index.find("assets/index-Bx3kQ9aZ.js").orElseThrow().encodedContent().get("br").length,
+                response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void expectRevalidatedIdentityIndexHtml_ifClientRoutesWithoutCompression() throws Exception {
+
+        // GIVEN
+        var handler = new ResourceHttpRequestHandler();
+        handler.setServletContext(new MockServletContext());
+        handler.setResourceResolvers(List.of(resolver));
+        handler.afterPropertiesSet();
+        var request = new MockHttpServletRequest("GET", "/workouts/123");
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, "workouts/123");
+        var response = new MockHttpServletResponse();
+
+        // WHEN
+        handler.handleRequest(request, response);
+
+        // THEN
+        Assertions.assertEquals(200, response.getStatus());
+        Assertions.assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        Assertions.assertEquals("no-cache", response.getHeader(HttpHeaders.CACHE_CONTROL));
+        Assertions.assertTrue(response.getContentAsString().contains("<div id=\"root\">"));
+    }
+}
@@ -0,0 +1,55 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResponseSizeMetricsFilterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ResponseSizeMetricsFilter filter = new ResponseSizeMetricsFilter(meterRegistry);
+
+    @Test
+    void doFilter_whenApiResponseIsWritten_thenRecordBytesPerUriTemplate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/workouts/userId");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        byte[] body = "[{\"name\":\"Legs\"}]".getBytes(StandardCharsets.UTF_8);
+
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) throws IOException {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/workouts/{userId}");
+                res.getOutputStream().write(body);
+            }
+        }));
+
+        DistributionSummary summary = meterRegistry.get(ResponseSizeMetricsFilter.METRIC_NAME)
+                .tag("uri", "/api/workouts/{userId}")
+                .tag("status", "200")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(body.length, summary.totalAmount());
+        assertEquals(body.length, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void doFilter_whenRequestIsNotForTheApi_thenRecordNothing() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/assets/index.js");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(meterRegistry.find(ResponseSizeMetricsFilter.METRIC_NAME).summary());
+    }
+}
@@ -0,0 +1,139 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SignedCookieSessionTest {
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private final Instant now = Instant.parse("2023-12-15T10:00:00Z");
+    private final SessionTokenCodec codec = new SessionTokenCodec(SECRET);
+    private final SignedCookies signedCookies = new SignedCookies(codec, new ObjectMapper());
+    private final SignedCookieSecurityContextRepository repository =
+            new SignedCookieSecurityContextRepository(signedCookies, Duration.ofHours(12), Clock.fixed(now, ZoneOffset.UTC));
+
+    private static SecurityContext loggedInContext() {
+        var authorities = AuthorityUtils.createAuthorityList("OAUTH2_USER");
+        DefaultOAuth2User user = new DefaultOAuth2User(authorities,
+                Map.of("id", 123, "login", "octocat", "avatar_url", "https://avatars/1", "email", "not@stored"), "id");
+        return new SecurityContextImpl(new OAuth2AuthenticationToken(user, authorities, "github"));
+    }
+
+    private static Cookie cookieFrom(MockHttpServletResponse response) {
+        String header = response.getHeader(HttpHeaders.SET_COOKIE);
+        String nameValue = header.substring(0, header.indexOf(';'));
+        return new Cookie(nameValue.substring(0, nameValue.indexOf('=')), nameValue.substring(nameValue.indexOf('=') + 1));
+    }
+
+    @Test
+    void decode_whenPayloadWasTamperedWith_thenReturnEmpty() {
+        String token = codec.encode("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+        String forged = codec.encode("{\"id\":2}".getBytes(StandardCharsets.UTF_8));
+        String tampered = forged.substring(0, forged.indexOf('.')) + token.substring(token.indexOf('.'));
+
+        assertTrue(codec.decode(token).isPresent());
+        assertTrue(codec.decode(tampered).isEmpty());
+        assertTrue(codec.decode("no-signature").isEmpty());
+    }
+
+    @Test
+    void sessionTokenCodec_whenSecretIsTooShort_thenThrowException() {
+        assertThrows(IllegalStateException.class, () -> new SessionTokenCodec("short"));
+    }
+
+    @Test
+    void loadDeferredContext_whenCookieWasSaved_thenRestoreOAuthPrincipal() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        repository.saveContext(loggedInContext(), request, response);
+
+        MockHttpServletRequest nextRequest = new MockHttpServletRequest();
+        nextRequest.setCookies(cookieFrom(response));
+        SecurityContext actual = repository.loadDeferredContext(nextRequest).get();
+
+        OAuth2User principal = (OAuth2User) actual.getAuthentication().getPrincipal();
+        assertEquals(123, (Integer) principal.getAttribute("id"));
+        assertEquals("octocat", principal.getAttribute("login"));
+        assertNull(principal.getAttribute("email"));
+        assertEquals("github", ((OAuth2AuthenticationToken) actual.getAuthentication()).getAuthorizedClientRegistrationId());
+        assertTrue(repository.containsContext(nextRequest));
+        assertTrue(response.getHeader(HttpHeaders.SET_COOKIE).contains("HttpOnly"));
+        assertNull(request.getSession(false));
+    }
+
+    @Test
+    void loadDeferredContext_whenCookieExpired_thenReturnEmptyContext() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        repository.saveContext(loggedInContext(), new MockHttpServletRequest(), response);
+        SignedCookieSecurityContextRepository later = new SignedCookieSecurityContextRepository(
+                signedCookies, Duration.ofHours(12), Clock.fixed(now.plus(Duration.ofHours(13)), ZoneOffset.UTC));
+
+        MockHttpServletRequest nextRequest = new MockHttpServletRequest();
+        nextRequest.setCookies(cookieFrom(response));
+
+        assertTrue(later.loadDeferredContext(nextRequest).isGenerated());
+        assertNull(later.loadDeferredContext(nextRequest).get().getAuthentication());
+    }
+
+    @Test
+    void loadDeferredContext_whenCookieWasSignedWithAnotherSecret_thenReturnEmptyContext() {
+        SignedCookies otherSecret = new SignedCookies(new SessionTokenCodec("another-secret-another-secret-123"), new ObjectMapper());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new SignedCookieSecurityContextRepository(otherSecret, Duration.ofHours(12), Clock.fixed(now, ZoneOffset.UTC))
+                .saveContext(loggedInContext(), new MockHttpServletRequest(), response);
+
+        MockHttpServletRequest nextRequest = new MockHttpServletRequest();
+        nextRequest.setCookies(cookieFrom(response));
+
+        assertFalse(repository.containsContext(nextRequest));
+    }
+
+    @Test
+    void loadAuthorizationRequest_whenStateMatches_thenRestoreRequestAndRemoveCookie() {
+        CookieOAuth2AuthorizationRequestRepository authorizationRequests = new CookieOAuth2AuthorizationRequestRepository(signedCookies);
+        OAuth2AuthorizationRequest authorizationRequest = OAuth2AuthorizationRequest.authorizationCode()
+                .authorizationUri("https://github.com/login/oauth/authorize")
+                .clientId("clientId")
+                .redirectUri("http://localhost:8080/login/oauth2/code/github")
+                .scopes(Set.of("user"))
+                .state("state123")
+                .attributes(Map.of("registration_id", "github"))
+                .build();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        authorizationRequests.saveAuthorizationRequest(authorizationRequest, new MockHttpServletRequest(), response);
+
+        MockHttpServletRequest callback = new MockHttpServletRequest();
+        callback.setCookies(cookieFrom(response));
+        callback.setParameter("state", "state123");
+        MockHttpServletResponse callbackResponse = new MockHttpServletResponse();
+        OAuth2AuthorizationRequest actual = authorizationRequests.removeAuthorizationRequest(callback, callbackResponse);
+
+        assertEquals(authorizationRequest.getAuthorizationRequestUri(), actual.getAuthorizationRequestUri());
+        assertEquals("github", actual.getAttribute("registration_id"));
+        assertTrue(callbackResponse.getHeader(HttpHeaders.SET_COOKIE).contains("Max-Age=0"));
+
+        callback.setParameter("state", "otherState");
+        assertNull(authorizationRequests.loadAuthorizationRequest(callback));
+    }
+}
@@ -0,0 +1,55 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StaticAssetIndexTest {
+    private final StaticAssetIndex index = new StaticAssetIndex("classpath:/static-fixture/");
+
+    @Test
+    void staticAssetIndex_whenBundleHasPrecompressedVariants_thenAttachThemToTheirFile() {
+        StaticAsset actual = index.find("assets/index-Bx3kQ9aZ.js").orElseThrow();
+
+        assertEquals(3, index.size());
+        assertEquals(Set.of("br", "gzip"), actual.encodedContent().keySet());
+        assertTrue(index.find("assets/index-Bx3kQ9aZ.js.gz").isEmpty());
+        assertTrue(index.find("robots.txt").orElseThrow().encodedContent().isEmpty());
+    }
+
+    @Test
+    void staticAssetIndex_whenLocationDoesNotExist_thenIndexIsEmpty() {
+        StaticAssetIndex empty = new StaticAssetIndex("classpath:/no-such-bundle/");
+
+        assertEquals(0, empty.size());
+        assertTrue(empty.resolve("workouts").isEmpty());
+    }
+
+    @Test
+    void isFingerprinted_whenViteHashedAsset_thenTrue() {
+        assertTrue(StaticAssetIndex.isFingerprinted("assets/index-Bx3kQ9aZ.js"));
+        assertTrue(StaticAssetIndex.isFingerprinted("assets/logo-a1_B2-c3.svg"));
+        assertFalse(StaticAssetIndex.isFingerprinted("index.html"));
+        assertFalse(StaticAssetIndex.isFingerprinted("assets/logo.svg"));
+    }
+
+    @Test
+    void select_whenEncodingIsRefusedOrUnknown_thenFallBackInPreferenceOrder() {
+        StaticAsset asset = index.find("assets/index-Bx3kQ9aZ.js").orElseThrow();
+
+        assertEquals("br", asset.select("gzip;q=0.5, br").getEncoding());
+        assertEquals("gzip", asset.select("gzip, br;q=0").getEncoding());
+        assertNull(asset.select("deflate").getEncoding());
+        assertNull(asset.select(null).getEncoding());
+    }
+
+    @Test
+    void select_whenQualityIsMalformed_thenSkipThatEncoding() {
+        StaticAsset asset = index.find("assets/index-Bx3kQ9aZ.js").orElseThrow();
+
+        assertEquals("gzip", asset.select("br;q=high, gzip").getEncoding());
+        assertNull(asset.select("br;q=, gzip;q=NaN").getEncoding());
+    }
+}
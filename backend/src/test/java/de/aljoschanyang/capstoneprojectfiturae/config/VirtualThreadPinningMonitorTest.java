@@ -0,0 +1,53 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VirtualThreadPinningMonitorTest {
+    private final Object lock = new Object();
+    private final VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(Duration.ofMillis(10));
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    private void sleepWhileHoldingMonitor() {
+        synchronized (lock) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Test
+    void pinnedEventCount_whenVirtualThreadBlocksInsideSynchronized_thenCountPinning() throws Exception {
+        monitor.start();
+
+        Thread.ofVirtual().start(this::sleepWhileHoldingMonitor).join();
+
+        // JFR delivers events in chunks, roughly once per second.
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (monitor.pinnedEventCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        assertTrue(monitor.pinnedEventCount() > 0);
+    }
+
+    @Test
+    void pinnedEventCount_whenPlatformThreadBlocks_thenCountNothing() throws Exception {
+        monitor.start();
+
+        Thread.ofPlatform().start(this::sleepWhileHoldingMonitor).join();
+        Thread.sleep(1500);
+
+        assertEquals(0, monitor.pinnedEventCount());
+    }
+}
@@ -0,0 +1,92 @@
+package de.aljoschanyang.capstoneprojectfiturae.config;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutDetails;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutEdit;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutExercise;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WireFormatConfigTest {
+    private final WireFormatConfig config = new WireFormatConfig();
+    private final List<WorkoutExercise> plan = IntStream.range(0, 8)
+            .mapToObj(i -> new WorkoutExercise("Exercise " + i, 4, 10, 42.5, 90))
+            .toList();
+    private final Workout workout = Workout.builder()
+            .id("657c2f0e8a4b5d1e2f3a4b5c")
+            .userId("12345678")
+            .name("Upper body")
+            .day(LocalDate.of(2023, 12, 15))
+            .description("Push and pull supersets")
+            .plan(plan)
+            .version(3L)
+            .modifiedAt(Instant.parse("2023-12-15T10:15:30.123Z"))
+            .build();
+
+    // Mirrors the defaults Spring Boot applies to its Jackson2ObjectMapperBuilder.
+    private static Jackson2ObjectMapperBuilder bootBuilder() {
+        return new Jackson2ObjectMapperBuilder().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Test
+    void binaryConverters_whenWorkoutPayloadsRoundTrip_thenValuesAreIdentical() throws IOException {
+        WorkoutDetails details = new WorkoutDetails(workout.userId(), workout.name(), workout.day(), workout.description(), plan);
+        WorkoutEdit edit = new WorkoutEdit(workout.name(), workout.day(), workout.description(), plan, workout.version());
+
+        for (AbstractHttpMessageConverter<Object> converter : List.of(
+                config.smileHttpMessageConverter(bootBuilder()), config.cborHttpMessageConverter(bootBuilder()))) {
+            assertEquals(workout, roundTrip(converter, workout, Workout.class));
+            assertEquals(details, roundTrip(converter, details, WorkoutDetails.class));
+            assertEquals(edit, roundTrip(converter, edit, WorkoutEdit.class));
+        }
+    }
+
+    @Test
+    void smileConverter_whenPlanRepeatsKeys_thenBodyIsSmallerThanJson() throws IOException {
+        int jsonBytes = write(new MappingJackson2HttpMessageConverter(bootBuilder().build()), workout).length;
+        int smileBytes = write(config.smileHttpMessageConverter(bootBuilder()), workout).length;
+        int cborBytes = write(config.cborHttpMessageConverter(bootBuilder()), workout).length;
+
+        assertTrue(smileBytes < jsonBytes, smileBytes + " >= " + jsonBytes);
+        assertTrue(cborBytes < jsonBytes, cborBytes + " >= " + jsonBytes);
+    }
+
+    @Test
+    void varyAcceptInterceptor_whenWorkoutRequestHandled_thenResponseVariesByAccept() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(new WireFormatConfig.VaryAcceptInterceptor().preHandle(new MockHttpServletRequest(), response, new Object()));
+        assertEquals(HttpHeaders.ACCEPT, response.getHeader(HttpHeaders.VARY));
+    }
+
+    private static <T> T roundTrip(AbstractHttpMessageConverter<Object> converter, T value, Class<T> type) throws IOException {
+        MockHttpInputMessage input = new MockHttpInputMessage(write(converter, value));
+        input.getHeaders().setContentType(converter.getSupportedMediaTypes().get(0));
+        return type.cast(converter.read(type, input));
+    }
+
+    private static byte[] write(AbstractHttpMessageConverter<Object> converter, Object value) throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        MediaType mediaType = converter.getSupportedMediaTypes().get(0);
+        assertTrue(converter.canWrite(value.getClass(), mediaType));
+        converter.write(value, mediaType, output);
+        return output.getBodyAsBytes();
+    }
+}
@@ -0,0 +1,106 @@
+package de.aljoschanyang.capstoneprojectfiturae.controllers;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.*;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.AppUserRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@ActiveProfiles({"test", "reactive"})
+@SpringBootTest
+@AutoConfigureWebTestClient
+@WithMockUser
+class ReactiveWorkoutControllerTest {
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private AppUserRepo appUserRepo;
+    @Autowired
+    private WorkoutRepo workoutRepo;
+
+    private static final String BASE_URI = "/api/workouts";
+    private final AppUser validAppUser = new AppUser("validUserId", "User1","email","imgUrl");
+    private final LocalDate testDate = LocalDate.of(2023,12,15);
+
+    @Test
+    @DirtiesContext
+    void addWorkout_whenUserExistsInDb_thenReturnWorkout() {
+        appUserRepo.save(validAppUser);
+
+        WorkoutDetails workoutDetails = WorkoutDetails.builder()
+                .userId(validAppUser.id())
+                .name("Test Workout")
+                .day(testDate)
+                .plan(List.of())
+                .build();
+
+        webTestClient.post().uri(BASE_URI)
+                .bodyValue(workoutDetails)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isNotEmpty()
+                .jsonPath("$.name").isEqualTo("Test Workout");
+    }
+
+    @Test
+    @DirtiesContext
+    void getAllWorkoutsByUserId_whenUserDoesNotExist_thenReturnNotFound() {
+        webTestClient.get().uri(BASE_URI + "/invalidUserId")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(String.class).isEqualTo("The user is unknown");
+    }
+
+    @Test
+    @DirtiesContext
+    void getAllWorkoutsByUserId_whenSmileIsNegotiatedAndUserDoesNotExist_thenAnswerWithProblemJson() {
+        webTestClient.get().uri(BASE_URI + "/invalidUserId")
+                .accept(MediaType.valueOf("application/x-jackson-smile"))
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .expectBody().jsonPath("$.detail").isEqualTo("The user is unknown");
+    }
+
+    @Test
+    @DirtiesContext
+    void streamWorkoutsByUserId_whenUserExists_thenStreamNdjson() {
+        appUserRepo.save(validAppUser);
+        workoutRepo.save(Workout.builder().userId(validAppUser.id()).name("First").day(testDate).plan(List.of()).build());
+        workoutRepo.save(Workout.builder().userId(validAppUser.id()).name("Second").day(testDate.plusDays(1)).plan(List.of()).build());
+
+        StepVerifier.create(webTestClient.get().uri(BASE_URI + "/" + validAppUser.id() + "/stream")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .exchange()
+                        .expectStatus().isOk()
+                        .returnResult(Workout.class)
+                        .getResponseBody()
+                        .map(Workout::name))
+                .expectNext("First", "Second")
+                .verifyComplete();
+    }
+
+    @Test
+    @DirtiesContext
+    void patchWorkout_whenVersionIsStale_thenReturnConflict() {
+        appUserRepo.save(validAppUser);
+        Workout workout = workoutRepo.save(Workout.builder().userId(validAppUser.id()).name("First").day(testDate).plan(List.of()).build());
+
+        webTestClient.patch().uri(BASE_URI + "/" + workout.id())
+                .bodyValue(WorkoutPatch.builder().version(workout.version() + 1).name("Renamed").build())
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+}
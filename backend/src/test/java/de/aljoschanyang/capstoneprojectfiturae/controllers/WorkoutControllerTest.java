@@ -1,9 +1,11 @@
 package de.aljoschanyang.capstoneprojectfiturae.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import de.aljoschanyang.capstoneprojectfiturae.models.*;
 import de.aljoschanyang.capstoneprojectfiturae.repositories.AppUserRepo;
 import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutRepo;
+import de.aljoschanyang.capstoneprojectfiturae.services.WorkoutArchiveService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -14,10 +16,15 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -34,6 +41,8 @@ class WorkoutControllerTest {
     private WorkoutRepo workoutRepo;
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private WorkoutArchiveService workoutArchiveService;
 
     private static final String BASE_URI = "/api/workouts";
     private final AppUser validAppUser = new AppUser("validUserId", "User1","email","imgUrl");
@@ -114,6 +123,33 @@ class WorkoutControllerTest {
                 .andExpect(content().json(expectedAsJson));
     }
 
+    @Test
+    @DirtiesContext
+    void getAllWorkoutsByUserId_whenSummaryViewRequested_thenReturnCountAndVolumeInsteadOfPlan() throws Exception {
+        appUserRepo.save(validAppUser);
+        workoutRepo.save(Workout.builder()
+                .userId(validAppUser.id())
+                .name("Test Workout")
+                .day(testDate)
+                .description("Test description")
+                .plan(List.of(new WorkoutExercise("Squat", 3, 10, 80, 90), new WorkoutExercise("Row", 2, 12, 50, 60)))
+                .build());
+
+        mockMvc.perform(get(BASE_URI + "/" + validAppUser.id()).param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Test Workout"))
+                .andExpect(jsonPath("$[0].exerciseCount").value(2))
+                .andExpect(jsonPath("$[0].totalVolumeInKg").value(3600.0))
+                .andExpect(jsonPath("$[0].plan").doesNotExist());
+    }
+
+    @Test
+    @DirtiesContext
+    void getAllWorkoutsByUserId_whenViewIsUnknown_thenReturnBadRequest() throws Exception {
+        mockMvc.perform(get(BASE_URI + "/" + validAppUser.id()).param("view", "compact"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DirtiesContext
     void getAllWorkoutsByUserId_whenUserDoesNotExist_thenThrowException() throws Exception {
@@ -124,6 +160,145 @@ class WorkoutControllerTest {
                 .andExpect(content().string("The user is unknown"));
     }
 
+    @Test
+    @DirtiesContext
+    void getWorkoutPageByUserId_whenMoreWorkoutsExist_thenFollowCursorToNextPage() throws Exception {
+        appUserRepo.save(validAppUser);
+        workoutRepo.save(Workout.builder().userId(validAppUser.id()).name("First").day(testDate).plan(List.of()).build());
+        workoutRepo.save(Workout.builder().userId(validAppUser.id()).name("Second").day(testDate.plusDays(1)).plan(List.of()).build());
+
+        MvcResult result = mockMvc.perform(get(BASE_URI + "/" + validAppUser.id() + "/page")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.workouts[0].name").value("First"))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andReturn();
+        WorkoutPage firstPage = objectMapper.readValue(result.getResponse().getContentAsString(), WorkoutPage.class);
+
+        mockMvc.perform(get(BASE_URI + "/" + validAppUser.id() + "/page")
+                        .param("limit", "1")
+                        .param("cursor", firstPage.nextCursor()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.workouts[0].name").value("Second"))
+                .andExpect(jsonPath("$.nextCursor").isEmpty());
+    }
+
+    @Test
+    @DirtiesContext
+    void getWorkoutPageByUserId_whenWorkoutsShareADay_thenFollowCursorWithoutRepeatsOrGaps() throws Exception {
+        appUserRepo.save(validAppUser);
+        List<String> expectedIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expectedIds.add(workoutRepo.save(Workout.builder().userId(validAppUser.id()).name("Workout" + i).day(testDate).plan(List.of()).build()).id());
+        }
+
+        List<String> actualIds = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get(BASE_URI + "/" + validAppUser.id() + "/page").param("limit", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            MvcResult result = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn();
+            WorkoutPage page = objectMapper.readValue(result.getResponse().getContentAsString(), WorkoutPage.class);
+            page.workouts().forEach(workout -> actualIds.add(workout.id()));
+            cursor = page.nextCursor();
+        } while (cursor != null && actualIds.size() <= expectedIds.size());
+
+        assertEquals(expectedIds.stream().sorted().toList(), actualIds);
+    }
+
+    @Test
+    @DirtiesContext
+    void getWorkoutPageByUserId_whenCursorIsInvalid_thenReturnBadRequest() throws Exception {
+        appUserRepo.save(validAppUser);
+
+        mockMvc.perform(get(BASE_URI + "/" + validAppUser.id() + "/page")
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("The cursor is invalid"));
+    }
+
+    @Test
+    @DirtiesContext
+    void streamWorkoutsByUserId_whenUserExists_thenWriteOneWorkoutPerLine() throws Exception {
+        appUserRepo.save(validAppUser);
+        workoutRepo.save(Workout.builder().userId(validAppUser.id()).name("First").day(testDate).plan(List.of()).build());
+        workoutRepo.save(Workout.builder().userId(validAppUser.id()).name("Second").day(testDate.plusDays(1)).plan(List.of()).build());
+
+        MvcResult result = mockMvc.perform(get(BASE_URI + "/" + validAppUser.id() + "/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("\"name\":\"First\"")));
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Second", objectMapper.readValue(lines[1], Workout.class).name());
+    }
+
+    @Test
+    @DirtiesContext
+    void importWorkouts_whenCsvIsValid_thenInsertOneWorkoutPerGroup() throws Exception {
+        appUserRepo.save(validAppUser);
+        String csv = """
+                workout,name,day,description,exercise,setCount,repsPerSet,weightInKg,breakInSec
+                a,Legs,2023-12-15,Heavy,Squat,5,5,100.0,180
+                a,Legs,2023-12-15,Heavy,Lunge,3,10,20.0,60
+                b,Rest,2023-12-16,,,,,,
+                """;
+
+        mockMvc.perform(post(BASE_URI + "/" + validAppUser.id() + "/import")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(0));
+
+        List<Workout> workouts = workoutRepo.findWorkoutsByUserId(validAppUser.id());
+        assertEquals(2, workouts.size());
+        assertEquals(2, workouts.stream().filter(workout -> workout.name().equals("Legs")).findFirst().orElseThrow().plan().size());
+    }
+
+    @Test
+    @DirtiesContext
+    void importWorkouts_whenUserDoesNotExist_thenReturnNotFound() throws Exception {
+        mockMvc.perform(post(BASE_URI + "/invalidUserId/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":\"Legs\",\"day\":\"2023-12-15\"}\n"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DirtiesContext
+    void exportWorkouts_whenFormatIsCsv_thenWriteHeaderAndOneRowPerExercise() throws Exception {
+        appUserRepo.save(validAppUser);
+        workoutRepo.save(Workout.builder()
+                .userId(validAppUser.id())
+                .name("Legs")
+                .day(testDate)
+                .plan(List.of(WorkoutExercise.builder().name("Squat").setCount(5).build(),
+                        WorkoutExercise.builder().name("Lunge").setCount(3).build()))
+                .build());
+
+        MvcResult result = mockMvc.perform(get(BASE_URI + "/" + validAppUser.id() + "/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", containsString("workouts.csv")));
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("workout,name,day,description,exercise,setCount,repsPerSet,weightInKg,breakInSec", lines[0]);
+    }
+
     @Test
     @DirtiesContext
     void getWorkoutById_whenIdIsValid_thenReturnWorkout() throws Exception {
@@ -162,6 +337,108 @@ class WorkoutControllerTest {
                 .andExpect(content().string("The workout is unknown"));
     }
 
+    @Test
+    @DirtiesContext
+    void getWorkoutById_whenETagMatches_thenReturnNotModified() throws Exception {
+        Workout workout = workoutRepo.save(Workout.builder()
+                .userId(validAppUser.id())
+                .name("Test Workout")
+                .day(testDate)
+                .plan(List.of())
+                .build());
+
+        String etag = mockMvc.perform(get(BASE_URI + "/details/" + workout.id()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get(BASE_URI + "/details/" + workout.id()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DirtiesContext
+    void addWorkout_whenSmileIsNegotiated_thenReadAndWriteSmile() throws Exception {
+        appUserRepo.save(validAppUser);
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory()).findAndRegisterModules();
+        WorkoutDetails workoutDetails = WorkoutDetails.builder()
+                .userId(validAppUser.id())
+                .name("Test Workout")
+                .day(testDate)
+                .description("Test description")
+                .plan(List.of(new WorkoutExercise("Squat", 3, 10, 80, 90)))
+                .build();
+
+        MvcResult result = mockMvc.perform(post(BASE_URI)
+                        .contentType("application/x-jackson-smile")
+                        .accept("application/x-jackson-smile")
+                        .content(smileMapper.writeValueAsBytes(workoutDetails)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andExpect(header().string("Vary", containsString("Accept")))
+                .andReturn();
+        Workout workout = smileMapper.readValue(result.getResponse().getContentAsByteArray(), Workout.class);
+
+        assertEquals(workoutDetails.plan(), workout.plan());
+        assertEquals(testDate, workout.day());
+    }
+
+    @Test
+    @DirtiesContext
+    void getWorkoutById_whenSmileIsNegotiated_thenSendAWeakETagThatJsonRequestsShare() throws Exception {
+        Workout workout = workoutRepo.save(Workout.builder()
+                .userId(validAppUser.id())
+                .name("Test Workout")
+                .day(testDate)
+                .plan(List.of())
+                .build());
+
+        String etag = mockMvc.perform(get(BASE_URI + "/details/" + workout.id()).accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", startsWith("W/")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get(BASE_URI + "/details/" + workout.id()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DirtiesContext
+    void getWorkoutById_whenSmileIsNegotiatedAndIdIsUnknown_thenAnswerWithProblemJson() throws Exception {
+        mockMvc.perform(get(BASE_URI + "/details/unknownId").accept("application/x-jackson-smile"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.detail").value("The workout is unknown"));
+    }
+
+    @Test
+    @DirtiesContext
+    void getAllWorkoutsByUserId_whenWorkoutWasAddedSinceETag_thenReturnNewList() throws Exception {
+        appUserRepo.save(validAppUser);
+        String workoutDetailsAsJson = objectMapper.writeValueAsString(WorkoutDetails.builder()
+                .userId(validAppUser.id())
+                .name("Test Workout")
+                .day(testDate)
+                .plan(List.of())
+                .build());
+
+        String etag = mockMvc.perform(get(BASE_URI + "/" + validAppUser.id()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get(BASE_URI + "/" + validAppUser.id()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post(BASE_URI)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(workoutDetailsAsJson))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(BASE_URI + "/" + validAppUser.id()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
     @Test
     @DirtiesContext
     void editWorkout_whenValidData_thenReturnWorkout() throws Exception {
@@ -179,6 +456,7 @@ class WorkoutControllerTest {
                 .day(testDate)
                 .description("Changed description")
                 .plan(List.of())
+                .version(0L)
                 .build();
 
         Workout expected = Workout.builder()
@@ -201,6 +479,52 @@ class WorkoutControllerTest {
                 .andExpect(content().json(expectedAsJson));
     }
 
+    @Test
+    @DirtiesContext
+    void restore_whenWorkoutIsArchived_thenKeepItsVersionAndModificationTime() {
+        Workout saved = workoutRepo.save(Workout.builder()
+                .userId(validAppUser.id())
+                .name("Test Workout")
+                .day(testDate)
+                .plan(List.of())
+                .build());
+        saved = workoutRepo.save(saved.toBuilder().name("Renamed Workout").build());
+        workoutArchiveService.archiveOlderThan(testDate.plusDays(1));
+
+        workoutArchiveService.restore(saved.id());
+
+        Workout actual = workoutRepo.findById(saved.id()).orElseThrow();
+        assertEquals(1L, actual.version());
+        assertEquals(saved.modifiedAt(), actual.modifiedAt());
+    }
+
+    @Test
+    @DirtiesContext
+    void editWorkout_whenWorkoutIsArchived_thenAcceptItsStoredVersion() throws Exception {
+        Workout saved = workoutRepo.save(Workout.builder()
+                .userId(validAppUser.id())
+                .name("Test Workout")
+                .day(testDate)
+                .plan(List.of())
+                .build());
+        saved = workoutRepo.save(saved.toBuilder().name("Renamed Workout").build());
+        workoutArchiveService.archiveOlderThan(testDate.plusDays(1));
+
+        WorkoutEdit workoutEdit = WorkoutEdit.builder()
+                .name("Changed Workout")
+                .day(testDate)
+                .plan(List.of())
+                .version(saved.version())
+                .build();
+
+        mockMvc.perform(put(BASE_URI + "/" + saved.id())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(workoutEdit)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Changed Workout"))
+                .andExpect(jsonPath("$.version").value(2));
+    }
+
     @Test
     @DirtiesContext
     void editWorkout_whenInvalidData_thenThrowException() throws Exception {
@@ -209,6 +533,7 @@ class WorkoutControllerTest {
                 .day(testDate)
                 .description("Changed description")
                 .plan(List.of())
+                .version(0L)
                 .build();
 
         String workoutEditAsJson = objectMapper.writeValueAsString(workoutEdit);
@@ -219,6 +544,56 @@ class WorkoutControllerTest {
                 .andExpect(content().string("The workout is unknown"));
     }
 
+    @Test
+    @DirtiesContext
+    void patchWorkout_whenVersionMatches_thenChangeOnlyGivenFields() throws Exception {
+        Workout workoutBefore = workoutRepo.save(Workout.builder()
+                .userId("User1")
+                .name("Test Workout")
+                .day(testDate)
+                .description("Test description")
+                .plan(List.of(new WorkoutExercise("Squat", 3, 10, 80, 90), new WorkoutExercise("Press", 3, 8, 40, 60)))
+                .build());
+
+        WorkoutPatch workoutPatch = WorkoutPatch.builder()
+                .version(workoutBefore.version())
+                .name("Changed Workout")
+                .exercises(List.of(WorkoutExercisePatch.builder().index(1).weightInKg(42.5).build()))
+                .build();
+
+        mockMvc.perform(patch(BASE_URI + "/" + workoutBefore.id())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(workoutPatch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Changed Workout"))
+                .andExpect(jsonPath("$.description").value("Test description"))
+                .andExpect(jsonPath("$.plan[0].weightInKg").value(80.0))
+                .andExpect(jsonPath("$.plan[1].weightInKg").value(42.5))
+                .andExpect(jsonPath("$.plan[1].name").value("Press"))
+                .andExpect(jsonPath("$.version").value(workoutBefore.version() + 1));
+    }
+
+    @Test
+    @DirtiesContext
+    void patchWorkout_whenVersionIsOutdated_thenReturnConflict() throws Exception {
+        Workout workoutBefore = workoutRepo.save(Workout.builder()
+                .userId("User1")
+                .name("Test Workout")
+                .plan(List.of())
+                .build());
+
+        WorkoutPatch workoutPatch = WorkoutPatch.builder()
+                .version(workoutBefore.version() + 1)
+                .name("Changed Workout")
+                .build();
+
+        mockMvc.perform(patch(BASE_URI + "/" + workoutBefore.id())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(workoutPatch)))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("The workout was changed in the meantime"));
+    }
+
     @Test
     @DirtiesContext
     void deleteWorkout() throws Exception {
@@ -241,4 +616,28 @@ class WorkoutControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("[]"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DirtiesContext
+    void deleteWorkoutsById_whenSomeIdsExist_thenDeleteThemAndReportEachId() throws Exception {
+        appUserRepo.save(validAppUser);
+        Workout workout = workoutRepo.save(Workout.builder()
+                .userId(validAppUser.id())
+                .name("Test")
+                .day(testDate)
+                .plan(List.of())
+                .build());
+
+        mockMvc.perform(post(BASE_URI + "/batch/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new WorkoutIds(List.of(workout.id(), "unknownId")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("DELETED"))
+                .andExpect(jsonPath("$[1].id").value("unknownId"))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"));
+
+        mockMvc.perform(get(BASE_URI + "/" + validAppUser.id()))
+                .andExpect(status().isOk())
+                .andExpect(content().string("[]"));
+    }
+}
@@ -0,0 +1,273 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import de.aljoschanyang.capstoneprojectfiturae.models.AppUser;
+import de.aljoschanyang.capstoneprojectfiturae.models.ArchivedWorkout;
+import de.aljoschanyang.capstoneprojectfiturae.models.ExerciseCatalogEntry;
+import de.aljoschanyang.capstoneprojectfiturae.models.PersonalRecord;
+import de.aljoschanyang.capstoneprojectfiturae.models.RecurrenceRule;
+import de.aljoschanyang.capstoneprojectfiturae.models.TrainingVolume;
+import de.aljoschanyang.capstoneprojectfiturae.models.VolumePeriod;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutArchive;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutCursor;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutExercisePatch;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutPatch;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutSchedule;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class QueryPlanTest {
+    private static final Set<String> EXPLAINABLE_COMMANDS = Set.of("find", "aggregate", "count", "distinct", "delete", "update", "findAndModify");
+    private static final String WORKOUT_ID = "657c4a3e2f8fb814b56fa181";
+
+    @Autowired
+    private WorkoutRepo workoutRepo;
+    @Autowired
+    private AppUserRepo appUserRepo;
+    @Autowired
+    private WorkoutArchiveRepo workoutArchiveRepo;
+    @Autowired
+    private WorkoutScheduleRepo workoutScheduleRepo;
+    @Autowired
+    private TrainingVolumeRepo trainingVolumeRepo;
+    @Autowired
+    private PersonalRecordRepo personalRecordRepo;
+    @Autowired
+    private ExerciseCatalogRepo exerciseCatalogRepo;
+    @Autowired
+    private WorkoutListVersionRepo workoutListVersionRepo;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private CapturingCommandListener commandListener;
+
+    private final LocalDate testDate = LocalDate.of(2023, 12, 15);
+
+    @TestConfiguration
+    static class CommandCaptureConfig {
+        @Bean
+        CapturingCommandListener capturingCommandListener() {
+            return new CapturingCommandListener();
+        }
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer commandCaptureCustomizer(CapturingCommandListener listener) {
+            return builder -> builder.addCommandListener(listener);
+        }
+    }
+
+    static class CapturingCommandListener implements CommandListener {
+        private final List<BsonDocument> commands = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void commandStarted(CommandStartedEvent event) {
+            if (EXPLAINABLE_COMMANDS.contains(event.getCommandName())) {
+                commands.add(event.getCommand().clone());
+            }
+        }
+
+        List<BsonDocument> drain() {
+            synchronized (commands) {
+                List<BsonDocument> drained = List.copyOf(commands);
+                commands.clear();
+                return drained;
+            }
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < 20; i++) {
+            appUserRepo.save(new AppUser("user" + i, "User" + i, "user" + i + "@mail.de", "imgUrl"));
+            workoutRepo.save(Workout.builder().userId("user" + (i % 4)).name("Workout" + i).day(testDate.plusDays(i)).plan(List.of()).build());
+        }
+        commandListener.drain();
+    }
+
+    @Test
+    void workoutRepoQueries_useIndexes() {
+        workoutRepo.findWorkoutsByUserId("user1");
+        workoutRepo.findPageByUserId("user1", null, 5);
+        workoutRepo.findPageByUserId("user1", new WorkoutCursor(testDate, "657c4a3e2f8fb814b56fa181"), 5);
+        workoutRepo.findPageByUserId("user1", new WorkoutCursor(null, "657c4a3e2f8fb814b56fa181"), 5);
+        try (Stream<Workout> workouts = workoutRepo.streamWorkoutsByUserIdOrderByDayAscIdAsc("user1")) {
+            workouts.forEach(workout -> { });
+        }
+        workoutRepo.findSummariesByUserIdAndDayBetween("user1", testDate, testDate.plusDays(30));
+        workoutRepo.findOverviewsByUserId("user1");
+        workoutRepo.findById("657c4a3e2f8fb814b56fa181");
+        workoutRepo.findVersionsById(List.of("657c4a3e2f8fb814b56fa181"));
+        workoutRepo.findWorkoutsByUserIdAndDayBefore("user1", testDate.plusDays(10));
+        workoutRepo.findVersionById(WORKOUT_ID);
+        workoutRepo.patchWorkout(WORKOUT_ID, WorkoutPatch.builder().version(0L).name("Patched")
+                .exercises(List.of(WorkoutExercisePatch.builder().index(2).setCount(3).build())).build());
+        workoutRepo.deleteVersions(List.of(Workout.builder().id(WORKOUT_ID).version(0L).build(),
+                Workout.builder().id("657c4a3e2f8fb814b56fa182").version(1L).build()));
+        workoutRepo.deleteWorkoutById(WORKOUT_ID);
+        workoutRepo.findDistinctUserIds();
+        workoutRepo.aggregateExerciseNameCounts("user1", 10);
+        workoutRepo.deleteById(WORKOUT_ID);
+
+        assertNoCollectionScans(commandListener.drain());
+    }
+
+    // Counting names across all users has to read every workout; it only runs in ExerciseNameIndexJob, off the request
+    // threads, and is the one scan allowed here.
+    @Test
+    void globalExerciseNameCounts_isTheOnlyAllowedCollectionScan() {
+        workoutRepo.aggregateExerciseNameCounts(null, 10);
+
+        // The startup rebuild runs on the scheduler and may be captured as well; it sends the same pipeline.
+        List<BsonDocument> commands = commandListener.drain();
+        assertFalse(commands.isEmpty());
+        commands.forEach(command -> assertTrue(isAllowedCollectionScan(command), command::toJson));
+    }
+
+    @Test
+    void workoutArchiveRepoQueries_useIndexes() {
+        workoutArchiveRepo.storeMonth("user1", YearMonth.from(testDate), List.of(ArchivedWorkout.builder()
+                .workoutId("657c4a3e2f8fb814b56fa181").name("Archived").day(testDate).version(0L).build()));
+        workoutArchiveRepo.findByWorkoutId("657c4a3e2f8fb814b56fa181");
+        workoutArchiveRepo.findByWorkoutIds(List.of("657c4a3e2f8fb814b56fa181"));
+        workoutArchiveRepo.findByUserIdOrderByIdAsc("user1");
+        try (Stream<WorkoutArchive> buckets = workoutArchiveRepo.streamByUserIdAndIdGreaterThanEqualOrderByIdAsc("user1", "user1:")) {
+            buckets.forEach(bucket -> { });
+        }
+        workoutArchiveRepo.removeWorkouts(List.of("657c4a3e2f8fb814b56fa181"));
+
+        assertNoCollectionScans(commandListener.drain());
+    }
+
+    @Test
+    void workoutScheduleRepoQueries_useIndexes() {
+        WorkoutSchedule schedule = workoutScheduleRepo.save(WorkoutSchedule.builder().userId("user1").name("Schedule").startDay(testDate)
+                .rule(new RecurrenceRule(Set.of(DayOfWeek.MONDAY), 1, null)).handledDays(List.of()).build());
+        commandListener.drain();
+        workoutScheduleRepo.findByUserIdOrderByStartDayAsc("user1");
+        workoutScheduleRepo.claimDay(schedule.id(), testDate);
+        workoutScheduleRepo.releaseDay(schedule.id(), testDate);
+
+        assertNoCollectionScans(commandListener.drain());
+    }
+
+    @Test
+    void trainingVolumeRepoQueries_useIndexes() {
+        TrainingVolume delta = TrainingVolume.builder().id(TrainingVolume.idOf("user1", VolumePeriod.WEEK, testDate, "squat"))
+                .userId("user1").period(VolumePeriod.WEEK).periodStart(testDate).exercise("squat").exerciseName("Squat").volume(100).build();
+        // The explain command accepts one write statement at a time, so the bulk upsert is checked with a single delta.
+        trainingVolumeRepo.incrementVolumes(List.of(delta));
+        trainingVolumeRepo.findSeries("user1", VolumePeriod.WEEK, "squat", testDate.minusWeeks(4), testDate);
+        trainingVolumeRepo.findSeries("user1", VolumePeriod.MONTH, null, testDate.minusMonths(4), testDate);
+        trainingVolumeRepo.findByUserIdAndPeriodAndPeriodStartAndExerciseIsNotNull("user1", VolumePeriod.WEEK, testDate);
+        trainingVolumeRepo.aggregateDailyVolumes("user1");
+        trainingVolumeRepo.replaceUserVolumes("user1", List.of(delta));
+
+        assertNoCollectionScans(commandListener.drain());
+    }
+
+    @Test
+    void personalRecordRepoQueries_useIndexes() {
+        PersonalRecord record = personalRecordRepo.save(PersonalRecord.builder().id(PersonalRecord.idOf("user1", "squat"))
+                .userId("user1").exercise("squat").name("Squat").topWeights(List.of()).topSetVolumes(List.of()).build());
+        personalRecordRepo.save(record.toBuilder().name("Back Squat").build());
+        personalRecordRepo.findById(record.id());
+        personalRecordRepo.findByUserIdOrderByExerciseAsc("user1");
+        personalRecordRepo.delete(personalRecordRepo.findById(record.id()).orElseThrow());
+        personalRecordRepo.deleteByUserId("user1");
+
+        assertNoCollectionScans(commandListener.drain());
+    }
+
+    @Test
+    void exerciseCatalogRepoQueries_useIndexes() {
+        exerciseCatalogRepo.insert(new ExerciseCatalogEntry(1000, "Query Plan Squat"));
+        exerciseCatalogRepo.findByIdGreaterThanOrderByIdAsc(0);
+
+        assertNoCollectionScans(commandListener.drain());
+    }
+
+    @Test
+    void workoutListVersionRepoQueries_useIndexes() {
+        workoutListVersionRepo.increment("user1");
+        workoutListVersionRepo.findById("user1");
+
+        assertNoCollectionScans(commandListener.drain());
+    }
+
+    @Test
+    void appUserRepoQueries_useIndexes() {
+        appUserRepo.findByEmail("user1@mail.de");
+        appUserRepo.findById("user1");
+        appUserRepo.existsById("user1");
+        appUserRepo.findIdsByIdIn(List.of("user1", "user2"));
+
+        assertNoCollectionScans(commandListener.drain());
+    }
+
+    private void assertNoCollectionScans(List<BsonDocument> commands) {
+        assertFalse(commands.isEmpty(), "no repository commands were captured");
+        for (BsonDocument command : commands) {
+            if (isAllowedCollectionScan(command)) {
+                continue;
+            }
+            Document explain = mongoTemplate.getDb().runCommand(new Document("explain", withoutSessionFields(command))
+                    .append("verbosity", "queryPlanner"));
+            assertTrue(collectionScans(explain).isEmpty(), () -> "COLLSCAN for " + command.toJson() + ": " + explain.toJson());
+        }
+    }
+
+    // Only the global exercise name count: an aggregation over workouts that does not start with a $match.
+    private static boolean isAllowedCollectionScan(BsonDocument command) {
+        return command.containsKey("aggregate")
+                && command.getString("aggregate").getValue().equals("workouts")
+                && !command.getArray("pipeline").get(0).asDocument().containsKey("$match");
+    }
+
+    private static BsonDocument withoutSessionFields(BsonDocument command) {
+        BsonDocument cleaned = command.clone();
+        cleaned.keySet().removeIf(key -> key.startsWith("$") || key.equals("lsid") || key.equals("txnNumber"));
+        return cleaned;
+    }
+
+    private static List<Object> collectionScans(Object node) {
+        List<Object> scans = new ArrayList<>();
+        if (node instanceof Document document) {
+            if ("COLLSCAN".equals(document.get("stage"))) {
+                scans.add(document);
+            }
+            document.forEach((key, value) -> {
+                if (!key.equals("rejectedPlans")) {
+                    scans.addAll(collectionScans(value));
+                }
+            });
+        } else if (node instanceof List<?> list) {
+            list.forEach(element -> scans.addAll(collectionScans(element)));
+        }
+        return scans;
+    }
+}
@@ -0,0 +1,96 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.TrainingVolume;
+import de.aljoschanyang.capstoneprojectfiturae.models.VolumePeriod;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.aggregation.TypeBasedAggregationOperationContext;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrainingVolumeRepoCustomImplTest {
+    private final MongoMappingContext mappingContext = new MongoMappingContext();
+    private final MappingMongoConverter converter;
+    private final MongoPersistentEntity<?> volumeEntity;
+
+    TrainingVolumeRepoCustomImplTest() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        volumeEntity = mappingContext.getRequiredPersistentEntity(TrainingVolume.class);
+    }
+
+    @Test
+    void toIncrement_whenDeltaApplied_thenIncrementVolumeAndSetKeysOnInsert() {
+        TrainingVolume delta = new TrainingVolume("id", "userId", VolumePeriod.WEEK, LocalDate.of(2023, 12, 11), "squat", "Squat", 2400);
+
+        Document actual = new UpdateMapper(converter).getMappedObject(TrainingVolumeRepoCustomImpl.toIncrement(delta).getUpdateObject(), volumeEntity);
+
+        assertEquals(new Document("volume_kg", 2400.0), actual.get("$inc"));
+        Document setOnInsert = actual.get("$setOnInsert", Document.class);
+        assertEquals("userId", setOnInsert.get("user_id"));
+        assertEquals("WEEK", setOnInsert.get("volume_period"));
+        assertEquals("squat", setOnInsert.get("volume_exercise"));
+        assertEquals("Squat", setOnInsert.get("volume_exercise_name"));
+    }
+
+    @Test
+    void toReplacement_whenRebuilt_thenOverwriteVolumeAndKeys() {
+        TrainingVolume volume = new TrainingVolume("id", "userId", VolumePeriod.WEEK, LocalDate.of(2023, 12, 11), "squat", "Squat", 2400);
+
+        Document actual = new UpdateMapper(converter).getMappedObject(TrainingVolumeRepoCustomImpl.toReplacement(volume).getUpdateObject(), volumeEntity);
+
+        Document set = actual.get("$set", Document.class);
+        assertEquals(2400.0, set.get("volume_kg"));
+        assertEquals("squat", set.get("volume_exercise"));
+        assertFalse(actual.containsKey("$inc"));
+    }
+
+    @Test
+    void toStaleQuery_whenRowsKept_thenMatchOnlyOtherRowsOfUser() {
+        TrainingVolume kept = TrainingVolume.builder().id("kept").build();
+
+        Document actual = new QueryMapper(converter).getMappedObject(TrainingVolumeRepoCustomImpl.toStaleQuery("userId", List.of(kept)).getQueryObject(), volumeEntity);
+
+        assertEquals("userId", actual.get("user_id"));
+        assertEquals(new Document("$nin", List.of("kept")), actual.get("_id"));
+    }
+
+    @Test
+    void toSeriesQuery_whenTotalRequested_thenMatchRowWithoutExerciseInRange() {
+        Document actual = new QueryMapper(converter).getMappedObject(TrainingVolumeRepoCustomImpl.toSeriesQuery(
+                "userId", VolumePeriod.MONTH, null, LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 1)).getQueryObject(), volumeEntity);
+
+        assertEquals("userId", actual.get("user_id"));
+        assertEquals("MONTH", actual.get("volume_period"));
+        assertTrue(actual.containsKey("volume_exercise"));
+        assertNull(actual.get("volume_exercise"));
+        assertTrue(actual.get("period_start", Document.class).containsKey("$gte"));
+    }
+
+    @Test
+    void toDailyVolumeAggregation_whenRendered_thenMultiplyStoredPlanFields() {
+        List<Document> pipeline = TrainingVolumeRepoCustomImpl.toDailyVolumeAggregation("userId").toPipeline(
+                new TypeBasedAggregationOperationContext(Workout.class, mappingContext, new QueryMapper(converter)));
+
+        assertEquals(5, pipeline.size());
+        assertEquals("userId", pipeline.get(0).get("$match", Document.class).get("user_id"));
+        assertEquals("$workout_plan", pipeline.get(1).get("$unwind"));
+        String project = pipeline.get(2).toJson();
+        assertTrue(project.contains("\"$multiply\": [\"$workout_plan.setCount\", \"$workout_plan.repsPerSet\", \"$workout_plan.weightInKg\"]"), project);
+        assertTrue(pipeline.get(3).containsKey("$group"));
+    }
+}
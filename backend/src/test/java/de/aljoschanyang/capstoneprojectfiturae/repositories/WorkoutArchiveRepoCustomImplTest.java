@@ -0,0 +1,92 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.ArchivedWorkout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutArchive;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkoutArchiveRepoCustomImplTest {
+    private final MappingMongoConverter converter;
+    private final MongoPersistentEntity<?> archiveEntity;
+
+    WorkoutArchiveRepoCustomImplTest() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        archiveEntity = mappingContext.getRequiredPersistentEntity(WorkoutArchive.class);
+    }
+
+    @Test
+    void toBucketQuery_whenMonthGiven_thenMatchUserMonthId() {
+        Query query = WorkoutArchiveRepoCustomImpl.toBucketQuery("userId", YearMonth.of(2023, 12));
+
+        Document actual = new QueryMapper(converter).getMappedObject(query.getQueryObject(), archiveEntity);
+
+        assertEquals(new Document("_id", "userId:2023-12"), actual);
+    }
+
+    @Test
+    void toPushUpdate_whenWorkoutsGiven_thenAppendPackedWorkoutsWithShortKeys() {
+        ArchivedWorkout archived = ArchivedWorkout.builder()
+                .workoutId("657c4a3e2f8fb814b56fa181")
+                .name("Leg day")
+                .day(LocalDate.of(2023, 12, 15))
+                .exerciseIds(List.of(3))
+                .setCounts(List.of(4))
+                .repsPerSet(List.of(10))
+                .weightsInKg(List.of(80.0))
+                .breaksInSec(List.of(90))
+                .version(2L)
+                .build();
+
+        Document actual = new UpdateMapper(converter).getMappedObject(
+                WorkoutArchiveRepoCustomImpl.toPushUpdate("userId", List.of(archived)).getUpdateObject(), archiveEntity);
+
+        assertEquals(new Document("user_id", "userId"), actual.get("$setOnInsert"));
+        List<?> pushed = actual.get("$push", Document.class).get("archive_workouts", Document.class).get("$each", List.class);
+        Document workout = (Document) pushed.get(0);
+        assertEquals(new ObjectId("657c4a3e2f8fb814b56fa181"), workout.get("i"));
+        assertEquals(List.of(3), workout.get("e"));
+        assertEquals(List.of(80.0), workout.get("w"));
+        assertFalse(workout.containsKey("_class"));
+    }
+
+    @Test
+    void toPullUpdate_whenIdsGiven_thenPullByObjectId() {
+        Document actual = new UpdateMapper(converter).getMappedObject(
+                WorkoutArchiveRepoCustomImpl.toPullUpdate(List.of("657c4a3e2f8fb814b56fa181")).getUpdateObject(), archiveEntity);
+
+        Document pull = actual.get("$pull", Document.class).get("archive_workouts", Document.class);
+        assertEquals(new Document("$in", List.of(new ObjectId("657c4a3e2f8fb814b56fa181"))), pull.get("i"));
+    }
+
+    @Test
+    void toWorkoutQuery_whenIdGiven_thenProjectOnlyTheMatchingWorkout() {
+        Query query = WorkoutArchiveRepoCustomImpl.toWorkoutQuery("657c4a3e2f8fb814b56fa181");
+
+        Document actual = new QueryMapper(converter).getMappedObject(query.getQueryObject(), archiveEntity);
+        Document fields = new QueryMapper(converter).getMappedFields(query.getFieldsObject(), archiveEntity);
+
+        assertEquals(new ObjectId("657c4a3e2f8fb814b56fa181"), actual.get("archive_workouts.i"));
+        assertEquals(1, fields.get("user_id"));
+        assertEquals(new Document("$elemMatch", new Document("i", new ObjectId("657c4a3e2f8fb814b56fa181"))), fields.get("archive_workouts"));
+    }
+}
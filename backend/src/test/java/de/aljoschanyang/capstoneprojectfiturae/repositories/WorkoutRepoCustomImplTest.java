@@ -0,0 +1,250 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import com.mongodb.bulk.BulkWriteError;
+import de.aljoschanyang.capstoneprojectfiturae.config.ExerciseCatalogConfig;
+import de.aljoschanyang.capstoneprojectfiturae.config.ExerciseNameConverter;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutCursor;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutExercise;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutExercisePatch;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutPatch;
+import de.aljoschanyang.capstoneprojectfiturae.services.ExerciseCatalog;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.aggregation.TypeBasedAggregationOperationContext;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WorkoutRepoCustomImplTest {
+    private final MongoMappingContext mappingContext = new MongoMappingContext();
+    private final MappingMongoConverter converter;
+    private final MongoPersistentEntity<?> workoutEntity;
+
+    WorkoutRepoCustomImplTest() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        workoutEntity = mappingContext.getRequiredPersistentEntity(Workout.class);
+    }
+
+    @Test
+    void toPageQuery_whenCursorHasDay_thenContinueAfterDayAndId() {
+        WorkoutCursor cursor = new WorkoutCursor(LocalDate.of(2023, 12, 15), "657c4a3e2f8fb814b56fa181");
+        Query query = WorkoutRepoCustomImpl.toPageQuery("userId", cursor, 21);
+
+        Document actual = new QueryMapper(converter).getMappedObject(query.getQueryObject(), workoutEntity);
+        Document sort = new QueryMapper(converter).getMappedSort(query.getSortObject(), workoutEntity);
+
+        assertEquals("userId", actual.get("user_id"));
+        String json = actual.toJson();
+        assertTrue(json.contains("\"workout_day\": {\"$gt\""), json);
+        assertTrue(json.contains("\"_id\": {\"$gt\": {\"$oid\": \"657c4a3e2f8fb814b56fa181\"}}"), json);
+        assertEquals(new Document("workout_day", 1).append("_id", 1), sort);
+        assertEquals(21, query.getLimit());
+    }
+
+    @Test
+    void toPageQuery_whenCursorHasNoDay_thenIncludeAllDatedWorkouts() {
+        Query query = WorkoutRepoCustomImpl.toPageQuery("userId", new WorkoutCursor(null, "657c4a3e2f8fb814b56fa181"), 21);
+
+        String json = new QueryMapper(converter).getMappedObject(query.getQueryObject(), workoutEntity).toJson();
+
+        assertTrue(json.contains("\"workout_day\": null"), json);
+        assertTrue(json.contains("\"workout_day\": {\"$ne\": null}"), json);
+    }
+
+    @Test
+    void toCalendarQuery_whenRangeGiven_thenMatchInclusiveDaysAndProjectSummaryFields() {
+        Query query = WorkoutRepoCustomImpl.toCalendarQuery("userId", LocalDate.of(2023, 12, 1), LocalDate.of(2023, 12, 31));
+
+        Document actual = new QueryMapper(converter).getMappedObject(query.getQueryObject(), workoutEntity);
+        Document fields = new QueryMapper(converter).getMappedFields(query.getFieldsObject(), workoutEntity);
+        Document sort = new QueryMapper(converter).getMappedSort(query.getSortObject(), workoutEntity);
+
+        assertEquals("userId", actual.get("user_id"));
+        assertEquals(Set.of("$gte", "$lte"), actual.get("workout_day", Document.class).keySet());
+        assertEquals(new Document("workout_name", 1).append("workout_day", 1), fields);
+        assertEquals(new Document("workout_day", 1).append("_id", 1), sort);
+    }
+
+    @Test
+    void toUpdate_whenOnlyNameChanged_thenSetOnlyTheNameField() {
+        WorkoutPatch patch = WorkoutPatch.builder()
+                .version(3L)
+                .name("Changed workout")
+                .build();
+
+        Document actual = new UpdateMapper(converter).getMappedObject(WorkoutRepoCustomImpl.toUpdate(patch).getUpdateObject(), workoutEntity);
+
+        assertEquals(new Document("$currentDate", new Document("workout_modified_at", true))
+                .append("$set", new Document("workout_name", "Changed workout")), actual);
+    }
+
+    @Test
+    void toUpdate_whenSingleExerciseChanged_thenSetPositionalPlanFields() {
+        WorkoutPatch patch = WorkoutPatch.builder()
+                .version(3L)
+                .exercises(List.of(WorkoutExercisePatch.builder().index(2).setCount(5).weightInKg(62.5).build()))
+                .build();
+
+        Document actual = new UpdateMapper(converter).getMappedObject(WorkoutRepoCustomImpl.toUpdate(patch).getUpdateObject(), workoutEntity);
+
+        Document set = actual.get("$set", Document.class);
+        assertEquals(5, set.get("workout_plan.2.setCount"));
+        assertEquals(62.5, set.get("workout_plan.2.weightInKg"));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    void toUpdate_whenExerciseRenamed_thenStoreCatalogIdAndReadBackTheName() {
+        ExerciseCatalog mockExerciseCatalog = mock(ExerciseCatalog.class);
+        when(mockExerciseCatalog.registeredIdOf("Front Squat")).thenReturn(5);
+        when(mockExerciseCatalog.nameOf(5)).thenReturn("Front Squat");
+        MongoMappingContext catalogMappingContext = new MongoMappingContext();
+        MongoCustomConversions conversions = ExerciseCatalogConfig.conversions(new ExerciseNameConverter(mockExerciseCatalog));
+        catalogMappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter catalogConverter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, catalogMappingContext);
+        catalogConverter.setCustomConversions(conversions);
+        catalogConverter.afterPropertiesSet();
+        WorkoutPatch patch = WorkoutPatch.builder()
+                .version(3L)
+                .exercises(List.of(WorkoutExercisePatch.builder().index(0).name("Front Squat").build()))
+                .build();
+
+        Document set = new UpdateMapper(catalogConverter).getMappedObject(WorkoutRepoCustomImpl.toUpdate(patch).getUpdateObject(),
+                catalogMappingContext.getRequiredPersistentEntity(Workout.class)).get("$set", Document.class);
+        Document stored = new Document("workout_plan", List.of(new Document("name", set.get("workout_plan.0.name"))
+                .append("setCount", 3).append("repsPerSet", 10).append("weightInKg", 80.0).append("breakInSec", 90)));
+        Workout actual = catalogConverter.read(Workout.class, stored);
+
+        assertEquals(5, set.get("workout_plan.0.name"));
+        assertEquals("Front Squat", actual.plan().get(0).name());
+    }
+
+    @Test
+    void toUpdate_whenPlanReplaced_thenSetWholePlan() {
+        WorkoutExercise exercise = new WorkoutExercise("Squat", 3, 10, 80, 90);
+        WorkoutPatch patch = WorkoutPatch.builder()
+                .version(3L)
+                .plan(List.of(exercise))
+                .build();
+
+        Document actual = new UpdateMapper(converter).getMappedObject(WorkoutRepoCustomImpl.toUpdate(patch).getUpdateObject(), workoutEntity);
+
+        List<?> plan = actual.get("$set", Document.class).get("workout_plan", List.class);
+        assertEquals(1, plan.size());
+        assertEquals("Squat", ((Document) plan.get(0)).get("name"));
+    }
+
+    @Test
+    void toQuery_whenExercisesChanged_thenRequireVersionAndHighestIndex() {
+        WorkoutPatch patch = WorkoutPatch.builder()
+                .version(3L)
+                .exercises(List.of(
+                        WorkoutExercisePatch.builder().index(1).setCount(4).build(),
+                        WorkoutExercisePatch.builder().index(4).setCount(4).build()))
+                .build();
+
+        Document actual = new QueryMapper(converter).getMappedObject(
+                WorkoutRepoCustomImpl.toQuery("657c4a3e2f8fb814b56fa181", patch).getQueryObject(), workoutEntity);
+
+        assertEquals(3L, actual.get("workout_version"));
+        assertEquals(new Document("$exists", true), actual.get("workout_plan.4"));
+        assertTrue(actual.containsKey("_id"));
+    }
+
+    @Test
+    void toVersionsQuery_whenBatchDeleting_thenMatchEachIdAtItsReadVersion() {
+        List<Workout> workouts = List.of(
+                Workout.builder().id("657c4a3e2f8fb814b56fa181").version(2L).build(),
+                Workout.builder().id("657c4a3e2f8fb814b56fa182").version(5L).build());
+
+        Document actual = new QueryMapper(converter).getMappedObject(WorkoutRepoCustomImpl.toVersionsQuery(workouts).getQueryObject(), workoutEntity);
+
+        List<?> branches = actual.get("$or", List.class);
+        assertEquals(2, branches.size());
+        assertEquals(5L, ((Document) branches.get(1)).get("workout_version"));
+        assertTrue(((Document) branches.get(1)).containsKey("_id"));
+    }
+
+    @Test
+    void toInsertErrors_whenUnorderedInsertPartlyFailed_thenKeyTranslatedErrorsByBatchIndex() {
+        Map<Integer, RuntimeException> actual = WorkoutRepoCustomImpl.toInsertErrors(List.of(
+                new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 1),
+                new BulkWriteError(121, "Document failed validation", new BsonDocument(), 3)));
+
+        assertEquals(Set.of(1, 3), actual.keySet());
+        assertInstanceOf(DuplicateKeyException.class, actual.get(1));
+        assertInstanceOf(DataIntegrityViolationException.class, actual.get(3));
+    }
+
+    @Test
+    void toVersionQuery_whenRevalidating_thenProjectOnlyVersionFields() {
+        Document actual = new QueryMapper(converter).getMappedFields(
+                WorkoutRepoCustomImpl.toVersionQuery("657c4a3e2f8fb814b56fa181").getFieldsObject(), workoutEntity);
+
+        assertEquals(new Document("user_id", 1).append("workout_version", 1).append("workout_modified_at", 1), actual);
+    }
+
+    @Test
+    void toVersionQuery_whenIdsGiven_thenMatchObjectIdsWithOneIn() {
+        Query query = WorkoutRepoCustomImpl.toVersionQuery(List.of("657c4a3e2f8fb814b56fa181"));
+
+        Document actual = new QueryMapper(converter).getMappedObject(query.getQueryObject(), workoutEntity);
+
+        assertEquals(new Document("_id", new Document("$in", List.of(new ObjectId("657c4a3e2f8fb814b56fa181")))), actual);
+        assertEquals(new Document("user_id", 1).append("workout_version", 1).append("workout_modified_at", 1),
+                new QueryMapper(converter).getMappedFields(query.getFieldsObject(), workoutEntity));
+    }
+
+    @Test
+    void toExerciseNameAggregation_whenUserGiven_thenCountPlanNamesOfThatUser() {
+        List<Document> pipeline = WorkoutRepoCustomImpl.toExerciseNameAggregation("userId", 50).toPipeline(
+                new TypeBasedAggregationOperationContext(Workout.class, mappingContext, new QueryMapper(converter)));
+
+        assertEquals("userId", pipeline.get(0).get("$match", Document.class).get("user_id"));
+        assertEquals(new Document("names", "$workout_plan.name"), pipeline.get(1).get("$project", Document.class));
+        assertEquals(new Document("_id", "$names").append("count", new Document("$sum", 1)), pipeline.get(3).get("$group"));
+        assertEquals(50L, ((Number) pipeline.get(5).get("$limit")).longValue());
+        assertEquals(7, pipeline.size());
+        assertEquals(6, WorkoutRepoCustomImpl.toExerciseNameAggregation(null, 50).getPipeline().getOperations().size());
+    }
+
+    @Test
+    void toOverviewAggregation_whenRendered_thenReducePlanToCountAndVolume() {
+        List<Document> pipeline = WorkoutRepoCustomImpl.toOverviewAggregation("userId").toPipeline(
+                new TypeBasedAggregationOperationContext(Workout.class, mappingContext, new QueryMapper(converter)));
+
+        assertEquals("userId", pipeline.get(0).get("$match", Document.class).get("user_id"));
+        assertEquals(new Document("workout_day", 1).append("_id", 1), pipeline.get(1).get("$sort"));
+        Document project = pipeline.get(2).get("$project", Document.class);
+        assertEquals("$workout_name", project.get("name"));
+        assertFalse(project.containsKey("workout_plan"));
+        assertEquals(new Document("$size", new Document("$ifNull", List.of("$workout_plan", List.of()))), project.get("exerciseCount"));
+        assertEquals(new Document("$sum", new Document("$map", new Document("input", "$workout_plan")
+                .append("as", "exercise")
+                .append("in", new Document("$multiply", List.of("$$exercise.setCount", "$$exercise.repsPerSet", "$$exercise.weightInKg"))))),
+                project.get("totalVolumeInKg"));
+    }
+}
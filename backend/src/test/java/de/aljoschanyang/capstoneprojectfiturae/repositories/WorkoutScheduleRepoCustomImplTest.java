@@ -0,0 +1,35 @@
+package de.aljoschanyang.capstoneprojectfiturae.repositories;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutSchedule;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkoutScheduleRepoCustomImplTest {
+    @Test
+    void toClaimQuery_whenDayGiven_thenMatchScheduleOnlyWhileDayIsUnhandled() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        Document actual = new QueryMapper(converter).getMappedObject(
+                WorkoutScheduleRepoCustomImpl.toClaimQuery("scheduleId", LocalDate.of(2023, 12, 4)).getQueryObject(),
+                mappingContext.getRequiredPersistentEntity(WorkoutSchedule.class));
+
+        assertEquals(Set.of("_id", "schedule_handled_days"), actual.keySet());
+        assertEquals(Set.of("$ne"), actual.get("schedule_handled_days", Document.class).keySet());
+    }
+}
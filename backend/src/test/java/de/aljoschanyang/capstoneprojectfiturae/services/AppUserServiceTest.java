@@ -6,7 +6,10 @@ import de.aljoschanyang.capstoneprojectfiturae.models.AppUserDetails;
 import de.aljoschanyang.capstoneprojectfiturae.repositories.AppUserRepo;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -14,7 +17,9 @@ import static org.mockito.Mockito.*;
 
 class AppUserServiceTest {
     private final AppUserRepo mockAppUserRepo = mock(AppUserRepo.class);
-    private final de.aljoschanyang.capstoneprojectfiturae.services.AppUserService appUserService = new de.aljoschanyang.capstoneprojectfiturae.services.AppUserService(mockAppUserRepo);
+    private final PrincipalCache principalCache = new PrincipalCache(100, Duration.ofMinutes(5));
+    private final KnownUserCache knownUserCache = new KnownUserCache(100, Duration.ofMinutes(5));
+    private final de.aljoschanyang.capstoneprojectfiturae.services.AppUserService appUserService = new de.aljoschanyang.capstoneprojectfiturae.services.AppUserService(mockAppUserRepo, principalCache, knownUserCache);
 
     @Test
     void addUser_whenUserDetailsProvided_thenSaveAndReturnUser() {
@@ -52,6 +57,88 @@ class AppUserServiceTest {
         assertNotNull(actual.id(), "the id should not be null");
     }
 
+    @Test
+    void addUser_whenUserAlreadyExists_thenReturnExistingUserWithoutSaving() {
+        AppUser existing = AppUser.builder()
+                .id("1")
+                .name("Test")
+                .build();
+        AppUserDetails appUserDetails = new AppUserDetails(existing.id(), "Other", null, null);
+
+        when(mockAppUserRepo.findById(existing.id())).thenReturn(Optional.of(existing));
+        AppUser actual = appUserService.addUser(appUserDetails);
+
+        verify(mockAppUserRepo, never()).save(any(AppUser.class));
+        assertEquals(existing, actual);
+    }
+
+    @Test
+    void resolveOAuthUser_whenUserIsUnchanged_thenReadOnceAndServeFromCache() {
+        AppUser existing = AppUser.builder()
+                .id("github1")
+                .name("login")
+                .email("email")
+                .imageUrl("avatarUrl")
+                .build();
+        AppUserDetails appUserDetails = new AppUserDetails(existing.id(), existing.name(), null, existing.imageUrl());
+
+        when(mockAppUserRepo.findById(existing.id())).thenReturn(Optional.of(existing));
+        AppUser first = appUserService.resolveOAuthUser(appUserDetails);
+        AppUser second = appUserService.resolveOAuthUser(appUserDetails);
+
+        verify(mockAppUserRepo, times(1)).findById(existing.id());
+        verify(mockAppUserRepo, never()).save(any(AppUser.class));
+        assertEquals(existing, first);
+        assertEquals(existing, second);
+    }
+
+    @Test
+    void resolveOAuthUser_whenAttributesChanged_thenSaveUpdatedUserAndKeepEmail() {
+        AppUser existing = AppUser.builder()
+                .id("github1")
+                .name("oldLogin")
+                .email("email")
+                .imageUrl("oldAvatarUrl")
+                .build();
+        AppUser expected = AppUser.builder()
+                .id(existing.id())
+                .name("newLogin")
+                .email(existing.email())
+                .imageUrl("newAvatarUrl")
+                .build();
+        AppUserDetails appUserDetails = new AppUserDetails(existing.id(), expected.name(), null, expected.imageUrl());
+
+        when(mockAppUserRepo.findById(existing.id())).thenReturn(Optional.of(existing));
+        when(mockAppUserRepo.save(expected)).thenReturn(expected);
+        AppUser actual = appUserService.resolveOAuthUser(appUserDetails);
+
+        verify(mockAppUserRepo).save(expected);
+        assertEquals(expected, actual);
+        assertEquals(expected, principalCache.get(existing.id()));
+    }
+
+    @Test
+    void resolveOAuthUser_whenCachedUserIsOutdated_thenUpsertAgain() {
+        AppUser cached = AppUser.builder()
+                .id("github1")
+                .name("oldLogin")
+                .imageUrl("avatarUrl")
+                .build();
+        AppUser expected = AppUser.builder()
+                .id(cached.id())
+                .name("newLogin")
+                .imageUrl(cached.imageUrl())
+                .build();
+        principalCache.put(cached.id(), cached);
+
+        when(mockAppUserRepo.findById(cached.id())).thenReturn(Optional.of(cached));
+        when(mockAppUserRepo.save(expected)).thenReturn(expected);
+        AppUser actual = appUserService.resolveOAuthUser(new AppUserDetails(cached.id(), expected.name(), null, expected.imageUrl()));
+
+        verify(mockAppUserRepo).save(expected);
+        assertEquals(expected, actual);
+    }
+
     @Test
     void getUserById_whenIdIsCorrect_thenReturnUser() {
         AppUser expected = AppUser.builder()
@@ -73,4 +160,45 @@ class AppUserServiceTest {
         assertThrows(NoSuchUserException.class, () -> appUserService.getUserById("invalidId"));
         verify(mockAppUserRepo).findById("invalidId");
     }
-}
\ No newline at end of file
+
+    @Test
+    void requireUser_whenUserWasAdded_thenAnswerWithoutRoundTrip() {
+        AppUser appUser = AppUser.builder().id("1").name("Test").build();
+        when(mockAppUserRepo.save(any(AppUser.class))).thenReturn(appUser);
+        appUserService.addUser(new AppUserDetails(null, "Test", null, null));
+
+        appUserService.requireUser("1");
+
+        verify(mockAppUserRepo, never()).existsById(any());
+        verify(mockAppUserRepo, never()).findById(any());
+    }
+
+    @Test
+    void requireUser_whenUserIsUnknownLocally_thenCheckExistenceOnceAndRememberIt() {
+        when(mockAppUserRepo.existsById("1")).thenReturn(true);
+
+        appUserService.requireUser("1");
+        appUserService.requireUser("1");
+
+        verify(mockAppUserRepo, times(1)).existsById("1");
+        verify(mockAppUserRepo, never()).findById(any());
+    }
+
+    @Test
+    void requireUser_whenUserDoesNotExist_thenThrowAndAskAgainNextTime() {
+        assertThrows(NoSuchUserException.class, () -> appUserService.requireUser("invalidId"));
+        assertThrows(NoSuchUserException.class, () -> appUserService.requireUser("invalidId"));
+
+        verify(mockAppUserRepo, times(2)).existsById("invalidId");
+    }
+
+    @Test
+    void getExistingUserIds_whenSomeIdsAreKnown_thenQueryOnlyTheOthers() {
+        knownUserCache.remember("1");
+        when(mockAppUserRepo.findIdsByIdIn(List.of("2", "3"))).thenReturn(List.of(AppUser.builder().id("2").build()));
+
+        assertEquals(Set.of("1", "2"), appUserService.getExistingUserIds(List.of("1", "2", "3")));
+        assertEquals(Set.of("2"), appUserService.getExistingUserIds(List.of("2")));
+        verify(mockAppUserRepo, times(1)).findIdsByIdIn(any());
+    }
+}
@@ -0,0 +1,68 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.ExerciseCatalogEntry;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.ExerciseCatalogRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class ExerciseCatalogTest {
+    private final ExerciseCatalogRepo mockExerciseCatalogRepo = mock(ExerciseCatalogRepo.class);
+    private final ExerciseCatalog exerciseCatalog = new ExerciseCatalog(mockExerciseCatalogRepo);
+
+    @Test
+    void idOf_whenNameIsNew_thenInsertNextIdAndAnswerLaterCallsFromMemory() {
+        when(mockExerciseCatalogRepo.findByIdGreaterThanOrderByIdAsc(anyInt())).thenReturn(List.of());
+        exerciseCatalog.load();
+        when(mockExerciseCatalogRepo.findByIdGreaterThanOrderByIdAsc(0)).thenReturn(List.of(new ExerciseCatalogEntry(1, "Squat")));
+
+        assertEquals(2, exerciseCatalog.idOf("Bench Press"));
+        assertEquals(2, exerciseCatalog.idOf("Bench Press"));
+        assertEquals(1, exerciseCatalog.idOf("Squat"));
+        verify(mockExerciseCatalogRepo, times(1)).insert(new ExerciseCatalogEntry(2, "Bench Press"));
+        assertEquals("Bench Press", exerciseCatalog.nameOf(2));
+    }
+
+    @Test
+    void idOf_whenAnotherNodeRegisteredTheNameFirst_thenUseItsId() {
+        when(mockExerciseCatalogRepo.findByIdGreaterThanOrderByIdAsc(0))
+                .thenReturn(List.of())
+                .thenReturn(List.of(new ExerciseCatalogEntry(1, "Squat")));
+        when(mockExerciseCatalogRepo.insert(any(ExerciseCatalogEntry.class))).thenThrow(new DuplicateKeyException("exercise_name_idx"));
+
+        assertEquals(1, exerciseCatalog.idOf("Squat"));
+        verify(mockExerciseCatalogRepo, times(1)).insert(any(ExerciseCatalogEntry.class));
+    }
+
+    @Test
+    void nameOf_whenIdIsNew_thenReadTheNewerEntriesAndKeepTheLegacyNameInstance() {
+        when(mockExerciseCatalogRepo.findByIdGreaterThanOrderByIdAsc(0)).thenReturn(List.of(new ExerciseCatalogEntry(1, "Squat")));
+
+        String name = exerciseCatalog.nameOf(1);
+
+        assertEquals("Squat", name);
+        verify(mockExerciseCatalogRepo, times(1)).findByIdGreaterThanOrderByIdAsc(0);
+        assertSame(name, exerciseCatalog.canonicalName(new String("Squat")));
+    }
+
+    @Test
+    void nameOf_whenIdIsNotInTheCatalog_thenThrowInsteadOfReturningNull() {
+        when(mockExerciseCatalogRepo.findByIdGreaterThanOrderByIdAsc(anyInt())).thenReturn(List.of());
+
+        assertThrows(IllegalStateException.class, () -> exerciseCatalog.nameOf(7));
+        assertThrows(IllegalStateException.class, () -> exerciseCatalog.nameOf(7));
+        verify(mockExerciseCatalogRepo, times(2)).findByIdGreaterThanOrderByIdAsc(0);
+    }
+
+    @Test
+    void registeredIdOf_whenNameWasNotRegistered_thenThrowWithoutInserting() {
+        assertThrows(IllegalStateException.class, () -> exerciseCatalog.registeredIdOf("Squat"));
+        verifyNoInteractions(mockExerciseCatalogRepo);
+    }
+}
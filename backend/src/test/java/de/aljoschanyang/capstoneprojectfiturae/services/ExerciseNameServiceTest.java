@@ -0,0 +1,92 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.*;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.AppUserRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutRepo;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class ExerciseNameServiceTest {
+    private final AppUserRepo mockAppUserRepo = mock(AppUserRepo.class);
+    private final WorkoutRepo mockWorkoutRepo = mock(WorkoutRepo.class);
+    private final AppUserService appUserService = new AppUserService(mockAppUserRepo, new PrincipalCache(100, Duration.ofMinutes(5)), new KnownUserCache(100, Duration.ofMinutes(5)));
+    private final ExerciseNameService exerciseNameService =
+            new ExerciseNameService(mockWorkoutRepo, appUserService, 100, 50, 100, Duration.ofMinutes(5));
+
+    private void givenUserAndNames() {
+        when(mockAppUserRepo.existsById("userId")).thenReturn(true);
+        when(mockWorkoutRepo.aggregateExerciseNameCounts("userId", 100)).thenReturn(List.of(new ExerciseNameCount("Bench Press", 2)));
+        when(mockWorkoutRepo.aggregateExerciseNameCounts(isNull(), anyInt())).thenReturn(List.of(
+                new ExerciseNameCount("bench press", 40),
+                new ExerciseNameCount("Bent-over Row", 12)));
+        exerciseNameService.rebuildGlobalIndex();
+    }
+
+    @Test
+    void suggest_whenUserHasFewMatches_thenFillWithGlobalNamesWithoutDuplicates() {
+        givenUserAndNames();
+
+        List<ExerciseSuggestion> actual = exerciseNameService.suggest("userId", "Ben", 5);
+
+        assertEquals(List.of(
+                new ExerciseSuggestion("Bench Press", 2, true),
+                new ExerciseSuggestion("Bent-over Row", 12, false)), actual);
+    }
+
+    @Test
+    void suggest_whenCalledAgain_thenServeFromLoadedIndexes() {
+        givenUserAndNames();
+
+        exerciseNameService.suggest("userId", "b", 5);
+        exerciseNameService.suggest("userId", "s", 5);
+
+        verify(mockWorkoutRepo, times(1)).aggregateExerciseNameCounts("userId", 100);
+        verify(mockWorkoutRepo, times(1)).aggregateExerciseNameCounts(isNull(), anyInt());
+    }
+
+    @Test
+    void suggest_whenGlobalIndexIsNotBuiltYet_thenSuggestOnlyOwnNamesWithoutScanning() {
+        when(mockAppUserRepo.existsById("userId")).thenReturn(true);
+        when(mockWorkoutRepo.aggregateExerciseNameCounts("userId", 100)).thenReturn(List.of(new ExerciseNameCount("Bench Press", 2)));
+
+        List<ExerciseSuggestion> actual = exerciseNameService.suggest("userId", "Ben", 5);
+
+        assertEquals(List.of(new ExerciseSuggestion("Bench Press", 2, true)), actual);
+        verify(mockWorkoutRepo, never()).aggregateExerciseNameCounts(isNull(), anyInt());
+    }
+
+    @Test
+    void rebuildGlobalIndex_whenCalledAgain_thenPickUpWritesOfOtherNodes() {
+        givenUserAndNames();
+        when(mockWorkoutRepo.aggregateExerciseNameCounts(isNull(), anyInt())).thenReturn(List.of(new ExerciseNameCount("Bent-over Row", 12),
+                new ExerciseNameCount("Bench Dip", 3)));
+
+        exerciseNameService.rebuildGlobalIndex();
+
+        assertEquals(List.of(
+                new ExerciseSuggestion("Bench Press", 2, true),
+                new ExerciseSuggestion("Bent-over Row", 12, false),
+                new ExerciseSuggestion("Bench Dip", 3, false)), exerciseNameService.suggest("userId", "Ben", 5));
+    }
+
+    @Test
+    void onWorkoutChanged_whenIndexesAreLoaded_thenSuggestNewNameImmediately() {
+        givenUserAndNames();
+        exerciseNameService.suggest("userId", "b", 5);
+        Workout workout = Workout.builder().id("w1").userId("userId")
+                .plan(List.of(new WorkoutExercise("Squat", 3, 10, 80, 90))).build();
+
+        exerciseNameService.onWorkoutChanged(null, workout);
+
+        assertEquals(List.of(new ExerciseSuggestion("Squat", 1, true)), exerciseNameService.suggest("userId", "sq", 5));
+        exerciseNameService.onWorkoutChanged(workout, null);
+        assertTrue(exerciseNameService.suggest("userId", "sq", 5).isEmpty());
+    }
+}
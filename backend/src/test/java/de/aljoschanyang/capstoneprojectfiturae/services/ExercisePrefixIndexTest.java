@@ -0,0 +1,59 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.ExerciseNameCount;
+import de.aljoschanyang.capstoneprojectfiturae.models.ExerciseSuggestion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExercisePrefixIndexTest {
+    private final ExercisePrefixIndex index = ExercisePrefixIndex.of(List.of(
+            new ExerciseNameCount("Bench Press", 3),
+            new ExerciseNameCount("bench  press", 5),
+            new ExerciseNameCount("Bent-over Row", 4),
+            new ExerciseNameCount("Squat", 9)), 10);
+
+    @Test
+    void of_whenSpellingsDiffer_thenMergeThemUnderMostUsedSpelling() {
+        assertEquals(3, index.size());
+        assertEquals(List.of(new ExerciseSuggestion("bench  press", 8, true)), index.suggest("bench", 5, true));
+    }
+
+    @Test
+    void suggest_whenPrefixMatchesSeveralNames_thenReturnMostUsedFirst() {
+        List<ExerciseSuggestion> actual = index.suggest("ben", 5, false);
+
+        assertEquals(List.of("bench  press", "Bent-over Row"), actual.stream().map(ExerciseSuggestion::name).toList());
+        assertEquals(List.of("Squat"), index.suggest("", 1, false).stream().map(ExerciseSuggestion::name).toList());
+        assertTrue(index.suggest("deadlift", 5, false).isEmpty());
+    }
+
+    @Test
+    void withDeltas_whenCountsChange_thenAddNewAndDropUnusedNames() {
+        TreeMap<String, ExerciseNameCount> deltas = new TreeMap<>();
+        deltas.put("bent-over row", new ExerciseNameCount("Bent-over Row", -4));
+        deltas.put("deadlift", new ExerciseNameCount("Deadlift", 1));
+        deltas.put("squat", new ExerciseNameCount("squat", 1));
+
+        ExercisePrefixIndex actual = index.withDeltas(deltas, 10);
+
+        assertEquals(3, actual.size());
+        assertTrue(actual.suggest("bent", 5, false).isEmpty());
+        assertEquals(List.of(new ExerciseSuggestion("Deadlift", 1, false)), actual.suggest("d", 5, false));
+        assertEquals(List.of(new ExerciseSuggestion("Squat", 10, false)), actual.suggest("s", 5, false));
+    }
+
+    @Test
+    void withDeltas_whenCapExceeded_thenKeepMostUsedNames() {
+        TreeMap<String, ExerciseNameCount> deltas = new TreeMap<>();
+        deltas.put("deadlift", new ExerciseNameCount("Deadlift", 1));
+
+        ExercisePrefixIndex actual = index.withDeltas(deltas, 3);
+
+        assertEquals(3, actual.size());
+        assertTrue(actual.suggest("dead", 5, false).isEmpty());
+    }
+}
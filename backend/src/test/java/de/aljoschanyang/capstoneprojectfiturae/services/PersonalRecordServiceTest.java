@@ -0,0 +1,190 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.NoSuchPersonalRecordException;
+import de.aljoschanyang.capstoneprojectfiturae.models.*;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.AppUserRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.PersonalRecordRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutRepo;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PersonalRecordServiceTest {
+    private final AppUserRepo mockAppUserRepo = mock(AppUserRepo.class);
+    private final PersonalRecordRepo mockPersonalRecordRepo = mock(PersonalRecordRepo.class);
+    private final WorkoutRepo mockWorkoutRepo = mock(WorkoutRepo.class);
+    private final AppUserService appUserService = new AppUserService(mockAppUserRepo, new PrincipalCache(100, Duration.ofMinutes(5)), new KnownUserCache(100, Duration.ofMinutes(5)));
+    private final PersonalRecordService personalRecordService = new PersonalRecordService(mockPersonalRecordRepo, mockWorkoutRepo, appUserService,
+            mock(WorkoutArchiveService.class));
+
+    private final LocalDate testDate = LocalDate.of(2023, 12, 15);
+    private final String recordId = PersonalRecord.idOf("userId", "squat");
+
+    private Workout workout(String id, double weightInKg) {
+        return Workout.builder().id(id).userId("userId").day(testDate)
+                .plan(List.of(new WorkoutExercise("Squat", 3, 10, weightInKg, 90))).build();
+    }
+
+    private PersonalRecord record(boolean truncated, Workout... workouts) {
+        return PersonalRecordService.apply(null, "userId", "squat", Set.of(),
+                Stream.of(workouts).map(workout -> PersonalRecordService.contributionsOf(workout).get("squat")).toList())
+                .toBuilder().truncated(truncated).version(4L).build();
+    }
+
+    @Test
+    void contributionsOf_whenExerciseRepeatedWithOtherSpelling_thenKeepBestOfEach() {
+        Workout workout = Workout.builder().id("w1").userId("userId").day(testDate).plan(List.of(
+                new WorkoutExercise("Bench Press", 3, 12, 60, 90),
+                new WorkoutExercise(" bench  press", 5, 3, 80, 120))).build();
+
+        Map<String, PersonalRecordService.Contribution> actual = PersonalRecordService.contributionsOf(workout);
+
+        assertEquals(Set.of("bench press"), actual.keySet());
+        assertEquals(80, actual.get("bench press").weight().value());
+        assertEquals(720, actual.get("bench press").setVolume().value());
+    }
+
+    @Test
+    void apply_whenMoreThanTopKResults_thenKeepBestAndMarkTruncated() {
+        Workout[] workouts = IntStream.rangeClosed(1, PersonalRecordService.TOP_K + 2)
+                .mapToObj(i -> workout("w" + i, 10.0 * i))
+                .toArray(Workout[]::new);
+
+        PersonalRecord actual = PersonalRecordService.apply(null, "userId", "squat", Set.of(),
+                Stream.of(workouts).map(workout -> PersonalRecordService.contributionsOf(workout).get("squat")).toList());
+
+        assertTrue(actual.truncated());
+        assertEquals(PersonalRecordService.TOP_K, actual.topWeights().size());
+        assertEquals("w7", actual.topWeights().get(0).workoutId());
+        assertEquals(700, actual.topSetVolumes().get(0).value());
+    }
+
+    @Test
+    void onWorkoutChanged_whenBestWorkoutDeleted_thenFallBackToNextBest() {
+        Workout best = workout("w1", 100);
+        when(mockPersonalRecordRepo.findById(recordId)).thenReturn(Optional.of(record(false, best, workout("w2", 90))));
+
+        personalRecordService.onWorkoutChanged(best, null);
+
+        ArgumentCaptor<PersonalRecord> saved = ArgumentCaptor.forClass(PersonalRecord.class);
+        verify(mockPersonalRecordRepo).save(saved.capture());
+        assertEquals("w2", saved.getValue().topWeights().get(0).workoutId());
+        assertEquals(4L, saved.getValue().version());
+        verify(mockWorkoutRepo, never()).findWorkoutsByUserId(any());
+    }
+
+    @Test
+    void onWorkoutChanged_whenOnlyResultDeleted_thenDeleteRecord() {
+        Workout only = workout("w1", 100);
+        PersonalRecord current = record(false, only);
+        when(mockPersonalRecordRepo.findById(recordId)).thenReturn(Optional.of(current));
+
+        personalRecordService.onWorkoutChanged(only, null);
+
+        verify(mockPersonalRecordRepo).delete(current);
+    }
+
+    @Test
+    void onWorkoutChanged_whenTruncatedRecordLosesEntry_thenRefillFromWorkouts() {
+        Workout[] tracked = IntStream.rangeClosed(1, PersonalRecordService.TOP_K)
+                .mapToObj(i -> workout("w" + i, 100.0 + i))
+                .toArray(Workout[]::new);
+        Workout untracked = workout("w0", 50);
+        when(mockPersonalRecordRepo.findById(recordId)).thenReturn(Optional.of(record(true, tracked)));
+        when(mockWorkoutRepo.findWorkoutsByUserId("userId")).thenReturn(
+                Stream.concat(Stream.of(tracked).skip(1), Stream.of(untracked)).toList());
+
+        personalRecordService.onWorkoutChanged(tracked[0], null);
+
+        ArgumentCaptor<PersonalRecord> saved = ArgumentCaptor.forClass(PersonalRecord.class);
+        verify(mockPersonalRecordRepo).save(saved.capture());
+        assertEquals(PersonalRecordService.TOP_K, saved.getValue().topWeights().size());
+        assertEquals("w0", saved.getValue().topWeights().get(PersonalRecordService.TOP_K - 1).workoutId());
+        assertFalse(saved.getValue().truncated());
+    }
+
+    @Test
+    void onWorkoutChanged_whenTruncatedRecordHasBestEntryLowered_thenRefillFromWorkouts() {
+        Workout[] tracked = IntStream.rangeClosed(1, PersonalRecordService.TOP_K)
+                .mapToObj(i -> workout("w" + i, 110.0 - 10 * i))
+                .toArray(Workout[]::new);
+        Workout lowered = workout("w1", 10);
+        Workout untracked = workout("w0", 50);
+        when(mockPersonalRecordRepo.findById(recordId)).thenReturn(Optional.of(record(true, tracked)));
+        when(mockWorkoutRepo.findWorkoutsByUserId("userId")).thenReturn(
+                Stream.concat(Stream.of(lowered, untracked), Stream.of(tracked).skip(1)).toList());
+
+        personalRecordService.onWorkoutChanged(tracked[0], lowered);
+
+        ArgumentCaptor<PersonalRecord> saved = ArgumentCaptor.forClass(PersonalRecord.class);
+        verify(mockPersonalRecordRepo).save(saved.capture());
+        assertEquals(List.of(90.0, 80.0, 70.0, 60.0, 50.0), saved.getValue().topWeights().stream().map(RecordEntry::value).toList());
+        assertTrue(saved.getValue().truncated());
+    }
+
+    @Test
+    void onWorkoutChanged_whenTruncatedRecordHasBestEntryRaised_thenKeepListWithoutRefill() {
+        Workout[] tracked = IntStream.rangeClosed(1, PersonalRecordService.TOP_K)
+                .mapToObj(i -> workout("w" + i, 110.0 - 10 * i))
+                .toArray(Workout[]::new);
+        when(mockPersonalRecordRepo.findById(recordId)).thenReturn(Optional.of(record(true, tracked)));
+
+        personalRecordService.onWorkoutChanged(tracked[0], workout("w1", 120));
+
+        ArgumentCaptor<PersonalRecord> saved = ArgumentCaptor.forClass(PersonalRecord.class);
+        verify(mockPersonalRecordRepo).save(saved.capture());
+        assertEquals(120, saved.getValue().topWeights().get(0).value());
+        verify(mockWorkoutRepo, never()).findWorkoutsByUserId(any());
+    }
+
+    @Test
+    void onWorkoutChanged_whenConcurrentWriteWins_thenRetryOnNewState() {
+        when(mockPersonalRecordRepo.findById(recordId)).thenReturn(Optional.empty());
+        when(mockPersonalRecordRepo.save(any(PersonalRecord.class)))
+                .thenThrow(new OptimisticLockingFailureException("conflict"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        personalRecordService.onWorkoutChanged(null, workout("w1", 100));
+
+        verify(mockPersonalRecordRepo, times(2)).findById(recordId);
+        verify(mockPersonalRecordRepo, times(2)).save(any(PersonalRecord.class));
+    }
+
+    @Test
+    void check_whenStoredRecordIsStale_thenReportAndRepairIt() {
+        when(mockAppUserRepo.existsById("userId")).thenReturn(true);
+        when(mockWorkoutRepo.streamWorkoutsByUserIdOrderByDayAscIdAsc("userId")).thenReturn(Stream.of(workout("w2", 90)));
+        when(mockPersonalRecordRepo.findByUserIdOrderByExerciseAsc("userId")).thenReturn(List.of(record(false, workout("w1", 100))));
+
+        RecordCheckResult actual = personalRecordService.check("userId", true);
+
+        assertEquals(new RecordCheckResult("userId", 1, 1, true), actual);
+        ArgumentCaptor<PersonalRecord> saved = ArgumentCaptor.forClass(PersonalRecord.class);
+        verify(mockPersonalRecordRepo).save(saved.capture());
+        assertEquals("w2", saved.getValue().topWeights().get(0).workoutId());
+    }
+
+    @Test
+    void getRecord_whenNameIsSpelledDifferently_thenLookUpNormalizedKey() {
+        when(mockAppUserRepo.existsById("userId")).thenReturn(true);
+        when(mockPersonalRecordRepo.findById(recordId)).thenReturn(Optional.of(record(false, workout("w1", 100))));
+
+        PersonalRecordSummary actual = personalRecordService.getRecord("userId", "  SQUAT ");
+
+        assertEquals(100, actual.bestWeight().value());
+        assertThrows(NoSuchPersonalRecordException.class, () -> personalRecordService.getRecord("userId", "Deadlift"));
+    }
+}
@@ -0,0 +1,324 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.InvalidRequestException;
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.NoSuchUserException;
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.NoSuchWorkoutException;
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.WorkoutVersionConflictException;
+import de.aljoschanyang.capstoneprojectfiturae.models.*;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.ReactiveAppUserRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.ReactiveWorkoutListVersionRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.ReactiveWorkoutRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ReactiveWorkoutServiceTest {
+    private final ReactiveAppUserRepo mockAppUserRepo = mock(ReactiveAppUserRepo.class);
+    private final ReactiveWorkoutRepo mockWorkoutRepo = mock(ReactiveWorkoutRepo.class);
+    private final WorkoutCache workoutCache = new WorkoutCache(100, 100, Duration.ofMinutes(1));
+    private final ReactiveAppUserService appUserService = new ReactiveAppUserService(mockAppUserRepo, new PrincipalCache(100, Duration.ofMinutes(5)), new KnownUserCache(100, Duration.ofMinutes(5)));
+    private final WorkoutTransferService workoutTransferService = mock(WorkoutTransferService.class);
+    private final ReactiveWorkoutListVersionRepo mockWorkoutListVersionRepo = mock(ReactiveWorkoutListVersionRepo.class);
+    private final WorkoutChangeListener mockWorkoutChangeListener = mock(WorkoutChangeListener.class);
+    private final WorkoutArchiveService mockWorkoutArchiveService = mock(WorkoutArchiveService.class);
+    private final ReactiveWorkoutService workoutService =
+            new ReactiveWorkoutService(mockWorkoutRepo, appUserService, workoutCache, workoutTransferService, mockWorkoutListVersionRepo, List.of(mockWorkoutChangeListener),
+                    mock(ExerciseCatalog.class), mockWorkoutArchiveService);
+
+    private final AppUser appUser = AppUser.builder()
+            .id("userId")
+            .build();
+    private final LocalDate testDate = LocalDate.of(2023,12,15);
+    private final Workout workout = Workout.builder()
+            .id("workoutId")
+            .userId(appUser.id())
+            .name("Test workout")
+            .day(testDate)
+            .plan(List.of())
+            .version(0L)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        when(mockWorkoutListVersionRepo.findById(anyString())).thenReturn(Mono.empty());
+        when(mockWorkoutListVersionRepo.increment(anyString()))
+                .thenAnswer(invocation -> Mono.just(new WorkoutListVersion(invocation.getArgument(0), 1L, null)));
+    }
+
+    @Test
+    void addWorkout_whenUserExists_thenEmitSavedWorkout() {
+        WorkoutDetails workoutDetails = WorkoutDetails.builder()
+                .userId(appUser.id())
+                .name(workout.name())
+                .day(workout.day())
+                .plan(workout.plan())
+                .build();
+        when(mockAppUserRepo.existsById(appUser.id())).thenReturn(Mono.just(true));
+        when(mockWorkoutRepo.save(any(Workout.class))).thenReturn(Mono.just(workout));
+
+        StepVerifier.create(workoutService.addWorkout(workoutDetails))
+                .expectNext(workout)
+                .verifyComplete();
+    }
+
+    @Test
+    void addWorkout_whenUserDoesNotExist_thenEmitError() {
+        WorkoutDetails workoutDetails = WorkoutDetails.builder().userId("invalidUserId").build();
+        when(mockAppUserRepo.existsById("invalidUserId")).thenReturn(Mono.just(false));
+
+        StepVerifier.create(workoutService.addWorkout(workoutDetails))
+                .verifyError(NoSuchUserException.class);
+        verify(mockWorkoutRepo, never()).save(any(Workout.class));
+    }
+
+    @Test
+    void getAllWorkoutsByUserId_whenListWasRead_thenServeNextRequestFromCache() {
+        when(mockAppUserRepo.existsById(appUser.id())).thenReturn(Mono.just(true));
+        when(mockWorkoutRepo.findWorkoutsByUserId(appUser.id())).thenReturn(Flux.just(workout));
+
+        StepVerifier.create(workoutService.getAllWorkoutsByUserId(appUser.id(), 1L))
+                .expectNext(workout)
+                .verifyComplete();
+        StepVerifier.create(workoutService.getAllWorkoutsByUserId(appUser.id(), 1L))
+                .expectNext(workout)
+                .verifyComplete();
+
+        verify(mockWorkoutRepo, times(1)).findWorkoutsByUserId(appUser.id());
+    }
+
+    @Test
+    void getAllWorkoutsByUserId_whenClientCancels_thenCacheNothing() {
+        Workout second = Workout.builder().id("secondId").userId(appUser.id()).build();
+        when(mockAppUserRepo.existsById(appUser.id())).thenReturn(Mono.just(true));
+        when(mockWorkoutRepo.findWorkoutsByUserId(appUser.id())).thenReturn(Flux.just(workout, second));
+
+        StepVerifier.create(workoutService.getAllWorkoutsByUserId(appUser.id(), 1L), 1)
+                .expectNext(workout)
+                .thenCancel()
+                .verify();
+
+        assertNull(workoutCache.getUserWorkouts(appUser.id(), 1L));
+    }
+
+    @Test
+    void streamWorkoutsByUserId_whenSubscriberRequestsOneByOne_thenEmitOnDemand() {
+        Workout second = Workout.builder().id("secondId").userId(appUser.id()).build();
+        when(mockAppUserRepo.existsById(appUser.id())).thenReturn(Mono.just(true));
+        when(mockWorkoutRepo.findWorkoutsByUserIdOrderByDayAscIdAsc(appUser.id())).thenReturn(Flux.just(workout, second));
+
+        StepVerifier.create(workoutService.streamWorkoutsByUserId(appUser.id()), 1)
+                .expectNext(workout)
+                .thenRequest(1)
+                .expectNext(second)
+                .verifyComplete();
+    }
+
+    @Test
+    void streamWorkoutsByUserId_whenSomeAreArchived_thenMergeBothTiersInDayOrder() {
+        Workout archived = Workout.builder().id("archivedId").userId(appUser.id()).day(testDate.minusYears(2)).build();
+        Workout stale = Workout.builder().id("movedId").userId(appUser.id()).name("Stale").day(testDate.minusYears(1)).build();
+        Workout moved = stale.toBuilder().name("Moved back").build();
+        when(mockAppUserRepo.existsById(appUser.id())).thenReturn(Mono.just(true));
+        when(mockWorkoutArchiveService.streamWorkoutsByUserId(appUser.id())).thenAnswer(invocation -> Stream.of(archived, stale));
+        when(mockWorkoutRepo.findWorkoutsByUserIdOrderByDayAscIdAsc(appUser.id())).thenReturn(Flux.just(moved, workout));
+
+        StepVerifier.create(workoutService.streamWorkoutsByUserId(appUser.id()))
+                .expectNext(archived, moved, workout)
+                .verifyComplete();
+    }
+
+    @Test
+    void getWorkoutPageByUserId_whenMoreWorkoutsExist_thenEmitPageWithCursor() {
+        Workout second = Workout.builder().id("secondId").userId(appUser.id()).day(testDate).build();
+        when(mockAppUserRepo.existsById(appUser.id())).thenReturn(Mono.just(true));
+        when(mockWorkoutRepo.findPageByUserId(appUser.id(), null, 2)).thenReturn(Flux.just(workout, second));
+
+        StepVerifier.create(workoutService.getWorkoutPageByUserId(appUser.id(), null, 1))
+                .expectNext(new WorkoutPage(List.of(workout), WorkoutCursor.of(workout).encode()))
+                .verifyComplete();
+    }
+
+    @Test
+    void getWorkoutPageByUserId_whenCursorIsInvalid_thenEmitError() {
+        when(mockAppUserRepo.existsById(appUser.id())).thenReturn(Mono.just(true));
+
+        StepVerifier.create(workoutService.getWorkoutPageByUserId(appUser.id(), "not a cursor", 20))
+                .verifyError(InvalidRequestException.class);
+    }
+
+    @Test
+    void getWorkoutById_whenCached_thenDoNotQueryRepo() {
+        workoutCache.putWorkout(workout);
+        when(mockWorkoutRepo.findVersionById(workout.id())).thenReturn(Mono.just(workout));
+
+        StepVerifier.create(workoutService.getWorkoutById(workout.id()))
+                .expectNext(workout)
+                .verifyComplete();
+        verify(mockWorkoutRepo, never()).findById(anyString());
+    }
+
+    @Test
+    void getWorkoutById_whenWorkoutDoesNotExist_thenEmitError() {
+        when(mockWorkoutRepo.findVersionById("invalidId")).thenReturn(Mono.empty());
+
+        StepVerifier.create(workoutService.getWorkoutById("invalidId"))
+                .verifyError(NoSuchWorkoutException.class);
+        verify(mockWorkoutRepo, never()).findById(anyString());
+    }
+
+    @Test
+    void getWorkoutById_whenWorkoutIsArchived_thenReadColdTier() {
+        when(mockWorkoutRepo.findVersionById(workout.id())).thenReturn(Mono.empty());
+        when(mockWorkoutArchiveService.findWorkout(workout.id())).thenReturn(workout);
+
+        StepVerifier.create(workoutService.getWorkoutById(workout.id()))
+                .expectNext(workout)
+                .verifyComplete();
+        assertNull(workoutCache.getWorkout(workout.id()));
+    }
+
+    @Test
+    void editWorkout_whenWorkoutIsArchived_thenRestoreBeforeSaving() {
+        WorkoutEdit workoutEdit = WorkoutEdit.builder().name("Edited").day(testDate).plan(List.of()).version(workout.version()).build();
+        when(mockWorkoutRepo.findById(workout.id())).thenReturn(Mono.empty());
+        when(mockWorkoutArchiveService.restore(workout.id())).thenReturn(workout);
+        when(mockWorkoutRepo.save(any(Workout.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(workoutService.editWorkout(workout.id(), workoutEdit))
+                .expectNextMatches(edited -> edited.name().equals("Edited"))
+                .verifyComplete();
+        verify(mockWorkoutArchiveService).restore(workout.id());
+    }
+
+    @Test
+    void editWorkout_whenVersionIsStale_thenEmitConflict() {
+        WorkoutEdit workoutEdit = WorkoutEdit.builder().name("Edited").day(testDate).plan(List.of()).version(workout.version()).build();
+        when(mockWorkoutRepo.findById(workout.id())).thenReturn(Mono.just(workout));
+        when(mockWorkoutRepo.save(any(Workout.class))).thenReturn(Mono.error(new OptimisticLockingFailureException("stale")));
+
+        StepVerifier.create(workoutService.editWorkout(workout.id(), workoutEdit))
+                .verifyError(WorkoutVersionConflictException.class);
+    }
+
+    @Test
+    void patchWorkout_whenVersionIsMissing_thenEmitErrorWithoutUpdate() {
+        StepVerifier.create(workoutService.patchWorkout(workout.id(), WorkoutPatch.builder().name("Renamed").build()))
+                .verifyError(InvalidRequestException.class);
+        verify(mockWorkoutRepo, never()).patchWorkout(anyString(), any(WorkoutPatch.class));
+    }
+
+    @Test
+    void patchWorkout_whenNothingMatchesButWorkoutExists_thenEmitConflict() {
+        WorkoutPatch workoutPatch = WorkoutPatch.builder().version(5L).name("Renamed").build();
+        when(mockWorkoutRepo.patchWorkout(workout.id(), workoutPatch)).thenReturn(Mono.empty());
+        when(mockWorkoutRepo.findById(workout.id())).thenReturn(Mono.just(workout));
+
+        StepVerifier.create(workoutService.patchWorkout(workout.id(), workoutPatch))
+                .verifyError(WorkoutVersionConflictException.class);
+    }
+
+    @Test
+    void deleteWorkout_whenDeleted_thenEvictCachedWorkout() {
+        workoutCache.putWorkout(workout);
+        when(mockWorkoutRepo.deleteWorkoutById(workout.id())).thenReturn(Mono.just(workout));
+
+        StepVerifier.create(workoutService.deleteWorkout(workout.id()))
+                .verifyComplete();
+        verify(mockWorkoutRepo).deleteWorkoutById(eq(workout.id()));
+        verify(mockWorkoutListVersionRepo).increment(appUser.id());
+        assertNull(workoutCache.getWorkout(workout.id()));
+    }
+
+    @Test
+    void deleteWorkoutsById_whenAllVersionsMatch_thenDeleteWithOneQuery() {
+        workoutCache.putWorkout(workout);
+        when(mockWorkoutRepo.findAllById(List.of(workout.id(), "unknownId"))).thenReturn(Flux.just(workout));
+        when(mockWorkoutRepo.deleteVersions(List.of(workout))).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(workoutService.deleteWorkoutsById(List.of(workout.id(), "unknownId")))
+                .expectNext(List.of(WorkoutBatchItem.of(workout.id(), BatchItemStatus.DELETED),
+                        WorkoutBatchItem.of("unknownId", BatchItemStatus.NOT_FOUND)))
+                .verifyComplete();
+        verify(mockWorkoutListVersionRepo).increment(appUser.id());
+        verify(mockWorkoutChangeListener).onWorkoutChanged(workout, null);
+        assertNull(workoutCache.getWorkout(workout.id()));
+    }
+
+    @Test
+    void deleteWorkoutsById_whenOneIsArchived_thenDeleteItFromColdTier() {
+        Workout archived = workout.toBuilder().id("archivedId").build();
+        when(mockWorkoutRepo.findAllById(List.of(workout.id(), archived.id()))).thenReturn(Flux.just(workout));
+        when(mockWorkoutRepo.deleteVersions(List.of(workout))).thenReturn(Mono.just(1L));
+        when(mockWorkoutArchiveService.deleteWorkouts(List.of(archived.id()))).thenReturn(List.of(archived));
+
+        StepVerifier.create(workoutService.deleteWorkoutsById(List.of(workout.id(), archived.id())))
+                .expectNext(List.of(WorkoutBatchItem.of(workout.id(), BatchItemStatus.DELETED),
+                        WorkoutBatchItem.of(archived.id(), BatchItemStatus.DELETED)))
+                .verifyComplete();
+        verify(mockWorkoutChangeListener).onWorkoutChanged(archived, null);
+        verify(mockWorkoutListVersionRepo).increment(appUser.id());
+    }
+
+    @Test
+    void getWorkoutVersion_whenWorkoutIsNotCached_thenReadOnlyTheVersionFields() {
+        when(mockWorkoutRepo.findVersionById(workout.id())).thenReturn(Mono.just(workout));
+
+        StepVerifier.create(workoutService.getWorkoutVersion(workout.id()))
+                .expectNext(ResourceVersion.of(workout))
+                .verifyComplete();
+        verify(mockWorkoutRepo, never()).findById(anyString());
+    }
+
+    @Test
+    void exportWorkoutsAsCsv_whenUserHasNoWorkouts_thenEmitOnlyHeader() {
+        when(workoutTransferService.csvHeader()).thenReturn("header\n");
+        when(mockAppUserRepo.existsById(appUser.id())).thenReturn(Mono.just(true));
+        when(mockWorkoutRepo.findWorkoutsByUserIdOrderByDayAscIdAsc(appUser.id())).thenReturn(Flux.empty());
+
+        StepVerifier.create(workoutService.exportWorkoutsAsCsv(appUser.id()))
+                .expectNext("header\n")
+                .verifyComplete();
+    }
+
+    @Test
+    void exportWorkoutsAsCsv_whenUserHasWorkouts_thenPrefixFirstRowWithHeader() {
+        when(workoutTransferService.csvHeader()).thenReturn("header\n");
+        Workout second = workout.toBuilder().id("secondId").build();
+        when(workoutTransferService.toCsv(workout)).thenReturn("row\n");
+        when(workoutTransferService.toCsv(second)).thenReturn("second\n");
+        when(mockAppUserRepo.existsById(appUser.id())).thenReturn(Mono.just(true));
+        when(mockWorkoutRepo.findWorkoutsByUserIdOrderByDayAscIdAsc(appUser.id())).thenReturn(Flux.just(workout, second));
+
+        StepVerifier.create(workoutService.exportWorkoutsAsCsv(appUser.id()))
+                .expectNext("header\nrow\n", "second\n")
+                .verifyComplete();
+    }
+
+    @Test
+    void exportWorkoutsAsCsv_whenWorkoutIsInBothTiers_thenWriteItOnce() {
+        when(workoutTransferService.csvHeader()).thenReturn("header\n");
+        when(workoutTransferService.toCsv(workout)).thenReturn("row\n");
+        when(mockAppUserRepo.existsById(appUser.id())).thenReturn(Mono.just(true));
+        when(mockWorkoutArchiveService.streamWorkoutsByUserId(appUser.id())).thenAnswer(invocation -> Stream.of(workout));
+        when(mockWorkoutRepo.findWorkoutsByUserIdOrderByDayAscIdAsc(appUser.id())).thenReturn(Flux.just(workout));
+
+        StepVerifier.create(workoutService.exportWorkoutsAsCsv(appUser.id()))
+                .expectNext("header\nrow\n")
+                .verifyComplete();
+        verify(workoutTransferService, times(1)).toCsv(workout);
+    }
+}
@@ -0,0 +1,167 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.InvalidRequestException;
+import de.aljoschanyang.capstoneprojectfiturae.models.*;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.AppUserRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.TrainingVolumeRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutRepo;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TrainingVolumeServiceTest {
+    private final AppUserRepo mockAppUserRepo = mock(AppUserRepo.class);
+    private final TrainingVolumeRepo mockTrainingVolumeRepo = mock(TrainingVolumeRepo.class);
+    private final WorkoutRepo mockWorkoutRepo = mock(WorkoutRepo.class);
+    private final AppUserService appUserService = new AppUserService(mockAppUserRepo, new PrincipalCache(100, Duration.ofMinutes(5)), new KnownUserCache(100, Duration.ofMinutes(5)));
+    private final TrainingVolumeService trainingVolumeService = new TrainingVolumeService(mockTrainingVolumeRepo, mockWorkoutRepo, appUserService,
+            mock(WorkoutArchiveService.class));
+
+    // Friday, so the week starts on the 11th.
+    private final LocalDate testDate = LocalDate.of(2023, 12, 15);
+    private final WorkoutExercise squat = new WorkoutExercise("Squat", 3, 10, 80, 90);
+    private final WorkoutExercise press = new WorkoutExercise("Press", 4, 8, 40, 60);
+
+    private Workout workout(LocalDate day, WorkoutExercise... plan) {
+        return Workout.builder().id("workoutId").userId("userId").name("Test workout").day(day).plan(List.of(plan)).build();
+    }
+
+    private static Map<String, Double> byId(Collection<TrainingVolume> volumes) {
+        return volumes.stream().collect(Collectors.toMap(TrainingVolume::id, TrainingVolume::volume));
+    }
+
+    @Test
+    void toDeltas_whenWorkoutAdded_thenAddTotalAndExerciseRowsForWeekAndMonth() {
+        Map<String, Double> actual = byId(TrainingVolumeService.toDeltas(List.of(), List.of(workout(testDate, squat, press))));
+
+        assertEquals(6, actual.size());
+        assertEquals(3680.0, actual.get(TrainingVolume.idOf("userId", VolumePeriod.WEEK, LocalDate.of(2023, 12, 11), null)));
+        assertEquals(2400.0, actual.get(TrainingVolume.idOf("userId", VolumePeriod.WEEK, LocalDate.of(2023, 12, 11), "squat")));
+        assertEquals(1280.0, actual.get(TrainingVolume.idOf("userId", VolumePeriod.MONTH, LocalDate.of(2023, 12, 1), "press")));
+    }
+
+    @Test
+    void toDeltas_whenOnlyOneExerciseChanged_thenWriteOnlyItsDifference() {
+        WorkoutExercise heavierPress = new WorkoutExercise("Press", 4, 8, 50, 60);
+
+        Map<String, Double> actual = byId(TrainingVolumeService.toDeltas(
+                List.of(workout(testDate, squat, press)), List.of(workout(testDate, squat, heavierPress))));
+
+        assertEquals(4, actual.size());
+        assertEquals(320.0, actual.get(TrainingVolume.idOf("userId", VolumePeriod.WEEK, LocalDate.of(2023, 12, 11), null)));
+        assertEquals(320.0, actual.get(TrainingVolume.idOf("userId", VolumePeriod.MONTH, LocalDate.of(2023, 12, 1), "press")));
+        assertFalse(actual.containsKey(TrainingVolume.idOf("userId", VolumePeriod.WEEK, LocalDate.of(2023, 12, 11), "squat")));
+    }
+
+    @Test
+    void toDeltas_whenDayMovedToNextMonth_thenMoveVolumeBetweenPeriods() {
+        Map<String, Double> actual = byId(TrainingVolumeService.toDeltas(
+                List.of(workout(testDate, squat)), List.of(workout(LocalDate.of(2024, 1, 2), squat))));
+
+        assertEquals(-2400.0, actual.get(TrainingVolume.idOf("userId", VolumePeriod.MONTH, LocalDate.of(2023, 12, 1), null)));
+        assertEquals(2400.0, actual.get(TrainingVolume.idOf("userId", VolumePeriod.MONTH, LocalDate.of(2024, 1, 1), null)));
+        assertEquals(2400.0, actual.get(TrainingVolume.idOf("userId", VolumePeriod.WEEK, LocalDate.of(2024, 1, 1), "squat")));
+    }
+
+    @Test
+    void toDeltas_whenOnlyNameChanged_thenReturnNoDeltas() {
+        Workout renamed = workout(testDate, squat).toBuilder().name("Renamed").build();
+
+        assertTrue(TrainingVolumeService.toDeltas(List.of(workout(testDate, squat)), List.of(renamed)).isEmpty());
+    }
+
+    @Test
+    void toDeltas_whenFractionalWeightsNetToZero_thenReturnNoResidue() {
+        WorkoutExercise light = new WorkoutExercise("Curl", 1, 1, 0.1, 60);
+        WorkoutExercise lighter = new WorkoutExercise("Curl", 1, 1, 0.2, 60);
+        WorkoutExercise combined = new WorkoutExercise("Curl", 1, 1, 0.3, 60);
+
+        assertTrue(TrainingVolumeService.toDeltas(List.of(workout(testDate, light, lighter)), List.of(workout(testDate, combined))).isEmpty());
+    }
+
+    @Test
+    void toDeltas_whenSpellingsDiffer_thenShareOneExerciseRow() {
+        WorkoutExercise spelledDifferently = new WorkoutExercise(" SQUAT ", 1, 10, 60, 90);
+
+        Collection<TrainingVolume> actual = TrainingVolumeService.toDeltas(List.of(), List.of(workout(testDate, squat, spelledDifferently)));
+
+        TrainingVolume row = actual.stream()
+                .filter(volume -> volume.id().equals(TrainingVolume.idOf("userId", VolumePeriod.WEEK, LocalDate.of(2023, 12, 11), "squat")))
+                .findFirst().orElseThrow();
+        assertEquals(4, actual.size());
+        assertEquals(3000.0, row.volume());
+        assertEquals("Squat", row.exerciseName());
+    }
+
+    @Test
+    void getExerciseVolumes_whenRowHoldsResidue_thenRoundToGramsAndSkipEmptyRows() {
+        when(mockAppUserRepo.existsById("userId")).thenReturn(true);
+        when(mockTrainingVolumeRepo.findByUserIdAndPeriodAndPeriodStartAndExerciseIsNotNull("userId", VolumePeriod.WEEK, LocalDate.of(2023, 12, 11)))
+                .thenReturn(List.of(
+                        TrainingVolume.builder().exercise("curl").exerciseName("Curl").volume(1e-13).build(),
+                        TrainingVolume.builder().exercise("squat").exerciseName("Squat").volume(2400.0000000001).build()));
+
+        List<ExerciseVolume> actual = trainingVolumeService.getExerciseVolumes("userId", "week", testDate);
+
+        assertEquals(List.of(new ExerciseVolume("Squat", 2400)), actual);
+    }
+
+    @Test
+    void onWorkoutChanged_whenRepoFails_thenDoNotThrow() {
+        doThrow(new DataAccessResourceFailureException("down")).when(mockTrainingVolumeRepo).incrementVolumes(anyCollection());
+
+        assertDoesNotThrow(() -> trainingVolumeService.onWorkoutChanged(null, workout(testDate, squat)));
+    }
+
+    @Test
+    void getVolume_whenPeriodsHaveNoRows_thenFillWithZero() {
+        when(mockAppUserRepo.existsById("userId")).thenReturn(true);
+        when(mockTrainingVolumeRepo.findSeries("userId", VolumePeriod.WEEK, null, LocalDate.of(2023, 11, 27), LocalDate.of(2023, 12, 11)))
+                .thenReturn(List.of(TrainingVolume.builder().periodStart(LocalDate.of(2023, 12, 4)).volume(1500).build()));
+
+        List<VolumePoint> actual = trainingVolumeService.getVolume("userId", "week", LocalDate.of(2023, 11, 29), testDate, null);
+
+        assertEquals(List.of(
+                new VolumePoint(LocalDate.of(2023, 11, 27), 0),
+                new VolumePoint(LocalDate.of(2023, 12, 4), 1500),
+                new VolumePoint(LocalDate.of(2023, 12, 11), 0)), actual);
+    }
+
+    @Test
+    void getVolume_whenRangeIsTooLong_thenThrowException() {
+        when(mockAppUserRepo.existsById("userId")).thenReturn(true);
+
+        assertThrows(InvalidRequestException.class,
+                () -> trainingVolumeService.getVolume("userId", "month", LocalDate.of(1990, 1, 1), testDate, null));
+        verify(mockTrainingVolumeRepo, never()).findSeries(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void rebuild_whenDailyVolumesAggregated_thenReplaceRollupsOfUser() {
+        when(mockAppUserRepo.existsById("userId")).thenReturn(true);
+        when(mockTrainingVolumeRepo.aggregateDailyVolumes("userId")).thenReturn(List.of(
+                new DailyExerciseVolume(testDate, "Squat", 2400),
+                new DailyExerciseVolume(LocalDate.of(2023, 12, 12), "Squat", 600)));
+
+        int actual = trainingVolumeService.rebuild("userId");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<TrainingVolume>> replaced = ArgumentCaptor.forClass(Collection.class);
+        verify(mockTrainingVolumeRepo).replaceUserVolumes(eq("userId"), replaced.capture());
+        assertEquals(4, actual);
+        assertEquals(3000.0, byId(replaced.getValue()).get(TrainingVolume.idOf("userId", VolumePeriod.WEEK, LocalDate.of(2023, 12, 11), "squat")));
+    }
+}
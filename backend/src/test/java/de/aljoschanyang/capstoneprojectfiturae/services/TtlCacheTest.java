@@ -0,0 +1,169 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.CacheStats;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TtlCacheTest {
+    private final MutableClock clock = new MutableClock(Instant.parse("2023-12-15T10:00:00Z"));
+    private final TtlCache<String, String> cache = new TtlCache<>(2, Duration.ofMinutes(5), clock);
+
+    static class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    @Test
+    void get_whenEntryIsFresh_thenReturnValue() {
+        cache.put("key", "value");
+
+        assertEquals("value", cache.get("key"));
+    }
+
+    @Test
+    void get_whenEntryIsExpired_thenReturnNullAndRemoveEntry() {
+        cache.put("key", "value");
+        clock.advance(Duration.ofMinutes(5));
+
+        assertNull(cache.get("key"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_whenMaxSizeIsExceeded_thenEvictLeastRecentlyUsedEntry() {
+        cache.put("first", "1");
+        cache.put("second", "2");
+        cache.get("first");
+        cache.put("third", "3");
+
+        assertEquals("1", cache.get("first"));
+        assertNull(cache.get("second"));
+        assertEquals("3", cache.get("third"));
+    }
+
+    @Test
+    void stats_whenCacheWasUsed_thenCountHitsMissesAndEvictions() {
+        cache.put("first", "1");
+        cache.get("first");
+        cache.get("unknown");
+        cache.put("second", "2");
+        cache.put("third", "3");
+
+        assertEquals(new CacheStats(1, 1, 1, 2), cache.stats());
+    }
+
+    @Test
+    void invalidateIf_whenPredicateMatches_thenRemoveMatchingEntries() {
+        cache.put("first", "keep");
+        cache.put("second", "drop");
+        cache.invalidateIf((key, value) -> value.equals("drop"));
+
+        assertEquals("keep", cache.get("first"));
+        assertNull(cache.get("second"));
+    }
+
+    @Test
+    void invalidate_whenEntryExists_thenRemoveIt() {
+        cache.put("key", "value");
+        cache.invalidate("key");
+
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    void computeIfAbsent_whenEntryIsMissing_thenLoadOnceAndKeepValue() {
+        assertEquals("loaded", cache.computeIfAbsent("key", key -> "loaded"));
+        assertEquals("loaded", cache.computeIfAbsent("key", key -> fail("must not load again")));
+    }
+
+    @Test
+    void computeIfAbsent_whenLoadIsSlow_thenOtherKeysStayAvailable() throws Exception {
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        cache.put("other", "value");
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<String> slowLoad = executor.submit(() -> cache.computeIfAbsent("key", key -> {
+                loadStarted.countDown();
+                awaitUninterruptibly(releaseLoad);
+                return "loaded";
+            }));
+            assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+
+            assertEquals("value", cache.get("other"));
+            assertEquals("fast", cache.computeIfAbsent("fastKey", key -> "fast"));
+            cache.computeIfPresent("other", value -> value + "-updated");
+            assertEquals("value-updated", cache.get("other"));
+
+            releaseLoad.countDown();
+            assertEquals("loaded", slowLoad.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals("loaded", cache.get("key"));
+    }
+
+    @Test
+    void computeIfAbsent_whenKeyIsUpdatedDuringLoad_thenReturnButDoNotCacheLoadedValue() {
+        assertEquals("loaded", cache.computeIfAbsent("key", key -> {
+            cache.computeIfPresent("key", value -> value + "-updated");
+            return "loaded";
+        }));
+
+        assertNull(cache.get("key"));
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void computeIfPresent_whenEntryExists_thenUpdateWithoutExtendingExpiry() {
+        cache.put("key", "value");
+        clock.advance(Duration.ofMinutes(3));
+
+        cache.computeIfPresent("key", value -> value + "-updated");
+        cache.computeIfPresent("unknown", value -> value + "-updated");
+
+        assertEquals("value-updated", cache.get("key"));
+        assertNull(cache.get("unknown"));
+        clock.advance(Duration.ofMinutes(2));
+        assertNull(cache.get("key"));
+    }
+}
@@ -0,0 +1,136 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.models.ArchivedWorkout;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutArchive;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutCursor;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutExercise;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.ExerciseCatalogRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutArchiveRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutListVersionRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutRepo;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class WorkoutArchiveServiceTest {
+    private final WorkoutRepo mockWorkoutRepo = mock(WorkoutRepo.class);
+    private final WorkoutArchiveRepo mockWorkoutArchiveRepo = mock(WorkoutArchiveRepo.class);
+    private final WorkoutListVersionRepo mockWorkoutListVersionRepo = mock(WorkoutListVersionRepo.class);
+    private final WorkoutArchiveService workoutArchiveService = new WorkoutArchiveService(mockWorkoutRepo, mockWorkoutArchiveRepo,
+            new ExerciseCatalog(mock(ExerciseCatalogRepo.class)), new WorkoutCache(100, 100, Duration.ofMinutes(1)), mockWorkoutListVersionRepo);
+
+    private final LocalDate cutoff = LocalDate.of(2023, 1, 1);
+    private final Workout december = workout("657c4a3e2f8fb814b56fa181", LocalDate.of(2022, 12, 15));
+    private final Workout november = workout("657c4a3e2f8fb814b56fa182", LocalDate.of(2022, 11, 3));
+
+    private static Workout workout(String id, LocalDate day) {
+        return Workout.builder()
+                .id(id)
+                .userId("userId")
+                .name("Leg day")
+                .day(day)
+                .plan(List.of(new WorkoutExercise("Squat", 4, 10, 80, 90), new WorkoutExercise(null, 1, 1, 0, 0)))
+                .version(3L)
+                .modifiedAt(Instant.parse("2022-12-15T18:00:00Z"))
+                .build();
+    }
+
+    @Test
+    void unpack_whenPacked_thenRestoreSameWorkout() {
+        ArchivedWorkout packed = WorkoutArchiveService.pack(december, name -> 7);
+
+        assertEquals(List.of(4, 1), packed.setCounts());
+        assertEquals(7, packed.exerciseIds().get(0));
+        assertNull(packed.exerciseIds().get(1));
+        assertEquals(december, WorkoutArchiveService.unpack("userId", packed, id -> "Squat"));
+    }
+
+    @Test
+    void toBuckets_whenWorkoutsSpanMonths_thenGroupByMonth() {
+        Map<YearMonth, List<ArchivedWorkout>> actual = WorkoutArchiveService.toBuckets(List.of(december, november), name -> 1);
+
+        assertEquals(List.of(YearMonth.of(2022, 11), YearMonth.of(2022, 12)), List.copyOf(actual.keySet()));
+        assertEquals(december.id(), actual.get(YearMonth.of(2022, 12)).get(0).workoutId());
+    }
+
+    @Test
+    void archiveUser_whenOneWasChangedInBetween_thenKeepItHotAndDropItsColdCopy() {
+        Workout changed = december.toBuilder().version(4L).build();
+        when(mockWorkoutRepo.findWorkoutsByUserIdAndDayBefore("userId", cutoff)).thenReturn(List.of(december, november));
+        when(mockWorkoutRepo.deleteVersions(List.of(december, november))).thenReturn(1L);
+        when(mockWorkoutRepo.findAllById(List.of(december.id(), november.id()))).thenReturn(List.of(changed));
+
+        int actual = workoutArchiveService.archiveUser("userId", cutoff);
+
+        assertEquals(1, actual);
+        verify(mockWorkoutArchiveRepo).storeMonth(eq("userId"), eq(YearMonth.of(2022, 12)), anyList());
+        verify(mockWorkoutArchiveRepo).storeMonth(eq("userId"), eq(YearMonth.of(2022, 11)), anyList());
+        verify(mockWorkoutArchiveRepo).removeWorkouts(List.of(december.id()));
+        verify(mockWorkoutListVersionRepo).increment("userId");
+    }
+
+    @Test
+    void archiveUser_whenNothingIsOldEnough_thenWriteNothing() {
+        assertEquals(0, workoutArchiveService.archiveUser("userId", cutoff));
+
+        verifyNoInteractions(mockWorkoutArchiveRepo, mockWorkoutListVersionRepo);
+    }
+
+    @Test
+    void findWorkout_whenIdIsNoObjectId_thenSkipColdTier() {
+        assertNull(workoutArchiveService.findWorkout("invalidId"));
+
+        verifyNoInteractions(mockWorkoutArchiveRepo);
+    }
+
+    @Test
+    void streamWorkoutsByUserId_whenBucketsAreStreamed_thenUnpackEachInDayOrder() {
+        Workout early = november.toBuilder().plan(List.of()).build();
+        Workout middle = december.toBuilder().plan(List.of()).day(LocalDate.of(2022, 12, 1)).build();
+        Workout late = december.toBuilder().id("657c4a3e2f8fb814b56fa183").plan(List.of()).build();
+        when(mockWorkoutArchiveRepo.streamByUserIdAndIdGreaterThanEqualOrderByIdAsc("userId", "userId:")).thenReturn(Stream.of(
+                new WorkoutArchive("userId:2022-11", "userId", List.of(WorkoutArchiveService.pack(early, name -> 1))),
+                new WorkoutArchive("userId:2022-12", "userId", List.of(WorkoutArchiveService.pack(late, name -> 1), WorkoutArchiveService.pack(middle, name -> 1)))));
+
+        try (Stream<Workout> actual = workoutArchiveService.streamWorkoutsByUserId("userId")) {
+            assertEquals(List.of(early, middle, late), actual.toList());
+        }
+        verify(mockWorkoutArchiveRepo, never()).findByUserIdOrderByIdAsc(anyString());
+    }
+
+    @Test
+    void isAfter_whenCursorGiven_thenCompareByDayThenId() {
+        WorkoutCursor cursor = WorkoutCursor.of(december);
+
+        assertFalse(WorkoutArchiveService.isAfter(november, cursor));
+        assertTrue(WorkoutArchiveService.isAfter(december.toBuilder().id("657c4a3e2f8fb814b56fa183").build(), cursor));
+        assertTrue(WorkoutArchiveService.isAfter(november, new WorkoutCursor(null, "657c4a3e2f8fb814b56fa189")));
+    }
+
+    @Test
+    void restore_whenWorkoutIsArchived_thenInsertHotAndRemoveColdCopy() {
+        ArchivedWorkout packed = WorkoutArchiveService.pack(december.toBuilder().plan(List.of()).build(), name -> 1);
+        when(mockWorkoutArchiveRepo.findByWorkoutId(december.id())).thenReturn(new WorkoutArchive("userId:2022-12", "userId", List.of(packed)));
+
+        Workout actual = workoutArchiveService.restore(december.id());
+
+        assertEquals(3L, actual.version());
+        verify(mockWorkoutRepo).insertRestored(december.toBuilder().plan(List.of()).build());
+        verify(mockWorkoutRepo, never()).insert(any(Workout.class));
+        verify(mockWorkoutArchiveRepo).removeWorkouts(List.of(december.id()));
+    }
+}
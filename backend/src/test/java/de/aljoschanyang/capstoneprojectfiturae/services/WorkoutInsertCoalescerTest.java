@@ -0,0 +1,114 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.NoSuchUserException;
+import de.aljoschanyang.capstoneprojectfiturae.models.AppUser;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.AppUserRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutRepoCustom;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class WorkoutInsertCoalescerTest {
+    private final AppUserRepo mockAppUserRepo = mock(AppUserRepo.class);
+    private final WorkoutRepo mockWorkoutRepo = mock(WorkoutRepo.class);
+    private final AppUserService appUserService = new AppUserService(mockAppUserRepo, new PrincipalCache(100, Duration.ofMinutes(5)), new KnownUserCache(100, Duration.ofMinutes(5)));
+    private final ExerciseCatalog mockExerciseCatalog = mock(ExerciseCatalog.class);
+    private final WorkoutInsertCoalescer coalescer = new WorkoutInsertCoalescer(mockWorkoutRepo, appUserService, mockExerciseCatalog, true,
+            Duration.ofSeconds(5), 3);
+
+    @BeforeEach
+    void setUp() {
+        coalescer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        coalescer.stop();
+    }
+
+    @Test
+    void insert_whenCallersArriveTogether_thenWriteOneBatchAndAnswerEachCaller() throws Exception {
+        when(mockAppUserRepo.findIdsByIdIn(anyCollection())).thenReturn(List.of(AppUser.builder().id("userId").build()));
+        when(mockWorkoutRepo.insertUnordered(anyList())).thenAnswer(invocation -> stored(invocation.getArgument(0), Map.of()));
+
+        List<Future<Workout>> results = insertConcurrently("A", "B", "C");
+
+        for (Future<Workout> result : results) {
+            Workout workout = result.get();
+            assertEquals("id-" + workout.name(), workout.id());
+        }
+        InOrder order = inOrder(mockExerciseCatalog, mockWorkoutRepo);
+        order.verify(mockExerciseCatalog).registerExercisesOf(anyList());
+        order.verify(mockWorkoutRepo, times(1)).insertUnordered(anyList());
+        verify(mockAppUserRepo, times(1)).findIdsByIdIn(anyCollection());
+        verify(mockAppUserRepo, never()).existsById(any());
+    }
+
+    @Test
+    void insert_whenOneWorkoutFails_thenOnlyItsCallerGetsTheError() throws Exception {
+        when(mockAppUserRepo.findIdsByIdIn(anyCollection())).thenReturn(List.of(AppUser.builder().id("userId").build()));
+        when(mockWorkoutRepo.insertUnordered(anyList())).thenAnswer(invocation -> {
+            List<Workout> workouts = invocation.getArgument(0);
+            Map<Integer, RuntimeException> errors = new HashMap<>();
+            for (int i = 0; i < workouts.size(); i++) {
+                if (workouts.get(i).name().equals("B")) {
+                    errors.put(i, new DuplicateKeyException("_id_"));
+                }
+            }
+            return stored(workouts, errors);
+        });
+
+        List<Future<Workout>> results = insertConcurrently("A", "B", "unknownUser");
+
+        assertEquals("id-A", results.get(0).get().id());
+        assertInstanceOf(DuplicateKeyException.class, assertThrows(Exception.class, () -> results.get(1).get()).getCause());
+        assertInstanceOf(NoSuchUserException.class, assertThrows(Exception.class, () -> results.get(2).get()).getCause());
+        verify(mockWorkoutRepo).insertUnordered(argThat(workouts -> workouts.size() == 2));
+    }
+
+    @Test
+    void insert_whenCoalescerIsStopped_thenFailInsteadOfWaiting() throws InterruptedException {
+        coalescer.stop();
+
+        Workout workout = Workout.builder().userId("userId").name("A").build();
+
+        assertThrows(IllegalStateException.class, () -> coalescer.insert(workout));
+        verify(mockWorkoutRepo, never()).insertUnordered(anyList());
+    }
+
+    private List<Future<Workout>> insertConcurrently(String... names) throws InterruptedException {
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Workout>> results = new ArrayList<>();
+            for (String name : names) {
+                String userId = name.equals("unknownUser") ? "unknownUserId" : "userId";
+                results.add(callers.submit(() -> coalescer.insert(Workout.builder().userId(userId).name(name).build())));
+            }
+            return results;
+        }
+    }
+
+    private static WorkoutRepoCustom.InsertResult stored(List<Workout> workouts, Map<Integer, RuntimeException> errors) {
+        return new WorkoutRepoCustom.InsertResult(workouts.stream()
+                .map(workout -> workout.toBuilder().id("id-" + workout.name()).build())
+                .toList(), errors);
+    }
+}
@@ -0,0 +1,80 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.BackendApplication;
+import de.aljoschanyang.capstoneprojectfiturae.models.AppUser;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutDetails;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutExercise;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.AppUserRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutRepo;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs only with -Pload-test: a burst of concurrent addWorkout calls against the embedded MongoDB, with and without coalescing.
+@Tag("load")
+class WorkoutInsertCoalescingLoadTest {
+    private static final int CONCURRENT_CALLERS = 500;
+    private static final int INSERTS_PER_CALLER = 20;
+    private static final int USERS = 50;
+
+    private record LoadResult(String mode, double insertsPerSecond, long stored) {
+    }
+
+    @Test
+    void coalescedInserts_whenManyCallersInsertAtOnce_thenStoreEveryWorkoutWithHigherThroughput() throws Exception {
+        LoadResult single = runLoad(false);
+        LoadResult coalesced = runLoad(true);
+
+        assertEquals((long) CONCURRENT_CALLERS * INSERTS_PER_CALLER, single.stored(), single::toString);
+        assertEquals((long) CONCURRENT_CALLERS * INSERTS_PER_CALLER, coalesced.stored(), coalesced::toString);
+        assertTrue(coalesced.insertsPerSecond() > single.insertsPerSecond(), () -> coalesced + " vs " + single);
+    }
+
+    private LoadResult runLoad(boolean coalescing) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("myapp.workouts.insert-coalescing.enabled=" + coalescing)
+                .run()) {
+            AppUserRepo appUserRepo = context.getBean(AppUserRepo.class);
+            IntStream.range(0, USERS).forEach(user -> appUserRepo.save(AppUser.builder().id("user" + user).name("User " + user).build()));
+            WorkoutService workoutService = context.getBean(WorkoutService.class);
+            List<WorkoutExercise> plan = IntStream.range(0, 6)
+                    .mapToObj(i -> new WorkoutExercise("Exercise " + i, 4, 10, 40, 90))
+                    .toList();
+
+            long start = System.nanoTime();
+            try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int caller = 0; caller < CONCURRENT_CALLERS; caller++) {
+                    String userId = "user" + caller % USERS;
+                    futures.add(callers.submit(() -> {
+                        for (int i = 0; i < INSERTS_PER_CALLER; i++) {
+                            workoutService.addWorkout(new WorkoutDetails(userId, "Workout " + i, LocalDate.of(2023, 12, 1), null, plan));
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            return new LoadResult(coalescing ? "coalesced" : "single", CONCURRENT_CALLERS * INSERTS_PER_CALLER / seconds,
+                    context.getBean(WorkoutRepo.class).count());
+        }
+    }
+}
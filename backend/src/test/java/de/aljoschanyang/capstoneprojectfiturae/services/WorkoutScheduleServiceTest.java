@@ -0,0 +1,149 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.InvalidRequestException;
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.NoSuchWorkoutScheduleException;
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.WorkoutVersionConflictException;
+import de.aljoschanyang.capstoneprojectfiturae.models.RecurrenceRule;
+import de.aljoschanyang.capstoneprojectfiturae.models.Workout;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutDetails;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutExercise;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutOccurrence;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutSchedule;
+import de.aljoschanyang.capstoneprojectfiturae.models.WorkoutScheduleDetails;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.AppUserRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutScheduleRepo;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class WorkoutScheduleServiceTest {
+    private final AppUserRepo mockAppUserRepo = mock(AppUserRepo.class);
+    private final WorkoutScheduleRepo mockWorkoutScheduleRepo = mock(WorkoutScheduleRepo.class);
+    private final WorkoutService mockWorkoutService = mock(WorkoutService.class);
+    private final AppUserService appUserService = new AppUserService(mockAppUserRepo, new PrincipalCache(100, Duration.ofMinutes(5)), new KnownUserCache(100, Duration.ofMinutes(5)));
+    private final WorkoutScheduleService workoutScheduleService = new WorkoutScheduleService(mockWorkoutScheduleRepo, mockWorkoutService, appUserService);
+
+    // Monday
+    private final LocalDate startDay = LocalDate.of(2023, 12, 4);
+    private final List<WorkoutExercise> plan = List.of(new WorkoutExercise("Squat", 4, 10, 80, 90));
+    private final WorkoutSchedule schedule = WorkoutSchedule.builder()
+            .id("scheduleId")
+            .userId("userId")
+            .name("Leg day")
+            .plan(plan)
+            .startDay(startDay)
+            .rule(new RecurrenceRule(Set.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY), 1, null))
+            .handledDays(List.of())
+            .build();
+
+    @Test
+    void expand_whenWeeklyOnTwoDays_thenReturnEachOccurrenceInWindow() {
+        List<WorkoutOccurrence> actual = WorkoutScheduleService.expand(schedule, startDay.minusDays(3), startDay.plusDays(13));
+
+        assertEquals(List.of(startDay, startDay.plusDays(3), startDay.plusDays(7), startDay.plusDays(10)),
+                actual.stream().map(WorkoutOccurrence::day).toList());
+        assertEquals("Leg day", actual.get(0).name());
+        assertEquals(plan, actual.get(0).plan());
+    }
+
+    @Test
+    void expand_whenEverySecondWeekUntilDay_thenSkipOddWeeksAndStopAtLastDay() {
+        WorkoutSchedule biweekly = schedule.toBuilder()
+                .rule(new RecurrenceRule(Set.of(DayOfWeek.THURSDAY), 2, startDay.plusDays(24)))
+                .build();
+
+        List<WorkoutOccurrence> actual = WorkoutScheduleService.expand(biweekly, startDay, startDay.plusDays(60));
+
+        assertEquals(List.of(startDay.plusDays(3), startDay.plusDays(17)), actual.stream().map(WorkoutOccurrence::day).toList());
+    }
+
+    @Test
+    void expand_whenDayWasHandled_thenLeaveItOut() {
+        WorkoutSchedule handled = schedule.toBuilder().handledDays(List.of(startDay.plusDays(3))).build();
+
+        List<WorkoutOccurrence> actual = WorkoutScheduleService.expand(handled, startDay, startDay.plusDays(6));
+
+        assertEquals(List.of(startDay), actual.stream().map(WorkoutOccurrence::day).toList());
+    }
+
+    @Test
+    void addSchedule_whenNoDayOfWeekGiven_thenThrowException() {
+        WorkoutScheduleDetails details = new WorkoutScheduleDetails(
+                WorkoutDetails.builder().userId("userId").name("Leg day").day(startDay).build(),
+                new RecurrenceRule(Set.of(), 1, null));
+
+        assertThrows(InvalidRequestException.class, () -> workoutScheduleService.addSchedule(details));
+        verifyNoInteractions(mockWorkoutScheduleRepo);
+    }
+
+    @Test
+    void addSchedule_whenValid_thenStoreRuleOnceWithoutWorkouts() {
+        WorkoutScheduleDetails details = new WorkoutScheduleDetails(
+                WorkoutDetails.builder().userId("userId").name("Leg day").day(startDay).plan(plan).build(),
+                new RecurrenceRule(Set.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY), 0, null));
+        when(mockAppUserRepo.existsById("userId")).thenReturn(true);
+        when(mockWorkoutScheduleRepo.save(any(WorkoutSchedule.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        WorkoutSchedule actual = workoutScheduleService.addSchedule(details);
+
+        assertEquals(1, actual.rule().intervalWeeks());
+        assertEquals(startDay, actual.startDay());
+        verifyNoInteractions(mockWorkoutService);
+    }
+
+    @Test
+    void logOccurrence_whenDayIsFree_thenMaterializeWorkout() {
+        Workout expected = Workout.builder().id("workoutId").userId("userId").name("Leg day").day(startDay.plusDays(3)).plan(plan).build();
+        when(mockWorkoutScheduleRepo.findById("scheduleId")).thenReturn(Optional.of(schedule));
+        when(mockWorkoutScheduleRepo.claimDay("scheduleId", startDay.plusDays(3))).thenReturn(true);
+        when(mockWorkoutService.addWorkout(WorkoutDetails.builder().userId("userId").name("Leg day").day(startDay.plusDays(3)).plan(plan).build()))
+                .thenReturn(expected);
+
+        Workout actual = workoutScheduleService.logOccurrence("scheduleId", startDay.plusDays(3), null);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void logOccurrence_whenAlreadyLogged_thenThrowConflict() {
+        when(mockWorkoutScheduleRepo.findById("scheduleId")).thenReturn(Optional.of(schedule));
+        when(mockWorkoutScheduleRepo.claimDay("scheduleId", startDay)).thenReturn(false);
+
+        assertThrows(WorkoutVersionConflictException.class, () -> workoutScheduleService.logOccurrence("scheduleId", startDay, null));
+        verifyNoInteractions(mockWorkoutService);
+    }
+
+    @Test
+    void logOccurrence_whenDayIsNotInRule_thenThrowException() {
+        when(mockWorkoutScheduleRepo.findById("scheduleId")).thenReturn(Optional.of(schedule));
+
+        assertThrows(InvalidRequestException.class, () -> workoutScheduleService.logOccurrence("scheduleId", startDay.plusDays(1), null));
+        verify(mockWorkoutScheduleRepo, never()).claimDay(any(), any());
+    }
+
+    @Test
+    void logOccurrence_whenSavingFails_thenReleaseDay() {
+        when(mockWorkoutScheduleRepo.findById("scheduleId")).thenReturn(Optional.of(schedule));
+        when(mockWorkoutScheduleRepo.claimDay("scheduleId", startDay)).thenReturn(true);
+        when(mockWorkoutService.addWorkout(any(WorkoutDetails.class))).thenThrow(new IllegalStateException());
+
+        assertThrows(IllegalStateException.class, () -> workoutScheduleService.logOccurrence("scheduleId", startDay, null));
+        verify(mockWorkoutScheduleRepo).releaseDay("scheduleId", startDay);
+    }
+
+    @Test
+    void skipOccurrence_whenScheduleIsUnknown_thenThrowException() {
+        when(mockWorkoutScheduleRepo.findById("unknown")).thenReturn(Optional.empty());
+
+        assertThrows(NoSuchWorkoutScheduleException.class, () -> workoutScheduleService.skipOccurrence("unknown", startDay));
+    }
+}
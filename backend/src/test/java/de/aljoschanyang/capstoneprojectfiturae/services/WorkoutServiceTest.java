@@ -1,25 +1,42 @@
 package de.aljoschanyang.capstoneprojectfiturae.services;
 
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.InvalidRequestException;
 import de.aljoschanyang.capstoneprojectfiturae.exceptions.NoSuchUserException;
 import de.aljoschanyang.capstoneprojectfiturae.exceptions.NoSuchWorkoutException;
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.WorkoutVersionConflictException;
 import de.aljoschanyang.capstoneprojectfiturae.models.*;
 import de.aljoschanyang.capstoneprojectfiturae.repositories.AppUserRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutListVersionRepo;
 import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutRepo;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class WorkoutServiceTest {
     private final AppUserRepo mockAppUserRepo = mock(AppUserRepo.class);
     private final WorkoutRepo mockWorkoutRepo = mock(WorkoutRepo.class);
-    private final AppUserService appUserService = new AppUserService(mockAppUserRepo);
-    private final WorkoutService workoutService = new WorkoutService(mockWorkoutRepo, appUserService);
+    private final AppUserService appUserService = new AppUserService(mockAppUserRepo, new PrincipalCache(100, Duration.ofMinutes(5)), new KnownUserCache(100, Duration.ofMinutes(5)));
+    private final WorkoutListVersionRepo mockWorkoutListVersionRepo = mock(WorkoutListVersionRepo.class);
+    private final WorkoutChangeListener mockWorkoutChangeListener = mock(WorkoutChangeListener.class);
+    private final WorkoutArchiveService mockWorkoutArchiveService = mock(WorkoutArchiveService.class);
+    private final WorkoutCache workoutCache = new WorkoutCache(100, 100, Duration.ofMinutes(1));
+    private final ExerciseCatalog mockExerciseCatalog = mock(ExerciseCatalog.class);
+    private final WorkoutInsertCoalescer workoutInsertCoalescer = new WorkoutInsertCoalescer(mockWorkoutRepo, appUserService, mockExerciseCatalog, false, Duration.ZERO, 1);
+    private final WorkoutService workoutService = new WorkoutService(mockWorkoutRepo, appUserService, workoutCache, mockWorkoutListVersionRepo, List.of(mockWorkoutChangeListener),
+            workoutInsertCoalescer, mockWorkoutArchiveService, mockExerciseCatalog);
 
     private final AppUser appUser = AppUser.builder()
             .id("userId")
@@ -46,11 +63,11 @@ class WorkoutServiceTest {
                 .plan(expected.plan())
                 .build();
 
-        when(mockAppUserRepo.findById(appUser.id())).thenReturn(Optional.of(appUser));
+        when(mockAppUserRepo.existsById(appUser.id())).thenReturn(true);
         when(mockWorkoutRepo.save(any(Workout.class))).thenReturn(expected);
         Workout actual = workoutService.addWorkout(workoutDetails);
 
-        verify(mockAppUserRepo).findById(appUser.id());
+        verify(mockAppUserRepo).existsById(appUser.id());
         verify(mockWorkoutRepo).save(any(Workout.class));
         assertEquals(expected,actual);
     }
@@ -66,7 +83,7 @@ class WorkoutServiceTest {
                 .build();
 
         assertThrows(NoSuchUserException.class, () -> workoutService.addWorkout(workoutDetails));
-        verify(mockAppUserRepo).findById("invalidUserId");
+        verify(mockAppUserRepo).existsById("invalidUserId");
     }
 
     @Test
@@ -81,12 +98,12 @@ class WorkoutServiceTest {
                 .build();
         List<Workout> expectedWorkouts = List.of(workout1);
 
-        when(mockAppUserRepo.findById(workout1.userId())).thenReturn(Optional.of(appUser));
+        when(mockAppUserRepo.existsById(workout1.userId())).thenReturn(true);
         when(mockWorkoutRepo.findWorkoutsByUserId(workout1.userId())).thenReturn(expectedWorkouts);
 
         List<Workout> actualWorkouts = workoutService.getAllWorkoutsByUserId(workout1.userId());
 
-        verify(mockAppUserRepo).findById(workout1.userId());
+        verify(mockAppUserRepo).existsById(workout1.userId());
         verify(mockWorkoutRepo).findWorkoutsByUserId(workout1.userId());
         assertEquals(expectedWorkouts, actualWorkouts);
     }
@@ -95,13 +112,94 @@ class WorkoutServiceTest {
     void getAllWorkoutsByUserId_whenUserDoesNotExist_thenThrowException() {
         String userId = "invalidUserId";
 
-        when(mockAppUserRepo.findById(userId)).thenThrow(new NoSuchUserException());
+        when(mockAppUserRepo.existsById(userId)).thenReturn(false);
 
         assertThrows(NoSuchUserException.class, () -> workoutService.getAllWorkoutsByUserId(userId));
-        verify(mockAppUserRepo).findById(userId);
+        verify(mockAppUserRepo).existsById(userId);
         verify(mockWorkoutRepo, never()).findWorkoutsByUserId(anyString());
     }
 
+    @Test
+    void getWorkoutOverviewsByUserId_whenUserExists_thenReturnOverviewsWithoutLoadingWorkouts() {
+        WorkoutOverview overview = new WorkoutOverview("workoutId", appUser.id(), "Leg day", testDate, "description", 2, 3600);
+        when(mockAppUserRepo.existsById(appUser.id())).thenReturn(true);
+        when(mockWorkoutRepo.findOverviewsByUserId(appUser.id())).thenReturn(List.of(overview));
+
+        assertEquals(List.of(overview), workoutService.getWorkoutOverviewsByUserId(appUser.id()));
+        verify(mockWorkoutRepo, never()).findWorkoutsByUserId(anyString());
+    }
+
+    @Test
+    void getWorkoutPageByUserId_whenMoreWorkoutsExist_thenReturnPageWithCursor() {
+        Workout workout1 = Workout.builder().id("workoutId1").userId(appUser.id()).day(testDate).build();
+        Workout workout2 = Workout.builder().id("workoutId2").userId(appUser.id()).day(testDate).build();
+        Workout workout3 = Workout.builder().id("workoutId3").userId(appUser.id()).day(testDate.plusDays(1)).build();
+
+        when(mockAppUserRepo.existsById(appUser.id())).thenReturn(true);
+        when(mockWorkoutRepo.findPageByUserId(appUser.id(), null, 3)).thenReturn(List.of(workout1, workout2, workout3));
+
+        WorkoutPage actual = workoutService.getWorkoutPageByUserId(appUser.id(), null, 2);
+
+        verify(mockWorkoutRepo).findPageByUserId(appUser.id(), null, 3);
+        assertEquals(List.of(workout1, workout2), actual.workouts());
+        assertEquals(new WorkoutCursor(testDate, "workoutId2"), WorkoutCursor.decode(actual.nextCursor()));
+    }
+
+    @Test
+    void getWorkoutPageByUserId_whenLastPage_thenReturnPageWithoutCursor() {
+        Workout workout1 = Workout.builder().id("workoutId3").userId(appUser.id()).day(testDate).build();
+        WorkoutCursor cursor = new WorkoutCursor(testDate, "workoutId2");
+
+        when(mockAppUserRepo.existsById(appUser.id())).thenReturn(true);
+        when(mockWorkoutRepo.findPageByUserId(appUser.id(), cursor, 3)).thenReturn(List.of(workout1));
+
+        WorkoutPage actual = workoutService.getWorkoutPageByUserId(appUser.id(), cursor.encode(), 2);
+
+        verify(mockWorkoutRepo).findPageByUserId(appUser.id(), cursor, 3);
+        assertEquals(List.of(workout1), actual.workouts());
+        assertNull(actual.nextCursor());
+    }
+
+    @Test
+    void getWorkoutPageByUserId_whenLimitIsTooLarge_thenClampToMaxPageSize() {
+        when(mockAppUserRepo.existsById(appUser.id())).thenReturn(true);
+        when(mockWorkoutRepo.findPageByUserId(eq(appUser.id()), any(), anyInt())).thenReturn(List.of());
+
+        workoutService.getWorkoutPageByUserId(appUser.id(), null, 10_000);
+
+        verify(mockWorkoutRepo).findPageByUserId(appUser.id(), null, WorkoutService.MAX_PAGE_SIZE + 1);
+    }
+
+    @Test
+    void getWorkoutPageByUserId_whenCursorIsInvalid_thenThrowException() {
+        when(mockAppUserRepo.existsById(appUser.id())).thenReturn(true);
+
+        assertThrows(InvalidRequestException.class, () -> workoutService.getWorkoutPageByUserId(appUser.id(), "not-a-cursor", 20));
+        verify(mockWorkoutRepo, never()).findPageByUserId(anyString(), any(), anyInt());
+    }
+
+    @Test
+    void getWorkoutSummariesByUserId_whenRangeIsValid_thenReturnSummaries() {
+        WorkoutSummary summary = new WorkoutSummary("workoutId", "Leg day", testDate);
+        when(mockAppUserRepo.existsById(appUser.id())).thenReturn(true);
+        when(mockWorkoutRepo.findSummariesByUserIdAndDayBetween(appUser.id(), testDate, testDate.plusDays(6))).thenReturn(List.of(summary));
+
+        assertEquals(List.of(summary), workoutService.getWorkoutSummariesByUserId(appUser.id(), testDate, testDate.plusDays(6)));
+    }
+
+    @Test
+    void getWorkoutSummariesByUserId_whenRangeIsInvalid_thenThrowException() {
+        assertThrows(InvalidRequestException.class, () -> workoutService.getWorkoutSummariesByUserId(appUser.id(), testDate, testDate.minusDays(1)));
+        assertThrows(InvalidRequestException.class, () -> workoutService.getWorkoutSummariesByUserId(appUser.id(), testDate, testDate.plusDays(WorkoutService.MAX_CALENDAR_DAYS)));
+        verify(mockWorkoutRepo, never()).findSummariesByUserIdAndDayBetween(anyString(), any(), any());
+    }
+
+    @Test
+    void streamWorkoutsByUserId_whenUserDoesNotExist_thenThrowException() {
+        assertThrows(NoSuchUserException.class, () -> workoutService.streamWorkoutsByUserId("invalidUserId"));
+        verify(mockWorkoutRepo, never()).streamWorkoutsByUserIdOrderByDayAscIdAsc(anyString());
+    }
+
     @Test
     void getWorkoutById_whenIdIsValid_thenReturnWorkout() {
         Workout expected = Workout.builder()
@@ -113,6 +211,7 @@ class WorkoutServiceTest {
                 .plan(List.of())
                 .build();
 
+        when(mockWorkoutRepo.findVersionById(expected.id())).thenReturn(expected);
         when(mockWorkoutRepo.findById(any(String.class))).thenReturn(Optional.of(expected));
         Workout actual = workoutService.getWorkoutById(expected.id());
 
@@ -122,9 +221,76 @@ class WorkoutServiceTest {
 
     @Test
     void getWorkoutById_whenIdIsInvalid_thenThrowException() {
-        when(mockWorkoutRepo.findById(any(String.class))).thenThrow(NoSuchWorkoutException.class);
         assertThrows(NoSuchWorkoutException.class, () -> workoutService.getWorkoutById("invalidId"));
-        verify(mockWorkoutRepo).findById("invalidId");
+        verify(mockWorkoutRepo).findVersionById("invalidId");
+        verify(mockWorkoutRepo, never()).findById(anyString());
+    }
+
+    @Test
+    void getWorkoutById_whenCalledTwice_thenReadRepoOnce() {
+        Workout expected = Workout.builder()
+                .id("validWorkoutId")
+                .userId("1")
+                .name("Test workout")
+                .build();
+
+        when(mockWorkoutRepo.findVersionById(expected.id())).thenReturn(expected);
+        when(mockWorkoutRepo.findById(expected.id())).thenReturn(Optional.of(expected));
+        workoutService.getWorkoutById(expected.id());
+        Workout actual = workoutService.getWorkoutById(expected.id());
+
+        verify(mockWorkoutRepo, times(1)).findById(expected.id());
+        assertEquals(expected, actual);
+        assertEquals(1, workoutCache.workoutStats().hits());
+        assertEquals(1, workoutCache.workoutStats().misses());
+    }
+
+    @Test
+    void getWorkoutById_whenSavedOnAnotherNode_thenReadRepoAgain() {
+        Workout cached = Workout.builder().id("workoutId").userId(appUser.id()).name("Old").version(1L).build();
+        Workout saved = cached.toBuilder().name("New").version(2L).build();
+        when(mockWorkoutRepo.findVersionById(cached.id())).thenReturn(cached, saved);
+        when(mockWorkoutRepo.findById(cached.id())).thenReturn(Optional.of(cached), Optional.of(saved));
+        workoutService.getWorkoutById(cached.id());
+
+        assertEquals(saved, workoutService.getWorkoutById(cached.id()));
+        verify(mockWorkoutRepo, times(2)).findById(cached.id());
+    }
+
+    @Test
+    void getAllWorkoutsByUserId_whenWorkoutWasAddedInBetween_thenReadRepoAgain() {
+        Workout workout1 = Workout.builder().id("workoutId1").userId(appUser.id()).name("First").build();
+        Workout workout2 = Workout.builder().id("workoutId2").userId(appUser.id()).name("Second").build();
+
+        when(mockAppUserRepo.existsById(appUser.id())).thenReturn(true);
+        when(mockWorkoutRepo.findWorkoutsByUserId(appUser.id())).thenReturn(List.of(workout1), List.of(workout1, workout2));
+        when(mockWorkoutRepo.save(any(Workout.class))).thenReturn(workout2);
+
+        workoutService.getAllWorkoutsByUserId(appUser.id());
+        workoutService.getAllWorkoutsByUserId(appUser.id());
+        workoutService.addWorkout(WorkoutDetails.builder().userId(appUser.id()).name("Second").build());
+        List<Workout> actual = workoutService.getAllWorkoutsByUserId(appUser.id());
+
+        verify(mockWorkoutRepo, times(2)).findWorkoutsByUserId(appUser.id());
+        assertEquals(List.of(workout1, workout2), actual);
+    }
+
+    @Test
+    void deleteWorkout_whenWorkoutIsCached_thenEvictWorkoutAndUserList() {
+        Workout workout = Workout.builder().id("workoutId").userId(appUser.id()).name("Test").build();
+
+        when(mockAppUserRepo.existsById(appUser.id())).thenReturn(true);
+        when(mockWorkoutRepo.findVersionById(workout.id())).thenReturn(workout, (Workout) null);
+        when(mockWorkoutRepo.findById(workout.id())).thenReturn(Optional.of(workout), Optional.empty());
+        when(mockWorkoutRepo.findWorkoutsByUserId(appUser.id())).thenReturn(List.of(workout), List.of());
+        when(mockWorkoutRepo.deleteWorkoutById(workout.id())).thenReturn(workout);
+
+        workoutService.getWorkoutById(workout.id());
+        workoutService.getAllWorkoutsByUserId(appUser.id());
+        workoutService.deleteWorkout(workout.id());
+
+        assertThrows(NoSuchWorkoutException.class, () -> workoutService.getWorkoutById(workout.id()));
+        assertEquals(List.of(), workoutService.getAllWorkoutsByUserId(appUser.id()));
     }
 
     @Test
@@ -136,6 +302,7 @@ class WorkoutServiceTest {
                 .day(testDate)
                 .description("Test description")
                 .plan(List.of())
+                .version(1L)
                 .build();
 
         WorkoutEdit workoutEdit = WorkoutEdit.builder()
@@ -143,6 +310,7 @@ class WorkoutServiceTest {
                 .day(testDate)
                 .description("Changed description")
                 .plan(List.of())
+                .version(1L)
                 .build();
 
         Workout expected = Workout.builder()
@@ -152,6 +320,7 @@ class WorkoutServiceTest {
                 .day(testDate)
                 .description("Changed description")
                 .plan(List.of())
+                .version(1L)
                 .build();
 
         when(mockWorkoutRepo.findById(legacyWorkout.id())).thenReturn(Optional.of(legacyWorkout));
@@ -160,6 +329,7 @@ class WorkoutServiceTest {
         Workout actual = workoutService.editWorkout(legacyWorkout.id(),workoutEdit);
         verify(mockWorkoutRepo).findById(legacyWorkout.id());
         verify(mockWorkoutRepo).save(expected);
+        verify(mockWorkoutChangeListener).onWorkoutChanged(legacyWorkout, expected);
         assertEquals(expected,actual);
     }
 
@@ -170,6 +340,7 @@ class WorkoutServiceTest {
                 .day(testDate)
                 .description("Changed description")
                 .plan(List.of())
+                .version(1L)
                 .build();
 
         when(mockWorkoutRepo.findById(any(String.class))).thenThrow(NoSuchWorkoutException.class);
@@ -177,10 +348,331 @@ class WorkoutServiceTest {
         verify(mockWorkoutRepo).findById("invalidId");
     }
 
+    @Test
+    void editWorkout_whenSaveHitsNewerVersion_thenThrowConflict() {
+        Workout legacyWorkout = Workout.builder()
+                .id("validWorkoutId")
+                .userId("1")
+                .version(2L)
+                .build();
+        WorkoutEdit workoutEdit = WorkoutEdit.builder()
+                .name("Changed workout")
+                .plan(List.of())
+                .version(2L)
+                .build();
+
+        when(mockWorkoutRepo.findById(legacyWorkout.id())).thenReturn(Optional.of(legacyWorkout));
+        when(mockWorkoutRepo.save(any(Workout.class))).thenThrow(new OptimisticLockingFailureException("stale"));
+
+        assertThrows(WorkoutVersionConflictException.class, () -> workoutService.editWorkout(legacyWorkout.id(), workoutEdit));
+    }
+
+    @Test
+    void editWorkout_whenClientVersionIsOutdated_thenThrowConflictWithoutSaving() {
+        Workout current = Workout.builder().id("validWorkoutId").userId("1").version(3L).build();
+        WorkoutEdit workoutEdit = WorkoutEdit.builder().name("Changed workout").plan(List.of()).version(2L).build();
+        when(mockWorkoutRepo.findById(current.id())).thenReturn(Optional.of(current));
+
+        assertThrows(WorkoutVersionConflictException.class, () -> workoutService.editWorkout(current.id(), workoutEdit));
+        verify(mockWorkoutRepo, never()).save(any(Workout.class));
+    }
+
+    @Test
+    void editWorkout_whenVersionIsMissing_thenThrowExceptionWithoutReading() {
+        WorkoutEdit workoutEdit = WorkoutEdit.builder().name("Changed workout").plan(List.of()).build();
+
+        assertThrows(InvalidRequestException.class, () -> workoutService.editWorkout("validWorkoutId", workoutEdit));
+        verify(mockWorkoutRepo, never()).findById(anyString());
+    }
+
+    @Test
+    void patchWorkout_whenVersionMatches_thenReturnPatchedWorkout() {
+        WorkoutPatch workoutPatch = WorkoutPatch.builder()
+                .version(1L)
+                .name("Changed workout")
+                .build();
+        Workout expected = Workout.builder()
+                .id("validWorkoutId")
+                .userId("1")
+                .name("Changed workout")
+                .version(2L)
+                .build();
+
+        when(mockWorkoutRepo.patchWorkout(expected.id(), workoutPatch)).thenReturn(expected);
+        Workout actual = workoutService.patchWorkout(expected.id(), workoutPatch);
+
+        verify(mockWorkoutRepo).patchWorkout(expected.id(), workoutPatch);
+        verify(mockWorkoutRepo, never()).save(any(Workout.class));
+        verifyNoInteractions(mockWorkoutChangeListener);
+        assertEquals(expected, actual);
+        when(mockWorkoutRepo.findVersionById(expected.id())).thenReturn(expected);
+        assertEquals(expected, workoutService.getWorkoutById(expected.id()));
+    }
+
+    @Test
+    void patchWorkout_whenPlanChanged_thenApplyVolumeDeltaAgainstPatchedVersion() {
+        Workout before = Workout.builder().id("validWorkoutId").userId("1").day(testDate)
+                .plan(List.of(new WorkoutExercise("Squat", 3, 10, 80, 90))).version(1L).build();
+        WorkoutPatch workoutPatch = WorkoutPatch.builder()
+                .version(1L)
+                .plan(List.of(new WorkoutExercise("Squat", 5, 5, 100, 120)))
+                .build();
+        Workout expected = before.toBuilder().plan(workoutPatch.plan()).version(2L).build();
+
+        when(mockWorkoutRepo.findById(before.id())).thenReturn(Optional.of(before));
+        when(mockWorkoutRepo.patchWorkout(before.id(), workoutPatch)).thenReturn(expected);
+        workoutService.patchWorkout(before.id(), workoutPatch);
+
+        verify(mockWorkoutChangeListener).onWorkoutChanged(before, expected);
+    }
+
+    @Test
+    void patchWorkout_whenVersionIsOutdated_thenThrowConflict() {
+        WorkoutPatch workoutPatch = WorkoutPatch.builder()
+                .version(1L)
+                .name("Changed workout")
+                .build();
+        Workout current = Workout.builder()
+                .id("validWorkoutId")
+                .version(2L)
+                .build();
+
+        when(mockWorkoutRepo.findById(current.id())).thenReturn(Optional.of(current));
+
+        assertThrows(WorkoutVersionConflictException.class, () -> workoutService.patchWorkout(current.id(), workoutPatch));
+    }
+
+    @Test
+    void patchWorkout_whenWorkoutDoesNotExist_thenThrowException() {
+        WorkoutPatch workoutPatch = WorkoutPatch.builder()
+                .version(1L)
+                .name("Changed workout")
+                .build();
+
+        assertThrows(NoSuchWorkoutException.class, () -> workoutService.patchWorkout("invalidId", workoutPatch));
+    }
+
+    @Test
+    void patchWorkout_whenExerciseIndexDoesNotExist_thenThrowException() {
+        WorkoutPatch workoutPatch = WorkoutPatch.builder()
+                .version(1L)
+                .exercises(List.of(WorkoutExercisePatch.builder().index(3).setCount(4).build()))
+                .build();
+        Workout current = Workout.builder()
+                .id("validWorkoutId")
+                .plan(List.of())
+                .version(1L)
+                .build();
+
+        when(mockWorkoutRepo.findById(current.id())).thenReturn(Optional.of(current));
+
+        assertThrows(InvalidRequestException.class, () -> workoutService.patchWorkout(current.id(), workoutPatch));
+    }
+
+    @Test
+    void patchWorkout_whenVersionIsMissing_thenThrowException() {
+        WorkoutPatch workoutPatch = WorkoutPatch.builder()
+                .name("Changed workout")
+                .build();
+
+        assertThrows(InvalidRequestException.class, () -> workoutService.patchWorkout("validWorkoutId", workoutPatch));
+        verify(mockWorkoutRepo, never()).patchWorkout(anyString(), any());
+    }
+
     @Test
     void deleteWorkout() {
         String id = "1";
+        when(mockWorkoutRepo.deleteWorkoutById(id)).thenReturn(Workout.builder().id(id).userId(appUser.id()).build());
         workoutService.deleteWorkout(id);
-        verify(mockWorkoutRepo).deleteById(id);
+        verify(mockWorkoutRepo).deleteWorkoutById(id);
+        verify(mockWorkoutListVersionRepo).increment(appUser.id());
+    }
+
+    @Test
+    void getWorkoutsById_whenSomeAreCached_thenReadOnlyMissingIdsInOneQuery() {
+        Workout cached = Workout.builder().id("cachedId").userId(appUser.id()).build();
+        Workout stored = Workout.builder().id("storedId").userId(appUser.id()).build();
+        workoutCache.putWorkout(cached);
+        when(mockWorkoutRepo.findVersionsById(List.of("cachedId", "storedId", "unknownId"))).thenReturn(List.of(cached, stored));
+        when(mockWorkoutRepo.findAllById(List.of("storedId"))).thenReturn(List.of(stored));
+
+        List<WorkoutBatchItem> actual = workoutService.getWorkoutsById(List.of("cachedId", "storedId", "unknownId", "cachedId"));
+
+        assertEquals(List.of(WorkoutBatchItem.found(cached), WorkoutBatchItem.found(stored),
+                WorkoutBatchItem.of("unknownId", BatchItemStatus.NOT_FOUND)), actual);
+        verify(mockWorkoutRepo).findAllById(List.of("storedId"));
+        assertEquals(stored, workoutCache.getWorkout("storedId"));
+    }
+
+    @Test
+    void getWorkoutsById_whenTooManyIds_thenThrowException() {
+        List<String> ids = IntStream.rangeClosed(0, WorkoutService.MAX_BATCH_SIZE).mapToObj(i -> "id" + i).toList();
+
+        assertThrows(InvalidRequestException.class, () -> workoutService.getWorkoutsById(ids));
+        assertThrows(InvalidRequestException.class, () -> workoutService.getWorkoutsById(List.of()));
+        verify(mockWorkoutRepo, never()).findAllById(any());
+    }
+
+    @Test
+    void deleteWorkoutsById_whenOneChangedInBetween_thenReportConflictAndNotifyOnlyForDeleted() {
+        Workout deleted = Workout.builder().id("deletedId").userId(appUser.id()).version(1L).build();
+        Workout changed = Workout.builder().id("changedId").userId(appUser.id()).version(1L).build();
+        when(mockWorkoutRepo.findAllById(List.of("deletedId", "changedId", "unknownId"))).thenReturn(List.of(deleted, changed));
+        when(mockWorkoutRepo.deleteVersions(List.of(deleted, changed))).thenReturn(1L);
+        when(mockWorkoutRepo.findAllById(List.of("deletedId", "changedId"))).thenReturn(List.of(changed.toBuilder().version(2L).build()));
+
+        List<WorkoutBatchItem> actual = workoutService.deleteWorkoutsById(List.of("deletedId", "changedId", "unknownId"));
+
+        assertEquals(List.of(WorkoutBatchItem.of("deletedId", BatchItemStatus.DELETED),
+                WorkoutBatchItem.of("changedId", BatchItemStatus.CONFLICT),
+                WorkoutBatchItem.of("unknownId", BatchItemStatus.NOT_FOUND)), actual);
+        verify(mockWorkoutChangeListener).onWorkoutChanged(deleted, null);
+        verify(mockWorkoutChangeListener, never()).onWorkoutChanged(changed, null);
+        verify(mockWorkoutListVersionRepo, times(1)).increment(appUser.id());
+    }
+
+    @Test
+    void deleteWorkout_whenWorkoutDoesNotExist_thenKeepListVersion() {
+        workoutService.deleteWorkout("invalidId");
+        verify(mockWorkoutListVersionRepo, never()).increment(anyString());
+    }
+
+    @Test
+    void addWorkout_whenSaved_thenIncrementListVersion() {
+        Workout saved = Workout.builder().id("workoutId").userId(appUser.id()).name("Test").build();
+        when(mockAppUserRepo.existsById(appUser.id())).thenReturn(true);
+        when(mockWorkoutRepo.save(any(Workout.class))).thenReturn(saved);
+
+        workoutService.addWorkout(WorkoutDetails.builder().userId(appUser.id()).name("Test").build());
+
+        verify(mockWorkoutListVersionRepo).increment(appUser.id());
+    }
+
+    @Test
+    void getWorkoutVersion_whenWorkoutIsNotCached_thenReadOnlyTheVersionFields() {
+        Instant modifiedAt = Instant.parse("2023-12-15T10:00:00Z");
+        when(mockWorkoutRepo.findVersionById("workoutId"))
+                .thenReturn(Workout.builder().id("workoutId").version(4L).modifiedAt(modifiedAt).build());
+
+        ResourceVersion actual = workoutService.getWorkoutVersion("workoutId");
+
+        assertEquals(new ResourceVersion("W/\"4\"", modifiedAt), actual);
+        verify(mockWorkoutRepo, never()).findById(anyString());
+    }
+
+    @Test
+    void getWorkoutVersion_whenCachedCopyIsOutdated_thenReturnStoredVersion() {
+        Workout workout = Workout.builder().id("workoutId").version(2L).build();
+        workoutCache.putWorkout(workout);
+        when(mockWorkoutRepo.findVersionById(workout.id())).thenReturn(workout.toBuilder().version(3L).build());
+
+        assertEquals("W/\"3\"", workoutService.getWorkoutVersion(workout.id()).etag());
+    }
+
+    @Test
+    void getWorkoutVersion_whenWorkoutDoesNotExist_thenThrowException() {
+        assertThrows(NoSuchWorkoutException.class, () -> workoutService.getWorkoutVersion("invalidId"));
+    }
+
+    @Test
+    void getAllWorkoutsByUserId_whenListVersionChangedOnAnotherNode_thenReadRepoAgain() {
+        Workout workout1 = Workout.builder().id("workoutId1").userId(appUser.id()).name("First").build();
+        Workout workout2 = Workout.builder().id("workoutId2").userId(appUser.id()).name("Second").build();
+        when(mockAppUserRepo.existsById(appUser.id())).thenReturn(true);
+        when(mockWorkoutRepo.findWorkoutsByUserId(appUser.id())).thenReturn(List.of(workout1), List.of(workout1, workout2));
+        when(mockWorkoutListVersionRepo.findById(appUser.id())).thenReturn(
+                Optional.of(new WorkoutListVersion(appUser.id(), 1L, null)),
+                Optional.of(new WorkoutListVersion(appUser.id(), 1L, null)),
+                Optional.of(new WorkoutListVersion(appUser.id(), 2L, null)));
+
+        workoutService.getAllWorkoutsByUserId(appUser.id());
+        workoutService.getAllWorkoutsByUserId(appUser.id());
+        List<Workout> actual = workoutService.getAllWorkoutsByUserId(appUser.id());
+
+        verify(mockWorkoutRepo, times(2)).findWorkoutsByUserId(appUser.id());
+        assertEquals(List.of(workout1, workout2), actual);
+    }
+
+    @Test
+    void getWorkoutById_whenWorkoutIsArchived_thenReadColdTierWithoutCaching() {
+        Workout archived = Workout.builder().id("workoutId").userId(appUser.id()).name("Old").day(testDate).version(2L).build();
+        when(mockWorkoutRepo.findById("workoutId")).thenReturn(Optional.empty());
+        when(mockWorkoutArchiveService.findWorkout("workoutId")).thenReturn(archived);
+
+        assertEquals(archived, workoutService.getWorkoutById("workoutId"));
+        assertEquals(archived, workoutService.getWorkoutById("workoutId"));
+
+        verify(mockWorkoutArchiveService, times(2)).findWorkout("workoutId");
+    }
+
+    @Test
+    void getAllWorkoutsByUserId_whenWorkoutIsInBothTiers_thenKeepHotCopy() {
+        Workout archived = Workout.builder().id("workoutId1").userId(appUser.id()).name("Old").day(testDate.minusYears(2)).build();
+        Workout stale = Workout.builder().id("workoutId2").userId(appUser.id()).name("Stale").day(testDate.minusYears(2)).build();
+        Workout hot = Workout.builder().id("workoutId2").userId(appUser.id()).name("Moved back").day(testDate.minusYears(2)).build();
+        when(mockAppUserRepo.existsById(appUser.id())).thenReturn(true);
+        when(mockWorkoutRepo.findWorkoutsByUserId(appUser.id())).thenReturn(List.of(hot));
+        when(mockWorkoutArchiveService.findWorkoutsByUserId(appUser.id())).thenReturn(List.of(archived, stale));
+
+        List<Workout> actual = workoutService.getAllWorkoutsByUserId(appUser.id());
+
+        assertEquals(List.of(archived, hot), actual);
+    }
+
+    @Test
+    void streamWorkoutsByUserId_whenSomeAreArchived_thenMergeBothCursorsInDayOrder() {
+        Workout archived = Workout.builder().id("workoutId1").userId(appUser.id()).name("Old").day(testDate.minusYears(2)).build();
+        Workout stale = Workout.builder().id("workoutId2").userId(appUser.id()).name("Stale").day(testDate.minusYears(1)).build();
+        Workout backdated = Workout.builder().id("workoutId3").userId(appUser.id()).name("Backdated").day(testDate.minusYears(1).minusDays(1)).build();
+        Workout moved = stale.toBuilder().name("Moved back").build();
+        Workout hot = Workout.builder().id("workoutId4").userId(appUser.id()).name("New").day(testDate).build();
+        when(mockAppUserRepo.existsById(appUser.id())).thenReturn(true);
+        when(mockWorkoutArchiveService.streamWorkoutsByUserId(appUser.id())).thenReturn(Stream.of(archived, stale));
+        when(mockWorkoutRepo.streamWorkoutsByUserIdOrderByDayAscIdAsc(appUser.id())).thenReturn(Stream.of(backdated, moved, hot));
+
+        try (Stream<Workout> actual = workoutService.streamWorkoutsByUserId(appUser.id())) {
+            assertEquals(List.of(archived, backdated, moved, hot), actual.toList());
+        }
+        verify(mockWorkoutArchiveService, never()).findWorkoutsByUserId(anyString());
+    }
+
+    @Test
+    void getWorkoutOverviewsByUserId_whenSomeAreArchived_thenMergeInDayOrder() {
+        WorkoutOverview recent = new WorkoutOverview("workoutId2", appUser.id(), "Recent", testDate, null, 0, 0);
+        Workout archived = Workout.builder().id("workoutId1").userId(appUser.id()).name("Old").day(testDate.minusYears(2))
+                .plan(List.of(new WorkoutExercise("Squat", 3, 10, 80, 90))).build();
+        when(mockAppUserRepo.existsById(appUser.id())).thenReturn(true);
+        when(mockWorkoutRepo.findOverviewsByUserId(appUser.id())).thenReturn(List.of(recent));
+        when(mockWorkoutArchiveService.findWorkoutsByUserId(appUser.id())).thenReturn(List.of(archived));
+
+        List<WorkoutOverview> actual = workoutService.getWorkoutOverviewsByUserId(appUser.id());
+
+        assertEquals(List.of(new WorkoutOverview("workoutId1", appUser.id(), "Old", testDate.minusYears(2), null, 1, 2400), recent), actual);
+    }
+
+    @Test
+    void editWorkout_whenWorkoutIsArchived_thenRestoreBeforeSaving() {
+        Workout archived = Workout.builder().id("workoutId").userId(appUser.id()).name("Old").day(testDate).plan(List.of()).version(2L).build();
+        WorkoutEdit edit = WorkoutEdit.builder().name("Changed").day(testDate).plan(List.of()).version(2L).build();
+        when(mockWorkoutRepo.findById("workoutId")).thenReturn(Optional.empty());
+        when(mockWorkoutArchiveService.restore("workoutId")).thenReturn(archived);
+        when(mockWorkoutRepo.save(any(Workout.class))).thenAnswer(invocation -> invocation.getArgument(0, Workout.class).toBuilder().version(3L).build());
+
+        Workout actual = workoutService.editWorkout("workoutId", edit);
+
+        verify(mockWorkoutArchiveService).restore("workoutId");
+        verify(mockWorkoutRepo).save(archived.toBuilder().name("Changed").build());
+        assertEquals(3L, actual.version());
+    }
+
+    @Test
+    void deleteWorkout_whenWorkoutIsArchived_thenDeleteFromColdTierAndNotify() {
+        Workout archived = Workout.builder().id("workoutId").userId(appUser.id()).name("Old").day(testDate).build();
+        when(mockWorkoutArchiveService.delete("workoutId")).thenReturn(archived);
+
+        workoutService.deleteWorkout("workoutId");
+
+        verify(mockWorkoutListVersionRepo).increment(appUser.id());
+        verify(mockWorkoutChangeListener).onWorkoutChanged(archived, null);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,216 @@
+package de.aljoschanyang.capstoneprojectfiturae.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import de.aljoschanyang.capstoneprojectfiturae.exceptions.NoSuchUserException;
+import de.aljoschanyang.capstoneprojectfiturae.models.*;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.AppUserRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutListVersionRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutRepo;
+import de.aljoschanyang.capstoneprojectfiturae.repositories.WorkoutRepoCustom;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class WorkoutTransferServiceTest {
+    private final AppUserRepo mockAppUserRepo = mock(AppUserRepo.class);
+    private final WorkoutRepo mockWorkoutRepo = mock(WorkoutRepo.class);
+    private final AppUserService appUserService = new AppUserService(mockAppUserRepo, new PrincipalCache(100, Duration.ofMinutes(5)), new KnownUserCache(100, Duration.ofMinutes(5)));
+    private final WorkoutCache workoutCache = new WorkoutCache(100, 100, Duration.ofMinutes(1));
+    private final WorkoutListVersionRepo mockWorkoutListVersionRepo = mock(WorkoutListVersionRepo.class);
+    private final WorkoutChangeListener mockWorkoutChangeListener = mock(WorkoutChangeListener.class);
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final WorkoutTransferService workoutTransferService =
+            new WorkoutTransferService(mockWorkoutRepo, appUserService, workoutCache, mockWorkoutListVersionRepo, List.of(mockWorkoutChangeListener), objectMapper,
+                    mock(ExerciseCatalog.class));
+
+    private final AppUser appUser = AppUser.builder()
+            .id("userId")
+            .build();
+    private final LocalDate testDate = LocalDate.of(2023,12,15);
+    private final List<List<Workout>> insertedBatches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(mockAppUserRepo.existsById(appUser.id())).thenReturn(true);
+        when(mockWorkoutRepo.insertUnordered(anyList())).thenAnswer(invocation -> {
+            List<Workout> batch = List.copyOf(invocation.getArgument(0));
+            insertedBatches.add(batch);
+            return new WorkoutRepoCustom.InsertResult(batch, Map.of());
+        });
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void importWorkouts_whenNdjsonHasInvalidLines_thenImportTheRestAndReportTheLines() {
+        String ndjson = """
+                {"name":"Legs","day":"2023-12-15","plan":[{"name":"Squat","setCount":5}]}
+                {"name":"Broken",
+                {"name":"No day"}
+
+                {"userId":"someoneElse","name":"Push","day":"2023-12-16"}
+                """;
+
+        ImportResult actual = workoutTransferService.importWorkouts(appUser.id(), body(ndjson), TransferFormat.NDJSON);
+
+        assertEquals(2, actual.imported());
+        assertEquals(2, actual.failed());
+        assertEquals(List.of(2L, 3L), actual.errors().stream().map(ImportError::record).toList());
+        assertEquals("The day is required", actual.errors().get(1).message());
+        assertEquals(1, insertedBatches.size());
+        assertTrue(insertedBatches.get(0).stream().allMatch(workout -> appUser.id().equals(workout.userId())));
+        verify(mockAppUserRepo, times(1)).existsById(appUser.id());
+    }
+
+    @Test
+    void importWorkouts_whenCsvRowsShareAWorkoutKey_thenGroupThemIntoOneWorkout() {
+        String csv = """
+                workout,name,day,description,exercise,setCount,repsPerSet,weightInKg,breakInSec
+                a,Legs,2023-12-15,Heavy,Squat,5,5,100.0,180
+                a,Legs,2023-12-15,Heavy,Lunge,3,10,20.0,60
+                b,Legs,2023-12-15,Heavy,Squat,five,5,100.0,180
+                c,Rest,2023-12-16,,,,,,
+                """;
+
+        ImportResult actual = workoutTransferService.importWorkouts(appUser.id(), body(csv), TransferFormat.CSV);
+
+        assertEquals(2, actual.imported());
+        assertEquals(1, actual.failed());
+        assertEquals(4, actual.errors().get(0).record());
+        List<Workout> workouts = insertedBatches.get(0);
+        assertEquals(List.of("Squat", "Lunge"), workouts.get(0).plan().stream().map(WorkoutExercise::name).toList());
+        assertEquals(100.0, workouts.get(0).plan().get(0).weightInKg());
+        assertEquals(List.of(), workouts.get(1).plan());
+        assertEquals(testDate.plusDays(1), workouts.get(1).day());
+    }
+
+    @Test
+    void importWorkouts_whenMoreRecordsThanOneBatch_thenInsertInBatches() {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < WorkoutTransferService.IMPORT_BATCH_SIZE + 1; i++) {
+            ndjson.append("{\"name\":\"Workout ").append(i).append("\",\"day\":\"2023-12-15\"}\n");
+        }
+
+        ImportResult actual = workoutTransferService.importWorkouts(appUser.id(), body(ndjson.toString()), TransferFormat.NDJSON);
+
+        assertEquals(WorkoutTransferService.IMPORT_BATCH_SIZE + 1, actual.imported());
+        assertEquals(List.of(WorkoutTransferService.IMPORT_BATCH_SIZE, 1), insertedBatches.stream().map(List::size).toList());
+    }
+
+    @Test
+    void importWorkouts_whenSomeInsertsOfABatchFail_thenCountTheStoredOnesAndReportTheRest() {
+        String ndjson = """
+                {"name":"Legs","day":"2023-12-15"}
+                {"name":"Push","day":"2023-12-16"}
+                {"name":"Pull","day":"2023-12-17"}
+                """;
+        when(mockWorkoutRepo.insertUnordered(anyList())).thenAnswer(invocation -> new WorkoutRepoCustom.InsertResult(
+                List.copyOf(invocation.getArgument(0)), Map.of(1, new DataIntegrityViolationException("rejected"))));
+
+        ImportResult actual = workoutTransferService.importWorkouts(appUser.id(), body(ndjson), TransferFormat.NDJSON);
+
+        assertEquals(2, actual.imported());
+        assertEquals(List.of(new ImportError(2L, "The workout could not be saved")), actual.errors());
+        ArgumentCaptor<List<Workout>> added = ArgumentCaptor.forClass(List.class);
+        verify(mockWorkoutChangeListener).onWorkoutsAdded(added.capture());
+        assertEquals(List.of("Legs", "Pull"), added.getValue().stream().map(Workout::name).toList());
+    }
+
+    @Test
+    void importWorkouts_whenLineIsTooLong_thenReportItAndImportTheNextLine() {
+        String ndjson = "{\"name\":\"" + "x".repeat(WorkoutTransferService.MAX_LINE_LENGTH) + "\"}\n"
+                + "{\"name\":\"Legs\",\"day\":\"2023-12-15\"}\n";
+
+        ImportResult actual = workoutTransferService.importWorkouts(appUser.id(), body(ndjson), TransferFormat.NDJSON);
+
+        assertEquals(1, actual.imported());
+        assertEquals(1L, actual.errors().get(0).record());
+        assertEquals("Legs", insertedBatches.get(0).get(0).name());
+    }
+
+    @Test
+    void importWorkouts_whenManyRecordsFail_thenCapTheReportedErrors() {
+        String ndjson = "{}\n".repeat(WorkoutTransferService.MAX_REPORTED_ERRORS + 5);
+
+        ImportResult actual = workoutTransferService.importWorkouts(appUser.id(), body(ndjson), TransferFormat.NDJSON);
+
+        assertEquals(WorkoutTransferService.MAX_REPORTED_ERRORS + 5, actual.failed());
+        assertEquals(WorkoutTransferService.MAX_REPORTED_ERRORS, actual.errors().size());
+        verify(mockWorkoutRepo, never()).insertUnordered(anyList());
+    }
+
+    @Test
+    void importWorkouts_whenUserDoesNotExist_thenThrowException() {
+        InputStream ndjson = body("{\"name\":\"Legs\",\"day\":\"2023-12-15\"}\n");
+
+        assertThrows(NoSuchUserException.class, () -> workoutTransferService.importWorkouts("invalidUserId", ndjson, TransferFormat.NDJSON));
+        verify(mockWorkoutRepo, never()).insertUnordered(anyList());
+    }
+
+    @Test
+    void importWorkouts_whenUserWorkoutsAreCached_thenInvalidateThem() {
+        workoutCache.putUserWorkouts(appUser.id(), 0L, List.of());
+
+        workoutTransferService.importWorkouts(appUser.id(), body("{\"name\":\"Legs\",\"day\":\"2023-12-15\"}\n"), TransferFormat.NDJSON);
+
+        assertNull(workoutCache.getUserWorkouts(appUser.id(), 0L));
+        verify(mockWorkoutListVersionRepo).increment(appUser.id());
+    }
+
+    @Test
+    void writeWorkouts_whenExportedAsCsv_thenImportRestoresTheSameWorkouts() throws Exception {
+        Workout workout = Workout.builder()
+                .id("workoutId")
+                .userId(appUser.id())
+                .name("Legs, heavy")
+                .day(testDate)
+                .description("Line one\nline two")
+                .plan(List.of(WorkoutExercise.builder().name("Squat").setCount(5).repsPerSet(5).weightInKg(100).breakInSec(180).build()))
+                .build();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        workoutTransferService.writeWorkouts(Stream.of(workout), outputStream, TransferFormat.CSV);
+        ImportResult actual = workoutTransferService.importWorkouts(appUser.id(), new ByteArrayInputStream(outputStream.toByteArray()), TransferFormat.CSV);
+
+        assertEquals(1, actual.imported());
+        Workout imported = insertedBatches.get(0).get(0);
+        assertEquals(workout.name(), imported.name());
+        assertEquals(workout.description(), imported.description());
+        assertEquals(workout.plan(), imported.plan());
+    }
+
+    @Test
+    void writeWorkouts_whenExportedAsNdjson_thenWriteOneWorkoutPerLine() throws Exception {
+        Workout first = Workout.builder().id("1").userId(appUser.id()).name("First").day(testDate).plan(List.of()).build();
+        Workout second = Workout.builder().id("2").userId(appUser.id()).name("Second").day(testDate).plan(List.of()).build();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        workoutTransferService.writeWorkouts(Stream.of(first, second), outputStream, TransferFormat.NDJSON);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(second, objectMapper.readValue(lines[1], Workout.class));
+    }
+}
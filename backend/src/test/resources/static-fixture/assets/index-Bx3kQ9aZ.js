@@ -0,0 +1,200 @@
+console.log("fiturae workout 0");
+console.log("fiturae workout 1");
+console.log("fiturae workout 2");
+console.log("fiturae workout 3");
+console.log("fiturae workout 4");
+console.log("fiturae workout 5");
+console.log("fiturae workout 6");
+console.log("fiturae workout 7");
+console.log("fiturae workout 8");
+console.log("fiturae workout 9");
+console.log("fiturae workout 10");
+console.log("fiturae workout 11");
+console.log("fiturae workout 12");
+console.log("fiturae workout 13");
+console.log("fiturae workout 14");
+console.log("fiturae workout 15");
+console.log("fiturae workout 16");
+console.log("fiturae workout 17");
+console.log("fiturae workout 18");
+console.log("fiturae workout 19");
+console.log("fiturae workout 20");
+console.log("fiturae workout 21");
+console.log("fiturae workout 22");
+console.log("fiturae workout 23");
+console.log("fiturae workout 24");
+console.log("fiturae workout 25");
+console.log("fiturae workout 26");
+console.log("fiturae workout 27");
+console.log("fiturae workout 28");
+console.log("fiturae workout 29");
+console.log("fiturae workout 30");
+console.log("fiturae workout 31");
+console.log("fiturae workout 32");
+console.log("fiturae workout 33");
+console.log("fiturae workout 34");
+console.log("fiturae workout 35");
+console.log("fiturae workout 36");
+console.log("fiturae workout 37");
+console.log("fiturae workout 38");
+console.log("fiturae workout 39");
+console.log("fiturae workout 40");
+console.log("fiturae workout 41");
+console.log("fiturae workout 42");
+console.log("fiturae workout 43");
+console.log("fiturae workout 44");
+console.log("fiturae workout 45");
+console.log("fiturae workout 46");
+console.log("fiturae workout 47");
+console.log("fiturae workout 48");
+console.log("fiturae workout 49");
+console.log("fiturae workout 50");
+console.log("fiturae workout 51");
+console.log("fiturae workout 52");
+console.log("fiturae workout 53");
+console.log("fiturae workout 54");
+console.log("fiturae workout 55");
+console.log("fiturae workout 56");
+console.log("fiturae workout 57");
+console.log("fiturae workout 58");
+console.log("fiturae workout 59");
+console.log("fiturae workout 60");
+console.log("fiturae workout 61");
+console.log("fiturae workout 62");
+console.log("fiturae workout 63");
+console.log("fiturae workout 64");
+console.log("fiturae workout 65");
+console.log("fiturae workout 66");
+console.log("fiturae workout 67");
+console.log("fiturae workout 68");
+console.log("fiturae workout 69");
+console.log("fiturae workout 70");
+console.log("fiturae workout 71");
+console.log("fiturae workout 72");
+console.log("fiturae workout 73");
+console.log("fiturae workout 74");
+console.log("fiturae workout 75");
+console.log("fiturae workout 76");
+console.log("fiturae workout 77");
+console.log("fiturae workout 78");
+console.log("fiturae workout 79");
+console.log("fiturae workout 80");
+console.log("fiturae workout 81");
+console.log("fiturae workout 82");
+console.log("fiturae workout 83");
+console.log("fiturae workout 84");
+console.log("fiturae workout 85");
+console.log("fiturae workout 86");
+console.log("fiturae workout 87");
+console.log("fiturae workout 88");
+console.log("fiturae workout 89");
+console.log("fiturae workout 90");
+console.log("fiturae workout 91");
+console.log("fiturae workout 92");
+console.log("fiturae workout 93");
+console.log("fiturae workout 94");
+console.log("fiturae workout 95");
+console.log("fiturae workout 96");
+console.log("fiturae workout 97");
+console.log("fiturae workout 98");
+console.log("fiturae workout 99");
+console.log("fiturae workout 100");
+console.log("fiturae workout 101");
+console.log("fiturae workout 102");
+console.log("fiturae workout 103");
+console.log("fiturae workout 104");
+console.log("fiturae workout 105");
+console.log("fiturae workout 106");
+console.log("fiturae workout 107");
+console.log("fiturae workout 108");
+console.log("fiturae workout 109");
+console.log("fiturae workout 110");
+console.log("fiturae workout 111");
+console.log("fiturae workout 112");
+console.log("fiturae workout 113");
+console.log("fiturae workout 114");
+console.log("fiturae workout 115");
+console.log("fiturae workout 116");
+console.log("fiturae workout 117");
+console.log("fiturae workout 118");
+console.log("fiturae workout 119");
+console.log("fiturae workout 120");
+console.log("fiturae workout 121");
+console.log("fiturae workout 122");
+console.log("fiturae workout 123");
+console.log("fiturae workout 124");
+console.log("fiturae workout 125");
+console.log("fiturae workout 126");
+console.log("fiturae workout 127");
+console.log("fiturae workout 128");
+console.log("fiturae workout 129");
+console.log("fiturae workout 130");
+console.log("fiturae workout 131");
+console.log("fiturae workout 132");
+console.log("fiturae workout 133");
+console.log("fiturae workout 134");
+console.log("fiturae workout 135");
+console.log("fiturae workout 136");
+console.log("fiturae workout 137");
+console.log("fiturae workout 138");
+console.log("fiturae workout 139");
+console.log("fiturae workout 140");
+console.log("fiturae workout 141");
+console.log("fiturae workout 142");
+console.log("fiturae workout 143");
+console.log("fiturae workout 144");
+console.log("fiturae workout 145");
+console.log("fiturae workout 146");
+console.log("fiturae workout 147");
+console.log("fiturae workout 148");
+console.log("fiturae workout 149");
+console.log("fiturae workout 150");
+console.log("fiturae workout 151");
+console.log("fiturae workout 152");
+console.log("fiturae workout 153");
+console.log("fiturae workout 154");
+console.log("fiturae workout 155");
+console.log("fiturae workout 156");
+console.log("fiturae workout 157");
+console.log("fiturae workout 158");
+console.log("fiturae workout 159");
+console.log("fiturae workout 160");
+console.log("fiturae workout 161");
+console.log("fiturae workout 162");
+console.log("fiturae workout 163");
+console.log("fiturae workout 164");
+console.log("fiturae workout 165");
+console.log("fiturae workout 166");
+console.log("fiturae workout 167");
+console.log("fiturae workout 168");
+console.log("fiturae workout 169");
+console.log("fiturae workout 170");
+console.log("fiturae workout 171");
+console.log("fiturae workout 172");
+console.log("fiturae workout 173");
+console.log("fiturae workout 174");
+console.log("fiturae workout 175");
+console.log("fiturae workout 176");
+console.log("fiturae workout 177");
+console.log("fiturae workout 178");
+console.log("fiturae workout 179");
+console.log("fiturae workout 180");
+console.log("fiturae workout 181");
+console.log("fiturae workout 182");
+console.log("fiturae workout 183");
+console.log("fiturae workout 184");
+console.log("fiturae workout 185");
+console.log("fiturae workout 186");
+console.log("fiturae workout 187");
+console.log("fiturae workout 188");
+console.log("fiturae workout 189");
+console.log("fiturae workout 190");
+console.log("fiturae workout 191");
+console.log("fiturae workout 192");
+console.log("fiturae workout 193");
+console.log("fiturae workout 194");
+console.log("fiturae workout 195");
+console.log("fiturae workout 196");
+console.log("fiturae workout 197");
+console.log("fiturae workout 198");
+console.log("fiturae workout 199");
@@ -0,0 +1,28 @@
+// Writes .br and .gz siblings for compressible build output; the backend serves them by Accept-Encoding.
+import { readdirSync, readFileSync, statSync, writeFileSync } from 'node:fs'
+import { join } from 'node:path'
+import { brotliCompressSync, constants, gzipSync } from 'node:zlib'
+
+const outDir = process.argv[2] ?? 'dist'
+const compressible = /\.(html|js|mjs|css|json|svg|txt|webmanifest)$/
+
+function walk(dir) {
+  return readdirSync(dir).flatMap((name) => {
+    const path = join(dir, name)
+    return statSync(path).isDirectory() ? walk(path) : [path]
+  })
+}
+
+for (const file of walk(outDir).filter((path) => compressible.test(path))) {
+  const content = readFileSync(file)
+  const variants = {
+    '.br': brotliCompressSync(content, { params: { [constants.BROTLI_PARAM_QUALITY]: 11 } }),
+    '.gz': gzipSync(content, { level: 9 }),
+  }
+  for (const [suffix, encoded] of Object.entries(variants)) {
+    // A variant that is not smaller only costs the client a decode.
+    if (encoded.length < content.length) {
+      writeFileSync(file + suffix, encoded)
+    }
+  }
+}
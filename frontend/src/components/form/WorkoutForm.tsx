@@ -1,12 +1,14 @@
 import {useNavigate} from "react-router-dom";
-import React, {useContext, useEffect, useState} from "react";
-import {Workout, WorkoutExercise, WorkoutFormType, WorkoutNoId} from "../../types/types.ts";
+import React, {useContext, useEffect, useRef, useState} from "react";
+import {ExerciseSuggestion, Workout, WorkoutExercise, WorkoutFormType, WorkoutNoId} from "../../types/types.ts";
 import axios from "axios";
 import "./WorkoutForm.css";
 import TextInput from "./TextInput.tsx";
 import {WorkoutContext} from "../state/WorkoutContext.tsx";
 import DateInput from "./DateInput.tsx";
 
+const SUGGESTION_DELAY_MS = 250;
+
 function WorkoutForm({formType, initialWorkout}: Readonly<WorkoutFormType>) {
     const navigate = useNavigate();
     const {fetchWorkouts} = useContext(WorkoutContext);
@@ -14,6 +16,9 @@ function WorkoutForm({formType, initialWorkout}: Readonly<WorkoutFormType>) {
     const [nextId, setNextId] = useState(0);
     const [workout, setWorkout] = useState<Workout>(initialWorkout);
     const [isNameError, setIsNameError] = useState(false);
+    const [exerciseSuggestions, setExerciseSuggestions] = useState<ExerciseSuggestion[]>([]);
+    const suggestionTimer = useRef<number>();
+    const suggestionRequest = useRef<AbortController>();
 
     useEffect(() => {
         if (initialWorkout.plan.length > 0) {
@@ -22,6 +27,11 @@ function WorkoutForm({formType, initialWorkout}: Readonly<WorkoutFormType>) {
         }
     }, [initialWorkout]);
 
+    useEffect(() => () => {
+        window.clearTimeout(suggestionTimer.current);
+        suggestionRequest.current?.abort();
+    }, []);
+
     function handleWorkoutChange(event:React.ChangeEvent<HTMLInputElement>) {
         const {name, value} = event.target;
         setWorkout(prevState => ({
@@ -33,13 +43,34 @@ function WorkoutForm({formType, initialWorkout}: Readonly<WorkoutFormType>) {
     function handleExerciseChange(indexToChange:number, event:React.ChangeEvent<HTMLInputElement>) {
         const {name, value} = event.target;
 
-        if(name === "name") setIsNameError(false)
+        if(name === "name") {
+            setIsNameError(false);
+            fetchExerciseSuggestions(value);
+        }
         const updatedExercises = exercises.map((exercise,index) => {
             return index === indexToChange ? {...exercise, [name]: value} : exercise;
         });
         setExercises(updatedExercises);
     }
 
+    // Waits until typing pauses and aborts the previous request, so a slow answer for an older prefix cannot
+    // overwrite the suggestions for the current one.
+    function fetchExerciseSuggestions(prefix:string) {
+        window.clearTimeout(suggestionTimer.current);
+        suggestionRequest.current?.abort();
+        suggestionTimer.current = window.setTimeout(() => {
+            const controller = new AbortController();
+            suggestionRequest.current = controller;
+            axios.get(`/api/exercises/${workout.userId}/suggestions`, {params: {prefix, limit: 8}, signal: controller.signal})
+                .then(response => setExerciseSuggestions(response.data))
+                .catch(error => {
+                    if (!axios.isCancel(error)) {
+                        setExerciseSuggestions([]);
+                    }
+                });
+        }, SUGGESTION_DELAY_MS);
+    }
+
     function addNewExerciseForm() {
         if (exercises.length > 0 && exercises[exercises.length - 1].name === "") {
             setIsNameError(true);
@@ -113,6 +144,9 @@ function WorkoutForm({formType, initialWorkout}: Readonly<WorkoutFormType>) {
                     </section>
                     <section className={"section-exercises"}>
                         <h3>Exercises</h3>
+                        <datalist id={"exercise-suggestions"}>
+                            {exerciseSuggestions.map(suggestion => <option key={suggestion.name} value={suggestion.name}/>)}
+                        </datalist>
                         <div className={"exercise-list"}>
                             {exercises.map((exercise:WorkoutExercise,index) => {
                                 const exerciseKey = index+1;
@@ -127,6 +161,8 @@ function WorkoutForm({formType, initialWorkout}: Readonly<WorkoutFormType>) {
                                                 type={"text"}
                                                 name={"name"}
                                                 value={exercise.name}
+                                                list={"exercise-suggestions"}
+                                                autoComplete={"off"}
                                                 maxLength={25}
                                                 onChange={(event) => handleExerciseChange(index,event)}
                                                 required={exercises.length > 0}
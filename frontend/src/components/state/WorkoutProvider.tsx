@@ -1,16 +1,16 @@
-import {Workout, WorkoutProviderProps} from "../../types/types.ts";
+import {WorkoutOverview, WorkoutProviderProps} from "../../types/types.ts";
 import {useCallback, useEffect, useMemo, useState} from "react";
 import {WorkoutContext} from "./WorkoutContext.tsx";
 import axios from "axios";
 import Loader from "../animation/Loader.tsx";
 
 function WorkoutProvider({ children, userId }:Readonly<WorkoutProviderProps>) {
-    const [workouts, setWorkouts] = useState<Workout[]>([]);
+    const [workouts, setWorkouts] = useState<WorkoutOverview[]>([]);
     const [isFetchingWorkouts, setIsFetchingWorkouts] = useState(true);
 
     const fetchWorkouts = useCallback(function (){
         setIsFetchingWorkouts(true);
-        axios.get(`/api/workouts/${userId}`)
+        axios.get(`/api/workouts/${userId}`, {params: {view: "summary"}})
             .then((response) => {
                 setWorkouts(response.data);
                 setIsFetchingWorkouts(false);
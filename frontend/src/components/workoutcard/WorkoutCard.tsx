@@ -22,7 +22,7 @@ function WorkoutCard({ workout }:Readonly<WorkoutCardProps>) {
             </div>
             <div className={"workout-card-body"}>
                 <p>{truncateText(workout.description,20)}</p>
-                {workout.plan.length > 0 && <p>{workout.plan.length} Exercise(s)</p>}
+                {workout.exerciseCount > 0 && <p>{workout.exerciseCount} Exercise(s)</p>}
             </div>
             <button
                 className={"icon-bottom-right btn-details"}
@@ -1,6 +1,6 @@
 import "./HomePage.css";
 import {useNavigate} from "react-router-dom";
-import {HomeProps, Workout} from "../types/types.ts";
+import {HomeProps, WorkoutOverview} from "../types/types.ts";
 import {useContext} from "react";
 import {WorkoutContext} from "../components/state/WorkoutContext.tsx";
 import ProfileIcon from "../components/svg/ProfileIcon.tsx";
@@ -36,7 +36,7 @@ function HomePage({userName, imageUrl}:Readonly<HomeProps>) {
                 <div className={"main-wrapper-home"}>
                     <h2 className={"home-title"}>Recent Workouts</h2>
                     {workouts.length === 0 && <p className={"no-workouts-message"}>No workouts yet.... :(</p>}
-                    {workouts.map((workout:Workout) => {
+                    {workouts.map((workout:WorkoutOverview) => {
                         return(
                             <WorkoutCard key={workout.id} workout={workout} />
                         )
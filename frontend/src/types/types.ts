@@ -13,7 +13,18 @@ export type Workout = {
     name: string,
     day: string,
     description: string,
-    plan: WorkoutExercise[]
+    plan: WorkoutExercise[],
+    version?: number
+}
+
+export type WorkoutOverview = {
+    id: string,
+    userId: string,
+    name: string,
+    day: string,
+    description: string,
+    exerciseCount: number,
+    totalVolumeInKg: number
 }
 
 export type WorkoutNoId = {
@@ -21,7 +32,8 @@ export type WorkoutNoId = {
     name: string,
     day: string,
     description: string,
-    plan: WorkoutExercise[]
+    plan: WorkoutExercise[],
+    version?: number
 }
 
 export type WorkoutExercise = {
@@ -33,6 +45,12 @@ export type WorkoutExercise = {
     breakInSec: number
 }
 
+export type ExerciseSuggestion = {
+    name: string,
+    count: number,
+    usedByUser: boolean
+}
+
 export type User = {
     id: string,
     name: string
@@ -54,7 +72,7 @@ export type AddPageProps = {
 
 // Component Types
 export type WorkoutCardProps = {
-    workout: Workout
+    workout: WorkoutOverview
 }
 
 export type WorkoutFormType = {
@@ -88,8 +106,8 @@ export type DateInputType = {
 
 // State Types
 export type WorkoutContextType = {
-    workouts: Workout[],
-    setWorkouts: (value: Workout[]) => void,
+    workouts: WorkoutOverview[],
+    setWorkouts: (value: WorkoutOverview[]) => void,
     fetchWorkouts: () => void
 }
 